@@ -31,6 +31,12 @@ public interface PageCache
     @Description( "Number of page faults" )
     long getFaults();
 
+    @Description( "Number of page pins that found the page already in memory" )
+    long getHits();
+
+    @Description( "Ratio of page hits to page hits and faults" )
+    double getHitRatio();
+
     @Description( "Number of page evictions" )
     long getEvictions();
 
@@ -58,6 +58,18 @@ public final class PageCacheBean extends ManagementBeanProvider
             return pageCacheMonitor.countFaults();
         }
 
+        @Override
+        public long getHits()
+        {
+            return pageCacheMonitor.countHits();
+        }
+
+        @Override
+        public double getHitRatio()
+        {
+            return pageCacheMonitor.hitRatio();
+        }
+
         @Override
         public long getEvictions()
         {
@@ -28,10 +28,12 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 
 import static org.neo4j.helpers.Settings.BOOLEAN;
 import static org.neo4j.helpers.Settings.FALSE;
+import static org.neo4j.helpers.Settings.INTEGER;
 import static org.neo4j.helpers.Settings.NO_DEFAULT;
 import static org.neo4j.helpers.Settings.PATH;
 import static org.neo4j.helpers.Settings.TRUE;
 import static org.neo4j.helpers.Settings.basePath;
+import static org.neo4j.helpers.Settings.min;
 import static org.neo4j.helpers.Settings.options;
 import static org.neo4j.helpers.Settings.setting;
 
@@ -61,6 +63,11 @@ public class ConsistencyCheckSettings
     public static final Setting<TaskExecutionOrder> consistency_check_execution_order =
             setting( "consistency_check_execution_order", options( TaskExecutionOrder.class ), TaskExecutionOrder.MULTI_PASS.name() );
 
+    @Description( "Number of threads to check the records of each store with. The records of a store are split " +
+            "into ranges of ids which are checked in parallel. Set to 1 to check all stores from a single thread." )
+    public static final Setting<Integer> consistency_check_threads =
+            setting( "consistency_check_threads", INTEGER, "1", min( 1 ) );
+
     @SuppressWarnings("unchecked")
     @Description("File name for inconsistencies log file. If not specified, logs to a file in the store directory.")
     public static final
@@ -32,6 +32,12 @@ import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 
 public interface CheckDecorator
 {
+    /**
+     * Called before each pass over the records of a store. Passes never overlap, although the records of
+     * a single pass may be checked by multiple threads concurrently.
+     */
+    void prepare();
+
     OwningRecordCheck<NeoStoreRecord, ConsistencyReport.NeoStoreConsistencyReport> decorateNeoStoreChecker(
             OwningRecordCheck<NeoStoreRecord, ConsistencyReport.NeoStoreConsistencyReport> checker );
 
@@ -63,6 +69,11 @@ public interface CheckDecorator
 
     static class Adapter implements CheckDecorator
     {
+        @Override
+        public void prepare()
+        {
+        }
+
         @Override
         public OwningRecordCheck<NeoStoreRecord, ConsistencyReport.NeoStoreConsistencyReport> decorateNeoStoreChecker(
                 OwningRecordCheck<NeoStoreRecord, ConsistencyReport.NeoStoreConsistencyReport> checker )
@@ -136,6 +147,15 @@ public interface CheckDecorator
             this.decorators = decorators;
         }
 
+        @Override
+        public void prepare()
+        {
+            for ( CheckDecorator decorator : decorators )
+            {
+                decorator.prepare();
+            }
+        }
+
         @Override
         public OwningRecordCheck<NeoStoreRecord,ConsistencyReport.NeoStoreConsistencyReport> decorateNeoStoreChecker(
                 OwningRecordCheck<NeoStoreRecord,ConsistencyReport.NeoStoreConsistencyReport> checker )
@@ -55,13 +55,15 @@ public class ConsistencyCheckTasks
     private final ProgressMonitorFactory.MultiPartBuilder progress;
     private final TaskExecutionOrder order;
     private final StoreProcessor processor;
+    private final ParallelStoreProcessing parallel;
 
     ConsistencyCheckTasks( ProgressMonitorFactory.MultiPartBuilder progress, TaskExecutionOrder order,
-                           StoreProcessor processor )
+                           StoreProcessor processor, ParallelStoreProcessing parallel )
     {
         this.progress = progress;
         this.order = order;
         this.processor = processor;
+        this.parallel = parallel;
     }
 
     public List<StoppableRunnable> createTasks(
@@ -160,13 +162,13 @@ public class ConsistencyCheckTasks
     private <RECORD extends AbstractBaseRecord> StoreProcessorTask<RECORD> create( RecordStore<RECORD> input )
     {
         return new StoreProcessorTask<>(
-                input, progress, order, processor, processor );
+                input, progress, order, parallel, processor, processor );
     }
 
     private <RECORD extends AbstractBaseRecord> StoreProcessorTask<RECORD> create( RecordStore<RECORD> input,
             StoreProcessor[] processors )
     {
         return new StoreProcessorTask<>(
-                input, progress, order, processor, processors );
+                input, progress, order, parallel, processor, processors );
     }
 }
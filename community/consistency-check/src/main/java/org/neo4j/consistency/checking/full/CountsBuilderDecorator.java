@@ -55,8 +55,10 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
     private static final int WILDCARD = -1;
     private final MultiSet<CountsKey> nodeCounts = new MultiSet<>();
     private final MultiSet<CountsKey> relationshipCounts = new MultiSet<>();
-    private final Predicate<NodeRecord> nodeCountBuildCondition = new MultiPassAvoidanceCondition<>();
-    private final Predicate<RelationshipRecord> relationshipCountBuildCondition = new MultiPassAvoidanceCondition<>();
+    private final MultiPassAvoidanceCondition<NodeRecord> nodeCountBuildCondition =
+            new MultiPassAvoidanceCondition<>();
+    private final MultiPassAvoidanceCondition<RelationshipRecord> relationshipCountBuildCondition =
+            new MultiPassAvoidanceCondition<>();
     private final NodeStore nodeStore;
     private final CountsEntry.CheckAdapter CHECK_NODE_COUNT = new CountsEntry.CheckAdapter()
     {
@@ -121,6 +123,13 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
         this.nodeStore = nodeStore;
     }
 
+    @Override
+    public void prepare()
+    {
+        nodeCountBuildCondition.prepare();
+        relationshipCountBuildCondition.prepare();
+    }
+
     @Override
     public OwningRecordCheck<NodeRecord,NodeConsistencyReport> decorateNodeChecker(
             OwningRecordCheck<NodeRecord,NodeConsistencyReport> checker )
@@ -209,10 +218,13 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
                 {
                     final Set<Long> labels = labelsFor( nodeStore, engine, records, record.getId()
                     );
-                    counts.add( nodeKey( WILDCARD ) );
-                    for ( long label : labels )
+                    synchronized ( counts )
                     {
-                        counts.add( nodeKey( (int) label ) );
+                        counts.add( nodeKey( WILDCARD ) );
+                        for ( long label : labels )
+                        {
+                            counts.add( nodeKey( (int) label ) );
+                        }
                     }
                 }
             }
@@ -267,28 +279,31 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
                     final Set<Long> secondNodeLabels = labelsFor( nodeStore, engine, records, record.getSecondNode() );
                     final int type = record.getType();
 
-                    counts.add( relationshipKey( WILDCARD, WILDCARD, WILDCARD ) );
-                    counts.add( relationshipKey( WILDCARD, type, WILDCARD ) );
-                    for ( long firstLabel : firstNodeLabels )
+                    synchronized ( counts )
                     {
-                        counts.add( relationshipKey( (int) firstLabel, WILDCARD, WILDCARD ) );
-                        counts.add( relationshipKey( (int) firstLabel, type, WILDCARD ) );
-                    }
+                        counts.add( relationshipKey( WILDCARD, WILDCARD, WILDCARD ) );
+                        counts.add( relationshipKey( WILDCARD, type, WILDCARD ) );
+                        for ( long firstLabel : firstNodeLabels )
+                        {
+                            counts.add( relationshipKey( (int) firstLabel, WILDCARD, WILDCARD ) );
+                            counts.add( relationshipKey( (int) firstLabel, type, WILDCARD ) );
+                        }
 
-                    for ( long secondLabel : secondNodeLabels )
-                    {
-                        counts.add( relationshipKey( WILDCARD, WILDCARD, (int) secondLabel ) );
-                        counts.add( relationshipKey( WILDCARD, type, (int) secondLabel ) );
-                    }
+                        for ( long secondLabel : secondNodeLabels )
+                        {
+                            counts.add( relationshipKey( WILDCARD, WILDCARD, (int) secondLabel ) );
+                            counts.add( relationshipKey( WILDCARD, type, (int) secondLabel ) );
+                        }
 
-                    if ( COMPUTE_DOUBLE_SIDED_RELATIONSHIP_COUNTS )
-                    {
-                        for ( long firstLabel : firstNodeLabels )
+                        if ( COMPUTE_DOUBLE_SIDED_RELATIONSHIP_COUNTS )
                         {
-                            for ( long secondLabel : secondNodeLabels )
+                            for ( long firstLabel : firstNodeLabels )
                             {
-                                counts.add( relationshipKey( (int) firstLabel, WILDCARD, (int) secondLabel ) );
-                                counts.add( relationshipKey( (int) firstLabel, type, (int) secondLabel ) );
+                                for ( long secondLabel : secondNodeLabels )
+                                {
+                                    counts.add( relationshipKey( (int) firstLabel, WILDCARD, (int) secondLabel ) );
+                                    counts.add( relationshipKey( (int) firstLabel, type, (int) secondLabel ) );
+                                }
                             }
                         }
                     }
@@ -307,9 +322,13 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
         }
     }
 
+    /**
+     * Lets counts be built only during the first pass over a store, where passes are separated by calls
+     * to {@link #prepare()}. The records of a pass may be tested concurrently.
+     */
     private static class MultiPassAvoidanceCondition<T extends AbstractBaseRecord> implements Predicate<T>
     {
-        private boolean started = false, done = false;
+        private volatile boolean started, done;
 
         @Override
         public boolean test( T record )
@@ -318,20 +337,16 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
             {
                 return false;
             }
+            started = true;
+            return true;
+        }
 
-            if ( record.getLongId() == 0 )
+        void prepare()
+        {
+            if ( started )
             {
-                if ( started )
-                {
-                    done = true;
-                    return false;
-                }
-                else
-                {
-                    started = true;
-                }
+                done = true;
             }
-            return true;
         }
     }
 
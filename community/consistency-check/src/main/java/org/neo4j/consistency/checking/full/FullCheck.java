@@ -57,6 +57,7 @@ public class FullCheck
     private final Long totalMappedMemory;
     private final IndexSamplingConfig samplingConfig;
     private final boolean checkGraph;
+    private final int threads;
 
     public FullCheck( Config tuningConfiguration, ProgressMonitorFactory progressFactory )
     {
@@ -64,6 +65,7 @@ public class FullCheck
         this.checkLabelScanStore = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_label_scan_store );
         this.checkIndexes = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_indexes );
         this.checkGraph = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_graph );
+        this.threads = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_threads );
         this.order = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_execution_order );
         this.totalMappedMemory = tuningConfiguration.get( GraphDatabaseSettings.pagecache_memory );
         this.samplingConfig = new IndexSamplingConfig( tuningConfiguration );
@@ -116,20 +118,22 @@ public class FullCheck
 
         final StoreAccess nativeStores = directStoreAccess.nativeStores();
         try ( IndexAccessors indexes =
-                      new IndexAccessors( directStoreAccess.indexes(), nativeStores.getSchemaStore(), samplingConfig ) )
+                      new IndexAccessors( directStoreAccess.indexes(), nativeStores.getSchemaStore(), samplingConfig );
+              ParallelStoreProcessing parallel = threads > 1 ? new ParallelStoreProcessing( threads ) : null )
         {
             MultiPassStore.Factory multiPass = new MultiPassStore.Factory(
                     decorator, totalMappedMemory, nativeStores, recordAccess, report );
-            List<StoppableRunnable> tasks = new ConsistencyCheckTasks( progress, order, processEverything ).createTasks(
-                    nativeStores,
-                    directStoreAccess.labelScanStore(),
-                    indexes,
-                    multiPass,
-                    reporter,
-                    checkLabelScanStore,
-                    checkIndexes,
-                    checkGraph
-            );
+            List<StoppableRunnable> tasks = new ConsistencyCheckTasks( progress, order, processEverything, parallel )
+                    .createTasks(
+                            nativeStores,
+                            directStoreAccess.labelScanStore(),
+                            indexes,
+                            multiPass,
+                            reporter,
+                            checkLabelScanStore,
+                            checkIndexes,
+                            checkGraph
+                    );
 
             order.execute( tasks, progress.build() );
         }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.helpers.progress.ProgressListener;
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+
+import static org.neo4j.helpers.Exceptions.launderedException;
+import static org.neo4j.helpers.NamedThreadFactory.daemon;
+
+/**
+ * Has the records of a store checked by multiple threads, for a {@link StoreProcessorTask}. The store is split
+ * into ranges of record ids which the threads grab one at a time, so that a thread which happens to get cheap
+ * records to check simply gets to check more of them.
+ */
+class ParallelStoreProcessing implements AutoCloseable
+{
+    static final int RECORDS_PER_RANGE = 10_000;
+
+    private final int threads;
+    private final ExecutorService executor;
+
+    ParallelStoreProcessing( int threads )
+    {
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool( threads, daemon( "consistency-check" ) );
+    }
+
+    /**
+     * Applies the processor to all records of the store and returns when all of them have been processed.
+     * The processor and its decorators must be able to check records concurrently.
+     */
+    <R extends AbstractBaseRecord> void apply( final StoreProcessor processor, final RecordStore<R> store,
+            final ProgressListener progressListener ) throws InterruptedException
+    {
+        final long highId = store.getHighId();
+        final AtomicLong nextId = new AtomicLong();
+        List<Future<?>> workers = new ArrayList<>( threads );
+        for ( int i = 0; i < threads; i++ )
+        {
+            workers.add( executor.submit( new Callable<Void>()
+            {
+                @Override
+                public Void call() throws Exception
+                {
+                    try
+                    {
+                        long fromId;
+                        while ( (fromId = nextId.getAndAdd( RECORDS_PER_RANGE )) < highId )
+                        {
+                            long toId = Math.min( highId, fromId + RECORDS_PER_RANGE );
+                            processor.applyFilteredInRange( store, fromId, toId );
+                            synchronized ( progressListener )
+                            {
+                                progressListener.add( toId - fromId );
+                            }
+                        }
+                        return null;
+                    }
+                    catch ( Throwable e )
+                    {
+                        // Have the other threads stop after their current range
+                        nextId.set( highId );
+                        throw e;
+                    }
+                }
+            } ) );
+        }
+
+        // Wait for all threads, also on failure, so that none of them is still using the processor afterwards
+        Throwable failure = null;
+        for ( Future<?> worker : workers )
+        {
+            try
+            {
+                worker.get();
+            }
+            catch ( ExecutionException e )
+            {
+                failure = failure == null ? e.getCause() : failure;
+            }
+        }
+        if ( failure != null )
+        {
+            throw launderedException( failure );
+        }
+        progressListener.done();
+    }
+
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+    }
+}
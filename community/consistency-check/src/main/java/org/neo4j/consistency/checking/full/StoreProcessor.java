@@ -43,16 +43,26 @@ import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
  */
 class StoreProcessor extends AbstractStoreProcessor
 {
+    private final CheckDecorator decorator;
     private final ConsistencyReport.Reporter report;
     private SchemaRecordCheck schemaRecordCheck;
 
     public StoreProcessor( CheckDecorator decorator, ConsistencyReport.Reporter report )
     {
         super( decorator );
+        this.decorator = decorator;
         this.report = report;
         this.schemaRecordCheck = null;
     }
 
+    /**
+     * Called before each pass over a store with this processor, see {@link CheckDecorator#prepare()}.
+     */
+    void prepare()
+    {
+        decorator.prepare();
+    }
+
     @SuppressWarnings("UnusedParameters")
     protected void checkSchema( RecordType type, RecordStore<DynamicRecord> store, DynamicRecord schema, RecordCheck
             <DynamicRecord, ConsistencyReport.SchemaConsistencyReport> checker )
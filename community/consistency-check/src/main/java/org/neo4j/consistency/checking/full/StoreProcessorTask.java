@@ -31,6 +31,7 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
     private final RecordStore<R> store;
     private final StoreProcessor[] processors;
     private final ProgressListener[] progressListeners;
+    private final ParallelStoreProcessing parallel;
 
 
     StoreProcessorTask( RecordStore<R> store,
@@ -38,15 +39,36 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
                         TaskExecutionOrder order, StoreProcessor singlePassProcessor,
                         StoreProcessor... multiPassProcessors )
     {
-        this( store, "", builder, order, singlePassProcessor, multiPassProcessors );
+        this( store, builder, order, null, singlePassProcessor, multiPassProcessors );
+    }
+
+    /**
+     * @param parallel processes each pass over the store with multiple threads, or {@code null} for processing
+     * each pass from the thread running this task.
+     */
+    StoreProcessorTask( RecordStore<R> store,
+                        ProgressMonitorFactory.MultiPartBuilder builder,
+                        TaskExecutionOrder order, ParallelStoreProcessing parallel,
+                        StoreProcessor singlePassProcessor, StoreProcessor... multiPassProcessors )
+    {
+        this( store, "", builder, order, parallel, singlePassProcessor, multiPassProcessors );
     }
 
     StoreProcessorTask( RecordStore<R> store, String builderPrefix,
                         ProgressMonitorFactory.MultiPartBuilder builder,
                         TaskExecutionOrder order, StoreProcessor singlePassProcessor,
                         StoreProcessor... multiPassProcessors )
+    {
+        this( store, builderPrefix, builder, order, null, singlePassProcessor, multiPassProcessors );
+    }
+
+    StoreProcessorTask( RecordStore<R> store, String builderPrefix,
+                        ProgressMonitorFactory.MultiPartBuilder builder,
+                        TaskExecutionOrder order, ParallelStoreProcessing parallel,
+                        StoreProcessor singlePassProcessor, StoreProcessor... multiPassProcessors )
     {
         this.store = store;
+        this.parallel = parallel;
         String storeFileName = store.getStorageFileName().getName();
 
         String sanitizedBuilderPrefix = builderPrefix == null ? "" : builderPrefix;
@@ -94,7 +116,15 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
             beforeProcessing(processor);
             try
             {
-                processor.applyFiltered( store, progressListeners[i] );
+                processor.prepare();
+                if ( parallel == null )
+                {
+                    processor.applyFiltered( store, progressListeners[i] );
+                }
+                else
+                {
+                    parallel.apply( processor, store, progressListeners[i] );
+                }
             }
             catch ( Throwable e )
             {
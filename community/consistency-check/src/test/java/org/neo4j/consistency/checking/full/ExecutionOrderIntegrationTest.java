@@ -141,9 +141,15 @@ public class ExecutionOrderIntegrationTest
     }
 
     static Config config( TaskExecutionOrder executionOrder )
+    {
+        return config( executionOrder, 1 );
+    }
+
+    static Config config( TaskExecutionOrder executionOrder, int threads )
     {
         Map<String,String> params = stringMap(
                 ConsistencyCheckSettings.consistency_check_execution_order.name(), executionOrder.name(),
+                ConsistencyCheckSettings.consistency_check_threads.name(), String.valueOf( threads ),
                 // Enable property owners check by default in tests:
                 ConsistencyCheckSettings.consistency_check_property_owners.name(), "true" );
         return new Config( params, GraphDatabaseSettings.class, ConsistencyCheckSettings.class );
@@ -234,6 +240,11 @@ public class ExecutionOrderIntegrationTest
             this.log = log;
         }
 
+        @Override
+        public void prepare()
+        {
+        }
+
         <REC extends AbstractBaseRecord, REP extends ConsistencyReport> OwningRecordCheck<REC, REP> logging(
                 RecordCheck<REC, REP> checker )
         {
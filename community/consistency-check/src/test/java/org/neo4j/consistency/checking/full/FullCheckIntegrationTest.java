@@ -121,15 +121,18 @@ import static org.neo4j.test.Property.set;
 @RunWith( Parameterized.class )
 public class FullCheckIntegrationTest
 {
-    @Parameter
+    @Parameter( 0 )
     public TaskExecutionOrder taskExecutionOrder;
+    @Parameter( 1 )
+    public int threads;
 
-    @Parameters( name = "execution_order={0}" )
+    @Parameters( name = "execution_order={0},threads={1}" )
     public static Iterable<Object[]> taskExecutions()
     {
         return Arrays.asList( new Object[][]{
-                {TaskExecutionOrder.SINGLE_THREADED},
-                {TaskExecutionOrder.MULTI_PASS}
+                {TaskExecutionOrder.SINGLE_THREADED, 1},
+                {TaskExecutionOrder.MULTI_PASS, 1},
+                {TaskExecutionOrder.MULTI_PASS, 4}
         } );
     }
 
@@ -1575,7 +1578,7 @@ public class FullCheckIntegrationTest
 
     private ConsistencySummaryStatistics check( DirectStoreAccess stores ) throws ConsistencyCheckIncompleteException
     {
-        Config config = config( taskExecutionOrder );
+        Config config = config( taskExecutionOrder, threads );
         FullCheck checker = new FullCheck( config, ProgressMonitorFactory.NONE );
         return checker.execute( stores, FormattedLog.toOutputStream( out ) );
     }
@@ -234,6 +234,26 @@ public class NodeCorrectlyIndexedCheckTest
                     return PrimitiveLongCollections.toPrimitiveIterator( ids.iterator() );
                 }
 
+                @Override
+                public PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower,
+                                                                Number upper, boolean includeUpper )
+                {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+                                                                String upper, boolean includeUpper )
+                {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+                {
+                    throw new UnsupportedOperationException();
+                }
+
                 @Override
                 public int getIndexedCount( long nodeId, Object propertyValue )
                 {
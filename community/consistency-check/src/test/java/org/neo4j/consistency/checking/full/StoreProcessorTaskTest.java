@@ -21,8 +21,12 @@ package org.neo4j.consistency.checking.full;
 
 import static org.junit.Assert.assertNotSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -115,4 +119,33 @@ public class StoreProcessorTaskTest
 
         assertNotSame(listener1.getValue(), listener2.getValue());
     }
+
+    @Test
+    public void parallelShouldProcessEachRangeOfRecordIdsOnce() throws Exception
+    {
+        // given
+        StoreProcessor processor = mock( StoreProcessor.class );
+
+        NodeStore store = mock( NodeStore.class );
+        when( store.getStorageFileName() ).thenReturn( new File("node-store") );
+        when( store.getHighId() ).thenReturn( 25_000L );
+
+        try ( ParallelStoreProcessing parallel = new ParallelStoreProcessing( 3 ) )
+        {
+            StoreProcessorTask<NodeRecord> task = new StoreProcessorTask<NodeRecord>(
+                    store, ProgressMonitorFactory.NONE.multipleParts( "check" ), SINGLE_THREADED, parallel,
+                    processor );
+
+            // when
+            task.run();
+        }
+
+        // then
+        verify( processor ).prepare();
+        verify( processor ).applyFilteredInRange( same( store ), eq( 0L ), eq( 10_000L ) );
+        verify( processor ).applyFilteredInRange( same( store ), eq( 10_000L ), eq( 20_000L ) );
+        verify( processor ).applyFilteredInRange( same( store ), eq( 20_000L ), eq( 25_000L ) );
+        verify( processor, times( 3 ) ).applyFilteredInRange( same( store ), anyLong(), anyLong() );
+        verify( processor, never() ).applyFiltered( same( store ), any( ProgressListener.class ) );
+    }
 }
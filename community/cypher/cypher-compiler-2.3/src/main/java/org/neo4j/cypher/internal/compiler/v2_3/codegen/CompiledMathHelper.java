@@ -144,6 +144,20 @@ public final class CompiledMathHelper
                                        " and " + rhs.getClass().getSimpleName(), null );
     }
 
+    /**
+     * Utility function for reading the count of a LIMIT or SKIP, which is only known at runtime when it is a parameter
+     */
+    public static long asCount( Object count )
+    {
+        if ( count instanceof Number )
+        {
+            return ((Number) count).longValue();
+        }
+
+        throw new CypherTypeException( "Expected a number for LIMIT or SKIP, but got " +
+                                       (count == null ? "null" : count.getClass().getSimpleName()), null );
+    }
+
     /**
      * Both a1 and a2 must be arrays
      */
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.codegen;
+
+import java.lang.reflect.Array;
+import java.util.List;
+
+import org.neo4j.cypher.internal.compiler.v2_3.IncomparableValuesException;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+
+/**
+ * This is a helper class used by compiled plans for evaluating predicates. Predicates use ternary logic, where
+ * {@code null} means unknown, so all of them take and return boxed booleans.
+ */
+public final class CompiledPredicateHelper
+{
+    /**
+     * Do not instantiate this class
+     */
+    private CompiledPredicateHelper()
+    {
+    }
+
+    /**
+     * Only a known true value lets a row through a filter
+     */
+    public static boolean isTrue( Boolean predicate )
+    {
+        return predicate != null && predicate;
+    }
+
+    public static Boolean not( Boolean predicate )
+    {
+        return predicate == null ? null : !predicate;
+    }
+
+    public static Boolean and( Boolean lhs, Boolean rhs )
+    {
+        if ( Boolean.FALSE.equals( lhs ) || Boolean.FALSE.equals( rhs ) )
+        {
+            return false;
+        }
+        return lhs == null || rhs == null ? null : true;
+    }
+
+    public static Boolean or( Boolean lhs, Boolean rhs )
+    {
+        if ( Boolean.TRUE.equals( lhs ) || Boolean.TRUE.equals( rhs ) )
+        {
+            return true;
+        }
+        return lhs == null || rhs == null ? null : false;
+    }
+
+    /**
+     * Utility function for doing equality, with the same semantics as the interpreted runtime
+     */
+    public static Boolean equals( Object lhs, Object rhs )
+    {
+        if ( lhs == null || rhs == null )
+        {
+            return null;
+        }
+
+        if ( (lhs instanceof Node) != (rhs instanceof Node) ||
+             (lhs instanceof Relationship) != (rhs instanceof Relationship) )
+        {
+            throw new IncomparableValuesException( textWithType( lhs ), textWithType( rhs ) );
+        }
+
+        return valueEquals( lhs, rhs );
+    }
+
+    private static boolean valueEquals( Object lhs, Object rhs )
+    {
+        if ( lhs == null || rhs == null )
+        {
+            return lhs == rhs;
+        }
+
+        if ( lhs instanceof Number && rhs instanceof Number )
+        {
+            return numberEquals( (Number) lhs, (Number) rhs );
+        }
+
+        if ( isCollection( lhs ) && isCollection( rhs ) )
+        {
+            int length = lengthOf( lhs );
+            if ( length != lengthOf( rhs ) )
+            {
+                return false;
+            }
+            for ( int i = 0; i < length; i++ )
+            {
+                if ( !valueEquals( elementAt( lhs, i ), elementAt( rhs, i ) ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return lhs.equals( rhs );
+    }
+
+    private static boolean numberEquals( Number lhs, Number rhs )
+    {
+        if ( isIntegral( lhs ) && isIntegral( rhs ) )
+        {
+            return lhs.longValue() == rhs.longValue();
+        }
+        return lhs.doubleValue() == rhs.doubleValue();
+    }
+
+    private static boolean isIntegral( Number number )
+    {
+        return number instanceof Long || number instanceof Integer ||
+               number instanceof Short || number instanceof Byte;
+    }
+
+    private static boolean isCollection( Object value )
+    {
+        return value instanceof List<?> || value.getClass().isArray();
+    }
+
+    private static int lengthOf( Object collection )
+    {
+        return collection instanceof List<?> ? ((List<?>) collection).size() : Array.getLength( collection );
+    }
+
+    private static Object elementAt( Object collection, int index )
+    {
+        return collection instanceof List<?> ? ((List<?>) collection).get( index ) : Array.get( collection, index );
+    }
+
+    private static String textWithType( Object value )
+    {
+        return value + " (" + value.getClass().getSimpleName() + ")";
+    }
+}
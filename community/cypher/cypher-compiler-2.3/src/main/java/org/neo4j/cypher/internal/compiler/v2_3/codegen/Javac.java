@@ -26,10 +26,14 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.security.SecureClassLoader;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
 import javax.tools.FileObject;
@@ -38,6 +42,7 @@ import javax.tools.JavaCompiler;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
 import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
 import javax.tools.StandardLocation;
 import javax.tools.ToolProvider;
 
@@ -53,7 +58,12 @@ import org.neo4j.kernel.api.Statement;
 import static java.lang.String.format;
 import static javax.tools.JavaCompiler.CompilationTask;
 
-//TODO this should be replaced, here for testing stuff out
+/**
+ * Compiles generated Java source in memory. The options and the pooled file managers below only take away the fixed
+ * costs around javac; compiling a plan still costs as much as javac takes to parse, attribute and generate the class.
+ */
+//TODO replace with a backend that emits bytecode for the ir.Instruction tree directly, which is what would make
+// compiling a plan cheap enough to not stall query threads on plan cache misses
 public class Javac
 {
     public static class CompilationError extends Error
@@ -64,19 +74,58 @@ public class Javac
         }
     }
 
+    /*
+     * Generated code is compiled in memory and loaded right away, so skip everything that only costs time:
+     * annotation processor discovery (which scans the whole class path), lint, compiling implicitly referenced
+     * sources and all debug info except line numbers, which stack traces out of generated code still need.
+     */
+    private static final List<String> COMPILER_OPTIONS =
+            Arrays.asList( "-proc:none", "-g:lines", "-implicit:none", "-Xlint:none", "-nowarn" );
+
+    private static final JavaCompiler COMPILER = ToolProvider.getSystemJavaCompiler();
+
+    /*
+     * Creating a standard file manager means opening and indexing the platform class path, which used to dominate
+     * the time spent compiling a query. File managers are not thread safe, so each compilation borrows one from
+     * this pool. Managers that do not fit back into the pool are closed.
+     */
+    static final int MAX_IDLE_FILE_MANAGERS = Runtime.getRuntime().availableProcessors();
+    private static final BlockingQueue<StandardJavaFileManager> IDLE_FILE_MANAGERS =
+            new ArrayBlockingQueue<>( MAX_IDLE_FILE_MANAGERS );
+
     public static Class<InternalExecutionResult> compile( String className, String classBody ) throws
             ClassNotFoundException
     {
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        if ( compiler == null )
+        if ( COMPILER == null )
         {
             throw new CantCompileQueryException( "No compiler provided by the platform" );
         }
 
-        JavaFileManager manager = new InMemFileManager();
+        StandardJavaFileManager fileManager = IDLE_FILE_MANAGERS.poll();
+        if ( fileManager == null )
+        {
+            fileManager = COMPILER.getStandardFileManager( null, null, null );
+        }
+        try
+        {
+            return compile( className, classBody, fileManager );
+        }
+        finally
+        {
+            if ( !IDLE_FILE_MANAGERS.offer( fileManager ) )
+            {
+                close( fileManager );
+            }
+        }
+    }
+
+    private static Class<InternalExecutionResult> compile( String className, String classBody,
+            StandardJavaFileManager fileManager ) throws ClassNotFoundException
+    {
+        JavaFileManager manager = new InMemFileManager( fileManager );
         DiagnosticCollector<JavaFileObject> diagnosticsCollector = new DiagnosticCollector<>();
         Iterable<? extends JavaFileObject> sources = Collections.singletonList( new InMemSource( className, classBody ) );
-        CompilationTask task = compiler.getTask( null, manager, diagnosticsCollector, null, null, sources );
+        CompilationTask task = COMPILER.getTask( null, manager, diagnosticsCollector, COMPILER_OPTIONS, null, sources );
 
         if ( !task.call() )
         {
@@ -98,12 +147,42 @@ public class Javac
         return clazz;
     }
 
+    static int idleFileManagers()
+    {
+        return IDLE_FILE_MANAGERS.size();
+    }
+
+    private static void close( StandardJavaFileManager fileManager )
+    {
+        try
+        {
+            fileManager.close();
+        }
+        catch ( IOException e )
+        {
+            // Nothing is written through the standard file manager, so there is nothing to lose here
+        }
+    }
+
+    public static Constructor<InternalExecutionResult> constructorOf( Class<InternalExecutionResult> clazz )
+            throws NoSuchMethodException
+    {
+        return clazz.getDeclaredConstructor( TaskCloser.class, Statement.class, GraphDatabaseService.class,
+                ExecutionMode.class, Supplier.class, QueryExecutionTracer.class, Map.class );
+    }
+
     public static InternalExecutionResult newInstance( Class<InternalExecutionResult> clazz, TaskCloser closer, Statement statement,
             GraphDatabaseService db, ExecutionMode executionMode, Supplier<InternalPlanDescription> description, QueryExecutionTracer tracer, Map<String, Object> params)
             throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException
     {
-        Constructor<InternalExecutionResult> constructor =
-                clazz.getDeclaredConstructor( TaskCloser.class, Statement.class, GraphDatabaseService.class, ExecutionMode.class, Supplier.class, QueryExecutionTracer.class, Map.class);
+        return newInstance( constructorOf( clazz ), closer, statement, db, executionMode, description, tracer, params );
+    }
+
+    public static InternalExecutionResult newInstance( Constructor<InternalExecutionResult> constructor, TaskCloser closer,
+            Statement statement, GraphDatabaseService db, ExecutionMode executionMode,
+            Supplier<InternalPlanDescription> description, QueryExecutionTracer tracer, Map<String, Object> params )
+            throws IllegalAccessException, InvocationTargetException, InstantiationException
+    {
         return constructor.newInstance( closer, statement, db, executionMode, description, tracer, params );
     }
 
@@ -149,15 +228,16 @@ public class Javac
     {
         private final Map<String, InMemSink> classNameToByteCode = new HashMap<>();
 
-        InMemFileManager()
+        InMemFileManager( StandardJavaFileManager standardFileManager )
         {
-            super( ToolProvider.getSystemJavaCompiler().getStandardFileManager( null, null, null ) );
+            super( standardFileManager );
         }
 
         @Override
         public ClassLoader getClassLoader( Location location )
         {
-            return new SecureClassLoader()
+            // Define the generated classes next to the classes they are compiled against
+            return new SecureClassLoader( Javac.class.getClassLoader() )
             {
                 @Override
                 protected Class<?> findClass( String name ) throws ClassNotFoundException
@@ -183,5 +263,11 @@ public class Javac
                 return super.getJavaFileForOutput( location, className, kind, sibling );
             }
         }
+
+        @Override
+        public void close()
+        {
+            // The standard file manager goes back to the pool, and there is nothing else to release
+        }
     }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3
+
+sealed trait Bound[+V] {
+  def endPoint: V
+  def isInclusive: Boolean
+
+  def map[P](f: V => P): Bound[P]
+}
+
+case class InclusiveBound[+V](endPoint: V) extends Bound[V] {
+  def isInclusive = true
+
+  def map[P](f: V => P) = InclusiveBound(f(endPoint))
+}
+
+case class ExclusiveBound[+V](endPoint: V) extends Bound[V] {
+  def isInclusive = false
+
+  def map[P](f: V => P) = ExclusiveBound(f(endPoint))
+}
+
+/*
+ * A range of values to seek for in an index. A missing bound means the range is open on that side.
+ */
+case class SeekRange[+V](lower: Option[Bound[V]], upper: Option[Bound[V]]) {
+  require(lower.isDefined || upper.isDefined, "A seek range needs at least one bound")
+
+  def map[P](f: V => P): SeekRange[P] = SeekRange(lower.map(_.map(f)), upper.map(_.map(f)))
+
+  def bounds: Seq[Bound[V]] = lower.toSeq ++ upper.toSeq
+}
@@ -190,6 +190,7 @@ class CodeGenerator {
         operatorMap.foreach {
           case (id, name) => setStaticField(clazz, name, id)
         }
+        val constructor = Javac.constructorOf(clazz)
 
         val fp = planContext.statistics match {
           case igs: InstrumentedGraphStatistics =>
@@ -205,7 +206,7 @@ class CodeGenerator {
                     descriptionProvider: (InternalPlanDescription) => (Supplier[InternalPlanDescription], Option[QueryExecutionTracer]),
                     params: immutable.Map[String, Any], closer: TaskCloser): InternalExecutionResult = {
             val (supplier, tracer) = descriptionProvider(description)
-            Javac.newInstance(clazz, closer, statement, db, execMode, supplier,
+            Javac.newInstance(constructor, closer, statement, db, execMode, supplier,
                               tracer.getOrElse(QueryExecutionTracer.NONE), asJavaHashMap(params))
           }
         }
@@ -20,11 +20,12 @@
 package org.neo4j.cypher.internal.compiler.v2_3.codegen
 
 import org.neo4j.cypher.internal.compiler.v2_3.ast._
+import org.neo4j.cypher.internal.compiler.v2_3.commands.SingleQueryExpression
 import org.neo4j.cypher.internal.compiler.v2_3.codegen.JavaUtils.JavaSymbol
 import org.neo4j.cypher.internal.compiler.v2_3.codegen.JavaUtils.JavaTypes._
 import org.neo4j.cypher.internal.compiler.v2_3.codegen.ir._
 import org.neo4j.cypher.internal.compiler.v2_3.planner.CantCompileQueryException
-import org.neo4j.cypher.internal.compiler.v2_3.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v2_3.planner.logical.plans.{Limit, Skip, _}
 import org.neo4j.helpers.ThisShouldNotHappenError
 
 object LogicalPlanConverter {
@@ -39,7 +40,12 @@ object LogicalPlanConverter {
       case p: Expand => p
       case p: NodeHashJoin => p
       case p: Projection => p
+      case p: Selection => p
+      case p: Limit => p
+      case p: Skip => p
+      case p: NodeIndexSeek => p
 
+      // TODO Aggregation, Sort, Top and OptionalExpand, which still make a query fall back to the interpreted runtime
       case _ =>
         throw new CantCompileQueryException(s"$logicalPlan is not yet supported")
     }
@@ -76,6 +82,23 @@ object LogicalPlanConverter {
     }
   }
 
+  private implicit class NodeIndexSeekCodeGen(val logicalPlan: NodeIndexSeek) extends LeafCodeGenPlan {
+
+    override def produce(context: CodeGenContext): (Option[JavaSymbol], Seq[Instruction]) = {
+      val valueExpr = logicalPlan.valueExpr match {
+        case SingleQueryExpression(expr) => expr
+        case other => throw new CantCompileQueryException(s"Index seek on $other not yet supported")
+      }
+      val nodeVar = JavaSymbol(context.namer.newVarName(), LONG)
+      context.addVariable(logicalPlan.idName.name, nodeVar)
+      val (methodHandle, actions) = context.popParent().consume(context, this)
+      val opName = context.registerOperator(logicalPlan)
+      val value = createProjectionInstruction(logicalPlan, valueExpr, context)
+      val seek = IndexSeek(opName, logicalPlan.label.nameId.id, logicalPlan.propertyKey.nameId.id, value)
+      (methodHandle, Seq(WhileLoop(nodeVar, seek, actions)))
+    }
+  }
+
   private implicit class NodeHashJoinCodeGen(val logicalPlan: NodeHashJoin) extends CodeGenPlan {
 
     override def produce(context: CodeGenContext): (Option[JavaSymbol], Seq[Instruction]) = {
@@ -188,63 +211,144 @@ object LogicalPlanConverter {
 
       (methodHandle, Project(projectionInstructions, action))
     }
+  }
+
+  private implicit class SelectionCodeGen(val logicalPlan: Selection) extends CodeGenPlan {
+
+    override def produce(context: CodeGenContext): (Option[JavaSymbol], Seq[Instruction]) = {
+      context.pushParent(this)
+      logicalPlan.left.asCodeGenPlan.produce(context)
+    }
+
+    override def consume(context: CodeGenContext, child: CodeGenPlan): (Option[JavaSymbol], Instruction) = {
+      val predicate = logicalPlan.predicates
+        .map(createPredicateInstruction(logicalPlan, _, context))
+        .reduce[PredicateInstruction](AndPredicate(_, _))
+      val (methodHandle, action) = context.popParent().consume(context, this)
+      val opName = context.registerOperator(logicalPlan)
+      (methodHandle, Filter(opName, predicate, action))
+    }
+  }
+
+  private implicit class LimitCodeGen(val logicalPlan: Limit) extends CodeGenPlan {
+
+    override def produce(context: CodeGenContext): (Option[JavaSymbol], Seq[Instruction]) = {
+      context.pushParent(this)
+      logicalPlan.left.asCodeGenPlan.produce(context)
+    }
+
+    override def consume(context: CodeGenContext, child: CodeGenPlan): (Option[JavaSymbol], Instruction) = {
+      val count = createProjectionInstruction(logicalPlan, logicalPlan.count, context)
+      val (methodHandle, action) = context.popParent().consume(context, this)
+      val opName = context.registerOperator(logicalPlan)
+      // without a method handle the rows end up in the result, and nothing else is waiting for them
+      (methodHandle, LimitRows(opName, context.namer.newVarName(), count, methodHandle.isEmpty, action))
+    }
+  }
+
+  private implicit class SkipCodeGen(val logicalPlan: Skip) extends CodeGenPlan {
+
+    override def produce(context: CodeGenContext): (Option[JavaSymbol], Seq[Instruction]) = {
+      context.pushParent(this)
+      logicalPlan.left.asCodeGenPlan.produce(context)
+    }
+
+    override def consume(context: CodeGenContext, child: CodeGenPlan): (Option[JavaSymbol], Instruction) = {
+      val count = createProjectionInstruction(logicalPlan, logicalPlan.count, context)
+      val (methodHandle, action) = context.popParent().consume(context, this)
+      val opName = context.registerOperator(logicalPlan)
+      (methodHandle, SkipRows(opName, context.namer.newVarName(), count, action))
+    }
+  }
+
+  private def createPredicateInstruction(logicalPlan: LogicalPlan, expression: Expression,
+                                         context: CodeGenContext): PredicateInstruction = expression match {
+    case HasLabels(node@Identifier(name), labels) if context.semanticTable.isNode(node) =>
+      val nodeVar = context.getVariable(name).name
+      labels.map(label => HasLabel(nodeVar, context.namer.newVarName(), label.name))
+        .reduce[PredicateInstruction](AndPredicate(_, _))
+
+    case Equals(lhs, rhs) =>
+      EqualsPredicate(
+        createProjectionInstruction(logicalPlan, lhs, context),
+        createProjectionInstruction(logicalPlan, rhs, context))
+
+    case Not(inner) =>
+      NotPredicate(createPredicateInstruction(logicalPlan, inner, context))
+
+    case And(lhs, rhs) =>
+      AndPredicate(
+        createPredicateInstruction(logicalPlan, lhs, context),
+        createPredicateInstruction(logicalPlan, rhs, context))
+
+    case Ands(exprs) if exprs.nonEmpty =>
+      exprs.toSeq
+        .map(createPredicateInstruction(logicalPlan, _, context))
+        .reduce[PredicateInstruction](AndPredicate(_, _))
+
+    case Or(lhs, rhs) =>
+      OrPredicate(
+        createPredicateInstruction(logicalPlan, lhs, context),
+        createPredicateInstruction(logicalPlan, rhs, context))
+
+    case other => throw new CantCompileQueryException(s"Predicate $other not yet supported")
+  }
 
-    private def createProjectionInstruction(logicalPlan: Projection, expression: Expression, context: CodeGenContext): ProjectionInstruction = {
+  private def createProjectionInstruction(logicalPlan: LogicalPlan, expression: Expression, context: CodeGenContext): ProjectionInstruction = {
 
-      def safeToString(a: Any) = if (a != null) a.toString else "null"
+    def safeToString(a: Any) = if (a != null) a.toString else "null"
 
-      expression match {
-        case node@Identifier(name) if context.semanticTable.isNode(node) =>
-          ProjectNode(context.getVariable(name))
+    expression match {
+      case node@Identifier(name) if context.semanticTable.isNode(node) =>
+        ProjectNode(context.getVariable(name))
 
-        case rel@Identifier(name) if context.semanticTable.isRelationship(rel) =>
-          ProjectRelationship(context.getVariable(name))
+      case rel@Identifier(name) if context.semanticTable.isRelationship(rel) =>
+        ProjectRelationship(context.getVariable(name))
 
-        case Property(node@Identifier(name), propKey) if context.semanticTable.isNode(node) =>
-          val token = propKey.id(context.semanticTable).map(_.id)
-          val opName = context.registerOperator(logicalPlan)
-          ProjectNodeProperty(opName, token, propKey.name, context.getVariable(name).name, context.namer)
+      case Property(node@Identifier(name), propKey) if context.semanticTable.isNode(node) =>
+        val token = propKey.id(context.semanticTable).map(_.id)
+        val opName = context.registerOperator(logicalPlan)
+        ProjectNodeProperty(opName, token, propKey.name, context.getVariable(name).name, context.namer)
 
-        case Property(rel@Identifier(name), propKey) if context.semanticTable.isRelationship(rel) =>
-          val token = propKey.id(context.semanticTable).map(_.id)
-          ProjectRelProperty(token, propKey.name, context.getVariable(name).name, context.namer)
+      case Property(rel@Identifier(name), propKey) if context.semanticTable.isRelationship(rel) =>
+        val token = propKey.id(context.semanticTable).map(_.id)
+        ProjectRelProperty(token, propKey.name, context.getVariable(name).name, context.namer)
 
-        case Parameter(name) => ProjectParameter(name)
+      case Parameter(name) => ProjectParameter(name)
 
-        case lit: IntegerLiteral =>
-          val value = if (lit.value != null) s"${lit.value.toString}L" else "null"
-          ProjectLiteral(JavaSymbol(value, LONG))
+      case lit: IntegerLiteral =>
+        val value = if (lit.value != null) s"${lit.value.toString}L" else "null"
+        ProjectLiteral(JavaSymbol(value, LONG))
 
-        case lit: DoubleLiteral =>
-          ProjectLiteral(JavaSymbol(safeToString(lit.value), DOUBLE))
+      case lit: DoubleLiteral =>
+        ProjectLiteral(JavaSymbol(safeToString(lit.value), DOUBLE))
 
-        case lit: StringLiteral =>
-          ProjectLiteral(JavaSymbol( s""""${safeToString(lit.value)}"""", STRING))
+      case lit: StringLiteral =>
+        ProjectLiteral(JavaSymbol( s""""${safeToString(lit.value)}"""", STRING))
 
-        case lit: Literal =>
-          ProjectLiteral(JavaSymbol(safeToString(lit.value), OBJECT))
+      case lit: Literal =>
+        ProjectLiteral(JavaSymbol(safeToString(lit.value), OBJECT))
 
-        case Collection(exprs) =>
-          ProjectCollection(exprs.map(e => createProjectionInstruction(logicalPlan, e, context)))
+      case Collection(exprs) =>
+        ProjectCollection(exprs.map(e => createProjectionInstruction(logicalPlan, e, context)))
 
-        case Add(lhs, rhs) =>
-          val leftOp = createProjectionInstruction(logicalPlan, lhs, context)
-          val rightOp = createProjectionInstruction(logicalPlan, rhs, context)
-          ProjectAddition(leftOp, rightOp)
+      case Add(lhs, rhs) =>
+        val leftOp = createProjectionInstruction(logicalPlan, lhs, context)
+        val rightOp = createProjectionInstruction(logicalPlan, rhs, context)
+        ProjectAddition(leftOp, rightOp)
 
-        case Subtract(lhs, rhs) =>
-          val leftOp = createProjectionInstruction(logicalPlan, lhs, context)
-          val rightOp = createProjectionInstruction(logicalPlan, rhs, context)
-          ProjectSubtraction(leftOp, rightOp)
+      case Subtract(lhs, rhs) =>
+        val leftOp = createProjectionInstruction(logicalPlan, lhs, context)
+        val rightOp = createProjectionInstruction(logicalPlan, rhs, context)
+        ProjectSubtraction(leftOp, rightOp)
 
-        case MapExpression(items: Seq[(PropertyKeyName, Expression)]) =>
-          val map = items.map {
-            case (key, expr) => (key.name, createProjectionInstruction(logicalPlan, expr, context))
-          }.toMap
-          ProjectMap(map)
+      case MapExpression(items: Seq[(PropertyKeyName, Expression)]) =>
+        val map = items.map {
+          case (key, expr) => (key.name, createProjectionInstruction(logicalPlan, expr, context))
+        }.toMap
+        ProjectMap(map)
 
-        case other => throw new CantCompileQueryException(s"Projection of $other not yet supported")
-      }
+      case other => throw new CantCompileQueryException(s"Projection of $other not yet supported")
     }
   }
 }
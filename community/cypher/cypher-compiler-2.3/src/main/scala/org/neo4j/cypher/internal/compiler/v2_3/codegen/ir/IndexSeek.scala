@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.codegen.ir
+
+import org.neo4j.cypher.internal.compiler.v2_3.codegen.JavaUtils.JavaTypes.{DOUBLE, LONG}
+import org.neo4j.cypher.internal.compiler.v2_3.codegen.KernelExceptionCodeGen
+
+case class IndexSeek(id: String, labelId: Int, propertyKeyId: Int, value: ProjectionInstruction)
+  extends Instruction with LoopDataGenerator {
+
+  private val seekValue = value.projectedVariable.materialize
+
+  private val lookup =
+    s"ro.nodesGetFromIndexLookup( ro.indexesGetForLabelAndPropertyKey( $labelId, $propertyKeyId ), ${seekValue.name} )"
+
+  // null is never equal to anything, so there is nothing to look up
+  def generateCode() =
+    if (seekValue.javaType == LONG || seekValue.javaType == DOUBLE) lookup
+    else s"${seekValue.name} == null ? PrimitiveLongCollections.emptyIterator() : $lookup"
+
+  def generateVariablesAndAssignment() = ""
+
+  def generateInit() = value.generateInit()
+
+  override def members() = value.members()
+
+  override protected def importedClasses = Set(
+    "org.neo4j.collection.primitive.PrimitiveLongIterator",
+    "org.neo4j.collection.primitive.PrimitiveLongCollections")
+
+  override protected def exceptions = Set(KernelExceptionCodeGen)
+
+  def javaType = "PrimitiveLongIterator"
+
+  override protected def children = Seq(value)
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.codegen.ir
+
+import org.neo4j.cypher.internal.compiler.v2_3.codegen.CodeGenerator.n
+import org.neo4j.cypher.internal.compiler.v2_3.codegen.JavaUtils.JavaString
+import org.neo4j.cypher.internal.compiler.v2_3.codegen.JavaUtils.JavaTypes.{DOUBLE, LONG}
+import org.neo4j.cypher.internal.compiler.v2_3.codegen.KernelExceptionCodeGen
+
+/*
+Predicates follow the ternary logic of Cypher. Predicates that can never be null produce a primitive boolean,
+all others a nullable Boolean.
+ */
+sealed trait PredicateInstruction extends Instruction {
+
+  def predicate: String
+
+  def nullable: Boolean
+
+  def generateCode() = ""
+
+  def asNullable = if (nullable) predicate else s"Boolean.valueOf( $predicate )"
+
+  def asPrimitive = if (nullable) s"CompiledPredicateHelper.isTrue( $predicate )" else predicate
+
+  override protected def importedClasses =
+    Set("org.neo4j.cypher.internal.compiler.v2_3.codegen.CompiledPredicateHelper")
+}
+
+case class HasLabel(nodeVar: String, labelVar: String, labelName: String) extends PredicateInstruction {
+
+  def predicate = s"( $labelVar != -1 && ro.nodeHasLabel( $nodeVar, $labelVar ) )"
+
+  def nullable = false
+
+  def generateInit() =
+    s"""if ( $labelVar == -1 )
+       |{
+       |$labelVar = ro.labelGetForName( "${labelName.toJava}" );
+       |}""".stripMargin
+
+  def members() = s"private int $labelVar = -1;"
+
+  override protected def exceptions = Set(KernelExceptionCodeGen)
+
+  override protected def children = Seq.empty
+}
+
+case class EqualsPredicate(lhs: ProjectionInstruction, rhs: ProjectionInstruction) extends PredicateInstruction {
+
+  private val primitives = Set(LONG, DOUBLE)
+
+  private val leftTerm = lhs.projectedVariable
+  private val rightTerm = rhs.projectedVariable
+
+  /*
+  Ids of two nodes or of two relationships can be compared without loading the entities, as can two numbers. Anything
+  else, like a node id against a relationship id or a literal, has to go through the helper, which fails on comparing
+  entities with other values.
+   */
+  def nullable = !(primitives(leftTerm.javaType) && primitives(rightTerm.javaType) && entityKind(lhs) == entityKind(rhs))
+
+  private def entityKind(projection: ProjectionInstruction): Option[String] = projection match {
+    case _: ProjectNode => Some("node")
+    case _: ProjectRelationship => Some("relationship")
+    case _ => None
+  }
+
+  def predicate =
+    if (nullable) s"CompiledPredicateHelper.equals( ${leftTerm.materialize.name}, ${rightTerm.materialize.name} )"
+    else s"( ${leftTerm.name} == ${rightTerm.name} )"
+
+  def generateInit() = Seq(lhs, rhs).map(_.generateInit()).mkString(n)
+
+  def members() = Seq(lhs, rhs).map(_.members()).mkString(n)
+
+  override protected def children = Seq(lhs, rhs)
+}
+
+case class NotPredicate(inner: PredicateInstruction) extends PredicateInstruction {
+
+  def predicate = if (nullable) s"CompiledPredicateHelper.not( ${inner.predicate} )" else s"!${inner.predicate}"
+
+  def nullable = inner.nullable
+
+  def generateInit() = inner.generateInit()
+
+  def members() = inner.members()
+
+  override protected def children = Seq(inner)
+}
+
+case class AndPredicate(lhs: PredicateInstruction, rhs: PredicateInstruction) extends PredicateInstruction {
+
+  def predicate =
+    if (nullable) s"CompiledPredicateHelper.and( ${lhs.asNullable}, ${rhs.asNullable} )"
+    else s"( ${lhs.predicate} && ${rhs.predicate} )"
+
+  def nullable = lhs.nullable || rhs.nullable
+
+  def generateInit() = Seq(lhs, rhs).map(_.generateInit()).mkString(n)
+
+  def members() = Seq(lhs, rhs).map(_.members()).mkString(n)
+
+  override protected def children = Seq(lhs, rhs)
+}
+
+case class OrPredicate(lhs: PredicateInstruction, rhs: PredicateInstruction) extends PredicateInstruction {
+
+  def predicate =
+    if (nullable) s"CompiledPredicateHelper.or( ${lhs.asNullable}, ${rhs.asNullable} )"
+    else s"( ${lhs.predicate} || ${rhs.predicate} )"
+
+  def nullable = lhs.nullable || rhs.nullable
+
+  def generateInit() = Seq(lhs, rhs).map(_.generateInit()).mkString(n)
+
+  def members() = Seq(lhs, rhs).map(_.members()).mkString(n)
+
+  override protected def children = Seq(lhs, rhs)
+}
+
+case class Filter(id: String, predicate: PredicateInstruction, action: Instruction) extends Instruction {
+
+  def generateCode() = {
+    val eventVar = s"event_$id"
+    val passed = s"passed_$id"
+    s"""final boolean $passed;
+       |try ( QueryExecutionEvent $eventVar = tracer.executeOperator( $id ) )
+       |{
+       |$passed = ${predicate.asPrimitive};
+       |if ( $passed )
+       |{
+       |$eventVar.row();
+       |}
+       |}
+       |if ( $passed )
+       |{
+       |${action.generateCode()}
+       |}""".stripMargin
+  }
+
+  def generateInit() = predicate.generateInit() + n + action.generateInit()
+
+  def members() = predicate.members() + n + action.members()
+
+  override protected def operatorId = Some(id)
+
+  override protected def children = Seq(predicate, action)
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.codegen.ir
+
+import org.neo4j.cypher.internal.compiler.v2_3.codegen.CodeGenerator.n
+import org.neo4j.cypher.internal.compiler.v2_3.codegen.JavaUtils.JavaTypes.LONG
+
+sealed trait SliceInstruction extends Instruction {
+
+  def id: String
+
+  def counter: String
+
+  def count: ProjectionInstruction
+
+  def action: Instruction
+
+  protected def countValue = {
+    val symbol = count.projectedVariable
+    if (symbol.javaType == LONG) symbol.name else s"CompiledMathHelper.asCount( ${symbol.name} )"
+  }
+
+  protected def countRow = {
+    val eventVar = s"event_$id"
+    s"""try ( QueryExecutionEvent $eventVar = tracer.executeOperator( $id ) )
+       |{
+       |$eventVar.row();
+       |}""".stripMargin
+  }
+
+  def generateInit() = count.generateInit() + n + action.generateInit()
+
+  def members() =
+    s"""private long $counter = 0L;
+       |${count.members()}
+       |${action.members()}""".stripMargin
+
+  override protected def importedClasses =
+    Set("org.neo4j.cypher.internal.compiler.v2_3.codegen.CompiledMathHelper")
+
+  override protected def operatorId = Some(id)
+
+  override protected def children = Seq(count, action)
+}
+
+/*
+When nothing downstream needs to see the remaining rows, the query is finished as soon as the limit is reached instead
+of exhausting the underlying scans.
+ */
+case class LimitRows(id: String, counter: String, count: ProjectionInstruction, finishWhenReached: Boolean,
+                     action: Instruction) extends SliceInstruction {
+
+  def generateCode() = {
+    val finish =
+      if (finishWhenReached)
+        s"""if ( $counter >= $countValue )
+           |{
+           |success();
+           |return;
+           |}""".stripMargin
+      else ""
+
+    s"""if ( $counter < $countValue )
+       |{
+       |$counter++;
+       |$countRow
+       |${action.generateCode()}
+       |}
+       |$finish""".stripMargin
+  }
+}
+
+case class SkipRows(id: String, counter: String, count: ProjectionInstruction, action: Instruction)
+  extends SliceInstruction {
+
+  def generateCode() =
+    s"""if ( $counter < $countValue )
+       |{
+       |$counter++;
+       |}
+       |else
+       |{
+       |$countRow
+       |${action.generateCode()}
+       |}""".stripMargin
+}
@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.compiler.v2_3.executionplan
 
 import org.neo4j.cypher.internal.compiler.v2_3._
 import org.neo4j.cypher.internal.compiler.v2_3.pipes._
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.spill.Spilling
 import org.neo4j.cypher.internal.compiler.v2_3.planDescription.InternalPlanDescription
 import org.neo4j.cypher.internal.compiler.v2_3.spi.{CSVResources, QueryContext}
 import org.neo4j.cypher.internal.compiler.v2_3.{ExplainMode, ExecutionMode}
@@ -58,7 +59,10 @@ case class DefaultExecutionResultBuilderFactory(pipeInfo: PipeInfo, columns: Lis
 
     def build(graph: GraphDatabaseService, queryId: AnyRef, planType: ExecutionMode, params: Map[String, Any], notificationLogger: InternalNotificationLogger): InternalExecutionResult = {
       taskCloser.addTask(queryContext.close)
-      val state = new QueryState(graph, queryContext, externalResource, params, pipeDecorator, queryId = queryId)
+      val spillThreshold = queryContext.spillThreshold
+      val spilling = if (spillThreshold > 0) Some(Spilling(spillThreshold, taskCloser)) else None
+      val state = new QueryState(graph, queryContext, externalResource, params, pipeDecorator, queryId = queryId,
+        spilling = spilling)
       try {
         try {
           createResults(state, planType, notificationLogger)
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.compiler.v2_3.pipes
 import org.neo4j.cypher.internal.compiler.v2_3._
 import org.neo4j.cypher.internal.compiler.v2_3.commands.expressions.AggregationExpression
 import org.neo4j.cypher.internal.compiler.v2_3.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.spill.SpillFile
 import org.neo4j.cypher.internal.compiler.v2_3.planDescription.InternalPlanDescription.Arguments
 import org.neo4j.cypher.internal.compiler.v2_3.symbols._
 
@@ -49,8 +50,6 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Set[String], aggre
     //register as parent so that stats are associated with this pipe
     state.decorator.registerParentPipe(this)
 
-    // This is the temporary storage used while the aggregation is going on
-    val result = MutableMap[NiceHasher, (ExecutionContext, Seq[AggregationFunction])]()
     val keyNames: Seq[String] = keyExpressions.toSeq
     val aggregationNames: Seq[String] = aggregations.map(_._1).toSeq
     val mapSize = keyNames.size + aggregationNames.size
@@ -76,19 +75,44 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Set[String], aggre
       Iterator.single(ExecutionContext(newMap))
     }
 
-    input.foreach(ctx => {
-      val groupValues: NiceHasher = new NiceHasher(keyNames.map(ctx))
-      val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toSeq
-      val (_, functions) = result.getOrElseUpdate(groupValues, (ctx, aggregateFunctions))
-      functions.foreach(func => func(ctx)(state))
-    })
+    // Once more than threshold groups have been seen, rows of new groups are spilled to one of a number of
+    // partitions, chosen by the hash of the group. Each partition is then aggregated on its own.
+    def aggregate(rows: Iterator[ExecutionContext], depth: Int): Iterator[ExecutionContext] = {
+      // This is the temporary storage used while the aggregation is going on
+      val result = MutableMap[NiceHasher, (ExecutionContext, Seq[AggregationFunction])]()
+      val spilling = state.spilling.filter(_ => depth <= EagerAggregationPipe.MAX_SPILL_DEPTH)
+      val partitions = new Array[SpillFile](EagerAggregationPipe.PARTITIONS)
+
+      rows.foreach(ctx => {
+        val groupValues: NiceHasher = new NiceHasher(keyNames.map(ctx))
+        result.get(groupValues) match {
+          case Some((_, functions)) =>
+            functions.foreach(func => func(ctx)(state))
+
+          case None if spilling.exists(result.size >= _.threshold) =>
+            val partition = EagerAggregationPipe.partitionOf(groupValues.hash, depth)
+            if (partitions(partition) == null) partitions(partition) = new SpillFile(state, spilling.get)
+            partitions(partition).write(ctx)
+
+          case None =>
+            val functions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toSeq
+            result.put(groupValues, (ctx, functions))
+            functions.foreach(func => func(ctx)(state))
+        }
+      })
+
+      val aggregated = result.toIterator.map {
+        case (key, (ctx, aggregator)) => createResults(key, aggregator, ctx)
+      }
+      aggregated ++ partitions.iterator.filter(_ != null).flatMap(partition => aggregate(partition.read(), depth + 1))
+    }
 
-    if (result.isEmpty && keyNames.isEmpty) {
-      createEmptyResult(state.params)
+    if (keyNames.isEmpty) {
+      // a single group never needs to spill
+      val result = aggregate(input, EagerAggregationPipe.MAX_SPILL_DEPTH + 1)
+      if (result.hasNext) result else createEmptyResult(state.params)
     } else {
-      result.map {
-        case (key, (ctx, aggregator)) => createResults(key, aggregator, ctx)
-      }.toIterator
+      aggregate(input, 0)
     }
   }
 
@@ -102,3 +126,12 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Set[String], aggre
 
   def withEstimatedCardinality(estimated: Double) = copy()(Some(estimated))
 }
+
+object EagerAggregationPipe {
+  private val PARTITIONS = 16
+
+  // every level of partitioning uses the next four bits of the hash
+  private val MAX_SPILL_DEPTH = 7
+
+  private def partitionOf(hash: Int, depth: Int) = ((hash * 0x9E3779B9) >>> (28 - depth * 4)) & (PARTITIONS - 1)
+}
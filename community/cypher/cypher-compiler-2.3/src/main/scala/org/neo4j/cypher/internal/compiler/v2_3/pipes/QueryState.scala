@@ -23,6 +23,7 @@ import java.util.UUID
 
 import org.neo4j.cypher.internal.compiler.v2_3._
 import org.neo4j.cypher.internal.compiler.v2_3.commands.expressions.PathValueBuilder
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.spill.{SpillCounter, Spilling}
 import org.neo4j.cypher.internal.compiler.v2_3.spi.QueryContext
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.kernel.GraphDatabaseAPI
@@ -34,7 +35,9 @@ case class QueryState(db: GraphDatabaseService,
                       decorator: PipeDecorator,
                       timeReader: TimeReader = new TimeReader,
                       var initialContext: Option[ExecutionContext] = None,
-                      queryId: AnyRef = UUID.randomUUID().toString) {
+                      queryId: AnyRef = UUID.randomUUID().toString,
+                      spilling: Option[Spilling] = None,
+                      spillCounter: SpillCounter = SpillCounter.NONE) {
 
   private var _pathValueBuilder: PathValueBuilder = null
 
@@ -19,9 +19,12 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_3.pipes
 
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.spill.{SpillFile, Spilling}
 import org.neo4j.cypher.internal.compiler.v2_3.planDescription.InternalPlanDescription.Arguments.KeyNames
 import org.neo4j.cypher.internal.compiler.v2_3.{Comparer, ExecutionContext}
 
+import scala.collection.mutable
+
 trait SortDescription {
   def id: String
 }
@@ -32,9 +35,71 @@ case class Descending(id:String) extends SortDescription
 case class SortPipe(source: Pipe, orderBy: Seq[SortDescription])
                    (val estimatedCardinality: Option[Double] = None)(implicit monitor: PipeMonitor)
   extends PipeWithSource(source, monitor) with Comparer with RonjaPipe with NoEffectsPipe {
-  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] =
-    input.toList.
-      sortWith((a, b) => compareBy(a, b, orderBy)(state)).iterator
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val lessThan = (a: ExecutionContext, b: ExecutionContext) => compareBy(a, b, orderBy)(state)
+    state.spilling match {
+      case Some(spilling) => externalSort(input, lessThan, state, spilling)
+      case None => input.toList.sortWith(lessThan).iterator
+    }
+  }
+
+  // Sorts runs of at most threshold rows in memory, writes them to disk and merges them back together
+  private def externalSort(input: Iterator[ExecutionContext], lessThan: (ExecutionContext, ExecutionContext) => Boolean,
+                           state: QueryState, spilling: Spilling): Iterator[ExecutionContext] = {
+    val sortedRuns = input.grouped(spilling.threshold).map(_.sortWith(lessThan))
+    if (!sortedRuns.hasNext)
+      return Iterator.empty
+
+    val first = sortedRuns.next()
+    if (!sortedRuns.hasNext)
+      return first.iterator
+
+    var spilledRuns = (Iterator(first) ++ sortedRuns).map(run => spill(run.iterator, state, spilling)).toList
+
+    // Merging too many runs at once would hold a file open and a row in memory for each of them
+    while (spilledRuns.size > SortPipe.MERGE_FAN_IN) {
+      spilledRuns = spilledRuns.grouped(SortPipe.MERGE_FAN_IN).map { runs =>
+        spill(merge(runs.map(_.read()).toIndexedSeq, lessThan), state, spilling)
+      }.toList
+    }
+
+    merge(spilledRuns.map(_.read()).toIndexedSeq, lessThan)
+  }
+
+  private def spill(rows: Iterator[ExecutionContext], state: QueryState, spilling: Spilling): SpillFile = {
+    val file = new SpillFile(state, spilling)
+    rows.foreach(file.write)
+    file.finish()
+    file
+  }
+
+  private def merge(runs: IndexedSeq[Iterator[ExecutionContext]],
+                    lessThan: (ExecutionContext, ExecutionContext) => Boolean): Iterator[ExecutionContext] = {
+    case class Head(row: ExecutionContext, run: Int)
+
+    // PriorityQueue dequeues the largest element first, and ties go to the earliest run to keep the sort stable
+    val ordering = new Ordering[Head] {
+      def compare(x: Head, y: Head) =
+        if (lessThan(x.row, y.row)) 1
+        else if (lessThan(y.row, x.row)) -1
+        else y.run compare x.run
+    }
+    val heads = mutable.PriorityQueue[Head]()(ordering)
+    runs.zipWithIndex.foreach {
+      case (rows, run) => if (rows.hasNext) heads.enqueue(Head(rows.next(), run))
+    }
+
+    new Iterator[ExecutionContext] {
+      def hasNext = heads.nonEmpty
+
+      def next() = {
+        val head = heads.dequeue()
+        val rows = runs(head.run)
+        if (rows.hasNext) heads.enqueue(Head(rows.next(), head.run))
+        head.row
+      }
+    }
+  }
 
   def planDescriptionWithoutCardinality = source.planDescription.andThen(this.id, "Sort", identifiers, KeyNames(orderBy.map(_.id)))
 
@@ -61,3 +126,8 @@ case class SortPipe(source: Pipe, orderBy: Seq[SortDescription])
 
   def withEstimatedCardinality(estimated: Double) = copy()(Some(estimated))
 }
+
+object SortPipe {
+  // the number of sorted runs merged in one pass
+  private val MERGE_FAN_IN = 64
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.pipes.spill
+
+import java.io.{DataInput, DataOutput}
+
+import org.neo4j.cypher.internal.compiler.v2_3.commands.expressions.PathImpl
+import org.neo4j.cypher.internal.compiler.v2_3.spi.QueryContext
+import org.neo4j.cypher.internal.compiler.v2_3.ExecutionContext
+import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/*
+Writes rows in a compact binary form. Nodes and relationships are written as their ids and looked up again when the
+row is read back, everything else is written by value. Values of any other type make writing the row fail with an
+UnspillableValueException, and the row is then kept in memory.
+ */
+object RowSerializer {
+
+  private final val NULL = 0
+  private final val NODE = 1
+  private final val RELATIONSHIP = 2
+  private final val PATH = 3
+  private final val BOOLEAN = 4
+  private final val BYTE = 5
+  private final val SHORT = 6
+  private final val INT = 7
+  private final val LONG = 8
+  private final val FLOAT = 9
+  private final val DOUBLE = 10
+  private final val CHAR = 11
+  private final val STRING = 12
+  private final val LIST = 13
+  private final val ARRAY = 14
+  private final val MAP = 15
+
+  def write(out: DataOutput, row: ExecutionContext) {
+    out.writeInt(row.size)
+    row.foreach {
+      case (key, value) =>
+        out.writeUTF(key)
+        writeValue(out, value)
+    }
+  }
+
+  def read(in: DataInput, query: QueryContext, newRow: () => ExecutionContext): ExecutionContext = {
+    val row = newRow()
+    var remaining = in.readInt()
+    while (remaining > 0) {
+      row.put(in.readUTF(), readValue(in, query))
+      remaining -= 1
+    }
+    row
+  }
+
+  private def writeValue(out: DataOutput, value: Any): Unit = value match {
+    case null => out.writeByte(NULL)
+    case n: Node => out.writeByte(NODE); out.writeLong(n.getId)
+    case r: Relationship => out.writeByte(RELATIONSHIP); out.writeLong(r.getId)
+    case p: Path =>
+      out.writeByte(PATH)
+      out.writeInt(p.length())
+      val nodes = p.nodes().iterator()
+      val relationships = p.relationships().iterator()
+      out.writeLong(nodes.next().getId)
+      while (relationships.hasNext) {
+        out.writeLong(relationships.next().getId)
+        out.writeLong(nodes.next().getId)
+      }
+    case b: Boolean => out.writeByte(BOOLEAN); out.writeBoolean(b)
+    case b: Byte => out.writeByte(BYTE); out.writeByte(b)
+    case s: Short => out.writeByte(SHORT); out.writeShort(s)
+    case i: Int => out.writeByte(INT); out.writeInt(i)
+    case l: Long => out.writeByte(LONG); out.writeLong(l)
+    case f: Float => out.writeByte(FLOAT); out.writeFloat(f)
+    case d: Double => out.writeByte(DOUBLE); out.writeDouble(d)
+    case c: Char => out.writeByte(CHAR); out.writeChar(c)
+    case s: String => out.writeByte(STRING); writeString(out, s)
+    case a: Array[_] =>
+      out.writeByte(ARRAY)
+      out.writeUTF(a.getClass.getComponentType.getName)
+      writeElements(out, a.length, a.iterator)
+    case m: collection.Map[_, _] => writeMap(out, m.asInstanceOf[collection.Map[String, Any]])
+    case m: java.util.Map[_, _] => writeMap(out, m.asScala.asInstanceOf[collection.Map[String, Any]])
+    case s: Traversable[_] => out.writeByte(LIST); writeElements(out, s.size, s.toIterator)
+    case l: java.util.Collection[_] => out.writeByte(LIST); writeElements(out, l.size(), l.iterator().asScala)
+    case l: java.lang.Iterable[_] =>
+      val elements = l.asScala.toList
+      out.writeByte(LIST)
+      writeElements(out, elements.size, elements.iterator)
+    case other =>
+      throw new UnspillableValueException(other)
+  }
+
+  // writeUTF is limited to 64k of encoded data
+  private def writeString(out: DataOutput, s: String) {
+    val bytes = s.getBytes("UTF-8")
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  private def writeElements(out: DataOutput, size: Int, elements: Iterator[Any]) {
+    out.writeInt(size)
+    elements.foreach(writeValue(out, _))
+  }
+
+  private def writeMap(out: DataOutput, m: collection.Map[String, Any]) {
+    out.writeByte(MAP)
+    out.writeInt(m.size)
+    m.foreach {
+      case (key, value) =>
+        writeString(out, key)
+        writeValue(out, value)
+    }
+  }
+
+  private def readValue(in: DataInput, query: QueryContext): Any = in.readByte().toInt match {
+    case NULL => null
+    case NODE => query.nodeOps.getById(in.readLong())
+    case RELATIONSHIP => query.relationshipOps.getById(in.readLong())
+    case PATH =>
+      val length = in.readInt()
+      val entities = new Array[PropertyContainer](length * 2 + 1)
+      entities(0) = query.nodeOps.getById(in.readLong())
+      var i = 1
+      while (i < entities.length) {
+        entities(i) = query.relationshipOps.getById(in.readLong())
+        entities(i + 1) = query.nodeOps.getById(in.readLong())
+        i += 2
+      }
+      PathImpl(entities: _*)
+    case BOOLEAN => in.readBoolean()
+    case BYTE => in.readByte()
+    case SHORT => in.readShort()
+    case INT => in.readInt()
+    case LONG => in.readLong()
+    case FLOAT => in.readFloat()
+    case DOUBLE => in.readDouble()
+    case CHAR => in.readChar()
+    case STRING => readString(in)
+    case ARRAY =>
+      val componentType = in.readUTF() match {
+        case "boolean" => classOf[Boolean]
+        case "byte" => classOf[Byte]
+        case "short" => classOf[Short]
+        case "int" => classOf[Int]
+        case "long" => classOf[Long]
+        case "float" => classOf[Float]
+        case "double" => classOf[Double]
+        case "char" => classOf[Char]
+        case name => Class.forName(name)
+      }
+      val size = in.readInt()
+      val array = java.lang.reflect.Array.newInstance(componentType, size)
+      (0 until size).foreach(i => java.lang.reflect.Array.set(array, i, readValue(in, query)))
+      array
+    case LIST =>
+      val size = in.readInt()
+      (0 until size).map(_ => readValue(in, query)).toList
+    case MAP =>
+      val size = in.readInt()
+      val result = mutable.LinkedHashMap[String, Any]()
+      (0 until size).foreach(_ => result.put(readString(in), readValue(in, query)))
+      result.toMap
+    case tag =>
+      throw new IllegalStateException(s"Unknown value tag $tag in spilled row")
+  }
+
+  private def readString(in: DataInput): String = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    new String(bytes, "UTF-8")
+  }
+}
+
+class UnspillableValueException(value: Any)
+  extends RuntimeException(s"Can not spill values of type ${value.getClass.getSimpleName} to disk")
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.pipes.spill
+
+import java.io._
+
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.QueryState
+import org.neo4j.cypher.internal.compiler.v2_3.{ExecutionContext, TaskCloser}
+
+import scala.collection.mutable
+
+/*
+Pipes that would otherwise keep all their rows in memory keep at most threshold of them, and spill the rest to
+temporary files that are cleaned up when the query closes.
+ */
+case class Spilling(threshold: Int, closer: TaskCloser) {
+  require(threshold > 0, "The spill threshold must be positive")
+}
+
+/*
+Counts the bytes a pipe has written to spill files, so they can be shown when profiling.
+ */
+class SpillCounter {
+  private var _bytes = 0L
+
+  def bytes = _bytes
+
+  def spilled(bytes: Long) {
+    _bytes += bytes
+  }
+}
+
+object SpillCounter {
+  val NONE = new SpillCounter {
+    override def spilled(bytes: Long) {}
+  }
+}
+
+/*
+A temporary file that rows are appended to, and later read back from exactly once. The file is deleted once it has
+been read to the end, or when the query is closed. Rows holding values that can not be written to disk, and every
+row after them so that the order is kept, stay in memory instead.
+ */
+class SpillFile(state: QueryState, spilling: Spilling) {
+
+  private val file = File.createTempFile("cypher-spill", ".rows")
+  spilling.closer.addTask(_ => delete())
+
+  private val counting = new CountingOutputStream(new FileOutputStream(file))
+  private val out = new DataOutputStream(new BufferedOutputStream(counting, SpillFile.BUFFER_SIZE))
+  private val rowBuffer = new ByteArrayOutputStream()
+  private val rowOut = new DataOutputStream(rowBuffer)
+  private var in: InputStream = null
+  private var finished = false
+  private var rowCount = 0L
+  private val unspilled = mutable.ArrayBuffer[ExecutionContext]()
+
+  def write(row: ExecutionContext) {
+    if (unspilled.isEmpty && serialize(row)) {
+      rowBuffer.writeTo(out)
+      rowCount += 1
+    } else {
+      unspilled += row
+    }
+  }
+
+  def size = rowCount + unspilled.size
+
+  /*
+  Stops writing to the file, so that it does not hold on to a file handle until it is read.
+   */
+  def finish() {
+    if (!finished) {
+      finished = true
+      out.close()
+      state.spillCounter.spilled(counting.count)
+    }
+  }
+
+  def read(): Iterator[ExecutionContext] = {
+    finish()
+    if (rowCount == 0) {
+      delete()
+      return unspilled.iterator
+    }
+
+    val input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), SpillFile.BUFFER_SIZE))
+    in = input
+    val spilled = new Iterator[ExecutionContext] {
+      private var remaining = rowCount
+
+      def hasNext = remaining > 0
+
+      def next() = {
+        if (!hasNext) Iterator.empty.next()
+        val row = RowSerializer.read(input, state.query, () => ExecutionContext.empty)
+        remaining -= 1
+        if (remaining == 0) {
+          delete()
+        }
+        row
+      }
+    }
+    spilled ++ unspilled.iterator
+  }
+
+  private def serialize(row: ExecutionContext): Boolean = {
+    rowBuffer.reset()
+    try {
+      RowSerializer.write(rowOut, row)
+      true
+    } catch {
+      case _: UnspillableValueException => false
+    }
+  }
+
+  // Open streams are closed first, so that the file can be deleted and its handle released right away
+  private def delete() {
+    closeQuietly(out)
+    if (in != null) closeQuietly(in)
+    file.delete()
+  }
+
+  private def closeQuietly(stream: Closeable) {
+    try {
+      stream.close()
+    } catch {
+      case _: IOException => // the file is deleted anyway
+    }
+  }
+
+  private class CountingOutputStream(inner: OutputStream) extends FilterOutputStream(inner) {
+    var count = 0L
+
+    override def write(b: Int) {
+      inner.write(b)
+      count += 1
+    }
+
+    override def write(b: Array[Byte], off: Int, len: Int) {
+      inner.write(b, off, len)
+      count += len
+    }
+  }
+}
+
+object SpillFile {
+  private val BUFFER_SIZE = 64 * 1024
+}
@@ -42,6 +42,7 @@ object renderDetails extends (InternalPlanDescription => String) {
         val times = p.arguments.collectFirst { case Time(nanos) => (nanos/1000000.0).toString}
         val ids = Some(p.orderedIdentifiers.map(PlanDescriptionArgumentSerializer.removeGeneratedNames).mkString(", "))
         val other = Some(p.arguments.collect {
+          case SpilledBytes(bytes) => s"spilled $bytes bytes"
           case x
             if !x.isInstanceOf[Rows] &&
               !x.isInstanceOf[DbHits] &&
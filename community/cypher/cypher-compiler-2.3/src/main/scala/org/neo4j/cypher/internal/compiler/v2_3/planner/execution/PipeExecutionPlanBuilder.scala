@@ -91,6 +91,9 @@ class PipeExecutionPlanBuilder(clock: Clock, monitors: Monitors) {
         case NodeIndexUniqueSeek(IdName(id), label, propertyKey, valueExpr, _) =>
           NodeIndexSeekPipe(id, label, propertyKey, valueExpr.map(buildExpression), unique = true)()
 
+        case NodeIndexSeekByRange(IdName(id), label, propertyKey, range, _) =>
+          NodeIndexSeekByRangePipe(id, label, propertyKey, range.map(buildExpression))()
+
         case NodeIndexScan(IdName(id), label, propertyKey, _) =>
           NodeIndexScanPipe(id, label, propertyKey)()
 
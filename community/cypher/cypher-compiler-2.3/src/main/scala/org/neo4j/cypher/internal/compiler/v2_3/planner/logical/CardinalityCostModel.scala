@@ -77,6 +77,7 @@ object CardinalityCostModel extends CostModel {
          _: NodeByIdSeek |
          _: NodeIndexUniqueSeek |
          _: NodeIndexSeek |
+         _: NodeIndexSeekByRange |
          _: NodeIndexScan
     => SLOW_STORE
 
@@ -46,6 +46,9 @@ object LogicalPlan2PlanDescription extends ((LogicalPlan, Map[LogicalPlan, Id])
       case NodeIndexUniqueSeek(IdName(id), label, propKey, value, arguments) =>
         PlanDescriptionImpl(id = idMap(plan), "NodeIndexUniqueSeek", NoChildren, Seq(Index(label.name, propKey.name)), symbols)
 
+      case NodeIndexSeekByRange(IdName(id), label, propKey, range, arguments) =>
+        PlanDescriptionImpl(id = idMap(plan), "NodeIndexSeekByRange", NoChildren, Seq(Index(label.name, propKey.name)), symbols)
+
       case ProduceResult(nodes, rels, _, inner) =>
         PlanDescriptionImpl(id = idMap(plan), "Results", SingleChild(apply(inner, idMap)), Seq(), symbols)
 
@@ -22,7 +22,7 @@ package org.neo4j.cypher.internal.compiler.v2_3.planner.logical.plans
 import org.neo4j.cypher.internal.compiler.v2_3.ast._
 import org.neo4j.cypher.internal.compiler.v2_3.ast.convert.commands.ExpressionConverters._
 import org.neo4j.cypher.internal.compiler.v2_3.commands.{ManyQueryExpression, QueryExpression, SingleQueryExpression}
-import org.neo4j.cypher.internal.compiler.v2_3.functions
+import org.neo4j.cypher.internal.compiler.v2_3.{ExclusiveBound, InclusiveBound, SeekRange, functions}
 import org.neo4j.cypher.internal.compiler.v2_3.helpers.{Many, One, Zero, ZeroOneOrMany}
 import org.neo4j.cypher.internal.compiler.v2_3.pipes.{ManySeekArgs, SingleSeekArg, SeekArgs}
 
@@ -54,6 +54,33 @@ object AsPropertySeekable {
   }
 }
 
+object AsPropertyRangeSeekable {
+  def unapply(v: Any): Option[PropertyRangeSeekable] = v match {
+    // n.prop < x, n.prop <= x, n.prop > x, n.prop >= x
+    case expr@LessThan(prop@Property(ident: Identifier, _), rhs) if !rhs.dependencies(ident) =>
+      Some(PropertyRangeSeekable(expr, ident, prop, SeekRange(None, Some(ExclusiveBound(rhs)))))
+    case expr@LessThanOrEqual(prop@Property(ident: Identifier, _), rhs) if !rhs.dependencies(ident) =>
+      Some(PropertyRangeSeekable(expr, ident, prop, SeekRange(None, Some(InclusiveBound(rhs)))))
+    case expr@GreaterThan(prop@Property(ident: Identifier, _), rhs) if !rhs.dependencies(ident) =>
+      Some(PropertyRangeSeekable(expr, ident, prop, SeekRange(Some(ExclusiveBound(rhs)), None)))
+    case expr@GreaterThanOrEqual(prop@Property(ident: Identifier, _), rhs) if !rhs.dependencies(ident) =>
+      Some(PropertyRangeSeekable(expr, ident, prop, SeekRange(Some(InclusiveBound(rhs)), None)))
+
+    // x > n.prop, x >= n.prop, x < n.prop, x <= n.prop
+    case expr@GreaterThan(lhs, prop@Property(ident: Identifier, _)) if !lhs.dependencies(ident) =>
+      Some(PropertyRangeSeekable(expr, ident, prop, SeekRange(None, Some(ExclusiveBound(lhs)))))
+    case expr@GreaterThanOrEqual(lhs, prop@Property(ident: Identifier, _)) if !lhs.dependencies(ident) =>
+      Some(PropertyRangeSeekable(expr, ident, prop, SeekRange(None, Some(InclusiveBound(lhs)))))
+    case expr@LessThan(lhs, prop@Property(ident: Identifier, _)) if !lhs.dependencies(ident) =>
+      Some(PropertyRangeSeekable(expr, ident, prop, SeekRange(Some(ExclusiveBound(lhs)), None)))
+    case expr@LessThanOrEqual(lhs, prop@Property(ident: Identifier, _)) if !lhs.dependencies(ident) =>
+      Some(PropertyRangeSeekable(expr, ident, prop, SeekRange(Some(InclusiveBound(lhs)), None)))
+
+    case _ =>
+      None
+  }
+}
+
 object AsPropertyScannable {
   def unapply(v: Any) = v match {
     case func@FunctionInvocation(_, _, IndexedSeq(property@Property(ident: Identifier, _)))
@@ -84,6 +111,14 @@ case class PropertySeekable(expr: Property, ident: Identifier, args: SeekableArg
   def propertyKey = expr.propertyKey
 }
 
+case class PropertyRangeSeekable(expr: Expression, ident: Identifier, property: Property, range: SeekRange[Expression])
+  extends Sargable[Expression] {
+
+  def propertyKey = property.propertyKey
+
+  def dependencies: Set[Identifier] = range.bounds.flatMap(_.endPoint.dependencies).toSet
+}
+
 sealed trait Scannable[T <: Expression] extends Sargable[T]
 
 case class PropertyScannable(expr: FunctionInvocation, ident: Identifier, property: Property)
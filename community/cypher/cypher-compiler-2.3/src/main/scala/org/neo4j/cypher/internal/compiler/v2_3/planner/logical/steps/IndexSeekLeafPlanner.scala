@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_3.planner.logical.steps
 
+import org.neo4j.cypher.internal.compiler.v2_3.SeekRange
 import org.neo4j.cypher.internal.compiler.v2_3.ast._
 import org.neo4j.cypher.internal.compiler.v2_3.commands.{ManyQueryExpression, QueryExpression}
 import org.neo4j.cypher.internal.compiler.v2_3.planner.QueryGraph
@@ -107,6 +108,48 @@ object indexSeekLeafPlanner extends AbstractIndexSeekLeafPlanner {
   private def uniqueIndex(label: String, property: String)(implicit context: LogicalPlanningContext) = context.planContext.getUniqueIndexRule(label, property)
 }
 
+object indexSeekByRangeLeafPlanner extends LeafPlanner {
+  def apply(qg: QueryGraph)(implicit context: LogicalPlanningContext) = {
+    implicit val semanticTable = context.semanticTable
+    val labelPredicateMap: Map[IdName, Set[HasLabels]] = qg.selections.labelPredicates
+    val arguments = qg.argumentIds.map(n => Identifier(n.name)(null))
+
+    val seekables = qg.selections.flatPredicates.collect {
+      case AsPropertyRangeSeekable(seekable)
+        if seekable.dependencies.forall(arguments) && !arguments(seekable.ident) => seekable
+    }
+
+    // Combine a lower and an upper bound on the same property into a single seek, leaving any further
+    // predicates to be solved by a selection on top
+    seekables.groupBy(seekable => (seekable.ident, seekable.propertyKey)).toSeq.flatMap {
+      case ((ident, propertyKeyName), candidates) =>
+        val lower = candidates.find(_.range.lower.isDefined)
+        val upper = candidates.find(_.range.upper.isDefined)
+        val range = SeekRange(lower.flatMap(_.range.lower), upper.flatMap(_.range.upper))
+        val solvedPredicates = (lower.toSeq ++ upper.toSeq).map(_.expr)
+        val name = ident.name
+        val idName = IdName(name)
+        val propertyName = propertyKeyName.name
+
+        for (labelPredicate <- labelPredicateMap.getOrElse(idName, Set.empty).toSeq;
+             labelName <- labelPredicate.labels;
+             indexDescriptor <- findIndexFor(labelName.name, propertyName);
+             labelId <- labelName.id)
+        yield {
+          val hint = qg.hints.collectFirst {
+            case hint @ UsingIndexHint(Identifier(`name`), `labelName`, Identifier(`propertyName`)) => hint
+          }
+          context.logicalPlanProducer.planNodeIndexSeekByRange(idName, LabelToken(labelName, labelId),
+            PropertyKeyToken(propertyKeyName, propertyKeyName.id.head), range,
+            solvedPredicates :+ labelPredicate, hint, qg.argumentIds)
+        }
+    }
+  }
+
+  private def findIndexFor(label: String, property: String)(implicit context: LogicalPlanningContext): Option[IndexDescriptor] =
+    context.planContext.getIndexRule(label, property) orElse context.planContext.getUniqueIndexRule(label, property)
+}
+
 object legacyHintLeafPlanner extends LeafPlanner {
   def apply(qg: QueryGraph)(implicit context: LogicalPlanningContext) = {
     qg.hints.toSeq.collect {
@@ -28,7 +28,7 @@ import org.neo4j.cypher.internal.compiler.v2_3.planner.logical.LogicalPlanningCo
 import org.neo4j.cypher.internal.compiler.v2_3.planner.logical.Metrics.CardinalityModel
 import org.neo4j.cypher.internal.compiler.v2_3.planner.logical.plans.{Limit => LimitPlan, Skip => SkipPlan, _}
 import org.neo4j.cypher.internal.compiler.v2_3.symbols._
-import org.neo4j.cypher.internal.compiler.v2_3.{InternalException, ast}
+import org.neo4j.cypher.internal.compiler.v2_3.{InternalException, SeekRange, ast}
 import org.neo4j.graphdb.Direction
 
 case class LogicalPlanProducer(cardinalityModel: CardinalityModel) extends CollectionSupport {
@@ -173,6 +173,22 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel) extends Colle
     NodeIndexSeek(idName, label, propertyKey, valueExpr, argumentIds)(solved)
   }
 
+  def planNodeIndexSeekByRange(idName: IdName,
+                               label: ast.LabelToken,
+                               propertyKey: ast.PropertyKeyToken,
+                               range: SeekRange[Expression],
+                               solvedPredicates: Seq[Expression] = Seq.empty,
+                               solvedHint: Option[UsingIndexHint] = None,
+                               argumentIds: Set[IdName])(implicit context: LogicalPlanningContext) = {
+    val solved = PlannerQuery(graph = QueryGraph.empty
+      .addPatternNodes(idName)
+      .addPredicates(solvedPredicates: _*)
+      .addHints(solvedHint)
+      .addArgumentIds(argumentIds.toSeq)
+    )
+    NodeIndexSeekByRange(idName, label, propertyKey, range, argumentIds)(solved)
+  }
+
   def planNodeIndexScan(idName: IdName,
                         label: ast.LabelToken,
                         propertyKey: ast.PropertyKeyToken,
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.compiler.v2_3.profiler
 import org.neo4j.cypher.internal.compiler.v2_3.planDescription.InternalPlanDescription
 import org.neo4j.cypher.internal.compiler.v2_3.planDescription.InternalPlanDescription.Arguments
 import org.neo4j.cypher.internal.compiler.v2_3._
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.spill.SpillCounter
 import org.neo4j.cypher.internal.compiler.v2_3.pipes.{SingleRowPipe, Pipe, PipeDecorator, QueryState}
 import org.neo4j.cypher.internal.compiler.v2_3.spi.{DelegatingOperations, DelegatingQueryContext, Operations, QueryContext}
 import org.neo4j.graphdb.{Node, PropertyContainer, Relationship}
@@ -33,6 +34,7 @@ class Profiler extends PipeDecorator {
 
   val dbHitsStats: mutable.Map[Object, ProfilingQueryContext] = mutable.Map.empty
   val rowStats: mutable.Map[Object, ProfilingIterator] = mutable.Map.empty
+  val spillStats: mutable.Map[Object, SpillCounter] = mutable.Map.empty
   private var parentPipe: Option[Pipe] = None
 
 
@@ -51,7 +53,7 @@ class Profiler extends PipeDecorator {
       case _ => new ProfilingQueryContext(state.query, pipe)
     })
 
-    state.copy(query = decoratedContext)
+    state.copy(query = decoratedContext, spillCounter = spillStats.getOrElseUpdate(pipe.id, new SpillCounter))
   }
 
 
@@ -63,10 +65,13 @@ class Profiler extends PipeDecorator {
       input: InternalPlanDescription =>
         val rows = rowStats.get(input.id).map(_.count).getOrElse(0L)
         val dbHits = dbHitsStats.get(input.id).map(_.count).getOrElse(0L)
+        val spilledBytes = spillStats.get(input.id).map(_.bytes).getOrElse(0L)
 
-        input
+        val profiled = input
           .addArgument(Arguments.Rows(rows))
           .addArgument(Arguments.DbHits(dbHits))
+
+        if (spilledBytes > 0) profiled.addArgument(Arguments.SpilledBytes(spilledBytes)) else profiled
     }
   }
 
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_3.spi
 
+import org.neo4j.cypher.internal.compiler.v2_3.SeekRange
 import org.neo4j.graphdb.{Relationship, PropertyContainer, Direction, Node}
 import org.neo4j.kernel.api.index.IndexDescriptor
 
@@ -83,6 +84,9 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   def indexScan(index: IndexDescriptor): Iterator[Node] = manyDbHits(inner.indexScan(index))
 
+  def indexSeekByRange(index: IndexDescriptor, range: SeekRange[Any]): Iterator[Node] =
+    manyDbHits(inner.indexSeekByRange(index, range))
+
   def getNodesByLabel(id: Int): Iterator[Node] = manyDbHits(inner.getNodesByLabel(id))
 
   def upgrade(context: QueryContext): LockingQueryContext = inner.upgrade(context)
@@ -109,6 +113,8 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   override def hasLocalFileAccess: Boolean = inner.hasLocalFileAccess
 
+  override def spillThreshold: Int = inner.spillThreshold
+
   def relationshipStartNode(rel: Relationship) = inner.relationshipStartNode(rel)
 
   def relationshipEndNode(rel: Relationship) = inner.relationshipEndNode(rel)
@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_3.spi
 
-import org.neo4j.cypher.internal.compiler.v2_3.InternalQueryStatistics
+import org.neo4j.cypher.internal.compiler.v2_3.{InternalQueryStatistics, SeekRange}
 import org.neo4j.graphdb._
 import org.neo4j.kernel.api.constraints.UniquenessConstraint
 import org.neo4j.kernel.api.index.IndexDescriptor
@@ -79,6 +79,8 @@ trait QueryContext extends TokenContext {
 
   def indexScan(index: IndexDescriptor): Iterator[Node]
 
+  def indexSeekByRange(index: IndexDescriptor, range: SeekRange[Any]): Iterator[Node]
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node]
 
   def getNodesByLabel(id: Int): Iterator[Node]
@@ -97,6 +99,8 @@ trait QueryContext extends TokenContext {
 
   def hasLocalFileAccess: Boolean = false
 
+  def spillThreshold: Int = 0
+
   /**
    * This should not be used. We'll remove sooner (or later). Don't do it.
    */
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.codegen;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JavacTest
+{
+    private static final AtomicInteger CLASS_NUMBER = new AtomicInteger();
+
+    @Test
+    public void shouldKeepLineNumbersInGeneratedCode() throws Exception
+    {
+        // given
+        String className = nextClassName();
+        Class<?> clazz = Javac.compile( className,
+                "public class " + className + " implements Runnable\n" +
+                "{\n" +
+                "    public void run()\n" +
+                "    {\n" +
+                "        throw new IllegalStateException();\n" +
+                "    }\n" +
+                "}\n" );
+        Runnable generated = (Runnable) clazz.newInstance();
+
+        try
+        {
+            // when
+            generated.run();
+            fail( "should have thrown" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // then
+            assertTrue( e.getStackTrace()[0].getLineNumber() > 0 );
+        }
+    }
+
+    @Test
+    public void shouldNotKeepMoreFileManagersAroundThanThereAreProcessors() throws Exception
+    {
+        // given
+        int threads = Javac.MAX_IDLE_FILE_MANAGERS * 2;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Class<?>>> compilations = new ArrayList<>();
+            for ( int i = 0; i < threads * 2; i++ )
+            {
+                compilations.add( executor.submit( new Callable<Class<?>>()
+                {
+                    @Override
+                    public Class<?> call() throws Exception
+                    {
+                        String className = nextClassName();
+                        return Javac.compile( className, "public class " + className + " {}" );
+                    }
+                } ) );
+            }
+
+            // when
+            for ( Future<Class<?>> compilation : compilations )
+            {
+                compilation.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            executor.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+
+        // then
+        assertTrue( Javac.idleFileManagers() <= Javac.MAX_IDLE_FILE_MANAGERS );
+    }
+
+    private static String nextClassName()
+    {
+        return "GeneratedForJavacTest" + CLASS_NUMBER.incrementAndGet();
+    }
+}
@@ -28,10 +28,10 @@ import org.neo4j.cypher.internal.compiler.v2_3.ast._
 import org.neo4j.cypher.internal.compiler.v2_3.executionplan.ExecutionPlanBuilder.tracer
 import org.neo4j.cypher.internal.compiler.v2_3.executionplan.InternalExecutionResult
 import org.neo4j.cypher.internal.compiler.v2_3.pipes.LazyLabel
-import org.neo4j.cypher.internal.compiler.v2_3.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v2_3.planner.logical.plans.{Limit, Skip, _}
 import org.neo4j.cypher.internal.compiler.v2_3.planner.{LogicalPlanningTestSupport, SemanticTable}
 import org.neo4j.cypher.internal.compiler.v2_3.test_helpers.CypherFunSuite
-import org.neo4j.cypher.internal.compiler.v2_3.{NormalMode, ParameterNotFoundException, TaskCloser}
+import org.neo4j.cypher.internal.compiler.v2_3.{CypherTypeException, IncomparableValuesException, NormalMode, ParameterNotFoundException, TaskCloser}
 import org.neo4j.graphdb.Result.{ResultRow, ResultVisitor}
 import org.neo4j.graphdb.{Direction, GraphDatabaseService, Node}
 import org.neo4j.helpers.Clock
@@ -287,6 +287,136 @@ class CodeGeneratorTest extends CypherFunSuite with LogicalPlanningTestSupport {
     ))
   }
 
+  test("all nodes scan + label filter") { // MATCH a WHERE a:T1 RETURN a
+    //given
+    val predicate = HasLabels(ident("a"), Seq(LabelName("T1")(pos)))(pos)
+    val plan = ProduceResult(List("a"), List.empty, List.empty,
+      Projection(Selection(Seq(predicate), AllNodesScan(IdName("a"), Set.empty)(solved))(solved),
+        Map("a" -> ident("a")))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    val result = getNodesFromResult(compiled, "a")
+    result should equal(List(
+      Map("a" -> aNode),
+      Map("a" -> bNode),
+      Map("a" -> cNode)))
+  }
+
+  test("all nodes scan + negated label filter") { // MATCH a WHERE NOT a:T1 RETURN a
+    //given
+    val predicate = Not(HasLabels(ident("a"), Seq(LabelName("T1")(pos)))(pos))(pos)
+    val plan = ProduceResult(List("a"), List.empty, List.empty,
+      Projection(Selection(Seq(predicate), AllNodesScan(IdName("a"), Set.empty)(solved))(solved),
+        Map("a" -> ident("a")))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    val result = getNodesFromResult(compiled, "a")
+    result should equal(List(
+      Map("a" -> dNode),
+      Map("a" -> eNode),
+      Map("a" -> fNode),
+      Map("a" -> gNode)))
+  }
+
+  test("expand + filter on equal nodes") { // MATCH (a)-[r]-(b) WHERE a = b RETURN a
+    //given
+    val predicate = Equals(ident("a"), ident("b"))(pos)
+    val plan = ProduceResult(List("a"), List.empty, List.empty,
+      Projection(
+        Selection(Seq(predicate),
+          Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"), Direction.BOTH, Seq.empty,
+            IdName("b"), IdName("r"), ExpandAll)(solved))(solved),
+        Map("a" -> ident("a")))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    getNodesFromResult(compiled, "a") shouldBe empty
+  }
+
+  test("all nodes scan + limit") { // MATCH a RETURN a LIMIT 2
+    //given
+    val plan = ProduceResult(List("a"), List.empty, List.empty,
+      Projection(Limit(AllNodesScan(IdName("a"), Set.empty)(solved), SignedDecimalIntegerLiteral("2")(pos))(solved),
+        Map("a" -> ident("a")))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    val result = getNodesFromResult(compiled, "a")
+    result should equal(List(
+      Map("a" -> aNode),
+      Map("a" -> bNode)))
+  }
+
+  test("all nodes scan + skip with parameter") { // MATCH a RETURN a SKIP {FOO}
+    //given
+    val plan = ProduceResult(List("a"), List.empty, List.empty,
+      Projection(Skip(AllNodesScan(IdName("a"), Set.empty)(solved), Parameter("FOO")(pos))(solved),
+        Map("a" -> ident("a")))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan, Map("FOO" -> Long.box(5L)))
+
+    //then
+    val result = getNodesFromResult(compiled, "a")
+    result should equal(List(
+      Map("a" -> fNode),
+      Map("a" -> gNode)))
+  }
+
+  test("expand + filter on node equal to relationship") { // MATCH (a)-[r]-(b) WHERE a = r RETURN a
+    //given
+    val predicate = Equals(ident("a"), ident("r"))(pos)
+    val plan = ProduceResult(List("a"), List.empty, List.empty,
+      Projection(
+        Selection(Seq(predicate),
+          Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"), Direction.BOTH, Seq.empty,
+            IdName("b"), IdName("r"), ExpandAll)(solved))(solved),
+        Map("a" -> ident("a")))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    an [IncomparableValuesException] should be thrownBy getNodesFromResult(compiled, "a")
+  }
+
+  test("all nodes scan + filter on node equal to literal") { // MATCH a WHERE a = 0 RETURN a
+    //given
+    val predicate = Equals(ident("a"), SignedDecimalIntegerLiteral("0")(pos))(pos)
+    val plan = ProduceResult(List("a"), List.empty, List.empty,
+      Projection(Selection(Seq(predicate), AllNodesScan(IdName("a"), Set.empty)(solved))(solved),
+        Map("a" -> ident("a")))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    an [IncomparableValuesException] should be thrownBy getNodesFromResult(compiled, "a")
+  }
+
+  test("all nodes scan + limit with null parameter") { // MATCH a RETURN a LIMIT {FOO}
+    //given
+    val plan = ProduceResult(List("a"), List.empty, List.empty,
+      Projection(Limit(AllNodesScan(IdName("a"), Set.empty)(solved), Parameter("FOO")(pos))(solved),
+        Map("a" -> ident("a")))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan, Map("FOO" -> null))
+
+    //then
+    a [CypherTypeException] should be thrownBy getNodesFromResult(compiled, "a")
+  }
+
   test("project literal") {
     val plan = ProduceResult(List.empty, List.empty, List("a"), Projection(SingleRow()(solved), Map("a" -> SignedDecimalIntegerLiteral("1")(pos)))(solved))
     val compiled = compileAndExecute(plan)
@@ -542,6 +672,7 @@ class CodeGeneratorTest extends CypherFunSuite with LogicalPlanningTestSupport {
   when(semanticTable.isNode(ident("e"))).thenReturn(true)
   when(semanticTable.isNode(ident("f"))).thenReturn(true)
   when(semanticTable.isNode(ident("g"))).thenReturn(true)
+  when(semanticTable.isRelationship(ident("r"))).thenReturn(true)
 
   private val allNodes = Seq(aNode, bNode, cNode, dNode, eNode, fNode, gNode)
   private val nodesForLabel = Map("T1" -> Seq(aNode, bNode, cNode), "T2" -> Seq(fNode, gNode))
@@ -581,6 +712,15 @@ class CodeGeneratorTest extends CypherFunSuite with LogicalPlanningTestSupport {
       primitiveIterator(nodeIds)
     }
   })
+  when(ro.nodeHasLabel(anyLong(), anyInt())).thenAnswer(new Answer[Boolean] {
+    override def answer(invocationOnMock: InvocationOnMock): Boolean = {
+      val node = invocationOnMock.getArguments.apply(0).asInstanceOf[Long].toInt
+      val labelToken = invocationOnMock.getArguments.apply(1).asInstanceOf[Int]
+      nodesForLabel.exists {
+        case (label, nodes) => labelTokens(label) == labelToken && nodes.contains(allNodes(node))
+      }
+    }
+  })
   when(ro.nodeGetRelationships(anyLong(), any[Direction])).thenAnswer(new Answer[PrimitiveLongIterator] {
     override def answer(invocationOnMock: InvocationOnMock): PrimitiveLongIterator = {
       val node = invocationOnMock.getArguments.apply(0).asInstanceOf[Long].toInt
@@ -613,6 +753,14 @@ class CodeGeneratorTest extends CypherFunSuite with LogicalPlanningTestSupport {
     }
   })
 
+  when(graphDatabaseService.getRelationshipById(anyLong())).thenAnswer(new Answer[org.neo4j.graphdb.Relationship]() {
+    override def answer(invocationOnMock: InvocationOnMock): org.neo4j.graphdb.Relationship = {
+      val relationship = mock[org.neo4j.graphdb.Relationship]
+      when(relationship.getId).thenReturn(invocationOnMock.getArguments.apply(0).asInstanceOf[Long])
+      relationship
+    }
+  })
+
   private def mockNode(id: Long, name: String) = {
     val node = mock[Node]
     when(node.getId).thenReturn(id)
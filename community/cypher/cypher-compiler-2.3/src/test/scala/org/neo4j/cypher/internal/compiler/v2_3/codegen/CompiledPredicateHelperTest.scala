@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.codegen
+
+import java.lang.{Boolean => JBoolean}
+
+import org.neo4j.cypher.internal.compiler.v2_3.IncomparableValuesException
+import org.neo4j.cypher.internal.compiler.v2_3.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.Node
+
+import scala.collection.JavaConverters._
+
+class CompiledPredicateHelperTest extends CypherFunSuite {
+
+  private val TRUE: JBoolean = true
+  private val FALSE: JBoolean = false
+  private val NULL: JBoolean = null
+
+  test("equality of numbers ignores the number type") {
+    CompiledPredicateHelper.equals(Long.box(1L), Int.box(1)) should equal(TRUE)
+    CompiledPredicateHelper.equals(Long.box(1L), Double.box(1.0)) should equal(TRUE)
+    CompiledPredicateHelper.equals(Long.box(1L), Double.box(1.5)) should equal(FALSE)
+    CompiledPredicateHelper.equals(Long.box(Long.MaxValue), Long.box(Long.MaxValue - 1)) should equal(FALSE)
+  }
+
+  test("equality with null is unknown") {
+    CompiledPredicateHelper.equals(null, "a") should equal(NULL)
+    CompiledPredicateHelper.equals("a", null) should equal(NULL)
+    CompiledPredicateHelper.equals(null, null) should equal(NULL)
+  }
+
+  test("collections are compared element by element") {
+    CompiledPredicateHelper.equals(List[Any](1L, "a").asJava, Array[Any](1, "a")) should equal(TRUE)
+    CompiledPredicateHelper.equals(List[Any](1L, "a").asJava, List[Any](1L).asJava) should equal(FALSE)
+  }
+
+  test("nodes are not comparable to other values") {
+    an [IncomparableValuesException] should be thrownBy CompiledPredicateHelper.equals(mock[Node], "a")
+  }
+
+  test("boolean operators use ternary logic") {
+    CompiledPredicateHelper.not(NULL) should equal(NULL)
+    CompiledPredicateHelper.not(TRUE) should equal(FALSE)
+
+    CompiledPredicateHelper.and(NULL, FALSE) should equal(FALSE)
+    CompiledPredicateHelper.and(NULL, TRUE) should equal(NULL)
+    CompiledPredicateHelper.and(TRUE, TRUE) should equal(TRUE)
+
+    CompiledPredicateHelper.or(NULL, TRUE) should equal(TRUE)
+    CompiledPredicateHelper.or(NULL, FALSE) should equal(NULL)
+    CompiledPredicateHelper.or(FALSE, FALSE) should equal(FALSE)
+
+    CompiledPredicateHelper.isTrue(NULL) should equal(false)
+  }
+}
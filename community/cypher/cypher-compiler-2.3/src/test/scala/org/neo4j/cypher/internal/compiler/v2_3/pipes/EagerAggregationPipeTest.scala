@@ -19,7 +19,8 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_3.pipes
 
-import org.neo4j.cypher.internal.compiler.v2_3.SyntaxException
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.spill.Spilling
+import org.neo4j.cypher.internal.compiler.v2_3.{SyntaxException, TaskCloser}
 import org.neo4j.cypher.internal.compiler.v2_3.commands.expressions._
 import org.neo4j.cypher.internal.compiler.v2_3.commands.values.TokenType.PropertyKey
 import org.neo4j.cypher.internal.compiler.v2_3.symbols._
@@ -102,6 +103,20 @@ class EagerAggregationPipeTest extends CypherFunSuite {
     getResults(aggregationPipe) should equal(List(Map("count(name)" -> 3)))
   }
 
+  test("should aggregate groups past the spill threshold") {
+    val names = List("Andres", "Peter", "Michael", "Stefan", "Jakub", "Mats")
+    val rows = for (i <- 0 until 30) yield Map[String, Any]("name" -> names(i % names.size), "age" -> i)
+    val source = new FakePipe(rows, createSymbolTableFor("name"))
+
+    val returnItems = createReturnItemsFor("name")
+    val grouping = Map("count(*)" -> CountStar())
+    val aggregationPipe = new EagerAggregationPipe(source, returnItems, grouping)()
+    val state = QueryStateHelper.emptyWith(spilling = Some(Spilling(2, new TaskCloser)))
+
+    aggregationPipe.createResults(state).map(_.m.toMap).toList should contain theSameElementsAs
+      names.map(name => Map[String, Any]("name" -> name, "count(*)" -> 5))
+  }
+
   private def createSymbolTableFor(name: String): (String, CypherType) = name -> CTNode
 
   private def getResults(p: Pipe) = p.createResults(QueryStateHelper.empty).map(_.m.toMap).toList
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_3.pipes
 
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.spill.Spilling
 import org.neo4j.cypher.internal.compiler.v2_3.{devNullLogger, ExecutionContext}
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.cypher.internal.compiler.v2_3.spi.QueryContext
@@ -28,7 +29,7 @@ object QueryStateHelper {
 
   def emptyWith(db: GraphDatabaseService = null, query: QueryContext = null, resources: ExternalResource = null,
                 params: Map[String, Any] = Map.empty, decorator: PipeDecorator = NullPipeDecorator,
-                initialContext: Option[ExecutionContext] = None) =
+                initialContext: Option[ExecutionContext] = None, spilling: Option[Spilling] = None) =
     QueryState(db = db, query = query, resources = resources, params = params, decorator = decorator,
-      initialContext = initialContext)
+      initialContext = initialContext, spilling = spilling)
 }
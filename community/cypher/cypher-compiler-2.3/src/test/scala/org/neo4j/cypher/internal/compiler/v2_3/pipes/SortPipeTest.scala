@@ -20,6 +20,8 @@
 package org.neo4j.cypher.internal.compiler.v2_3.pipes
 
 import org.junit.Assert._
+import org.neo4j.cypher.internal.compiler.v2_3.TaskCloser
+import org.neo4j.cypher.internal.compiler.v2_3.pipes.spill.Spilling
 import org.neo4j.cypher.internal.compiler.v2_3.symbols._
 import org.neo4j.cypher.internal.compiler.v2_3.test_helpers.CypherFunSuite
 import org.scalatest.mock.MockitoSugar
@@ -91,4 +93,55 @@ class SortPipeTest extends CypherFunSuite with MockitoSugar {
       MutableMap("y" -> 2),
       MutableMap("y" -> null)), sortPipe.createResults(QueryStateHelper.empty).toList)
   }
+
+  test("sorting past the spill threshold gives the same result as sorting in memory") {
+    val list: Seq[MutableMap[String, Any]] = List(5, 3, 8, 1, 9, 2, 7).map(i => MutableMap[String, Any]("x" -> i))
+    val source = new FakePipe(list, "x" -> CTNumber)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val closer = new TaskCloser
+    val state = QueryStateHelper.emptyWith(spilling = Some(Spilling(2, closer)))
+
+    val result = sortPipe.createResults(state).toList
+    closer.close(success = true)
+
+    assertEquals(List(1, 2, 3, 5, 7, 8, 9).map(i => MutableMap("x" -> i)), result)
+  }
+
+  test("spilled sorting keeps the input order of equal rows") {
+    val list: Seq[MutableMap[String, Any]] = List(
+      MutableMap[String, Any]("x" -> 2, "y" -> "a"),
+      MutableMap[String, Any]("x" -> 1, "y" -> "b"),
+      MutableMap[String, Any]("x" -> 2, "y" -> "c"),
+      MutableMap[String, Any]("x" -> 1, "y" -> "d"),
+      MutableMap[String, Any]("x" -> 2, "y" -> "e"))
+    val source = new FakePipe(list, "x" -> CTNumber, "y" -> CTString)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val state = QueryStateHelper.emptyWith(spilling = Some(Spilling(2, new TaskCloser)))
+
+    assertEquals(List("b", "d", "a", "c", "e"), sortPipe.createResults(state).map(_("y")).toList)
+  }
+
+  test("spilled sorting merges more runs than fit in one merge pass") {
+    val values = (1 to 200).reverse
+    val list: Seq[MutableMap[String, Any]] = values.map(i => MutableMap[String, Any]("x" -> i))
+    val source = new FakePipe(list, "x" -> CTNumber)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val state = QueryStateHelper.emptyWith(spilling = Some(Spilling(1, new TaskCloser)))
+
+    assertEquals((1 to 200).toList, sortPipe.createResults(state).map(_("x")).toList)
+  }
+
+  test("spilled sorting keeps rows with values that can not be written to disk in memory") {
+    val unspillable = new Object
+    val list: Seq[MutableMap[String, Any]] = List(
+      MutableMap[String, Any]("x" -> 3, "y" -> "a"),
+      MutableMap[String, Any]("x" -> 1, "y" -> unspillable),
+      MutableMap[String, Any]("x" -> 2, "y" -> "c"),
+      MutableMap[String, Any]("x" -> 4, "y" -> "d"))
+    val source = new FakePipe(list, "x" -> CTNumber, "y" -> CTAny)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val state = QueryStateHelper.emptyWith(spilling = Some(Spilling(2, new TaskCloser)))
+
+    assertEquals(List(unspillable, "c", "a", "d"), sortPipe.createResults(state).map(_("y")).toList)
+  }
 }
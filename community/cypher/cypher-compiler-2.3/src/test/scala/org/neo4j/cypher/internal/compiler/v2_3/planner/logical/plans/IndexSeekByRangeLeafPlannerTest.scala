@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_3.planner.logical.plans
+
+import org.neo4j.cypher.internal.compiler.v2_3.ast._
+import org.neo4j.cypher.internal.compiler.v2_3.planner.BeLikeMatcher._
+import org.neo4j.cypher.internal.compiler.v2_3.planner._
+import org.neo4j.cypher.internal.compiler.v2_3.planner.logical.steps.indexSeekByRangeLeafPlanner
+import org.neo4j.cypher.internal.compiler.v2_3.test_helpers.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_3.{ExclusiveBound, InclusiveBound, SeekRange}
+
+import scala.language.reflectiveCalls
+
+class IndexSeekByRangeLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
+
+  val idName = IdName("n")
+  val hasLabels: Expression = HasLabels(ident("n"), Seq(LabelName("Awesome") _)) _
+  val property: Expression = Property(ident("n"), PropertyKeyName("prop") _)_
+  val lit42: Expression = SignedDecimalIntegerLiteral("42") _
+  val lit6: Expression = SignedDecimalIntegerLiteral("6") _
+
+  test("does not plan index seek by range when no index exist") {
+    new given {
+      qg = queryGraph(GreaterThan(property, lit42) _, hasLabels)
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = indexSeekByRangeLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans shouldBe empty
+    }
+  }
+
+  test("plans index seek by range for a single inequality") {
+    new given {
+      qg = queryGraph(GreaterThan(property, lit42) _, hasLabels)
+
+      indexOn("Awesome", "prop")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = indexSeekByRangeLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans should beLike {
+        case Seq(NodeIndexSeekByRange(`idName`, _, _, SeekRange(Some(ExclusiveBound(`lit42`)), None), _)) => ()
+      }
+    }
+  }
+
+  test("plans index seek by range for an inequality with the property on the right hand side") {
+    new given {
+      qg = queryGraph(GreaterThanOrEqual(lit42, property) _, hasLabels)
+
+      indexOn("Awesome", "prop")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = indexSeekByRangeLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans should beLike {
+        case Seq(NodeIndexSeekByRange(`idName`, _, _, SeekRange(None, Some(InclusiveBound(`lit42`))), _)) => ()
+      }
+    }
+  }
+
+  test("combines lower and upper bound on the same property into a single seek") {
+    val lowerBound: Expression = GreaterThanOrEqual(property, lit6) _
+    val upperBound: Expression = LessThan(property, lit42) _
+
+    new given {
+      qg = queryGraph(lowerBound, upperBound, hasLabels)
+
+      indexOn("Awesome", "prop")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = indexSeekByRangeLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans should beLike {
+        case Seq(NodeIndexSeekByRange(`idName`, _, _,
+                 SeekRange(Some(InclusiveBound(`lit6`)), Some(ExclusiveBound(`lit42`))), _)) => ()
+      }
+      resultPlans.head.solved.graph.selections.predicates.map(_.expr) should equal(Set(lowerBound, upperBound, hasLabels))
+    }
+  }
+
+  test("does not plan an index seek by range when the bound does not have its dependencies in scope") {
+    new given { // MATCH a, x WHERE a.prop < x
+      qg = queryGraph(LessThan(property, ident("x")) _, hasLabels)
+
+      indexOn("Awesome", "prop")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = indexSeekByRangeLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans shouldBe empty
+    }
+  }
+
+  private def queryGraph(predicates: Expression*) =
+    QueryGraph(
+      selections = Selections(predicates.map(Predicate(Set(idName), _)).toSet),
+      patternNodes = Set(idName)
+    )
+}
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compatibility
 
 import org.neo4j.cypher.CypherExecutionException
+import org.neo4j.cypher.internal.compiler.v2_3.SeekRange
 import org.neo4j.cypher.internal.compiler.v2_3.spi
 import org.neo4j.cypher.internal.compiler.v2_3.spi._
 import org.neo4j.graphdb.{Direction, Node, PropertyContainer, Relationship}
@@ -91,6 +92,9 @@ class ExceptionTranslatingQueryContextFor2_3(inner: QueryContext) extends Delega
   override def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] =
     translateException(super.exactIndexSearch(index, value))
 
+  override def indexSeekByRange(index: IndexDescriptor, range: SeekRange[Any]): Iterator[Node] =
+    translateException(super.indexSeekByRange(index, range))
+
   override def getNodesByLabel(id: Int): Iterator[Node] =
     translateException(super.getNodesByLabel(id))
 
@@ -136,6 +140,9 @@ class ExceptionTranslatingQueryContextFor2_3(inner: QueryContext) extends Delega
   override def hasLocalFileAccess =
     translateException(super.hasLocalFileAccess)
 
+  override def spillThreshold =
+    translateException(super.spillThreshold)
+
   override def relationshipStartNode(rel: Relationship) =
     translateException(super.relationshipStartNode(rel))
 
@@ -23,7 +23,7 @@ import org.neo4j.collection.primitive.PrimitiveLongIterator
 import org.neo4j.cypher.internal.compiler.v2_3.helpers.{BeansAPIRelationshipIterator, JavaConversionSupport}
 import org.neo4j.cypher.internal.compiler.v2_3.helpers.JavaConversionSupport._
 import org.neo4j.cypher.internal.compiler.v2_3.spi._
-import org.neo4j.cypher.internal.compiler.v2_3.{EntityNotFoundException, FailedIndexException}
+import org.neo4j.cypher.internal.compiler.v2_3.{EntityNotFoundException, FailedIndexException, SeekRange}
 import org.neo4j.graphdb.DynamicRelationshipType._
 import org.neo4j.graphdb._
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
@@ -134,6 +134,25 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
   def indexScan(index: IndexDescriptor) =
     mapToScala(statement.readOperations().nodesGetFromIndexScan(index))(nodeOps.getById)
 
+  def indexSeekByRange(index: IndexDescriptor, range: SeekRange[Any]) = {
+    val readOps = statement.readOperations()
+    val lower = range.lower
+    val upper = range.upper
+    val nodeIds: PrimitiveLongIterator =
+      if (range.bounds.forall(_.endPoint.isInstanceOf[Number]))
+        readOps.nodesGetFromIndexRangeSeekByNumber(index,
+          lower.map(_.endPoint.asInstanceOf[Number]).orNull, lower.exists(_.isInclusive),
+          upper.map(_.endPoint.asInstanceOf[Number]).orNull, upper.exists(_.isInclusive))
+      else if (range.bounds.forall(_.endPoint.isInstanceOf[String]))
+        readOps.nodesGetFromIndexRangeSeekByString(index,
+          lower.map(_.endPoint.asInstanceOf[String]).orNull, lower.exists(_.isInclusive),
+          upper.map(_.endPoint.asInstanceOf[String]).orNull, upper.exists(_.isInclusive))
+      else
+        throw new IllegalArgumentException(s"Cannot seek an index by a range of mixed or non-orderable bounds: $range")
+
+    mapToScala(nodeIds)(nodeOps.getById)
+  }
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node] = {
     val nodeId: Long = statement.readOperations().nodeGetUniqueFromIndexLookup(index, value)
     if (StatementConstants.NO_SUCH_NODE == nodeId) None else Some(nodeOps.getById(nodeId))
@@ -300,6 +319,11 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
     case _ => true
   }
 
+  override def spillThreshold: Int = graph match {
+    case db: GraphDatabaseAPI => db.getDependencyResolver.resolveDependency(classOf[Config]).get(GraphDatabaseSettings.cypher_spill_threshold)
+    case _ => 0
+  }
+
   def relationshipStartNode(rel: Relationship) = rel.getStartNode
 
   def relationshipEndNode(rel: Relationship) = rel.getEndNode
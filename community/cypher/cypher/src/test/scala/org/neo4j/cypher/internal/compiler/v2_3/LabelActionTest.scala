@@ -125,6 +125,8 @@ class SnitchingQueryContext extends QueryContext {
 
   def indexScan(index: IndexDescriptor): Iterator[Node] = ???
 
+  def indexSeekByRange(index: IndexDescriptor, range: SeekRange[Any]): Iterator[Node] = ???
+
   def getNodesByLabel(id: Int): Iterator[Node] = ???
 
   def upgrade(context: QueryContext): LockingQueryContext = ???
@@ -50,9 +50,11 @@ import org.neo4j.kernel.impl.util.Validators;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.unsafe.impl.batchimport.BatchImporter;
+import org.neo4j.unsafe.impl.batchimport.IncrementalImport;
 import org.neo4j.unsafe.impl.batchimport.ParallelBatchImporter;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.string.DuplicateInputIdException;
 import org.neo4j.unsafe.impl.batchimport.input.Input;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
 import org.neo4j.unsafe.impl.batchimport.input.InputNode;
 import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
 import org.neo4j.unsafe.impl.batchimport.input.csv.Configuration;
@@ -85,7 +87,8 @@ public class ImportTool
     {
         STORE_DIR( "into", null,
                 "<store-dir>",
-                "Database directory to import into. " + "Must not contain existing database." ),
+                "Database directory to import into. " + "Must not contain existing database, unless "
+                        + "importing incrementally." ),
         NODE_DATA( "nodes", null,
                 "[:Label1:Label2] \"<file1>" + MULTI_FILE_DELIMITER + "<file2>" + MULTI_FILE_DELIMITER + "...\"",
                 "Node CSV header and data. Multiple files will be logically seen as one big file "
@@ -161,7 +164,27 @@ public class ImportTool
                         + "nodes within the same group having the same id, the first encountered will be imported "
                         + "whereas consecutive such nodes will be skipped. "
                         + "Skipped nodes will be logged"
-                        + ", containing at most number of entites specified by " + BAD_TOLERANCE.key() + "." );
+                        + ", containing at most number of entites specified by " + BAD_TOLERANCE.key() + "." ),
+        INDEX( "index", null,
+                "<Label>:<property>",
+                "Schema index to create on the given label and property, and populate as part of the import, "
+                        + "so that the imported database starts up with the index online. "
+                        + "Multiple indexes can be specified in one import." ),
+        INCREMENTAL( "incremental", Boolean.FALSE,
+                "<true/false>",
+                "Whether or not to import into an existing database, adding the imported nodes and relationships "
+                        + "to it. The database must have been shut down cleanly, an import into a database which "
+                        + "needs recovery is refused, and it must not have any uniqueness constraints. "
+                        + "Its existing indexes are populated with the imported data as well. "
+                        + "WARNING: the import writes directly into the store files of the database, "
+                        + "so a failed incremental import leaves the database unusable. "
+                        + "Back up the database before importing into it." ),
+        ID_PROPERTY( "id-property", null,
+                "<property key>",
+                "For an incremental import, property that the existing nodes have their ids in, typically the "
+                        + "property that the ID column of an earlier import was stored in. Relationships can then "
+                        + "refer to existing nodes by those ids, which belong to the global id space. "
+                        + "Without it relationships can only refer to existing nodes by their actual node ids." );
 
 
         private final String key;
@@ -268,14 +291,24 @@ public class ImportTool
         int badTolerance;
         Charset inputEncoding;
         boolean skipBadRelationships, skipDuplicateNodes;
+        IncrementalImport incremental;
 
         try
         {
-            storeDir = args.interpretOption( Options.STORE_DIR.key(), Converters.<File>mandatory(),
-                    Converters.toFile(), Validators.DIRECTORY_IS_WRITABLE, Validators.CONTAINS_NO_EXISTING_DATABASE );
+            incremental = args.getBoolean( Options.INCREMENTAL.key(),
+                    (Boolean)Options.INCREMENTAL.defaultValue(), true )
+                    ? IncrementalImport.enabled( args.get( Options.ID_PROPERTY.key(), null ) )
+                    : IncrementalImport.NONE;
+            storeDir = incremental.isEnabled()
+                    ? args.interpretOption( Options.STORE_DIR.key(), Converters.<File>mandatory(),
+                            Converters.toFile(), Validators.DIRECTORY_IS_WRITABLE,
+                            Validators.CONTAINS_NO_DATABASE_NEEDING_RECOVERY )
+                    : args.interpretOption( Options.STORE_DIR.key(), Converters.<File>mandatory(),
+                            Converters.toFile(), Validators.DIRECTORY_IS_WRITABLE,
+                            Validators.CONTAINS_NO_EXISTING_DATABASE );
             nodesFiles = INPUT_FILES_EXTRACTOR.apply( args, Options.NODE_DATA.key() );
             relationshipsFiles = INPUT_FILES_EXTRACTOR.apply( args, Options.RELATIONSHIP_DATA.key() );
-            validateInputFiles( nodesFiles, relationshipsFiles );
+            validateInputFiles( nodesFiles, relationshipsFiles, incremental );
             enableStacktrace = args.getBoolean( Options.STACKTRACE.key(), Boolean.FALSE, Boolean.TRUE );
             processors = args.getNumber( Options.PROCESSORS.key(), null );
             IdType idType = args.interpretOption( Options.ID_TYPE.key(),
@@ -287,11 +320,13 @@ public class ImportTool
                     (Boolean)Options.SKIP_BAD_RELATIONSHIPS.defaultValue(), true );
             skipDuplicateNodes = args.getBoolean( Options.SKIP_DUPLICATE_NODES.key(),
                     (Boolean)Options.SKIP_DUPLICATE_NODES.defaultValue(), true );
+            Collection<InputIndex> indexes = args.interpretOptions( Options.INDEX.key(),
+                    Converters.<InputIndex>optional(), TO_INPUT_INDEX );
             input = new CsvInput(
                     nodeData( inputEncoding, nodesFiles ), defaultFormatNodeFileHeader(),
                     relationshipData( inputEncoding, relationshipsFiles ), defaultFormatRelationshipFileHeader(),
                     idType, csvConfiguration( args, defaultSettingsSuitableForTests ),
-                    badCollector( badTolerance, collect( skipBadRelationships, skipDuplicateNodes ) ) );
+                    badCollector( badTolerance, collect( skipBadRelationships, skipDuplicateNodes ) ), indexes );
         }
         catch ( IllegalArgumentException e )
         {
@@ -309,8 +344,14 @@ public class ImportTool
         BatchImporter importer = new ParallelBatchImporter( storeDir,
                 config,
                 logService.getInternalLogProvider(),
-                ExecutionMonitors.defaultVisible() );
+                ExecutionMonitors.defaultVisible(), incremental );
         printInputSummary( storeDir, nodesFiles, relationshipsFiles );
+        if ( incremental.isEnabled() )
+        {
+            System.out.println( "WARNING: importing into the existing database in " + storeDir + ". If the import "
+                    + "fails, the database is left unusable and has to be restored from a backup." );
+            System.out.println();
+        }
         boolean success = false;
         try
         {
@@ -331,7 +372,12 @@ public class ImportTool
             }
 
             life.shutdown();
-            if ( !success )
+            if ( !success && incremental.isEnabled() )
+            {
+                System.err.println( "The database in " + storeDir + " was left as it was when the incremental " +
+                        "import failed and should be restored from a backup" );
+            }
+            else if ( !success )
             {
                 try
                 {
@@ -388,10 +434,14 @@ public class ImportTool
     }
 
     private static void validateInputFiles( Collection<Option<File[]>> nodesFiles,
-            Collection<Option<File[]>> relationshipsFiles )
+            Collection<Option<File[]>> relationshipsFiles, IncrementalImport incremental )
     {
         if ( nodesFiles.isEmpty() )
         {
+            if ( incremental.isEnabled() && !relationshipsFiles.isEmpty() )
+            {   // Relationships between existing nodes
+                return;
+            }
             if ( relationshipsFiles.isEmpty() )
             {
                 throw new IllegalArgumentException( "No input specified, nothing to import" );
@@ -493,6 +543,13 @@ public class ImportTool
         {
             out.println( "\t" + line );
         }
+        for ( String line : Args.splitLongLine( "WARNING: an incremental import, see --"
+                + Options.INCREMENTAL.key() + ", writes directly into the store files of an existing database. "
+                + "If it fails, the database is left unusable and has to be restored from a backup. "
+                + "Always back up the database before importing into it.", 80 ) )
+        {
+            out.println( "\t" + line );
+        }
         out.println( "Usage:" );
         for ( Options option : Options.values() )
         {
@@ -577,6 +634,20 @@ public class ImportTool
         }
     };
 
+    private static final Function<String,InputIndex> TO_INPUT_INDEX = new Function<String,InputIndex>()
+    {
+        @Override
+        public InputIndex apply( String value ) throws RuntimeException
+        {
+            int separator = value.lastIndexOf( ':' );
+            if ( separator <= 0 || separator == value.length() - 1 )
+            {
+                throw new IllegalArgumentException( "Invalid index '" + value + "', expected <Label>:<property>" );
+            }
+            return new InputIndex( value.substring( 0, separator ), value.substring( separator + 1 ) );
+        }
+    };
+
     private static final Function<String,Character> DELIMITER_CONVERTER = new Function<String,Character>()
     {
         private final Function<String,Character> fallback = Converters.toCharacter();
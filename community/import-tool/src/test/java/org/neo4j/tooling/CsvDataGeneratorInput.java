@@ -20,6 +20,7 @@
 package org.neo4j.tooling;
 
 import java.io.OutputStream;
+import java.util.Collections;
 
 import org.neo4j.csv.reader.SourceTraceability;
 import org.neo4j.function.Function;
@@ -32,6 +33,7 @@ import org.neo4j.unsafe.impl.batchimport.input.Collector;
 import org.neo4j.unsafe.impl.batchimport.input.Collectors;
 import org.neo4j.unsafe.impl.batchimport.input.Groups;
 import org.neo4j.unsafe.impl.batchimport.input.Input;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
 import org.neo4j.unsafe.impl.batchimport.input.InputNode;
 import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
 import org.neo4j.unsafe.impl.batchimport.input.csv.Configuration;
@@ -134,4 +136,10 @@ public class CsvDataGeneratorInput extends CsvDataGenerator<InputNode,InputRelat
     {
         return Collectors.badCollector( out, 0 );
     }
+
+    @Override
+    public Iterable<InputIndex> indexes()
+    {
+        return Collections.emptyList();
+    }
 }
@@ -41,9 +41,12 @@ import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.graphdb.schema.Schema.IndexState;
 import org.neo4j.helpers.Predicate;
 import org.neo4j.helpers.collection.FilteringIterator;
 import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileUtils;
 import org.neo4j.kernel.impl.util.Validator;
 import org.neo4j.kernel.impl.util.Validators;
@@ -74,9 +77,11 @@ import static org.neo4j.helpers.ArrayUtil.join;
 import static org.neo4j.helpers.Exceptions.contains;
 import static org.neo4j.helpers.Exceptions.withMessage;
 import static org.neo4j.helpers.collection.Iterables.filter;
+import static org.neo4j.helpers.collection.IteratorUtil.asSet;
 import static org.neo4j.helpers.collection.IteratorUtil.count;
 import static org.neo4j.helpers.collection.IteratorUtil.single;
 import static org.neo4j.helpers.collection.IteratorUtil.singleOrNull;
+import static org.neo4j.kernel.impl.recovery.TestStoreRecoverer.createLogFileForNextVersionWithSomeDataInIt;
 import static org.neo4j.tooling.ImportTool.MULTI_FILE_DELIMITER;
 
 public class ImportToolTest
@@ -233,6 +238,119 @@ public class ImportToolTest
         }
     }
 
+    @Test
+    public void shouldImportWithIndexesAndLabelScanStoreOnline() throws Exception
+    {
+        // GIVEN
+        List<String> nodeIds = nodeIds();
+        Configuration config = Configuration.COMMAS;
+        Label label = label( "LABEL_1" );
+
+        // WHEN
+        importTool(
+                "--into",          dbRule.getStoreDir().getAbsolutePath(),
+                "--nodes",         nodeData( true, config, nodeIds, alwaysTrue() ).getAbsolutePath(),
+                "--index",         label.name() + ":name" );
+
+        // THEN
+        GraphDatabaseService db = dbRule.getGraphDatabaseService();
+        try ( Transaction tx = db.beginTx() )
+        {
+            IndexDefinition index = single( db.schema().getIndexes( label ) );
+            assertEquals( "name", single( index.getPropertyKeys() ) );
+            assertEquals( IndexState.ONLINE, db.schema().getIndexState( index ) );
+            int labeledNodeCount = 0;
+            for ( Node node : GlobalGraphOperations.at( db ).getAllNodes() )
+            {
+                if ( node.hasLabel( label ) )
+                {
+                    labeledNodeCount++;
+                    assertTrue( asSet( db.findNodes( label, "name", node.getProperty( "name" ) ) ).contains( node ) );
+                }
+            }
+            assertEquals( labeledNodeCount, count( db.findNodes( label ) ) );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldImportIncrementallyIntoExistingDatabase() throws Exception
+    {
+        // GIVEN
+        Configuration config = Configuration.COMMAS;
+        importTool(
+                "--into",          dbRule.getStoreDir().getAbsolutePath(),
+                "--nodes",         nodeData( true, config, asList( "1", "2", "3", "4" ), alwaysTrue() )
+                                   .getAbsolutePath(),
+                "--relationships", relationshipData( true, config, asList(
+                                   relationship( "1", "2", "TYPE" ),
+                                   relationship( "2", "3", "TYPE" ) ).iterator(), alwaysTrue(), true )
+                                   .getAbsolutePath() );
+
+        // WHEN
+        importTool(
+                "--into",          dbRule.getStoreDir().getAbsolutePath(),
+                "--incremental",   "true",
+                "--id-property",   "id",
+                "--nodes",         nodeData( true, config, asList( "5", "6" ), alwaysTrue() ).getAbsolutePath(),
+                "--relationships", relationshipData( true, config, asList(
+                                   relationship( "5", "1", "TYPE" ),
+                                   relationship( "1", "3", "OTHER" ),
+                                   relationship( "6", "2", "TYPE" ),
+                                   relationship( "3", "3", "TYPE" ) ).iterator(), alwaysTrue(), true )
+                                   .getAbsolutePath() );
+
+        // THEN
+        Map<String,Integer> expectedDegrees = new HashMap<>();
+        expectedDegrees.put( "1", 3 );
+        expectedDegrees.put( "2", 3 );
+        expectedDegrees.put( "3", 3 );
+        expectedDegrees.put( "4", 0 );
+        expectedDegrees.put( "5", 1 );
+        expectedDegrees.put( "6", 1 );
+        GraphDatabaseService db = dbRule.getGraphDatabaseService();
+        try ( Transaction tx = db.beginTx() )
+        {
+            int nodeCount = 0;
+            for ( Node node : GlobalGraphOperations.at( db ).getAllNodes() )
+            {
+                int expected = expectedDegrees.get( node.getProperty( "id" ) );
+                assertEquals( expected, count( node.getRelationships() ) );
+                assertEquals( expected, node.getDegree() );
+                nodeCount++;
+            }
+            assertEquals( 6, nodeCount );
+            assertEquals( 6, count( GlobalGraphOperations.at( db ).getAllRelationships() ) );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldRefuseIncrementalImportIntoDatabaseNeedingRecovery() throws Exception
+    {
+        // GIVEN
+        Configuration config = Configuration.COMMAS;
+        importTool(
+                "--into",          dbRule.getStoreDir().getAbsolutePath(),
+                "--nodes",         nodeData( true, config, asList( "1", "2" ), alwaysTrue() ).getAbsolutePath() );
+        createLogFileForNextVersionWithSomeDataInIt( dbRule.getStoreDir(), new DefaultFileSystemAbstraction() );
+
+        // WHEN
+        try
+        {
+            importTool(
+                    "--into",          dbRule.getStoreDir().getAbsolutePath(),
+                    "--incremental",   "true",
+                    "--nodes",         nodeData( true, config, asList( "3" ), alwaysTrue() ).getAbsolutePath() );
+            fail( "Should have refused to import into a database needing recovery" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // THEN
+            assertThat( e.getMessage(), containsString( "needs recovery" ) );
+        }
+    }
+
     @Test
     public void shouldImportGroupsOfOverlappingIds() throws Exception
     {
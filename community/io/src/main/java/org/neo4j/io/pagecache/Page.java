@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.neo4j.io.fs.StoreChannel;
 
@@ -76,6 +77,20 @@ public interface Page
      */
     void swapOut( StoreChannel channel, long offset, int length ) throws IOException;
 
+    /**
+     * Get a ByteBuffer view of the first {@code length} bytes of this page, with the position at zero and the limit
+     * at {@code length}.
+     *
+     * This is used for scattering reads and gathering writes, where a run of consecutive file-pages are moved to or
+     * from several pages with a single system call. The same locking rules apply as for
+     * {@link #swapIn(StoreChannel, long, int)} and {@link #swapOut(StoreChannel, long, int)}.
+     *
+     * May throw an AssertionError or a RuntimeException if the given length is greater than the cache-page size.
+     *
+     * @throws IOException If a view of the page memory could not be created.
+     */
+    ByteBuffer asByteBuffer( int length ) throws IOException;
+
     /**
      * Set the byte contents of this page to be all zeros.
      */
@@ -64,6 +64,43 @@ public interface PageSwapper
      */
     int write( long filePageId, Page page ) throws IOException;
 
+    /**
+     * Read the given number of consecutive file pages, starting with the page with the given startFilePageId, into
+     * the given pages. The page at {@code arrayOffset} receives the contents of {@code startFilePageId}, the page
+     * after it receives the contents of the next file page, and so on.
+     *
+     * This works like {@link #read(long, Page)} for each of the pages, except that the file pages are read with as
+     * few system calls as possible, using a scattering read over the
+     * {@link Page#asByteBuffer(int) buffers} of the given pages.
+     *
+     * Returns the total number of bytes read in from the file. Any page, or part of a page, that lies beyond the end
+     * of the file will contain zeros.
+     *
+     * Note: It is possible for the channel to be asynchronously closed while
+     * this operation is taking place. For instance, if the current thread is
+     * interrupted. If this happens, then the implementation must reopen the
+     * channel and the operation must be retried.
+     */
+    long read( long startFilePageId, Page[] pages, int arrayOffset, int length ) throws IOException;
+
+    /**
+     * Write the contents of the given pages to the given number of consecutive file pages, starting at the location
+     * indicated by the given startFilePageId. The page at {@code arrayOffset} is written to {@code startFilePageId},
+     * the page after it to the next file page, and so on.
+     *
+     * This works like {@link #write(long, Page)} for each of the pages, except that the file pages are written with
+     * as few system calls as possible, using a gathering write over the
+     * {@link Page#asByteBuffer(int) buffers} of the given pages.
+     *
+     * Returns the total number of bytes written to the file.
+     *
+     * Note: It is possible for the channel to be asynchronously closed while
+     * this operation is taking place. For instance, if the current thread is
+     * interrupted. If this happens, then implementation must reopen the
+     * channel and the operation must be retried.
+     */
+    long write( long startFilePageId, Page[] pages, int arrayOffset, int length ) throws IOException;
+
     /**
      * Notification that a page has been evicted, used to clean up state in structures
      * outside the page table.
@@ -53,8 +53,11 @@ public interface PagedFile extends AutoCloseable
     public static final int PF_NO_GROW = 1 << 2;
     /**
      * Read-ahead hint for sequential forward scanning.
+     *
+     * The pages ahead of the cursor will be brought into memory in the background, as the cursor moves forward
+     * through the file.
      */
-    public static final int PF_READ_AHEAD = 1 << 3; // TBD
+    public static final int PF_READ_AHEAD = 1 << 3;
     /**
      * Do not load in the page if it is not loaded already. Only useful with
      * exclusive locking when you want to overwrite the whole page anyway.
@@ -62,6 +65,9 @@ public interface PagedFile extends AutoCloseable
     public static final int PF_NO_FAULT = 1 << 4; // TBD
     /**
      * Do not update page access statistics.
+     *
+     * Pages that are only touched by transient cursors will be among the first to be evicted, which keeps large
+     * scans from pushing the working set out of the cache.
      */
     public static final int PF_TRANSIENT = 1 << 5;
 
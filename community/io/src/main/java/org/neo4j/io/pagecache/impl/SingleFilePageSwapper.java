@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache.impl;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -180,6 +181,132 @@ public class SingleFilePageSwapper implements PageSwapper
         }
     }
 
+    @Override
+    public long read( long startFilePageId, Page[] pages, int arrayOffset, int length ) throws IOException
+    {
+        long fileOffset = pageIdToPosition( startFilePageId );
+        try
+        {
+            long bytesRead = 0;
+            ByteBuffer[] buffers = convertPagesToBuffers( pages, arrayOffset, length );
+            if ( fileOffset < getCurrentFileSize() )
+            {
+                bytesRead = readPositionedVectored( channel( startFilePageId ), fileOffset, buffers );
+            }
+            // Zero-fill whatever was beyond the end of the file.
+            for ( int i = 0; i < length; i++ )
+            {
+                ByteBuffer buffer = buffers[i];
+                if ( buffer.position() == 0 )
+                {
+                    pages[arrayOffset + i].clear();
+                }
+                else
+                {
+                    while ( buffer.hasRemaining() )
+                    {
+                        buffer.put( (byte) 0 );
+                    }
+                }
+            }
+            return bytesRead;
+        }
+        catch ( ClosedChannelException e )
+        {
+            // AsynchronousCloseException is a subclass of
+            // ClosedChannelException, and ClosedByInterruptException is in
+            // turn a subclass of AsynchronousCloseException.
+            tryReopen( startFilePageId, e );
+            boolean interrupted = Thread.interrupted();
+            // Recurse because this is hopefully a very rare occurrence.
+            long bytesRead = read( startFilePageId, pages, arrayOffset, length );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return bytesRead;
+        }
+    }
+
+    @Override
+    public long write( long startFilePageId, Page[] pages, int arrayOffset, int length ) throws IOException
+    {
+        long fileOffset = pageIdToPosition( startFilePageId );
+        long bytesToWrite = ((long) filePageSize) * length;
+        increaseFileSizeTo( fileOffset + bytesToWrite );
+        try
+        {
+            ByteBuffer[] buffers = convertPagesToBuffers( pages, arrayOffset, length );
+            writePositionedVectored( channel( startFilePageId ), fileOffset, buffers );
+            return bytesToWrite;
+        }
+        catch ( ClosedChannelException e )
+        {
+            // AsynchronousCloseException is a subclass of
+            // ClosedChannelException, and ClosedByInterruptException is in
+            // turn a subclass of AsynchronousCloseException.
+            tryReopen( startFilePageId, e );
+            boolean interrupted = Thread.interrupted();
+            // Recurse because this is hopefully a very rare occurrence.
+            long bytesWritten = write( startFilePageId, pages, arrayOffset, length );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return bytesWritten;
+        }
+    }
+
+    private ByteBuffer[] convertPagesToBuffers( Page[] pages, int arrayOffset, int length ) throws IOException
+    {
+        ByteBuffer[] buffers = new ByteBuffer[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            buffers[i] = pages[arrayOffset + i].asByteBuffer( filePageSize );
+        }
+        return buffers;
+    }
+
+    // There are no positional scattering reads or gathering writes on FileChannel, so these have to move the channel
+    // position. The single-page operations only use positional reads and writes, and never look at the position, so
+    // it is enough that the vectored operations are serialised among themselves.
+    private long readPositionedVectored( StoreChannel channel, long fileOffset, ByteBuffer[] buffers )
+            throws IOException
+    {
+        ByteBuffer lastBuffer = buffers[buffers.length - 1];
+        long bytesRead = 0;
+        synchronized ( channel )
+        {
+            channel.position( fileOffset );
+            long read;
+            do
+            {
+                read = channel.read( buffers );
+                if ( read > 0 )
+                {
+                    bytesRead += read;
+                }
+            }
+            while ( read != -1 && lastBuffer.hasRemaining() );
+        }
+        return bytesRead;
+    }
+
+    private void writePositionedVectored( StoreChannel channel, long fileOffset, ByteBuffer[] buffers )
+            throws IOException
+    {
+        ByteBuffer lastBuffer = buffers[buffers.length - 1];
+        synchronized ( channel )
+        {
+            channel.position( fileOffset );
+            do
+            {
+                channel.write( buffers );
+            }
+            while ( lastBuffer.hasRemaining() );
+        }
+    }
+
     @Override
     public void evicted( long filePageId, Page page )
     {
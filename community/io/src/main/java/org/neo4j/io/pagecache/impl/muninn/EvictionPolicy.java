@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The page replacement policies that the {@link MuninnPageCache} can use to decide which pages to evict.
+ */
+public enum EvictionPolicy
+{
+    /**
+     * A single CLOCK sweep over all the pages, where every pin bumps the usage stamp of the page, and every pass of
+     * the clock arm decrements it. Simple and cheap, but a single large scan can push the entire working set out of
+     * the cache.
+     */
+    CLOCK
+            {
+                @Override
+                EvictionStrategy createStrategy( int maxPages )
+                {
+                    return new ClockEvictionStrategy();
+                }
+            },
+
+    /**
+     * A 2Q-style variant of CLOCK, where newly faulted pages go into a probationary segment, and are only promoted
+     * to the protected segment if they are referenced again, by another pin than the one that faulted them in,
+     * before the clock arm has passed them twice. While the
+     * probationary segment is larger than its target size, the clock arm only evicts probationary pages, so scans
+     * cycle through the probationary segment instead of evicting the working set. Pages that are faulted in again
+     * shortly after being evicted from the probationary segment go straight into the protected segment.
+     */
+    SCAN_RESISTANT
+            {
+                @Override
+                EvictionStrategy createStrategy( int maxPages )
+                {
+                    return new ScanResistantEvictionStrategy( maxPages );
+                }
+            };
+
+    abstract EvictionStrategy createStrategy( int maxPages );
+}
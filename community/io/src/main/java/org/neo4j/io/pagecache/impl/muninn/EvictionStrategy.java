@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.PageSwapper;
+
+/**
+ * The per page cache instance of an {@link EvictionPolicy}. The page cache tells the strategy about the pages that
+ * are faulted in, referenced and evicted, and asks it whether the page under the clock arm should be evicted.
+ *
+ * Implementations are called concurrently from the cursors, the eviction thread and cooperatively evicting threads,
+ * and must therefore be thread-safe. Races that only make the replacement decisions slightly less precise are fine.
+ */
+abstract class EvictionStrategy
+{
+    /**
+     * The given page has just been faulted in, and is still write locked by the faulting thread.
+     */
+    abstract void pageFaulted( MuninnPage page );
+
+    /**
+     * The given page has just been read ahead of a cursor, and is still write locked by the faulting thread.
+     */
+    abstract void pageReadAhead( MuninnPage page );
+
+    /**
+     * The given page has been pinned by a cursor that is not transient.
+     */
+    abstract void pageReferenced( MuninnPage page );
+
+    /**
+     * The clock arm has reached the given loaded page.
+     * @return 'true' if the page should be evicted, if it can be write locked.
+     */
+    abstract boolean isEvictionCandidate( MuninnPage page );
+
+    /**
+     * The given page has been evicted from the given file page, and is still write locked by the evicting thread.
+     */
+    abstract void pageEvicted( MuninnPage page, PageSwapper swapper, long filePageId );
+}
@@ -40,6 +40,7 @@ import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.storeByteOrderIs
 final class MuninnPage extends StampedLock implements Page
 {
     private static final long usageStampOffset = UnsafeUtil.getFieldOffset( MuninnPage.class, "usageStamp" );
+    private static final long evictionStateOffset = UnsafeUtil.getFieldOffset( MuninnPage.class, "evictionState" );
 
     // The sign bit is used as a dirty flag for the page.
     // The other 7 bits are used as an exponent for computing the cache page size (as a power of two).
@@ -55,6 +56,10 @@ final class MuninnPage extends StampedLock implements Page
     // accessed through unsafe
     private volatile byte usageStamp;
 
+    // Book-keeping for the EvictionStrategy in use, if it needs any. The CLOCK strategy leaves this alone.
+    // compare-and-set through unsafe
+    private volatile int evictionState;
+
     // Next pointer in the freelist of available pages. This is either a
     // MuninnPage object, or a FreePage object. See the comment on the
     // MuninnPageCache.freelist field.
@@ -132,6 +137,27 @@ final class MuninnPage extends StampedLock implements Page
         return usage == 0;
     }
 
+    /** Returns true if the usage stamp is above 0. */
+    boolean hasUsage()
+    {
+        return UnsafeUtil.getByteVolatile( this, usageStampOffset ) != 0;
+    }
+
+    int getEvictionState()
+    {
+        return evictionState;
+    }
+
+    void setEvictionState( int evictionState )
+    {
+        this.evictionState = evictionState;
+    }
+
+    boolean compareAndSetEvictionState( int expected, int update )
+    {
+        return UnsafeUtil.compareAndSwapInt( this, evictionStateOffset, expected, update );
+    }
+
     public byte getByte( int offset )
     {
         checkBounds( offset + 1 );
@@ -367,6 +393,22 @@ final class MuninnPage extends StampedLock implements Page
         }
     }
 
+    @Override
+    public ByteBuffer asByteBuffer( int length ) throws IOException
+    {
+        try
+        {
+            ByteBuffer bufferProxy = UnsafeUtil.newDirectByteBuffer( pointer, getCachePageSize() );
+            bufferProxy.clear();
+            bufferProxy.limit( length );
+            return bufferProxy;
+        }
+        catch ( Exception e )
+        {
+            throw new IOException( e );
+        }
+    }
+
     @Override
     public void clear()
     {
@@ -400,6 +442,56 @@ final class MuninnPage extends StampedLock implements Page
         }
     }
 
+    /**
+     * Flush a run of dirty pages that are bound to consecutive file pages of the given swapper, starting with the
+     * page at index 0 in the given array, using a single vectored write.
+     *
+     * NOTE: This method must be called while holding a pessimistic lock on all of the pages, and all of the pages
+     * must have been dirty when they were locked. Concurrent flushes can mark them as clean in the meantime, since
+     * flushing only needs read locks, but then writing them again is merely redundant.
+     */
+    static void flushRun(
+            PageSwapper swapper,
+            MuninnPage[] pages,
+            int length,
+            FlushEventOpportunity flushOpportunity ) throws IOException
+    {
+        MuninnPage first = pages[0];
+        if ( length == 1 )
+        {
+            first.flush( swapper, first.filePageId, flushOpportunity );
+            return;
+        }
+
+        FlushEvent[] events = new FlushEvent[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            MuninnPage page = pages[i];
+            assert page.isBoundTo( swapper, first.filePageId + i ) :
+                    "Cannot flush " + page + " as part of a run starting at filePageId " + first.filePageId;
+            events[i] = flushOpportunity.beginFlush( page.filePageId, page.getCachePageId(), swapper );
+        }
+        try
+        {
+            long bytesWritten = swapper.write( first.filePageId, pages, 0, length );
+            int bytesWrittenPerPage = (int) (bytesWritten / length);
+            for ( int i = 0; i < length; i++ )
+            {
+                pages[i].markAsClean();
+                events[i].addBytesWritten( bytesWrittenPerPage );
+                events[i].done();
+            }
+        }
+        catch ( IOException e )
+        {
+            for ( int i = 0; i < length; i++ )
+            {
+                events[i].done( e );
+            }
+            throw e;
+        }
+    }
+
     private void doFlush(
             PageSwapper swapper,
             long filePageId,
@@ -427,6 +519,19 @@ final class MuninnPage extends StampedLock implements Page
             PageSwapper swapper,
             long filePageId,
             PageFaultEvent faultEvent ) throws IOException
+    {
+        beginFault( swapper, filePageId );
+        int bytesRead = swapper.read( filePageId, this );
+        completeFault( swapper, bytesRead, faultEvent );
+    }
+
+    /**
+     * Bind this page to the given file page, ahead of reading the contents of the file page into it. The binding is
+     * completed with {@link #completeFault(PageSwapper, int, PageFaultEvent)}, once the contents have been read.
+     *
+     * NOTE: This method MUST be called while holding the page write lock.
+     */
+    void beginFault( PageSwapper swapper, long filePageId )
     {
         assert isWriteLocked(): "Cannot fault page without write-lock";
         if ( this.swapper != null || this.filePageId != PageCursor.UNBOUND_PAGE_ID )
@@ -447,7 +552,13 @@ final class MuninnPage extends StampedLock implements Page
         // the file page, so any subsequent thread that finds the page in their
         // translation table will re-do the page fault.
         this.filePageId = filePageId; // Page now considered isLoaded()
-        int bytesRead = swapper.read( filePageId, this );
+    }
+
+    /**
+     * NOTE: This method MUST be called while holding the page write lock.
+     */
+    void completeFault( PageSwapper swapper, int bytesRead, PageFaultEvent faultEvent )
+    {
         faultEvent.addBytesRead( bytesRead );
         faultEvent.setCachePageId( getCachePageId() );
         this.swapper = swapper; // Page now considered isBoundTo( swapper, filePageId )
@@ -21,6 +21,8 @@ package org.neo4j.io.pagecache.impl.muninn;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
@@ -28,6 +30,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
@@ -95,6 +98,10 @@ public class MuninnPageCache implements PageCache
     private static final int pagesToKeepFree = Integer.getInteger(
             "org.neo4j.io.pagecache.impl.muninn.pagesToKeepFree", 30 );
 
+    // The eviction policy to use, when none is given to the constructor.
+    private static final EvictionPolicy defaultEvictionPolicy = EvictionPolicy.valueOf( System.getProperty(
+            "org.neo4j.io.pagecache.impl.muninn.MuninnPageCache.evictionPolicy", EvictionPolicy.CLOCK.name() ) );
+
     // The background flush task will only spend a certain amount of time doing IO, to avoid saturating the IO
     // subsystem during times when there is more important work to be done. It will do this by measuring how much
     // time it spends on each flush, and then accumulate a sleep debt. Once the sleep debt grows beyond this
@@ -159,6 +166,7 @@ public class MuninnPageCache implements PageCache
     private final CursorPool cursorPool;
     private final PageCacheTracer tracer;
     private final MuninnPage[] pages;
+    final EvictionStrategy evictionStrategy;
     private final AtomicInteger backgroundFlushPauseRequests;
 
     // The freelist is a thread-safe linked-list of 2 types of objects. A link
@@ -209,6 +217,16 @@ public class MuninnPageCache implements PageCache
             int maxPages,
             int cachePageSize,
             PageCacheTracer tracer )
+    {
+        this( swapperFactory, maxPages, cachePageSize, tracer, defaultEvictionPolicy );
+    }
+
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            int maxPages,
+            int cachePageSize,
+            PageCacheTracer tracer,
+            EvictionPolicy evictionPolicy )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
@@ -221,6 +239,7 @@ public class MuninnPageCache implements PageCache
         this.cursorPool = new CursorPool();
         this.tracer = tracer;
         this.pages = new MuninnPage[maxPages];
+        this.evictionStrategy = evictionPolicy.createStrategy( maxPages );
         this.backgroundFlushPauseRequests = new AtomicInteger();
         this.printExceptionsOnClose = true;
 
@@ -424,6 +443,24 @@ public class MuninnPageCache implements PageCache
         while ( !flushedAndClosed );
     }
 
+    /**
+     * List the files that are currently mapped, and increment their reference counts so they stay mapped. The
+     * caller must close each of the returned files when done with them.
+     */
+    synchronized List<MuninnPagedFile> acquireMappedFiles()
+    {
+        assertNotClosed();
+        List<MuninnPagedFile> files = new ArrayList<>();
+        FileMapping fileMapping = mappedFiles;
+        while ( fileMapping != null )
+        {
+            fileMapping.pagedFile.incrementRefCount();
+            files.add( fileMapping.pagedFile );
+            fileMapping = fileMapping.next;
+        }
+        return files;
+    }
+
     public void setPrintExceptionsOnClose( boolean enabled )
     {
         this.printExceptionsOnClose = enabled;
@@ -595,6 +632,51 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    void prefetch( MuninnPagedFile pagedFile, long startPageId, long endPageId )
+    {
+        backgroundThreadExecutor.execute( new PrefetchTask( this, pagedFile, startPageId, endPageId ) );
+    }
+
+    /**
+     * Grab a free page, but only if one is immediately available on the freelist. This never blocks and never evicts
+     * anything, which makes it suitable for speculative page faults, such as read-ahead.
+     * @return A free page, or null if the freelist is empty or the page cache has been shut down.
+     */
+    MuninnPage tryGrabFreePage()
+    {
+        Object current;
+        for (;;)
+        {
+            current = getFreelistHead();
+            if ( current == null )
+            {
+                unparkEvictor();
+                return null;
+            }
+            else if ( current instanceof MuninnPage )
+            {
+                MuninnPage page = (MuninnPage) current;
+                if ( compareAndSetFreelistHead( page, page.nextFree ) )
+                {
+                    return page;
+                }
+            }
+            else if ( current instanceof FreePage )
+            {
+                FreePage freePage = (FreePage) current;
+                if ( freePage == shutdownSignal )
+                {
+                    return null;
+                }
+
+                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+                {
+                    return freePage.page;
+                }
+            }
+        }
+    }
+
     private MuninnPage cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
     {
         int clockArm = ThreadLocalRandom.current().nextInt( pages.length );
@@ -616,7 +698,7 @@ public class MuninnPageCache implements PageCache
                         "The PageCache has been shut down" );
             }
 
-            if ( page.isLoaded() && page.decrementUsage() )
+            if ( page.isLoaded() && evictionStrategy.isEvictionCandidate( page ) )
             {
                 long stamp = page.tryWriteLock();
                 if ( stamp != 0 )
@@ -673,9 +755,10 @@ public class MuninnPageCache implements PageCache
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
-     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
-     * we evict the page. If we don't, we move on to the next page.
+     * Scan through all the pages, one by one, and ask the eviction strategy if
+     * they should be evicted; with CLOCK, this decrements their usage stamps.
+     * If the page is a candidate, we try-write-locking it, and if we get that
+     * lock, we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
@@ -743,7 +826,7 @@ public class MuninnPageCache implements PageCache
                 return 0;
             }
 
-            if ( page.isLoaded() && page.decrementUsage() )
+            if ( page.isLoaded() && evictionStrategy.isEvictionCandidate( page ) )
             {
                 long stamp = page.tryWriteLock();
                 if ( stamp != 0 )
@@ -799,7 +882,10 @@ public class MuninnPageCache implements PageCache
     {
         try
         {
+            PageSwapper swapper = page.getSwapper();
+            long filePageId = page.getFilePageId();
             page.evict( evictionEvent );
+            evictionStrategy.pageEvicted( page, swapper, filePageId );
             clearEvictorException();
             return true;
         }
@@ -25,12 +25,22 @@ import java.io.IOException;
 import org.neo4j.concurrent.BinaryLatch;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 abstract class MuninnPageCursor implements PageCursor
 {
+    // The number of pages ahead of a PF_READ_AHEAD cursor that are prefetched in the background. This is further
+    // limited to a fraction of the size of the page cache, so scans don't end up evicting their own prefetched pages.
+    private static final int prefetchWindow = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.MuninnPageCursor.prefetchWindow", 64 );
+
+    // Hits are counted by the cursor and reported to the tracer in batches of this size, or when the cursor is
+    // closed, so that counting them does not put a contended counter on the pin fast path.
+    private static final int hitReportBatchSize = 1024;
+
     protected MuninnPagedFile pagedFile;
     protected MuninnPage page;
     protected PinEvent pinEvent;
@@ -43,12 +53,18 @@ abstract class MuninnPageCursor implements PageCursor
 
     private boolean claimed;
     private int offset;
+    private ReadAhead readAhead;
+    // The first file page that has not yet been asked to be prefetched by this PF_READ_AHEAD cursor.
+    private long prefetchHorizon;
+    // The pins that found their page in memory, and have not yet been reported to the tracer.
+    private int unreportedHits;
 
     public final void initialise( MuninnPagedFile pagedFile, long pageId, int pf_flags )
     {
         this.pagedFile = pagedFile;
         this.pageId = pageId;
         this.pf_flags = pf_flags;
+        this.prefetchHorizon = pageId;
     }
 
     public final void markAsClaimed()
@@ -92,6 +108,7 @@ abstract class MuninnPageCursor implements PageCursor
     public final void close()
     {
         unpinCurrentPage();
+        reportHits();
         pagedFile = null;
         claimed = false;
     }
@@ -125,6 +142,9 @@ abstract class MuninnPageCursor implements PageCursor
     {
         PageSwapper swapper = pagedFile.swapper;
         pinEvent = pagedFile.tracer.beginPin( exclusive, filePageId, swapper );
+        // Shared cursors that move from one page to the next are likely scanning the file, so their page faults read
+        // ahead of the cursor.
+        boolean sequential = !exclusive && currentPageId != UNBOUND_PAGE_ID && filePageId == currentPageId + 1;
         int chunkId = pagedFile.computeChunkId( filePageId );
         // The chunkOffset is the addressing offset into the chunk array object for the relevant array slot. Using
         // this, we can access the array slot with Unsafe.
@@ -143,6 +163,7 @@ abstract class MuninnPageCursor implements PageCursor
         // in a latch. If that CAS succeeds, we page fault, set the slot to the faulted in page and open the latch.
         // If the CAS failed, we retry the look up and start over from the top.
         Object item;
+        boolean faulted = false;
         do
         {
             item = UnsafeUtil.getObjectVolatile( chunk, chunkOffset );
@@ -154,7 +175,8 @@ abstract class MuninnPageCursor implements PageCursor
                 {
                     // We managed to inject our latch, so we now own the right to perform the page fault. We also
                     // have a duty to eventually release and remove the latch, no matter what happens now.
-                    item = pageFault( filePageId, swapper, chunkOffset, chunk, latch );
+                    item = pageFault( filePageId, swapper, chunkOffset, chunk, latch, sequential );
+                    faulted = true;
                 }
             }
             else if ( item.getClass() == MuninnPage.class )
@@ -181,12 +203,20 @@ abstract class MuninnPageCursor implements PageCursor
             }
         }
         while ( item == null );
+        if ( !faulted )
+        {
+            pinEvent.hit();
+            if ( ++unreportedHits == hitReportBatchSize )
+            {
+                reportHits();
+            }
+        }
         pinCursorToPage( (MuninnPage) item, filePageId, swapper );
     }
 
     private MuninnPage pageFault(
-            long filePageId, PageSwapper swapper, long chunkOffset, Object[] chunk, BinaryLatch latch )
-            throws IOException
+            long filePageId, PageSwapper swapper, long chunkOffset, Object[] chunk, BinaryLatch latch,
+            boolean sequential ) throws IOException
     {
         // We are page faulting. This is a critical time, because we currently have the given latch in the chunk array
         // slot that we are faulting into. We MUST make sure to release that latch, and remove it from the chunk, no
@@ -228,7 +258,19 @@ abstract class MuninnPageCursor implements PageCursor
             // the file channel.
             assertPagedFileStillMapped();
             page.initBuffer();
-            page.fault( swapper, filePageId, faultEvent );
+            if ( sequential && ReadAhead.maxReadAheadPages > 0 )
+            {
+                if ( readAhead == null )
+                {
+                    readAhead = new ReadAhead();
+                }
+                readAhead.fault( pagedFile, pinEvent, page, filePageId, faultEvent );
+            }
+            else
+            {
+                page.fault( swapper, filePageId, faultEvent );
+            }
+            pagedFile.evictionStrategy.pageFaulted( page );
         }
         catch ( Throwable throwable )
         {
@@ -248,6 +290,44 @@ abstract class MuninnPageCursor implements PageCursor
         return page;
     }
 
+    private void reportHits()
+    {
+        if ( unreportedHits > 0 )
+        {
+            pagedFile.tracer.hits( unreportedHits );
+            unreportedHits = 0;
+        }
+    }
+
+    /**
+     * Make sure that the pages ahead of the given file page, that this cursor has just moved to, are being brought
+     * into memory, if the cursor has the PF_READ_AHEAD flag.
+     */
+    protected final void prefetchAhead( long filePageId )
+    {
+        if ( (pf_flags & PagedFile.PF_READ_AHEAD) == 0 )
+        {
+            return;
+        }
+        int window = Math.min( prefetchWindow, pagedFile.pageCache.maxCachedPages() / 8 );
+        long startPageId = prefetchHorizon;
+        if ( filePageId >= prefetchHorizon || filePageId + window < prefetchHorizon )
+        {
+            // The cursor has moved outside of the range we have already prefetched.
+            startPageId = filePageId + 1;
+        }
+        else if ( prefetchHorizon - filePageId > window / 2 )
+        {
+            // Still well within the prefetched range.
+            return;
+        }
+        long endPageId = Math.min( filePageId + window, pagedFile.getLastPageId() );
+        if ( startPageId <= endPageId && pagedFile.prefetch( startPageId, endPageId ) )
+        {
+            prefetchHorizon = endPageId + 1;
+        }
+    }
+
     protected void assertPagedFileStillMapped()
     {
         if ( pagedFile.getRefCount() == 0 )
@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache.impl.muninn;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
@@ -42,14 +43,26 @@ final class MuninnPagedFile implements PagedFile
     private static final int translationTableChunkArrayBase = UnsafeUtil.arrayBaseOffset( MuninnPage[].class );
     private static final int translationTableChunkArrayScale = UnsafeUtil.arrayIndexScale( MuninnPage[].class );
 
+    // The maximum number of consecutive dirty pages that are flushed together with a single vectored write.
+    private static final int flushRunLength = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.flushRunLength", 32 );
+
+    // The maximum number of prefetch tasks that can be queued or running for a file at the same time. Scans that ask
+    // for more just fault their pages in themselves.
+    private static final int maxConcurrentPrefetches = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.maxConcurrentPrefetches", 2 );
+
     private static final long referenceCounterOffset =
             UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "referenceCounter" );
     private static final long lastPageIdOffset =
             UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "lastPageId" );
+    private static final long prefetchesInFlightOffset =
+            UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "prefetchesInFlight" );
 
     final MuninnPageCache pageCache;
     final int pageSize;
     final PageCacheTracer tracer;
+    final EvictionStrategy evictionStrategy;
 
     // This is the table where we translate file-page-ids to cache-page-ids. Only one thread can perform a resize at
     // a time, and we ensure this mutual exclusion using the monitor lock on this MuninnPagedFile object.
@@ -61,6 +74,7 @@ final class MuninnPagedFile implements PagedFile
     // Accessed via Unsafe
     private volatile int referenceCounter;
     private volatile long lastPageId;
+    private volatile int prefetchesInFlight;
 
     MuninnPagedFile(
             File file,
@@ -74,6 +88,7 @@ final class MuninnPagedFile implements PagedFile
         this.pageSize = pageSize;
         this.cursorPool = cursorPool;
         this.tracer = tracer;
+        this.evictionStrategy = pageCache.evictionStrategy;
 
         // The translation table is an array of arrays of references to either null, MuninnPage objects, or Latch
         // objects. The table only grows the outer array, and all the inner "chunks" all stay the same size. This
@@ -178,25 +193,54 @@ final class MuninnPagedFile implements PagedFile
         pageCache.pauseBackgroundFlushTask();
         try
         {
-            for ( Object[] chunk : translationTable )
+            // Dirty pages that are bound to consecutive file pages are gathered up into runs, and each run is
+            // written out with a single vectored write. The pages in a run are read locked until the run is flushed.
+            // We only ever block on a page lock while holding no other page locks, so a run only grows by pages
+            // that can be locked right away. Otherwise we could deadlock with a writer that holds a later page and
+            // waits for one already in the run, and writers would stall on the locked pages while we wait.
+            MuninnPage[] run = new MuninnPage[flushRunLength];
+            long[] stamps = new long[flushRunLength];
+            int runLength = 0;
+            Object[][] tt = translationTable;
+            for ( int chunkId = 0; chunkId < tt.length; chunkId++ )
             {
-                for ( Object element : chunk )
+                Object[] chunk = tt[chunkId];
+                long chunkFilePageId = ((long) chunkId) << translationTableChunkSizePower;
+                for ( int i = 0; i < chunk.length; i++ )
                 {
+                    Object element = chunk[i];
                     if ( element instanceof MuninnPage )
                     {
                         MuninnPage page = (MuninnPage) element;
-                        long stamp = page.readLock();
-                        try
+                        long stamp = runLength == 0 ? page.readLock() : page.tryReadLock();
+                        if ( stamp == 0 )
+                        {
+                            // The page is write locked, so end the run here and wait for the page without it
+                            flushRun( run, stamps, runLength, flushOpportunity );
+                            runLength = 0;
+                            stamp = page.readLock();
+                        }
+                        if ( page.isDirty() && page.isBoundTo( swapper, chunkFilePageId + i ) )
                         {
-                            page.flush( swapper, page.getFilePageId(), flushOpportunity );
+                            run[runLength] = page;
+                            stamps[runLength] = stamp;
+                            runLength++;
+                            if ( runLength < run.length )
+                            {
+                                // The run can still grow.
+                                continue;
+                            }
                         }
-                        finally
+                        else
                         {
                             page.unlockRead( stamp );
                         }
                     }
+                    flushRun( run, stamps, runLength, flushOpportunity );
+                    runLength = 0;
                 }
             }
+            flushRun( run, stamps, runLength, flushOpportunity );
             force();
         }
         finally
@@ -205,6 +249,64 @@ final class MuninnPagedFile implements PagedFile
         }
     }
 
+    private void flushRun( MuninnPage[] run, long[] stamps, int runLength, FlushEventOpportunity flushOpportunity )
+            throws IOException
+    {
+        if ( runLength == 0 )
+        {
+            return;
+        }
+        try
+        {
+            MuninnPage.flushRun( swapper, run, runLength, flushOpportunity );
+        }
+        finally
+        {
+            for ( int i = 0; i < runLength; i++ )
+            {
+                run[i].unlockRead( stamps[i] );
+                run[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Write a bitmap of the file pages that are currently in memory to the given stream, with one bit per file page,
+     * in file page order, and the lowest bit of each byte first. The bitmap is only a snapshot, since pages can be
+     * faulted in and evicted while we scan the translation table.
+     */
+    void profile( OutputStream out ) throws IOException
+    {
+        long lastFilePageId = getLastPageId();
+        int bits = 0;
+        int bitCount = 0;
+        Object[][] tt = translationTable;
+        for ( int chunkId = 0; chunkId < tt.length; chunkId++ )
+        {
+            Object[] chunk = tt[chunkId];
+            long chunkFilePageId = ((long) chunkId) << translationTableChunkSizePower;
+            for ( int i = 0; i < chunk.length && chunkFilePageId + i <= lastFilePageId; i++ )
+            {
+                Object element = chunk[i];
+                if ( element instanceof MuninnPage && ((MuninnPage) element).isBoundTo( swapper, chunkFilePageId + i ) )
+                {
+                    bits |= 1 << bitCount;
+                }
+                bitCount++;
+                if ( bitCount == 8 )
+                {
+                    out.write( bits );
+                    bits = 0;
+                    bitCount = 0;
+                }
+            }
+        }
+        if ( bitCount > 0 )
+        {
+            out.write( bits );
+        }
+    }
+
     @Override
     public void force() throws IOException
     {
@@ -275,6 +377,53 @@ final class MuninnPagedFile implements PagedFile
         return pageCache.grabFreePage( faultEvent );
     }
 
+    /**
+     * Bring the given range of file pages, both inclusive, into memory in the background.
+     * @return true if the pages will be prefetched, or false if too many prefetches are already in flight for this
+     * file.
+     */
+    boolean prefetch( long startPageId, long endPageId )
+    {
+        int inFlight;
+        do
+        {
+            inFlight = UnsafeUtil.getIntVolatile( this, prefetchesInFlightOffset );
+            if ( inFlight >= maxConcurrentPrefetches )
+            {
+                return false;
+            }
+        }
+        while ( !UnsafeUtil.compareAndSwapInt( this, prefetchesInFlightOffset, inFlight, inFlight + 1 ) );
+
+        try
+        {
+            pageCache.prefetch( this, startPageId, endPageId );
+            return true;
+        }
+        catch ( RuntimeException e )
+        {
+            prefetchDone();
+            throw e;
+        }
+    }
+
+    /**
+     * Called by a prefetch task when it is done, whether or not it managed to bring in all of its pages.
+     */
+    void prefetchDone()
+    {
+        UnsafeUtil.getAndAddInt( this, prefetchesInFlightOffset, -1 );
+    }
+
+    /**
+     * Grab a free page for the purpose of read-ahead, but only if one is immediately available.
+     * @return A free page, or null if none are immediately available.
+     */
+    MuninnPage tryGrabFreePage()
+    {
+        return pageCache.tryGrabFreePage();
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
@@ -22,6 +22,7 @@ package org.neo4j.io.pagecache.impl.muninn;
 import java.io.IOException;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PagedFile;
 
 final class MuninnReadPageCursor extends MuninnPageCursor
 {
@@ -59,6 +60,7 @@ final class MuninnReadPageCursor extends MuninnPageCursor
         pin( nextPageId, false );
         currentPageId = nextPageId;
         nextPageId++;
+        prefetchAhead( currentPageId );
         return true;
     }
 
@@ -76,7 +78,10 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     protected void pinCursorToPage( MuninnPage page, long filePageId, PageSwapper swapper )
     {
         reset( page );
-        page.incrementUsage();
+        if ( (pf_flags & PagedFile.PF_TRANSIENT) == 0 )
+        {
+            pagedFile.evictionStrategy.pageReferenced( page );
+        }
     }
 
     @Override
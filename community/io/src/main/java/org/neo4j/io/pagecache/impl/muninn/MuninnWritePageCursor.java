@@ -58,6 +58,7 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         pin( nextPageId, true );
         currentPageId = nextPageId;
         nextPageId++;
+        prefetchAhead( currentPageId );
         return true;
     }
 
@@ -81,7 +82,10 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         // that happens, dirty contents in memory will no longer have a chance
         // to get flushed.
         assertPagedFileStillMapped();
-        page.incrementUsage();
+        if ( (pf_flags & PagedFile.PF_TRANSIENT) == 0 )
+        {
+            pagedFile.evictionStrategy.pageReferenced( page );
+        }
         page.markAsDirty();
     }
 
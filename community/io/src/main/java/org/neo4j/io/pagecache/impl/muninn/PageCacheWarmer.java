@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
+
+/**
+ * Records which file pages are in memory, and loads them back in after a restart.
+ *
+ * The profile of each mapped file is a gzipped bitmap of its resident file pages, as written by
+ * {@link MuninnPagedFile#profile(OutputStream)}, and is kept next to the mapped file with the
+ * {@link #PROFILE_SUFFIX} added to its name. A reheat loads the profiled pages of each file in file page order, so
+ * consecutive pages get the vectored read-ahead of the page swapper, and works on several files in parallel.
+ */
+public final class PageCacheWarmer
+{
+    public static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final FileSystemAbstraction fs;
+    private final MuninnPageCache pageCache;
+    private final int reheatThreads;
+    private volatile boolean stopped;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, MuninnPageCache pageCache, int reheatThreads )
+    {
+        if ( reheatThreads < 1 )
+        {
+            throw new IllegalArgumentException( "Must have at least one reheat thread, but was " + reheatThreads );
+        }
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.reheatThreads = reheatThreads;
+    }
+
+    /**
+     * Write a profile of the resident pages of every mapped file.
+     * @return The number of files that were profiled.
+     */
+    public synchronized int profile() throws IOException
+    {
+        List<MuninnPagedFile> files = pageCache.acquireMappedFiles();
+        int profiled = 0;
+        try
+        {
+            for ( MuninnPagedFile pagedFile : files )
+            {
+                if ( stopped )
+                {
+                    break;
+                }
+                File profileFile = profileFile( pagedFile.file() );
+                File tempFile = new File( profileFile.getPath() + TEMP_SUFFIX );
+                try ( OutputStream out = new GZIPOutputStream(
+                        new BufferedOutputStream( fs.openAsOutputStream( tempFile, false ) ) ) )
+                {
+                    pagedFile.profile( out );
+                }
+                fs.deleteFile( profileFile );
+                fs.renameFile( tempFile, profileFile );
+                profiled++;
+            }
+        }
+        finally
+        {
+            closeAll( files );
+        }
+        return profiled;
+    }
+
+    /**
+     * Load the profiled pages of every mapped file that has a profile, until the profiles are exhausted, the page
+     * cache is full, or the warmer is stopped.
+     * @return The number of pages that were loaded.
+     */
+    public long reheat() throws IOException
+    {
+        List<MuninnPagedFile> files = pageCache.acquireMappedFiles();
+        try
+        {
+            final ConcurrentLinkedQueue<MuninnPagedFile> queue = new ConcurrentLinkedQueue<>( files );
+            final AtomicLong budget = new AtomicLong( pageCache.maxCachedPages() );
+            final AtomicLong pagesLoaded = new AtomicLong();
+            final AtomicReference<IOException> failure = new AtomicReference<>();
+            int threads = Math.min( reheatThreads, files.size() );
+            final CountDownLatch done = new CountDownLatch( threads );
+            for ( int i = 0; i < threads; i++ )
+            {
+                BackgroundThreadExecutor.INSTANCE.execute( new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            MuninnPagedFile pagedFile;
+                            while ( (pagedFile = queue.poll()) != null )
+                            {
+                                pagesLoaded.addAndGet( reheat( pagedFile, budget ) );
+                            }
+                        }
+                        catch ( IOException e )
+                        {
+                            failure.compareAndSet( null, e );
+                            queue.clear();
+                        }
+                        finally
+                        {
+                            done.countDown();
+                        }
+                    }
+                } );
+            }
+            done.await();
+            if ( failure.get() != null )
+            {
+                throw failure.get();
+            }
+            return pagesLoaded.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            stop();
+            throw new IOException( "Interrupted while reheating the page cache", e );
+        }
+        finally
+        {
+            closeAll( files );
+        }
+    }
+
+    /**
+     * Make any ongoing and future profiling and reheating stop as soon as possible.
+     */
+    public void stop()
+    {
+        stopped = true;
+    }
+
+    private long reheat( MuninnPagedFile pagedFile, AtomicLong budget ) throws IOException
+    {
+        File profileFile = profileFile( pagedFile.file() );
+        if ( !fs.fileExists( profileFile ) )
+        {
+            return 0;
+        }
+
+        long pagesLoaded = 0;
+        try ( InputStream in = new GZIPInputStream( new BufferedInputStream( fs.openAsInputStream( profileFile ) ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_LOCK ) )
+        {
+            long filePageId = 0;
+            int bits;
+            while ( (bits = in.read()) != -1 )
+            {
+                for ( int i = 0; i < 8; i++, filePageId++ )
+                {
+                    if ( (bits & (1 << i)) == 0 )
+                    {
+                        continue;
+                    }
+                    // Pinning past the end of the file will fail, if the file has shrunk since it was profiled.
+                    if ( stopped || budget.getAndDecrement() <= 0 || !cursor.next( filePageId ) )
+                    {
+                        return pagesLoaded;
+                    }
+                    pagesLoaded++;
+                }
+            }
+        }
+        catch ( IllegalStateException ignore )
+        {
+            // The file was unmapped, or the page cache was closed, so there's nothing more for us to do.
+        }
+        return pagesLoaded;
+    }
+
+    private static File profileFile( File file )
+    {
+        return new File( file.getParentFile(), file.getName() + PROFILE_SUFFIX );
+    }
+
+    private static void closeAll( List<MuninnPagedFile> files ) throws IOException
+    {
+        for ( MuninnPagedFile pagedFile : files )
+        {
+            pagedFile.close();
+        }
+    }
+}
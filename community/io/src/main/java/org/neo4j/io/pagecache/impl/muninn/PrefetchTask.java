@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+
+/**
+ * Brings a range of file pages into memory, ahead of a cursor that is scanning its way towards them with
+ * {@link org.neo4j.io.pagecache.PagedFile#PF_READ_AHEAD}.
+ */
+final class PrefetchTask extends BackgroundTask
+{
+    private final MuninnPagedFile pagedFile;
+    private final long startPageId;
+    private final long endPageId;
+
+    public PrefetchTask( MuninnPageCache pageCache, MuninnPagedFile pagedFile, long startPageId, long endPageId )
+    {
+        super( pageCache );
+        this.pagedFile = pagedFile;
+        this.startPageId = startPageId;
+        this.endPageId = endPageId;
+    }
+
+    @Override
+    protected void run( MuninnPageCache pageCache )
+    {
+        // Prefetching is only a hint. If the file is unmapped, the page cache is shut down, or the pages cannot be
+        // read, then we just stop, and leave it to the scanning cursor to deal with that when it gets there.
+        // The prefetched pages are pinned transiently, so they don't look any more popular to eviction than the
+        // scan that is about to read them makes them.
+        try ( PageCursor cursor = pagedFile.io( startPageId, PF_SHARED_LOCK | PF_TRANSIENT ) )
+        {
+            long pageId = startPageId;
+            while ( pageId <= endPageId && cursor.next() )
+            {
+                pageId++;
+            }
+        }
+        catch ( IOException | IllegalStateException ignore )
+        {
+        }
+        finally
+        {
+            pagedFile.prefetchDone();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+
+import org.neo4j.concurrent.BinaryLatch;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * Faults a run of the file pages that follow a page being faulted by a sequentially moving cursor, such that the
+ * whole run is read from the file with a single scattering read, instead of one read per page.
+ *
+ * Read-ahead is opportunistic: it only claims file pages that are neither mapped nor being faulted by anyone else,
+ * and it only uses cache pages that are immediately available on the freelist, so it never causes evictions or
+ * blocks on its own. Each cursor has its own ReadAhead instance, so this class is not thread-safe.
+ */
+final class ReadAhead
+{
+    static final int maxReadAheadPages = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.ReadAhead.maxReadAheadPages", 8 );
+
+    // Index 0 is the page being faulted by the cursor. The rest are the read-ahead pages.
+    private final MuninnPage[] pages = new MuninnPage[maxReadAheadPages + 1];
+    private final long[] stamps = new long[maxReadAheadPages + 1];
+    private final Object[][] chunks = new Object[maxReadAheadPages + 1][];
+    private final long[] chunkOffsets = new long[maxReadAheadPages + 1];
+    private final BinaryLatch[] latches = new BinaryLatch[maxReadAheadPages + 1];
+    private final PageFaultEvent[] faultEvents = new PageFaultEvent[maxReadAheadPages + 1];
+    private int length;
+
+    /**
+     * Fault the given file page into the given page, along with as many of the immediately following file pages as
+     * can be claimed for read-ahead.
+     *
+     * NOTE: The caller must hold the write lock on the given page, and must own the latch for the given file page in
+     * the translation table. The read-ahead pages are published to the translation table, and unlocked, before this
+     * method returns, while the given page is left for the caller to publish, exactly like
+     * {@link MuninnPage#fault(PageSwapper, long, PageFaultEvent)}.
+     */
+    void fault(
+            MuninnPagedFile pagedFile,
+            PinEvent pinEvent,
+            MuninnPage page,
+            long filePageId,
+            PageFaultEvent faultEvent ) throws IOException
+    {
+        PageSwapper swapper = pagedFile.swapper;
+        pages[0] = page;
+        faultEvents[0] = faultEvent;
+        length = 1;
+        try
+        {
+            claim( pagedFile, pinEvent, filePageId );
+            if ( length == 1 )
+            {
+                page.fault( swapper, filePageId, faultEvent );
+            }
+            else
+            {
+                for ( int i = 0; i < length; i++ )
+                {
+                    pages[i].beginFault( swapper, filePageId + i );
+                }
+                long bytesRead = swapper.read( filePageId, pages, 0, length );
+                int filePageSize = pagedFile.pageSize();
+                for ( int i = 0; i < length; i++ )
+                {
+                    long bytesReadIntoPage = bytesRead - ((long) i) * filePageSize;
+                    bytesReadIntoPage = Math.min( filePageSize, Math.max( 0, bytesReadIntoPage ) );
+                    pages[i].completeFault( swapper, (int) bytesReadIntoPage, faultEvents[i] );
+                }
+            }
+        }
+        catch ( Throwable throwable )
+        {
+            release( throwable );
+            throw throwable;
+        }
+        publish( pagedFile.evictionStrategy );
+    }
+
+    private void claim( MuninnPagedFile pagedFile, PinEvent pinEvent, long filePageId )
+    {
+        long maxFilePageId = Math.min( pagedFile.getLastPageId(), filePageId + maxReadAheadPages );
+        Object[][] tt = pagedFile.translationTable;
+        for ( long readAheadFilePageId = filePageId + 1; readAheadFilePageId <= maxFilePageId; readAheadFilePageId++ )
+        {
+            int chunkId = pagedFile.computeChunkId( readAheadFilePageId );
+            if ( chunkId >= tt.length )
+            {
+                return;
+            }
+            Object[] chunk = tt[chunkId];
+            long chunkOffset = pagedFile.computeChunkOffset( readAheadFilePageId );
+            BinaryLatch latch = new BinaryLatch();
+            if ( !UnsafeUtil.compareAndSwapObject( chunk, chunkOffset, null, latch ) )
+            {
+                // The file page is either already in memory, or someone else is faulting it.
+                return;
+            }
+            MuninnPage page = pagedFile.tryGrabFreePage();
+            if ( page == null )
+            {
+                UnsafeUtil.putObjectVolatile( chunk, chunkOffset, null );
+                latch.release();
+                return;
+            }
+            stamps[length] = page.writeLock();
+            pages[length] = page;
+            chunks[length] = chunk;
+            chunkOffsets[length] = chunkOffset;
+            latches[length] = latch;
+            faultEvents[length] = pinEvent.beginPageFault();
+            length++;
+            page.initBuffer();
+        }
+    }
+
+    private void publish( EvictionStrategy evictionStrategy )
+    {
+        for ( int i = 1; i < length; i++ )
+        {
+            MuninnPage page = pages[i];
+            evictionStrategy.pageReadAhead( page );
+            // The page must be in the translation table before we unlock it, or it could be evicted before we get to
+            // put it there, and then the eviction would find our latch instead of the page.
+            UnsafeUtil.putObjectVolatile( chunks[i], chunkOffsets[i], page );
+            page.unlockWrite( stamps[i] );
+            latches[i].release();
+            faultEvents[i].done();
+        }
+        clear();
+    }
+
+    private void release( Throwable throwable )
+    {
+        for ( int i = 1; i < length; i++ )
+        {
+            // Unlock the page, so the eviction thread can pick up our trash.
+            pages[i].unlockWrite( stamps[i] );
+            UnsafeUtil.putObjectVolatile( chunks[i], chunkOffsets[i], null );
+            latches[i].release();
+            faultEvents[i].done( throwable );
+        }
+        clear();
+    }
+
+    private void clear()
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            pages[i] = null;
+            chunks[i] = null;
+            latches[i] = null;
+            faultEvents[i] = null;
+        }
+        length = 0;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.io.pagecache.PageSwapper;
+
+/**
+ * @see EvictionPolicy#SCAN_RESISTANT
+ *
+ * Every page is in one of three states:
+ * <ul>
+ *     <li>NEW pages have just been faulted in, and the clock arm has not yet passed them. The first reference to a
+ *     NEW page is the pin that faulted it in, and does not count. If the page has been referenced again by the time
+ *     the clock arm gets to it, then it is promoted right away, otherwise it goes on probation.</li>
+ *     <li>PROBATIONARY pages have been passed by the clock arm once. If they have been referenced by the time the
+ *     clock arm comes around again, they are promoted to the protected segment, otherwise they are evicted.</li>
+ *     <li>PROTECTED pages are treated as in CLOCK, except the clock arm will pass them by without decrementing their
+ *     usage stamp, for as long as the probationary segment is larger than its target size.</li>
+ * </ul>
+ * This roughly corresponds to the A1in and Am queues of 2Q, but without needing any list manipulation on the pin
+ * path. Like the A1out queue of 2Q, we also remember the file pages of recently evicted probationary pages, in a lossy
+ * hash table sized to half the number of pages in the cache. If such a file page is faulted in again, then it is
+ * re-used over a longer distance than the probationary segment can hold, and it goes straight into the protected
+ * segment.
+ */
+final class ScanResistantEvictionStrategy extends EvictionStrategy
+{
+    // The share of the cache, in percent, that the probationary segment is allowed to grow to before the clock arm
+    // starts aging the protected pages.
+    private static final int probationaryPercentage = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.ScanResistantEvictionStrategy.probationaryPercentage", 25 );
+
+    static final int PROTECTED = 0;
+    static final int NEW = 1;
+    static final int PROBATIONARY = 2;
+
+    private final int maxPages;
+    private final int probationaryTarget;
+    private final AtomicInteger probationaryPages;
+
+    // The direct-mapped table of recently evicted probationary file pages. Zero means empty. Overwriting entries on
+    // hash collisions, and racing reads and writes of the slots, only makes the table forget things.
+    private final long[] ghosts;
+    private final int ghostMask;
+
+    // The number of protected pages the clock arm has passed by, since it last found a probationary page to evict.
+    // If this reaches the number of pages in the cache, then all the probationary pages are pinned or locked, and
+    // we go back to aging the protected pages so eviction can make progress. Updated racily; it's only a bound.
+    private int protectedPagesSkipped;
+
+    ScanResistantEvictionStrategy( int maxPages )
+    {
+        this.maxPages = maxPages;
+        this.probationaryTarget = Math.max( 1, (int) (maxPages * (long) probationaryPercentage / 100) );
+        this.probationaryPages = new AtomicInteger();
+        int ghostCount = Integer.highestOneBit( Math.max( 1, maxPages / 2 ) );
+        this.ghosts = new long[ghostCount];
+        this.ghostMask = ghostCount - 1;
+    }
+
+    @Override
+    void pageFaulted( MuninnPage page )
+    {
+        long key = ghostKey( page.getSwapper(), page.getFilePageId() );
+        int slot = ghostSlot( key );
+        if ( ghosts[slot] == key )
+        {
+            ghosts[slot] = 0;
+            page.setEvictionState( PROTECTED );
+            return;
+        }
+        if ( page.compareAndSetEvictionState( PROTECTED, NEW ) )
+        {
+            probationaryPages.incrementAndGet();
+        }
+        else
+        {
+            page.setEvictionState( NEW );
+        }
+    }
+
+    @Override
+    void pageReadAhead( MuninnPage page )
+    {
+        // Nobody has asked for this page yet, so the first pin of it will be a real reference.
+        pageFaulted( page );
+    }
+
+    @Override
+    void pageReferenced( MuninnPage page )
+    {
+        page.incrementUsage();
+    }
+
+    @Override
+    boolean isEvictionCandidate( MuninnPage page )
+    {
+        int state = page.getEvictionState();
+        if ( state == NEW )
+        {
+            // Discount the reference from the pin that faulted the page in.
+            if ( page.decrementUsage() )
+            {
+                page.compareAndSetEvictionState( NEW, PROBATIONARY );
+            }
+            else
+            {
+                promote( page, NEW );
+            }
+            return false;
+        }
+        if ( state == PROBATIONARY )
+        {
+            if ( page.hasUsage() )
+            {
+                promote( page, PROBATIONARY );
+                return false;
+            }
+            protectedPagesSkipped = 0;
+            return true;
+        }
+        if ( probationaryPages.get() > probationaryTarget && protectedPagesSkipped < maxPages )
+        {
+            protectedPagesSkipped++;
+            return false;
+        }
+        return page.decrementUsage();
+    }
+
+    @Override
+    void pageEvicted( MuninnPage page, PageSwapper swapper, long filePageId )
+    {
+        // The clock arm might concurrently be promoting the page, so we have to race for who gets to decrement.
+        int state;
+        do
+        {
+            state = page.getEvictionState();
+            if ( state == PROTECTED )
+            {
+                return;
+            }
+        }
+        while ( !page.compareAndSetEvictionState( state, PROTECTED ) );
+        probationaryPages.decrementAndGet();
+        if ( swapper != null )
+        {
+            long key = ghostKey( swapper, filePageId );
+            ghosts[ghostSlot( key )] = key;
+        }
+    }
+
+    private void promote( MuninnPage page, int state )
+    {
+        if ( page.compareAndSetEvictionState( state, PROTECTED ) )
+        {
+            probationaryPages.decrementAndGet();
+        }
+    }
+
+    private static long ghostKey( PageSwapper swapper, long filePageId )
+    {
+        long key = filePageId * 0x9E3779B97F4A7C15L + System.identityHashCode( swapper );
+        return key == 0? 1 : key;
+    }
+
+    private int ghostSlot( long key )
+    {
+        return (int) (key ^ (key >>> 32)) & ghostMask;
+    }
+
+    int probationaryPageCount()
+    {
+        return probationaryPages.get();
+    }
+}
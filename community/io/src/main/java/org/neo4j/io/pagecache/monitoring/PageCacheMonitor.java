@@ -30,6 +30,18 @@ public interface PageCacheMonitor
      */
     public long countFaults();
 
+    /**
+     * @return The number of page pins that found the page already in memory thus far. Unlike the pin count, this is
+     * tracked even when the tracing of pins and unpins is disabled, though cursors report their hits in batches.
+     */
+    public long countHits();
+
+    /**
+     * @return The ratio of hits to the sum of hits and faults observed thus far, as a number between 0 and 1, or 0
+     * if nothing has been observed.
+     */
+    public double hitRatio();
+
     /**
      * @return The number of page evictions observed thus far.
      */
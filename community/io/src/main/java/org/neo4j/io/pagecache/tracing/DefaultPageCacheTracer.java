@@ -81,6 +81,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     }
 
     protected final AtomicLong faults = new AtomicLong();
+    protected final AtomicLong hits = new AtomicLong();
     protected final AtomicLong evictions = new AtomicLong();
     protected final AtomicLong pins = new AtomicLong();
     protected final AtomicLong unpins = new AtomicLong();
@@ -91,6 +92,19 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final AtomicLong filesUnmapped = new AtomicLong();
     protected final AtomicLong evictionExceptions = new AtomicLong();
 
+    // Faults do I/O anyway, so counting them per thread as well costs nothing noticeable. Hits are counted per
+    // thread only when cursors report them, which they do in batches, so the thread local lookup is rare enough.
+    private static final int THREAD_FAULTS = 0;
+    private static final int THREAD_HITS = 1;
+    private final ThreadLocal<long[]> countsOfThread = new ThreadLocal<long[]>()
+    {
+        @Override
+        protected long[] initialValue()
+        {
+            return new long[2];
+        }
+    };
+
     private final FlushEvent flushEvent = new FlushEvent()
     {
         @Override
@@ -183,6 +197,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         public void done()
         {
             faults.getAndIncrement();
+            countsOfThread.get()[THREAD_FAULTS]++;
         }
 
         @Override
@@ -210,6 +225,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         {
         }
 
+        @Override
+        public void hit()
+        {
+            // Counted by the hits the cursors report, since those are counted even when pins are not traced
+        }
+
         @Override
         public PageFaultEvent beginPageFault()
         {
@@ -230,6 +251,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         {
         }
 
+        @Override
+        public void hit()
+        {
+        }
+
         @Override
         public PageFaultEvent beginPageFault()
         {
@@ -324,6 +350,39 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return faults.get();
     }
 
+    @Override
+    public long countFaultsOfCurrentThread()
+    {
+        return countsOfThread.get()[THREAD_FAULTS];
+    }
+
+    @Override
+    public long countHitsOfCurrentThread()
+    {
+        return countsOfThread.get()[THREAD_HITS];
+    }
+
+    @Override
+    public void hits( long count )
+    {
+        hits.getAndAdd( count );
+        countsOfThread.get()[THREAD_HITS] += count;
+    }
+
+    @Override
+    public long countHits()
+    {
+        return hits.get();
+    }
+
+    @Override
+    public double hitRatio()
+    {
+        long hits = countHits();
+        long total = hits + countFaults();
+        return total == 0? 0 : ((double) hits) / total;
+    }
+
     @Override
     public long countEvictions()
     {
@@ -58,6 +58,11 @@ public interface PageCacheTracer extends PageCacheMonitor
             return PinEvent.NULL;
         }
 
+        @Override
+        public void hits( long count )
+        {
+        }
+
         @Override
         public MajorFlushEvent beginFileFlush( PageSwapper swapper )
         {
@@ -76,6 +81,18 @@ public interface PageCacheTracer extends PageCacheMonitor
             return 0;
         }
 
+        @Override
+        public long countHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public double hitRatio()
+        {
+            return 0;
+        }
+
         @Override
         public long countEvictions()
         {
@@ -130,6 +147,18 @@ public interface PageCacheTracer extends PageCacheMonitor
             return 0;
         }
 
+        @Override
+        public long countFaultsOfCurrentThread()
+        {
+            return -1;
+        }
+
+        @Override
+        public long countHitsOfCurrentThread()
+        {
+            return -1;
+        }
+
         @Override
         public String toString()
         {
@@ -161,6 +190,12 @@ public interface PageCacheTracer extends PageCacheMonitor
      */
     public PinEvent beginPin( boolean exclusiveLock, long filePageId, PageSwapper swapper );
 
+    /**
+     * The given number of pins found their pages already in memory. Cursors count their hits themselves and report
+     * them in batches, so hits are counted whether or not the tracing of pins is enabled.
+     */
+    public void hits( long count );
+
     /**
      * A PagedFile wants to flush all its bound pages.
      */
@@ -170,4 +205,18 @@ public interface PageCacheTracer extends PageCacheMonitor
      * The PageCache wants to flush all its bound pages.
      */
     public MajorFlushEvent beginCacheFlush();
+
+    /**
+     * @return the number of page faults the current thread has caused so far, or -1 if this tracer doesn't count
+     * page faults per thread. The difference between two calls on the same thread is the number of faults the
+     * work done in between caused.
+     */
+    public long countFaultsOfCurrentThread();
+
+    /**
+     * @return the number of page hits the current thread has reported so far, or -1 if this tracer doesn't count
+     * page hits per thread. Cursors report their hits in batches, and at the latest when they're closed, so the
+     * difference between two calls on the same thread is exact only if the cursors used in between were closed.
+     */
+    public long countHitsOfCurrentThread();
 }
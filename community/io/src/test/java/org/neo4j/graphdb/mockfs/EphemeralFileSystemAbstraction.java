@@ -647,7 +647,21 @@ public class EphemeralFileSystemAbstraction implements FileSystemAbstraction
         public long read( ByteBuffer[] dsts, int offset, int length ) throws IOException
         {
             checkIfClosedOrInterrupted();
-            throw new UnsupportedOperationException();
+            long total = 0;
+            for ( int i = offset; i < offset + length; i++ )
+            {
+                if ( !dsts[i].hasRemaining() )
+                {
+                    continue;
+                }
+                int read = data.read( this, dsts[i] );
+                if ( read == -1 )
+                {
+                    return total == 0 ? -1 : total;
+                }
+                total += read;
+            }
+            return total;
         }
 
         @Override
@@ -661,7 +675,15 @@ public class EphemeralFileSystemAbstraction implements FileSystemAbstraction
         public long write( ByteBuffer[] srcs, int offset, int length ) throws IOException
         {
             checkIfClosedOrInterrupted();
-            throw new UnsupportedOperationException();
+            long total = 0;
+            for ( int i = offset; i < offset + length; i++ )
+            {
+                if ( srcs[i].hasRemaining() )
+                {
+                    total += data.write( this, srcs[i] );
+                }
+            }
+            return total;
         }
 
         @Override
@@ -66,6 +66,16 @@ public class DelegatingPageSwapper implements PageSwapper
         return delegate.write( filePageId, page );
     }
 
+    public long read( long startFilePageId, Page[] pages, int arrayOffset, int length ) throws IOException
+    {
+        return delegate.read( startFilePageId, pages, arrayOffset, length );
+    }
+
+    public long write( long startFilePageId, Page[] pages, int arrayOffset, int length ) throws IOException
+    {
+        return delegate.write( startFilePageId, pages, arrayOffset, length );
+    }
+
     public long getLastPageId() throws IOException
     {
         return delegate.getLastPageId();
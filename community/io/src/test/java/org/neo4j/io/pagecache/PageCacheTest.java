@@ -617,6 +617,14 @@ public abstract class PageCacheTest<T extends PageCache>
                         super.writeAll( src, position );
                     }
 
+                    @Override
+                    public long write( ByteBuffer[] srcs ) throws IOException
+                    {
+                        // Runs of consecutive pages are flushed with a single gathering write.
+                        writeCounter.getAndAdd( srcs.length );
+                        return super.write( srcs );
+                    }
+
                     @Override
                     public void force( boolean metaData ) throws IOException
                     {
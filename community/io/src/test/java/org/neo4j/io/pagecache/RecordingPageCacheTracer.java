@@ -95,6 +95,11 @@ public class RecordingPageCacheTracer implements PageCacheTracer
             {
             }
 
+            @Override
+            public void hit()
+            {
+            }
+
             @Override
             public PageFaultEvent beginPageFault()
             {
@@ -154,6 +159,23 @@ public class RecordingPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public void hits( long count )
+    {
+    }
+
+    @Override
+    public long countHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public double hitRatio()
+    {
+        return 0;
+    }
+
     @Override
     public long countEvictions()
     {
@@ -208,6 +230,18 @@ public class RecordingPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long countFaultsOfCurrentThread()
+    {
+        return -1;
+    }
+
+    @Override
+    public long countHitsOfCurrentThread()
+    {
+        return -1;
+    }
+
     public <T extends Event> T observe( Class<T> type ) throws InterruptedException
     {
         return type.cast( record.take() );
@@ -123,6 +123,15 @@ public class ByteBufferPage implements Page
         channel.writeAll( duplicate, offset );
     }
 
+    @Override
+    public ByteBuffer asByteBuffer( int length )
+    {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.clear();
+        duplicate.limit( length );
+        return duplicate;
+    }
+
     @Override
     public void clear()
     {
@@ -30,8 +30,10 @@ import org.junit.Test;
 
 import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.Page;
 import org.neo4j.io.pagecache.PageSwapper;
 
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
 import static org.neo4j.test.ByteArrayMatcher.byteArray;
@@ -146,4 +148,99 @@ public class SingleFilePageSwapperTest
 
         assertThat( actual, byteArray( finalData ) );
     }
+
+    @Test
+    public void vectoredReadMustFillConsecutivePagesWithData() throws IOException
+    {
+        byte[] bytes = new byte[] {
+                // --- page 0:
+                1, 2, 3, 4,
+                // --- page 1:
+                5, 6, 7, 8,
+                // --- page 2:
+                9, 10, 11, 12
+        };
+        StoreChannel channel = fs.create( file );
+        channel.writeAll( ByteBuffer.wrap( bytes ) );
+        channel.close();
+
+        PageSwapper swapper = factory.createPageSwapper( file, 4, null );
+        ByteBuffer target1 = ByteBuffer.allocate( 4 );
+        ByteBuffer target2 = ByteBuffer.allocate( 4 );
+        Page[] pages = new Page[] {
+                null, new ByteBufferPage( target1 ), new ByteBufferPage( target2 )
+        };
+        long bytesRead = swapper.read( 1, pages, 1, 2 );
+
+        assertThat( bytesRead, is( 8L ) );
+        assertThat( target1.array(), byteArray( new byte[]{ 5, 6, 7, 8 } ) );
+        assertThat( target2.array(), byteArray( new byte[]{ 9, 10, 11, 12 } ) );
+    }
+
+    @Test
+    public void vectoredReadMustZeroFillPagesBeyondEndOfFile() throws IOException
+    {
+        byte[] bytes = new byte[] {
+                // --- page 0:
+                1, 2, 3, 4,
+                // --- page 1:
+                5, 6
+        };
+        StoreChannel channel = fs.create( file );
+        channel.writeAll( ByteBuffer.wrap( bytes ) );
+        channel.close();
+
+        PageSwapper swapper = factory.createPageSwapper( file, 4, null );
+        ByteBuffer target1 = ByteBuffer.wrap( new byte[] { 9, 9, 9, 9 } );
+        ByteBuffer target2 = ByteBuffer.wrap( new byte[] { 9, 9, 9, 9 } );
+        Page[] pages = new Page[] { new ByteBufferPage( target1 ), new ByteBufferPage( target2 ) };
+        long bytesRead = swapper.read( 1, pages, 0, 2 );
+
+        assertThat( bytesRead, is( 2L ) );
+        assertThat( target1.array(), byteArray( new byte[]{ 5, 6, 0, 0 } ) );
+        assertThat( target2.array(), byteArray( new byte[]{ 0, 0, 0, 0 } ) );
+    }
+
+    @Test
+    public void vectoredWriteMustWriteConsecutivePagesToFile() throws IOException
+    {
+        byte[] initialData = new byte[] {
+                // --- page 0:
+                1, 2, 3, 4,
+                // --- page 1:
+                5, 6, 7, 8,
+                // --- page 2:
+                9, 10, 11, 12,
+                // --- page 3:
+                13, 14
+        };
+        byte[] finalData = new byte[] {
+                // --- page 0:
+                1, 2, 3, 4,
+                // --- page 1:
+                8, 7, 6, 5,
+                // --- page 2:
+                12, 11, 10, 9,
+                // --- page 3:
+                13, 14
+        };
+        StoreChannel channel = fs.create( file );
+        channel.writeAll( ByteBuffer.wrap( initialData ) );
+        channel.close();
+
+        Page[] pages = new Page[] {
+                new ByteBufferPage( ByteBuffer.wrap( new byte[] { 8, 7, 6, 5 } ) ),
+                new ByteBufferPage( ByteBuffer.wrap( new byte[] { 12, 11, 10, 9 } ) )
+        };
+
+        PageSwapper swapper = factory.createPageSwapper( file, 4, null );
+        long bytesWritten = swapper.write( 1, pages, 0, 2 );
+
+        InputStream stream = fs.openAsInputStream( file );
+        byte[] actual = new byte[(int) fs.getFileSize( file )];
+        stream.read( actual );
+
+        assertThat( bytesWritten, is( 8L ) );
+        assertThat( actual, byteArray( finalData ) );
+    }
 }
@@ -24,6 +24,7 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 
@@ -36,6 +37,7 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.RecordingPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
@@ -49,9 +51,13 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.neo4j.io.pagecache.PagedFile.PF_EXCLUSIVE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.RecordingPageCacheTracer.Evict;
 import static org.neo4j.io.pagecache.RecordingPageCacheTracer.Fault;
+import static org.neo4j.test.ThreadTestUtils.awaitThreadState;
+import static org.neo4j.test.ThreadTestUtils.fork;
 
 public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
 {
@@ -265,6 +271,68 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         assertThat( buf.getLong(), is( y ) );
     }
 
+    @Test( timeout = 5000 )
+    public void flushAndForceMustNotKeepPagesLockedWhileWaitingForWriteLockedPage() throws Exception
+    {
+        writeInitialDataTo( file );
+
+        MuninnPageCache pageCache = createPageCache( fs, 4, 8, blockCacheFlush( PageCacheTracer.NULL ) );
+        final PagedFile pagedFile = pageCache.map( file, 8 );
+
+        try ( PageCursor cursor = pagedFile.io( 0, PF_EXCLUSIVE_LOCK ) )
+        {
+            // Dirty the first two pages, so the flush will want to write them in one run
+            assertTrue( cursor.next() );
+            assertTrue( cursor.next() );
+        }
+
+        final CountDownLatch laterPageLocked = new CountDownLatch( 1 );
+        final CountDownLatch releaseLaterPage = new CountDownLatch( 1 );
+        Future<?> laterPageWriter = executor.submit( new Callable<Object>()
+        {
+            @Override
+            public Object call() throws Exception
+            {
+                try ( PageCursor cursor = pagedFile.io( 2, PF_EXCLUSIVE_LOCK ) )
+                {
+                    assertTrue( cursor.next() );
+                    laterPageLocked.countDown();
+                    releaseLaterPage.await();
+                }
+                return null;
+            }
+        } );
+        laterPageLocked.await();
+
+        Thread flusher = fork( new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    pagedFile.flushAndForce();
+                }
+                catch ( IOException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        } );
+        awaitThreadState( flusher, 1000, Thread.State.WAITING );
+
+        // The flush now waits for the write locked page, and must not keep the pages of its run locked meanwhile
+        try ( PageCursor cursor = pagedFile.io( 0, PF_EXCLUSIVE_LOCK ) )
+        {
+            assertTrue( cursor.next() );
+        }
+
+        releaseLaterPage.countDown();
+        laterPageWriter.get();
+        flusher.join();
+        pagedFile.close();
+    }
+
     @Test( timeout = 10000 )
     public void mustUnblockPageFaultersWhenEvictionGetsException() throws Exception
     {
@@ -305,4 +373,81 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             // Good.
         }
     }
+
+    @Test
+    public void mustNotUpdateUsageStatisticsOfPagesPinnedWithTransientCursors() throws Exception
+    {
+        writeInitialDataTo( file );
+        RecordingPageCacheTracer tracer = new RecordingPageCacheTracer();
+
+        MuninnPageCache pageCache = createPageCache( fs, 2, 8, blockCacheFlush( tracer ) );
+        PagedFile pagedFile = pageCache.map( file, 8 );
+
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_LOCK | PF_TRANSIENT ) )
+        {
+            assertTrue( cursor.next() );
+            assertTrue( cursor.next( 0 ) );
+        }
+        assertNotNull( tracer.observe( Fault.class ) );
+
+        // Had the page been pinned twice without PF_TRANSIENT, then it would have survived the first clock sweep.
+        int clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+        assertThat( clockArm, is( 1 ) );
+        assertNotNull( tracer.observe( Evict.class ) );
+    }
+
+    @Test
+    public void mustCountHitsWithTheDefaultTracerSettings() throws Exception
+    {
+        writeInitialDataTo( file );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = createPageCache( fs, 4, 8, tracer );
+        PagedFile pagedFile = pageCache.map( file, 8 );
+
+        for ( int i = 0; i < 4; i++ )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+        pagedFile.close();
+
+        assertThat( tracer.countFaults(), is( 1L ) );
+        assertThat( tracer.countHits(), is( 3L ) );
+        assertThat( tracer.hitRatio(), is( 0.75 ) );
+    }
+
+    @Test( timeout = 10000 )
+    public void readAheadCursorMustPrefetchPagesInTheBackground() throws Exception
+    {
+        int filePageSize = 8;
+        int filePages = 32;
+        StoreChannel channel = fs.create( file );
+        ByteBuffer buf = ByteBuffer.allocate( filePageSize * filePages );
+        while ( buf.hasRemaining() )
+        {
+            buf.putLong( x );
+        }
+        buf.flip();
+        channel.writeAll( buf );
+        channel.close();
+
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = createPageCache( fs, 128, filePageSize, tracer );
+        PagedFile pagedFile = pageCache.map( file, filePageSize );
+
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_LOCK | PF_READ_AHEAD ) )
+        {
+            assertTrue( cursor.next() );
+
+            // The prefetch window is an eighth of the cache, so the 16 pages after the first one are prefetched
+            // without the cursor moving any further.
+            while ( tracer.countFaults() < 17 )
+            {
+                Thread.sleep( 1 );
+            }
+        }
+        pagedFile.close();
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
+
+public class PageCacheWarmerTest
+{
+    private static final int pageSize = 8;
+    private static final int filePages = 20;
+
+    private final File file = new File( "a" );
+    private final File profileFile = new File( "a" + PageCacheWarmer.PROFILE_SUFFIX );
+    private EphemeralFileSystemAbstraction fs;
+    private DefaultPageCacheTracer tracer;
+    private MuninnPageCache pageCache;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        fs = new EphemeralFileSystemAbstraction();
+        try ( StoreChannel channel = fs.create( file ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( pageSize * filePages ) );
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        if ( pageCache != null )
+        {
+            pageCache.close();
+        }
+        fs.shutdown();
+    }
+
+    @Test
+    public void mustReloadProfiledPagesAfterRestart() throws IOException
+    {
+        long[] hotPages = {1, 3, 4, 7, 19};
+        try ( PagedFile pagedFile = startPageCache().map( file, pageSize ) )
+        {
+            pin( pagedFile, hotPages );
+            assertThat( new PageCacheWarmer( fs, pageCache, 2 ).profile(), is( 1 ) );
+        }
+        assertTrue( fs.fileExists( profileFile ) );
+
+        try ( PagedFile pagedFile = startPageCache().map( file, pageSize ) )
+        {
+            assertThat( new PageCacheWarmer( fs, pageCache, 2 ).reheat(), is( (long) hotPages.length ) );
+
+            long faults = tracer.countFaults();
+            pin( pagedFile, hotPages );
+            assertThat( tracer.countFaults(), is( faults ) );
+        }
+    }
+
+    @Test
+    public void mustNotLoadAnythingWithoutProfile() throws IOException
+    {
+        try ( PagedFile ignore = startPageCache().map( file, pageSize ) )
+        {
+            assertThat( new PageCacheWarmer( fs, pageCache, 2 ).reheat(), is( 0L ) );
+            assertThat( tracer.countFaults(), is( 0L ) );
+        }
+    }
+
+    @Test
+    public void mustNotLoadMorePagesThanTheCacheCanHold() throws IOException
+    {
+        try ( PagedFile pagedFile = startPageCache().map( file, pageSize ) )
+        {
+            pin( pagedFile, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19 );
+            new PageCacheWarmer( fs, pageCache, 1 ).profile();
+        }
+
+        int maxPages = filePages / 2;
+        try ( PagedFile ignore = startPageCache( maxPages ).map( file, pageSize ) )
+        {
+            assertThat( new PageCacheWarmer( fs, pageCache, 1 ).reheat(), is( (long) maxPages ) );
+        }
+    }
+
+    @Test
+    public void mustNotProfileOrReheatAfterBeingStopped() throws IOException
+    {
+        try ( PagedFile pagedFile = startPageCache().map( file, pageSize ) )
+        {
+            pin( pagedFile, 1, 2, 3 );
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, 1 );
+            warmer.stop();
+            assertThat( warmer.profile(), is( 0 ) );
+            assertFalse( fs.fileExists( profileFile ) );
+        }
+    }
+
+    private MuninnPageCache startPageCache() throws IOException
+    {
+        return startPageCache( filePages * 2 );
+    }
+
+    private MuninnPageCache startPageCache( int maxPages ) throws IOException
+    {
+        if ( pageCache != null )
+        {
+            pageCache.close();
+        }
+        tracer = new DefaultPageCacheTracer();
+        pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), maxPages, pageSize, tracer );
+        return pageCache;
+    }
+
+    private void pin( PagedFile pagedFile, long... filePageIds ) throws IOException
+    {
+        // A cursor per page, so consecutive pages are not read ahead of the cursor.
+        for ( long filePageId : filePageIds )
+        {
+            try ( PageCursor cursor = pagedFile.io( filePageId, PF_SHARED_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+    }
+}
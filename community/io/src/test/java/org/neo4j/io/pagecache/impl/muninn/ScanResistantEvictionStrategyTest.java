@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.DummyPageSwapper;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ScanResistantEvictionStrategyTest
+{
+    private static final int maxPages = 8;
+
+    private ScanResistantEvictionStrategy strategy;
+    private MuninnPage[] pages;
+
+    @Before
+    public void setUp()
+    {
+        strategy = new ScanResistantEvictionStrategy( maxPages );
+        MemoryReleaser memoryReleaser = new MemoryReleaser( maxPages );
+        pages = new MuninnPage[maxPages];
+        for ( int i = 0; i < maxPages; i++ )
+        {
+            pages[i] = new MuninnPage( 8, memoryReleaser );
+        }
+    }
+
+    @Test
+    public void theReferenceFromTheFaultingPinMustNotPromotePage()
+    {
+        MuninnPage page = pages[0];
+        strategy.pageFaulted( page );
+        strategy.pageReferenced( page );
+
+        // The first pass only starts the probation.
+        assertFalse( strategy.isEvictionCandidate( page ) );
+        assertTrue( strategy.isEvictionCandidate( page ) );
+        assertThat( strategy.probationaryPageCount(), is( 1 ) );
+
+        strategy.pageEvicted( page, null, 0 );
+        assertThat( strategy.probationaryPageCount(), is( 0 ) );
+    }
+
+    @Test
+    public void newPagesThatAreReferencedAgainMustBePromoted()
+    {
+        MuninnPage page = pages[0];
+        strategy.pageFaulted( page );
+        strategy.pageReferenced( page );
+        strategy.pageReferenced( page );
+
+        assertFalse( strategy.isEvictionCandidate( page ) );
+        assertThat( page.getEvictionState(), is( ScanResistantEvictionStrategy.PROTECTED ) );
+        assertThat( strategy.probationaryPageCount(), is( 0 ) );
+    }
+
+    @Test
+    public void probationaryPagesThatAreReferencedAgainMustBePromoted()
+    {
+        MuninnPage page = pages[0];
+        strategy.pageFaulted( page );
+        strategy.pageReferenced( page );
+        assertFalse( strategy.isEvictionCandidate( page ) );
+        strategy.pageReferenced( page );
+
+        assertFalse( strategy.isEvictionCandidate( page ) );
+        assertThat( strategy.probationaryPageCount(), is( 0 ) );
+
+        // Now it ages like in CLOCK.
+        assertTrue( strategy.isEvictionCandidate( page ) );
+    }
+
+    @Test
+    public void pagesFaultedInAgainShortlyAfterEvictionFromProbationMustBeProtected()
+    {
+        PageSwapper swapper = new DummyPageSwapper( "file" );
+        MuninnPage page = pages[0];
+        bind( page, swapper, 42 );
+        strategy.pageFaulted( page );
+        strategy.pageEvicted( page, swapper, 42 );
+
+        MuninnPage again = pages[1];
+        bind( again, swapper, 42 );
+        strategy.pageFaulted( again );
+
+        assertThat( again.getEvictionState(), is( ScanResistantEvictionStrategy.PROTECTED ) );
+        assertThat( strategy.probationaryPageCount(), is( 0 ) );
+    }
+
+    @Test
+    public void protectedPagesMustNotAgeWhileTheProbationarySegmentIsTooLarge()
+    {
+        MuninnPage hot = pages[0];
+        strategy.pageFaulted( hot );
+        assertFalse( strategy.isEvictionCandidate( hot ) );
+        strategy.pageReferenced( hot );
+        assertFalse( strategy.isEvictionCandidate( hot ) );
+
+        // A scan brings in more pages than the probationary target of a quarter of the cache.
+        for ( int i = 1; i < 5; i++ )
+        {
+            strategy.pageFaulted( pages[i] );
+        }
+
+        for ( int i = 0; i < maxPages; i++ )
+        {
+            assertFalse( strategy.isEvictionCandidate( hot ) );
+        }
+        assertTrue( hot.hasUsage() );
+    }
+
+    @Test
+    public void protectedPagesMustAgeIfNoProbationaryPageCanBeEvicted()
+    {
+        MuninnPage hot = pages[0];
+        strategy.pageFaulted( hot );
+        assertFalse( strategy.isEvictionCandidate( hot ) );
+        strategy.pageReferenced( hot );
+        assertFalse( strategy.isEvictionCandidate( hot ) );
+        for ( int i = 1; i < 5; i++ )
+        {
+            strategy.pageFaulted( pages[i] );
+        }
+
+        // Eventually the clock arm must give up on sparing the protected pages, or eviction could get stuck when
+        // the probationary pages are all pinned.
+        boolean evictable = false;
+        for ( int i = 0; i <= maxPages + 1 && !evictable; i++ )
+        {
+            evictable = strategy.isEvictionCandidate( hot );
+        }
+        assertTrue( evictable );
+    }
+
+    private void bind( MuninnPage page, PageSwapper swapper, long filePageId )
+    {
+        long stamp = page.writeLock();
+        page.beginFault( swapper, filePageId );
+        page.completeFault( swapper, 0, PageFaultEvent.NULL );
+        page.unlockWrite( stamp );
+    }
+}
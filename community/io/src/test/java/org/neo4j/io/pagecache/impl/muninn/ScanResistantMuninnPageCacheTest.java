@@ -17,18 +17,29 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.kernel.impl.transaction.log;
+package org.neo4j.io.pagecache.impl.muninn;
 
 import java.io.IOException;
 
-import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageCacheTest;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 
-import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
-
-public class LogRecoveryCheck
+public class ScanResistantMuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
 {
-    public static boolean recoveryRequired(StoreChannel storeChannel) throws IOException
+    @Override
+    protected MuninnPageCache createPageCache(
+            PageSwapperFactory swapperFactory,
+            int maxPages,
+            int pageSize,
+            PageCacheTracer tracer )
+    {
+        return new MuninnPageCache( swapperFactory, maxPages, pageSize, tracer, EvictionPolicy.SCAN_RESISTANT );
+    }
+
+    @Override
+    protected void tearDownPageCache( MuninnPageCache pageCache ) throws IOException
     {
-        return storeChannel.size() > LOG_HEADER_SIZE;
+        pageCache.close();
     }
 }
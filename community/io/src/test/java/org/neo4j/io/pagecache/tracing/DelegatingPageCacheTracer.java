@@ -87,6 +87,11 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.beginPin( exclusiveLock, filePageId, swapper );
     }
 
+    public void hits( long count )
+    {
+        delegate.hits( count );
+    }
+
     public void unmappedFile( File file )
     {
         delegate.unmappedFile( file );
@@ -112,8 +117,28 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.countFaults();
     }
 
+    public long countHits()
+    {
+        return delegate.countHits();
+    }
+
+    public double hitRatio()
+    {
+        return delegate.hitRatio();
+    }
+
     public long countEvictions()
     {
         return delegate.countEvictions();
     }
+
+    public long countFaultsOfCurrentThread()
+    {
+        return delegate.countFaultsOfCurrentThread();
+    }
+
+    public long countHitsOfCurrentThread()
+    {
+        return delegate.countHitsOfCurrentThread();
+    }
 }
@@ -85,6 +85,60 @@ public abstract class PageCacheTracerTest
         assertCounts( 1, 1, 2, 0, 0, 0, 84, 0, 0, 0 );
     }
 
+    @Test
+    public void mustCountPageFaultsOfCurrentThreadOnly() throws Exception
+    {
+        long faultsBefore = tracer.countFaultsOfCurrentThread();
+        tracer.beginPin( false, 0, swapper ).beginPageFault().done();
+
+        Thread otherThread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                tracer.beginPin( false, 1, swapper ).beginPageFault().done();
+            }
+        };
+        otherThread.start();
+        otherThread.join();
+
+        assertThat( "countFaults", tracer.countFaults(), is( 2L ) );
+        assertThat( "countFaultsOfCurrentThread", tracer.countFaultsOfCurrentThread() - faultsBefore, is( 1L ) );
+    }
+
+    @Test
+    public void mustCountPageHitsOfCurrentThreadOnly() throws Exception
+    {
+        long hitsBefore = tracer.countHitsOfCurrentThread();
+        tracer.hits( 3 );
+
+        Thread otherThread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                tracer.hits( 5 );
+            }
+        };
+        otherThread.start();
+        otherThread.join();
+
+        assertThat( "countHits", tracer.countHits(), is( 8L ) );
+        assertThat( "countHitsOfCurrentThread", tracer.countHitsOfCurrentThread() - hitsBefore, is( 3L ) );
+    }
+
+    @Test
+    public void mustCountHitsAndComputeHitRatio()
+    {
+        tracer.hits( 3 );
+        PinEvent pinEvent = tracer.beginPin( false, 1, swapper );
+        pinEvent.beginPageFault().done();
+        pinEvent.done();
+
+        assertThat( "countHits", tracer.countHits(), is( 3L ) );
+        assertThat( "hitRatio", tracer.hitRatio(), is( 0.75 ) );
+    }
+
     @Test
     public void mustCountEvictions()
     {
@@ -362,6 +362,11 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
             this.cachePageId = cachePageId;
         }
 
+        @Override
+        public void hit()
+        {
+        }
+
         @Override
         public PageFaultEvent beginPageFault()
         {
@@ -559,6 +564,23 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public void hits( long count )
+    {
+    }
+
+    @Override
+    public long countHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public double hitRatio()
+    {
+        return 0;
+    }
+
     @Override
     public long countEvictions()
     {
@@ -613,6 +635,18 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long countFaultsOfCurrentThread()
+    {
+        return -1;
+    }
+
+    @Override
+    public long countHitsOfCurrentThread()
+    {
+        return -1;
+    }
+
     private class HistoryPrinter implements Consumer<HEvent>
     {
         private final List<HEvent> concurrentIntervals;
@@ -284,17 +284,21 @@ public interface Node extends PropertyContainer
 
     /**
      * Returns the number of relationships connected to this node regardless of
-     * direction or type. This operation is always O(1).
+     * direction or type. If the number of relationships connected to this node is less
+     * than the {@link org.neo4j.graphdb.factory.GraphDatabaseSettings#dense_node_threshold
+     * dense node threshold} this lookup is O(1). Otherwise the count is kept per relationship
+     * type and direction, and this lookup is O(number of relationship types of this node).
      * @return the number of relationships connected to this node.
      */
     public int getDegree();
 
     /**
      * Returns the number of relationships of a given {@code type} connected to this node.
-     * If the degree of this node is less than (TODO) dense node threshold this method
-     * will have to load all relationships, if not already loaded, to be able to give
-     * the answer. If the number of relationships connected to this node is greater than
-     * or equal to the (TODO) dense node threshold this lookup will be O(1).
+     * If the number of relationships connected to this node is less than the
+     * {@link org.neo4j.graphdb.factory.GraphDatabaseSettings#dense_node_threshold dense node threshold}
+     * this method will have to read all relationships of this node to be able to give the answer.
+     * Otherwise the count is kept per relationship type and direction, and this lookup is
+     * O(number of relationship types of this node).
      *
      * @return the number of relationships of a given {@code type} connected to this node.
      */
@@ -302,10 +306,12 @@ public interface Node extends PropertyContainer
 
     /**
      * Returns the number of relationships of a given {@code direction} connected to this node.
-     * If the degree of this node is less than (TODO) dense node threshold this method
-     * will have to load all relationships, if not already loaded, to be able to give
-     * the answer. If the number of relationships connected to this is node greater than
-     * or equal to the (TODO) dense node threshold this lookup will be O(1).
+     * If the number of relationships connected to this node is less than the
+     * {@link org.neo4j.graphdb.factory.GraphDatabaseSettings#dense_node_threshold dense node threshold}
+     * this method will have to read all relationships of this node to be able to give the answer,
+     * unless {@code direction} is {@link Direction#BOTH}, see {@link #getDegree()}.
+     * Otherwise the count is kept per relationship type and direction, and this lookup is
+     * O(number of relationship types of this node).
      *
      * @return the number of relationships of a given {@code direction} for this node.
      */
@@ -313,11 +319,11 @@ public interface Node extends PropertyContainer
 
     /**
      * Returns the number of relationships of a given {@code type} and {@code direction}
-     * connected to this node. If the degree of this node is less than (TODO) dense node
-     * threshold this method will have to load all relationships, if not already loaded,
-     * to be able to give the answer. If the number of relationships connected to this
-     * node is greater than or equal to the (TODO) dense node threshold this lookup will
-     * be O(1).
+     * connected to this node. If the number of relationships connected to this node is less
+     * than the {@link org.neo4j.graphdb.factory.GraphDatabaseSettings#dense_node_threshold
+     * dense node threshold} this method will have to read all relationships of this node
+     * to be able to give the answer. Otherwise the count is kept per relationship type and
+     * direction, and this lookup is O(number of relationship types of this node).
      *
      * @return the number of relationships of a given {@code type} and {@code direction}
      * for this node.
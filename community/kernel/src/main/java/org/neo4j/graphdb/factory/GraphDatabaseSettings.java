@@ -104,6 +104,11 @@ public abstract class GraphDatabaseSettings
     @Internal
     public static final Setting<Boolean> cypher_compiler_tracing = setting( "dbms.cypher.compiler_tracing", BOOLEAN, FALSE );
 
+    @Description( "The number of rows a sort, or the number of groups an aggregation, may keep in memory before "
+                  + "spilling the rest to temporary files. 0 keeps everything in memory." )
+    public static final Setting<Integer> cypher_spill_threshold = setting(
+            "dbms.cypher.spill_threshold", INTEGER, "0", min( 0 ) );
+
     @Description( "The number of Cypher query execution plans that are cached." )
     public static Setting<Integer> query_cache_size = setting( "query_cache_size", INTEGER, "1000", min( 0 ) );
 
@@ -168,6 +173,12 @@ public abstract class GraphDatabaseSettings
     public static final Setting<Integer> index_sampling_update_percentage =
             setting("index_sampling_update_percentage", INTEGER, "5", min( 0 ) );
 
+    // Index population
+    @Description("Number of threads scanning the store when populating indexes. Indexes that are created together, " +
+            "or rebuilt together at startup, are all populated from a single scan of the store.")
+    public static final Setting<Integer> index_population_threads =
+            setting("index_population_threads", INTEGER, "4", min( 1 ) );
+
     // Lucene settings
     @Description( "The maximum number of open Lucene index searchers." )
     public static Setting<Integer> lucene_searcher_cache_size = setting("lucene_searcher_cache_size",INTEGER, Integer.toString( Integer.MAX_VALUE ), min( 1 ));
@@ -185,6 +196,38 @@ public abstract class GraphDatabaseSettings
                   "`0` means that no rotation will automatically occur based on file size. " )
     public static final Setting<Long> logical_log_rotation_threshold = setting( "logical_log_rotation_threshold", BYTES, "250M", min( 1024*1024L /*1Mb*/ ) );
 
+    @Description( "Configures the time interval between check points. The database will not check point more often " +
+                  "than this (unless check pointing is triggered by a different event), but might check point less " +
+                  "often than this interval, if performing a check point takes longer time than the configured " +
+                  "interval. A check point is a point in the transaction logs, from which recovery would start from. " +
+                  "Longer check point intervals typically means that recovery will take longer to complete in case " +
+                  "of a crash. On the other hand, a longer check point interval can also reduce the I/O load that " +
+                  "the database places on the system, as each check point implies a flushing and forcing of all the " +
+                  "store files." )
+    public static final Setting<Long> check_point_interval_time =
+            setting( "dbms.checkpoint.interval.time", DURATION, "5m", min( 1000L ) );
+
+    @Description( "Configures the transaction interval between check points. The database will not check point more " +
+                  "often than this (unless check pointing is triggered by a different event), but might check point " +
+                  "less often than this interval, if performing a check point takes longer time than the configured " +
+                  "interval." )
+    public static final Setting<Integer> check_point_interval_tx =
+            setting( "dbms.checkpoint.interval.tx", INTEGER, "100000", min( 1 ) );
+
+    @Description( "Where to keep the ids of the nodes and relationships that are deleted in a transaction. " +
+                  "'off_heap' reduces the garbage collection pressure of transactions that delete very many " +
+                  "entities, at the cost of allocating native memory for every transaction that deletes entities. " +
+                  "This only covers the deleted ids: property values, labels and created entities and " +
+                  "relationships are always kept on the Java heap." )
+    public static final Setting<String> tx_state_deleted_ids_memory_allocation =
+            setting( "dbms.tx_state.deleted_ids.memory_allocation", options( "on_heap", "off_heap" ), "on_heap" );
+
+    @Description( "The maximum number of versions of records overwritten by committing transactions that are kept " +
+                  "for read-only snapshot transactions, which see the graph as it was when they started. Snapshot " +
+                  "transactions needing more versions than this fail." )
+    public static final Setting<Integer> snapshot_record_versions =
+            setting( "dbms.snapshot.record_versions", INTEGER, "1000000", min( 0 ) );
+
     @Description("Use a quick approach for rebuilding the ID generators. This give quicker recovery time, " +
             "but will limit the ability to reuse the space of deleted entities.")
     @Internal
@@ -213,6 +256,31 @@ public abstract class GraphDatabaseSettings
     public static final Setting<Long> pagecache_memory =
             setting( "dbms.pagecache.memory", BYTES, defaultPageCacheMemory(), min( 8192 * 2L ) );
 
+    @Description( "The policy the page cache uses to choose which pages to evict. 'clock' evicts the pages that " +
+                  "have not been used recently. 'scan_resistant' keeps newly loaded pages on probation until they " +
+                  "are used again, so that large scans of the store files do not evict the frequently used pages." )
+    public static final Setting<String> pagecache_eviction_policy = setting( "dbms.pagecache.eviction_policy",
+            options( "clock", "scan_resistant" ), "clock" );
+
+    @Description( "Periodically record which pages of the store files are in the page cache, and load those pages " +
+                  "back into the page cache when the database starts, so it does not have to warm up from cold " +
+                  "after a restart or a role switch. The profiles are kept next to the store files." )
+    public static final Setting<Boolean> pagecache_warmup_enabled =
+            setting( "dbms.pagecache.warmup.enabled", BOOLEAN, FALSE );
+
+    @Description( "How often the contents of the page cache are profiled for the page cache warmup." )
+    public static final Setting<Long> pagecache_warmup_profiling_interval =
+            setting( "dbms.pagecache.warmup.profiling_interval", DURATION, "1m", min( 1000L ) );
+
+    @Description( "Whether the page cache warmup loads the profiled pages before the database becomes available " +
+                  "('blocking'), or in the background while the database is already serving requests ('background')." )
+    public static final Setting<String> pagecache_warmup_mode =
+            setting( "dbms.pagecache.warmup.mode", options( "blocking", "background" ), "blocking" );
+
+    @Description( "The number of threads that load the profiled pages in parallel, one store file at a time each." )
+    public static final Setting<Integer> pagecache_warmup_threads =
+            setting( "dbms.pagecache.warmup.threads", INTEGER, "4", min( 1 ) );
+
     private static String defaultPageCacheMemory()
     {
         // First check if we have a default override...
@@ -370,6 +438,12 @@ public abstract class GraphDatabaseSettings
     @Description( "Relationship count threshold for considering a node to be dense" )
     public static final Setting<Integer> dense_node_threshold = setting( "dense_node_threshold", INTEGER, "50", min(1) );
 
+    @Description( "Hand out node, relationship and property ids without locking, by letting each writing thread " +
+                  "reserve a small range of new ids at a time. This reduces contention when many threads create " +
+                  "data concurrently, at the cost of ids being handed out slightly out of order." )
+    public static final Setting<Boolean> concurrent_id_generation =
+            setting( "dbms.ids.concurrent_generation", BOOLEAN, FALSE );
+
     @Deprecated
     @Description("Whether or not transactions are appended to the log in batches")
     @Obsoleted( "Write batching can no longer be turned off" )
@@ -384,4 +458,13 @@ public abstract class GraphDatabaseSettings
     @Description("If the execution of query takes more time than this threshold, the query is logged - " +
             "provided query logging is enabled. Defaults to 0 seconds, that is all queries are logged.")
     public static final Setting<Long> log_queries_threshold = setting("dbms.querylog.threshold", DURATION, "0s");
+
+    @Description( "The query log file is rotated when it grows larger than this. Zero means that the query log is " +
+                  "never rotated." )
+    public static final Setting<Long> log_queries_rotation_threshold =
+            setting( "dbms.querylog.rotation.threshold", BYTES, "20m", min( 0L ), max( Long.MAX_VALUE ) );
+
+    @Description( "Maximum number of history files for the query log." )
+    public static final Setting<Integer> log_queries_max_archives =
+            setting( "dbms.querylog.max_archives", INTEGER, "7", min( 1 ) );
 }
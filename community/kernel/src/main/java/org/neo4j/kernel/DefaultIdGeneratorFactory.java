@@ -20,10 +20,13 @@
 package org.neo4j.kernel;
 
 import java.io.File;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.store.id.ConcurrentIdGenerator;
 import org.neo4j.kernel.impl.store.id.IdGenerator;
 import org.neo4j.kernel.impl.store.id.IdGeneratorImpl;
 
@@ -34,14 +37,42 @@ import org.neo4j.kernel.impl.store.id.IdGeneratorImpl;
 public class DefaultIdGeneratorFactory
     implements IdGeneratorFactory
 {
+    // The id types that see enough concurrent allocation to be worth the ids that each thread keeps in reserve with
+    // a ConcurrentIdGenerator. The token ids are few and precious, so they are left alone.
+    private static final Set<IdType> CONCURRENT_ID_TYPES = EnumSet.of( IdType.NODE, IdType.RELATIONSHIP,
+            IdType.RELATIONSHIP_GROUP, IdType.PROPERTY, IdType.STRING_BLOCK, IdType.ARRAY_BLOCK, IdType.NODE_LABELS );
+
     private final Map<IdType, IdGenerator> generators = new HashMap<>();
+    private final boolean concurrent;
+
+    public DefaultIdGeneratorFactory()
+    {
+        this( false );
+    }
+
+    /**
+     * @param concurrent whether to hand out node, relationship and property ids with a
+     * {@link ConcurrentIdGenerator}, rather than an {@link IdGeneratorImpl}.
+     */
+    public DefaultIdGeneratorFactory( boolean concurrent )
+    {
+        this.concurrent = concurrent;
+    }
 
     public IdGenerator open( FileSystemAbstraction fs, File fileName, int grabSize, IdType idType, long highId )
     {
         long maxValue = idType.getMaxValue();
         boolean aggressiveReuse = idType.allowAggressiveReuse();
-        IdGenerator generator = new IdGeneratorImpl( fs, fileName, grabSize, maxValue,
-                aggressiveReuse, highId );
+        IdGenerator generator;
+        if ( concurrent && CONCURRENT_ID_TYPES.contains( idType ) )
+        {
+            generator = new ConcurrentIdGenerator( fs, fileName, grabSize, maxValue, aggressiveReuse, highId,
+                    ConcurrentIdGenerator.DEFAULT_RANGE_SIZE );
+        }
+        else
+        {
+            generator = new IdGeneratorImpl( fs, fileName, grabSize, maxValue, aggressiveReuse, highId );
+        }
         generators.put( idType, generator );
         return generator;
     }
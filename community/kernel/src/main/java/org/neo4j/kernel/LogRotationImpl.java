@@ -25,28 +25,28 @@ import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogRotateEvent;
 import org.neo4j.kernel.impl.transaction.log.LogFile;
 import org.neo4j.kernel.impl.transaction.log.LogRotation;
-import org.neo4j.kernel.impl.transaction.log.LogRotationControl;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 
 /**
  * Default implementation of the LogRotation interface.
+ *
+ * Rotation is a plain switch to a new log file. The store is not forced here, instead recovery starts from
+ * the latest {@link org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer check point}, which may be
+ * in an earlier log file.
  */
 public class LogRotationImpl
     implements LogRotation
 {
     private final LogRotation.Monitor monitor;
     private final LogFile logFile;
-    private final LogRotationControl logRotationControl;
     private final KernelHealth kernelHealth;
     private final Log msgLog;
 
-    public LogRotationImpl( Monitor monitor, LogFile logFile,
-            LogRotationControl logRotationControl, KernelHealth kernelHealth, LogProvider logProvider )
+    public LogRotationImpl( Monitor monitor, LogFile logFile, KernelHealth kernelHealth, LogProvider logProvider )
     {
         this.monitor = monitor;
         this.logFile = logFile;
-        this.logRotationControl = logRotationControl;
         this.kernelHealth = kernelHealth;
 
         msgLog = logProvider.getLog( getClass() );
@@ -94,21 +94,6 @@ public class LogRotationImpl
 
         monitor.startedRotating( currentVersion );
 
-        /*
-         * Check kernel health before going into waiting for transactions to be closed, to avoid
-         * getting into a scenario where we would await a condition that would potentially never happen.
-         */
-        kernelHealth.assertHealthy( IOException.class );
-
-        /*
-         * First we flush the store. If we fail now or during the flush, on recovery we'll discover
-         * the current log file and replay it. Everything will be ok.
-         */
-        msgLog.info( PrintFormat.prefix( currentVersion ) + " Awaiting all transactions closed..." );
-        logRotationControl.awaitAllTransactionsClosed();
-        msgLog.info( PrintFormat.prefix( currentVersion ) + " Starting store flush..." );
-        logRotationControl.forceEverything();
-
         /*
          * In order to rotate the current log file safely we need to assert that the kernel is still
          * at full health. In case of a panic this rotation will be aborted, which is the safest alternative
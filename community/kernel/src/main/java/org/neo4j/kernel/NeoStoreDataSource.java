@@ -36,6 +36,7 @@ import org.neo4j.graphdb.config.Setting;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.graphdb.index.IndexImplementation;
 import org.neo4j.graphdb.index.IndexProviders;
+import org.neo4j.helpers.Clock;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.helpers.Provider;
 import org.neo4j.helpers.collection.Visitor;
@@ -76,6 +77,7 @@ import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
 import org.neo4j.kernel.impl.api.state.ConstraintIndexCreator;
 import org.neo4j.kernel.impl.api.store.CacheLayer;
 import org.neo4j.kernel.impl.api.store.DiskLayer;
+import org.neo4j.kernel.impl.api.store.RecordVersions;
 import org.neo4j.kernel.impl.api.store.SchemaCache;
 import org.neo4j.kernel.impl.api.store.StoreReadLayer;
 import org.neo4j.kernel.impl.cache.BridgingCacheAccess;
@@ -91,6 +93,7 @@ import org.neo4j.kernel.impl.index.LegacyIndexStore;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.ReentrantLockService;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmerLifecycle;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.SchemaStorage;
 import org.neo4j.kernel.impl.store.StoreFactory;
@@ -118,6 +121,11 @@ import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.ReadableVersionableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointScheduler;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.LatestCheckPointFinder;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReaderFactory;
@@ -186,6 +194,8 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
     private interface StoreLayerModule
     {
         StoreReadLayer storeLayer();
+
+        RecordVersions recordVersions();
     }
 
     private interface TransactionLogModule
@@ -203,6 +213,8 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
         LogRotationControl logRotationControl();
 
         LogRotation logRotation();
+
+        CheckPointer checkPointer();
     }
 
     private interface KernelModule
@@ -460,18 +472,19 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
             TransactionLogModule transactionLogModule =
                     buildTransactionLogs( storeDir, config, logProvider, indexingModule.labelScanStore(),
                             fs, neoStoreModule.neoStore(), cacheModule.cacheAccess(), indexingModule.indexingService(),
-                            indexProviders.values() );
+                            indexProviders.values(), storeLayerModule.recordVersions() );
 
             buildRecovery( fs, cacheModule.cacheAccess(), indexingModule.indexingService(),
                     indexingModule.indexUpdatesValidator(), indexingModule.labelScanStore(), neoStoreModule.neoStore(),
                     monitors.newMonitor( RecoveryVisitor.Monitor.class ), monitors.newMonitor( Recovery.Monitor.class ),
-                    transactionLogModule.logFiles(), transactionLogModule.logRotationControl(), startupStatistics );
+                    transactionLogModule.logFiles(), transactionLogModule.logRotationControl(), startupStatistics,
+                    storeLayerModule.recordVersions() );
 
             KernelModule kernelModule = buildKernel( indexingModule.integrityValidator(),
                     transactionLogModule.logicalTransactionStore(), neoStoreModule.neoStore(),
                     transactionLogModule.storeApplier(), indexingModule.indexingService(),
                     indexingModule.indexUpdatesValidator(),
-                    storeLayerModule.storeLayer(),
+                    storeLayerModule.storeLayer(), storeLayerModule.recordVersions(),
                     cacheModule.updateableSchemaState(), indexingModule.labelScanStore(),
                     indexingModule.schemaIndexProviderMap() );
 
@@ -486,6 +499,9 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
             dependencies.satisfyDependency( this );
             satisfyDependencies( neoStoreModule, cacheModule, indexingModule, storeLayerModule, transactionLogModule,
                     kernelModule );
+
+            // Warm up the page cache last, once recovery has completed and all the store files have been mapped.
+            life.add( new PageCacheWarmerLifecycle( pageCache, fs, scheduler, config, logProvider ) );
         }
         catch ( Throwable e )
         { // Something unexpected happened during startup
@@ -629,7 +645,8 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
         final DefaultSchemaIndexProviderMap providerMap = new DefaultSchemaIndexProviderMap( indexProvider );
 
         final IndexingService indexingService = IndexingService.create(
-                new IndexSamplingConfig( config ), scheduler, providerMap,
+                new IndexSamplingConfig( config ), scheduler,
+                config.get( GraphDatabaseSettings.index_population_threads ), providerMap,
                 new NeoStoreIndexStoreView( lockService, neoStore ), tokenNameLookup, updateableSchemaState,
                 toList( new SchemaStorage( neoStore.getSchemaStore() ).allIndexRules() ), logProvider,
                 indexingServiceMonitor );
@@ -698,6 +715,8 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
         storeLayer = new CacheLayer( new DiskLayer( propertyKeyTokenHolder, labelTokens, relationshipTypeTokens,
                 new SchemaStorage( neoStore.getSchemaStore() ), neoStoreSupplier, indexingService ),
                 indexingService, schemaCache );
+        final RecordVersions recordVersions =
+                new RecordVersions( neoStore, config.get( GraphDatabaseSettings.snapshot_record_versions ) );
 
         return new StoreLayerModule()
         {
@@ -706,6 +725,12 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
             {
                 return storeLayer;
             }
+
+            @Override
+            public RecordVersions recordVersions()
+            {
+                return recordVersions;
+            }
         };
     }
 
@@ -714,7 +739,7 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
             FileSystemAbstraction fileSystemAbstraction,
             NeoStore neoStore, CacheAccessBackDoor cacheAccess,
             IndexingService indexingService,
-            Iterable<IndexImplementation> indexProviders )
+            Iterable<IndexImplementation> indexProviders, RecordVersions recordVersions )
     {
         TransactionMetadataCache transactionMetadataCache = new TransactionMetadataCache( 1000, 100_000 );
         final PhysicalLogFiles logFiles = new PhysicalLogFiles( storeDir, PhysicalLogFile.DEFAULT_NAME,
@@ -725,7 +750,7 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
                 new TransactionRepresentationStoreApplier(
                         indexingService, alwaysCreateNewWriter( labelScanStore ), neoStore,
                         cacheAccess, lockService, new LegacyIndexApplierLookup.Direct( legacyIndexProviderLookup ),
-                        indexConfigStore, legacyIndexTransactionOrdering ) );
+                        indexConfigStore, legacyIndexTransactionOrdering, recordVersions ) );
 
         final PhysicalLogFile logFile = new PhysicalLogFile( fileSystemAbstraction, logFiles,
                 config.get( GraphDatabaseSettings.logical_log_rotation_threshold ), neoStore,
@@ -758,21 +783,33 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
                 new PhysicalLogFileInformation( logFiles, transactionMetadataCache, neoStore, logInformation );
 
         LogPruneStrategy logPruneStrategy = LogPruneStrategyFactory.fromConfigValue( fs, logFileInformation,
-                logFiles, neoStore, config.get( config.get( GraphDatabaseFacadeFactory.Configuration.ephemeral) ? GraphDatabaseFacadeFactory.Configuration.ephemeral_keep_logical_logs : GraphDatabaseSettings.keep_logical_logs ) );
+                logFiles, config.get( config.get( GraphDatabaseFacadeFactory.Configuration.ephemeral) ? GraphDatabaseFacadeFactory.Configuration.ephemeral_keep_logical_logs : GraphDatabaseSettings.keep_logical_logs ) );
 
-        monitors.addMonitorListener( new LogPruning( logPruneStrategy, logProvider ) );
+        final LogPruning logPruning = new LogPruning( logPruneStrategy, logProvider );
 
         final LogRotationControl logRotationControl = new LogRotationControl( neoStore, indexingService, labelScanStore,
                 indexProviders );
 
         final LogRotation logRotation = new LogRotationImpl( monitors.newMonitor( LogRotation.Monitor.class ),
-                logFile, logRotationControl, kernelHealth, logProvider );
+                logFile, kernelHealth, logProvider );
 
         final LogicalTransactionStore logicalTransactionStore = new PhysicalLogicalTransactionStore( logFile,
                 logRotation, transactionMetadataCache, neoStore, legacyIndexTransactionOrdering, kernelHealth );
 
+        long checkPointIntervalMillis = config.get( GraphDatabaseSettings.check_point_interval_time );
+        CheckPointThreshold checkPointThreshold = new CheckPointThreshold(
+                config.get( GraphDatabaseSettings.check_point_interval_tx ), checkPointIntervalMillis,
+                Clock.SYSTEM_CLOCK );
+        final CheckPointerImpl checkPointer = new CheckPointerImpl( neoStore, checkPointThreshold,
+                logRotationControl, logicalTransactionStore, logFile, logPruning, kernelHealth, logProvider );
+        CheckPointScheduler checkPointScheduler = new CheckPointScheduler( checkPointer, scheduler,
+                Math.min( checkPointIntervalMillis, CheckPointScheduler.DEFAULT_CHECK_INTERVAL_MILLIS ),
+                logProvider );
+
         life.add( logFile );
         life.add( logicalTransactionStore );
+        life.add( checkPointer );
+        life.add( checkPointScheduler );
 
         return new TransactionLogModule()
         {
@@ -817,6 +854,12 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
             {
                 return logRotation;
             }
+
+            @Override
+            public CheckPointer checkPointer()
+            {
+                return checkPointer;
+            }
         };
     }
 
@@ -836,7 +879,7 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
             IndexingService indexingService, IndexUpdatesValidator indexUpdatesValidator, LabelScanStore labelScanStore,
             final NeoStore neoStore, RecoveryVisitor.Monitor recoveryVisitorMonitor, Recovery.Monitor recoveryMonitor,
             final PhysicalLogFiles logFiles, final LogRotationControl logRotationControl,
-            final StartupStatisticsProvider startupStatistics )
+            final StartupStatisticsProvider startupStatistics, RecordVersions recordVersions )
     {
         final RecoveryLabelScanWriterProvider labelScanWriters =
                 new RecoveryLabelScanWriterProvider( labelScanStore, 1000 );
@@ -845,7 +888,7 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
         final TransactionRepresentationStoreApplier storeRecoverer =
                 new TransactionRepresentationStoreApplier(
                         indexingService, labelScanWriters, neoStore, cacheAccess, lockService,
-                        legacyIndexApplierLookup, indexConfigStore, IdOrderingQueue.BYPASS );
+                        legacyIndexApplierLookup, indexConfigStore, IdOrderingQueue.BYPASS, recordVersions );
 
         RecoveryVisitor recoveryVisitor = new RecoveryVisitor( neoStore, storeRecoverer, indexUpdatesValidator,
                 recoveryVisitorMonitor );
@@ -853,6 +896,8 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
         LogEntryReader<ReadableVersionableLogChannel> logEntryReader = new LogEntryReaderFactory().versionable();
         final Visitor<LogVersionedStoreChannel,IOException> logFileRecoverer =
                 new LogFileRecoverer( logEntryReader, recoveryVisitor );
+        final LatestCheckPointFinder checkPointFinder =
+                new LatestCheckPointFinder( logFiles, fileSystemAbstraction, logEntryReader );
 
         Recovery recovery = new Recovery( new Recovery.SPI()
         {
@@ -877,6 +922,12 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
                 return neoStore.getCurrentLogVersion();
             }
 
+            @Override
+            public LogPosition getPositionToRecoverFrom() throws IOException
+            {
+                return checkPointFinder.find( neoStore.getCurrentLogVersion() );
+            }
+
             @Override
             public Visitor<LogVersionedStoreChannel,IOException> getRecoverer()
             {
@@ -909,7 +960,7 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
             LogicalTransactionStore logicalTransactionStore,
             NeoStore neoStore, TransactionRepresentationStoreApplier storeApplier,
             IndexingService indexingService, IndexUpdatesValidator indexUpdatesValidator, StoreReadLayer storeLayer,
-            UpdateableSchemaState updateableSchemaState, LabelScanStore labelScanStore,
+            RecordVersions recordVersions, UpdateableSchemaState updateableSchemaState, LabelScanStore labelScanStore,
             SchemaIndexProviderMap schemaIndexProviderMap )
     {
         final TransactionCommitProcess transactionCommitProcess =
@@ -949,9 +1000,10 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
                 life.add( new KernelTransactions( neoStoreTransactionContextSupplier,
                         neoStore, locks, integrityValidator, constraintIndexCreator, indexingService, labelScanStore,
                         statementOperations, updateableSchemaState, schemaWriteGuard, schemaIndexProviderMap,
-                        transactionHeaderInformationFactory, storeLayer, transactionCommitProcess,
+                        transactionHeaderInformationFactory, storeLayer, recordVersions, transactionCommitProcess,
                         indexConfigStore,
-                        legacyIndexProviderLookup, hooks, transactionMonitor, life, tracers ) );
+                        legacyIndexProviderLookup, hooks, transactionMonitor, life, tracers,
+                        "off_heap".equals( config.get( GraphDatabaseSettings.tx_state_deleted_ids_memory_allocation ) ) ) );
 
         final Kernel kernel = new Kernel( kernelTransactions, hooks, kernelHealth, transactionMonitor );
 
@@ -1075,16 +1127,14 @@ public class NeoStoreDataSource implements NeoStoreSupplier, Lifecycle, IndexPro
                 // will be able to start committing at this point.
                 logRotationControl.awaitAllTransactionsClosed();
 
-                // Force all pending store changes to disk.
-                logRotationControl.forceEverything();
-
                 // We simply increment the version, essentially "rotating" away
-                // the current active log file, to avoid having a recovery on
-                // next startup. Not necessary, simply speeds up the startup
-                // process.
+                // the current active log file. Not necessary, but keeps the
+                // log files of different sessions apart.
                 neoStoreModule.neoStore().incrementAndGetVersion();
 
                 // Shut down all services in here, effectively making the database unusable for anyone who tries.
+                // Stopping the check pointer forces all pending store changes to disk, and writes a check point,
+                // so that there's nothing to recover on next startup.
                 life.shutdown();
 
                 // Close the NeoStore
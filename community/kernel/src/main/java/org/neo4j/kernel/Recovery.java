@@ -22,13 +22,15 @@ package org.neo4j.kernel;
 import java.io.IOException;
 
 import org.neo4j.helpers.collection.Visitor;
-import org.neo4j.kernel.impl.transaction.log.LogRecoveryCheck;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
 /**
  * This is the process of doing a recovery on the transaction log and store, and is executed
- * at startup of {@link org.neo4j.kernel.NeoStoreDataSource}.
+ * at startup of {@link org.neo4j.kernel.NeoStoreDataSource}. Recovery starts from the position that the latest
+ * check point points at, which may be in an older log file than the current one, and replays all transactions from
+ * there to the end of the current log file.
  */
 public class Recovery extends LifecycleAdapter
 {
@@ -45,6 +47,12 @@ public class Recovery extends LifecycleAdapter
     {
         void forceEverything();
         long getCurrentLogVersion();
+
+        /**
+         * @return the position to start recovery from, or {@link LogPosition#UNSPECIFIED} if there is nothing to
+         * recover.
+         */
+        LogPosition getPositionToRecoverFrom() throws IOException;
         Visitor<LogVersionedStoreChannel, IOException> getRecoverer();
         LogVersionedStoreChannel getLogFile( long recoveryVersion ) throws IOException;
     }
@@ -63,20 +71,30 @@ public class Recovery extends LifecycleAdapter
     @Override
     public void init() throws Throwable
     {
-        long recoveryVersion = spi.getCurrentLogVersion();
-        try ( LogVersionedStoreChannel toRecover = spi.getLogFile( recoveryVersion ))
+        LogPosition recoveryFromPosition = spi.getPositionToRecoverFrom();
+        if ( recoveryFromPosition == LogPosition.UNSPECIFIED )
         {
-            if ( LogRecoveryCheck.recoveryRequired( toRecover ) )
-            {   // There's already data in here, which means recovery will need to be performed.
-                monitor.recoveryRequired( toRecover.getVersion() );
-                spi.getRecoverer().visit( toRecover );
-                recoveredLog = true;
-                monitor.logRecovered();
+            return;
+        }
 
-                // intentionally keep it open since we're continuing using the underlying channel for the writer below
-                spi.forceEverything();
+        // There are transactions after the latest check point, which means recovery will need to be performed.
+        monitor.recoveryRequired( recoveryFromPosition.getLogVersion() );
+        long currentVersion = spi.getCurrentLogVersion();
+        for ( long version = recoveryFromPosition.getLogVersion(); version <= currentVersion; version++ )
+        {
+            try ( LogVersionedStoreChannel toRecover = spi.getLogFile( version ) )
+            {
+                if ( version == recoveryFromPosition.getLogVersion() )
+                {
+                    toRecover.position( recoveryFromPosition.getByteOffset() );
+                }
+                spi.getRecoverer().visit( toRecover );
             }
         }
+        recoveredLog = true;
+        monitor.logRecovered();
+
+        spi.forceEverything();
     }
 
     @Override
@@ -39,6 +39,13 @@ public interface KernelAPI
      */
     KernelTransaction newTransaction() throws TransactionFailureException;
 
+    /**
+     * Creates and returns a new read-only {@link KernelTransaction} which reads a snapshot of the graph as it is
+     * when the transaction starts, without taking any locks. Changes committed by other transactions after that
+     * aren't seen by it, with the exception of schema, counts and graph properties.
+     */
+    KernelTransaction newSnapshotTransaction() throws TransactionFailureException;
+
     /**
      * Registers a {@link TransactionHook} that will receive notifications about committing transactions
      * and the changes they commit.
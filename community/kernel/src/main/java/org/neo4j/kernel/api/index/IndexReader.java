@@ -46,6 +46,26 @@ public interface IndexReader extends Resource
      */
     PrimitiveLongIterator scan();
 
+    /**
+     * Index seek for all numeric values within the given range. A {@code null} bound means the range is open
+     * on that side. May return false positives for values that can't be represented exactly in the index, e.g.
+     * values equal to an exclusive bound when compared with reduced precision.
+     */
+    PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower, Number upper, boolean includeUpper );
+
+    /**
+     * Index seek for all string values within the given range, using lexicographic ordering.
+     * A {@code null} bound means the range is open on that side. May return false positives for bounds whose
+     * order depends on the encoding of strings, see
+     * {@link org.neo4j.kernel.impl.api.index.IndexRangeMatching#hasEncodingDependentOrder(String)}.
+     */
+    PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower, String upper, boolean includeUpper );
+
+    /**
+     * Index seek for all string values starting with the given prefix
+     */
+    PrimitiveLongIterator rangeSeekByPrefix( String prefix );
+
     /**
      * Number of nodes indexed by the given property
      */
@@ -86,6 +106,26 @@ public interface IndexReader extends Resource
             return delegate.scan();
         }
 
+        @Override
+        public PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower,
+                                                        Number upper, boolean includeUpper )
+        {
+            return delegate.rangeSeekByNumber( lower, includeLower, upper, includeUpper );
+        }
+
+        @Override
+        public PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+                                                        String upper, boolean includeUpper )
+        {
+            return delegate.rangeSeekByString( lower, includeLower, upper, includeUpper );
+        }
+
+        @Override
+        public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+        {
+            return delegate.rangeSeekByPrefix( prefix );
+        }
+
         @Override
         public int getIndexedCount( long nodeId, Object propertyValue )
         {
@@ -131,6 +171,26 @@ public interface IndexReader extends Resource
             return PrimitiveLongCollections.emptyIterator();
         }
 
+        @Override
+        public PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower,
+                                                        Number upper, boolean includeUpper )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+
+        @Override
+        public PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+                                                        String upper, boolean includeUpper )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+
+        @Override
+        public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+
         // Used for checking index correctness
         @Override
         public int getIndexedCount( long nodeId, Object propertyValue )
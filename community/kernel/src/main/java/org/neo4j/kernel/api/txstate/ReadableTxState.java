@@ -136,4 +136,14 @@ public interface ReadableTxState
     Long indexCreatedForConstraint( UniquenessConstraint constraint );
 
     ReadableDiffSets<Long> indexUpdates( IndexDescriptor index, Object value );
+
+    ReadableDiffSets<Long> indexUpdatesForRangeSeekByNumber( IndexDescriptor index,
+                                                             Number lower, boolean includeLower,
+                                                             Number upper, boolean includeUpper );
+
+    ReadableDiffSets<Long> indexUpdatesForRangeSeekByString( IndexDescriptor index,
+                                                             String lower, boolean includeLower,
+                                                             String upper, boolean includeUpper );
+
+    ReadableDiffSets<Long> indexUpdatesForRangeSeekByPrefix( IndexDescriptor index, String prefix );
 }
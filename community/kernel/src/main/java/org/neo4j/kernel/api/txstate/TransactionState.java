@@ -98,4 +98,9 @@ public interface TransactionState extends ReadableTxState
     // </Legacy index>
 
     void indexDoUpdateProperty( IndexDescriptor descriptor, long nodeId, DefinedProperty before, DefinedProperty after );
+
+    /**
+     * Gives back any memory that this state holds outside of the Java heap. The state must not be used afterwards.
+     */
+    void release();
 }
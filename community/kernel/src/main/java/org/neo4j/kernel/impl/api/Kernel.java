@@ -85,6 +85,15 @@ public class Kernel extends LifecycleAdapter implements KernelAPI
         return transaction;
     }
 
+    @Override
+    public KernelTransaction newSnapshotTransaction() throws TransactionFailureException
+    {
+        health.assertHealthy( TransactionFailureException.class );
+        KernelTransaction transaction = transactions.newSnapshotInstance();
+        transactionMonitor.transactionStarted();
+        return transaction;
+    }
+
     @Override
     public void registerTransactionHook( TransactionHook hook )
     {
@@ -34,6 +34,7 @@ import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.txstate.LegacyIndexTransactionState;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.api.txstate.TxStateHolder;
+import org.neo4j.kernel.impl.api.store.StoreReadLayer;
 import org.neo4j.kernel.impl.locking.Locks;
 
 public class KernelStatement implements TxStateHolder, Statement
@@ -128,6 +129,15 @@ public class KernelStatement implements TxStateHolder, Statement
         }
     }
 
+    /**
+     * @return the view of the store layer to read committed state through, if this is a statement of a snapshot
+     * transaction, otherwise {@code null}.
+     */
+    public StoreReadLayer snapshotStoreLayer()
+    {
+        return transaction.snapshotStoreLayer();
+    }
+
     public Locks.Client locks()
     {
         return locks;
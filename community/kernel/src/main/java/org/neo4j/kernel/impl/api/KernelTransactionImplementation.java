@@ -50,10 +50,12 @@ import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.state.ConstraintIndexCreator;
 import org.neo4j.kernel.impl.api.state.TxState;
+import org.neo4j.kernel.impl.api.store.RecordVersions;
 import org.neo4j.kernel.impl.api.store.StoreReadLayer;
 import org.neo4j.kernel.impl.index.IndexEntityType;
 import org.neo4j.kernel.impl.locking.LockGroup;
 import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.NoOpClient;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.SchemaStorage;
 import org.neo4j.kernel.impl.store.UniquenessConstraintRule;
@@ -104,6 +106,22 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                         throw new InvalidTransactionTypeKernelException(
                                 "Cannot perform data updates in a transaction that has performed schema updates." );
                     }
+                },
+        SNAPSHOT
+                {
+                    @Override
+                    TransactionType upgradeToDataTransaction() throws InvalidTransactionTypeKernelException
+                    {
+                        throw new InvalidTransactionTypeKernelException(
+                                "Cannot perform data updates in a read-only snapshot transaction." );
+                    }
+
+                    @Override
+                    TransactionType upgradeToSchemaTransaction() throws InvalidTransactionTypeKernelException
+                    {
+                        throw new InvalidTransactionTypeKernelException(
+                                "Cannot perform schema updates in a read-only snapshot transaction." );
+                    }
                 };
 
         TransactionType upgradeToDataTransaction() throws InvalidTransactionTypeKernelException
@@ -117,6 +135,9 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         }
     }
 
+    // Snapshot transactions only read, and what they read is never changed, so they need no locks
+    private static final Locks.Client NO_LOCKS = new NoOpClient();
+
     // Logic
     private final SchemaWriteGuard schemaWriteGuard;
     private final IndexingService indexService;
@@ -137,6 +158,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private final TransactionMonitor transactionMonitor;
     private final StoreReadLayer storeLayer;
     private final Clock clock;
+    private final boolean offHeapDeletedIds;
     private final TransactionToRecordStateVisitor txStateToRecordStateVisitor = new TransactionToRecordStateVisitor();
     private final Collection<Command> extractedCommands = new ArrayCollection<>( 32 );
     private TransactionState txState;
@@ -144,6 +166,8 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private TransactionType transactionType = TransactionType.ANY;
     private TransactionHooks.TransactionHooksState hooksState;
     private Locks.Client locks;
+    private RecordVersions.Snapshot snapshot;
+    private StoreReadLayer snapshotStoreLayer;
     private boolean closing, closed;
     private boolean failure, success;
     private volatile boolean terminated;
@@ -172,7 +196,8 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                                             LegacyIndexTransactionState legacyIndexTransactionState,
                                             Pool<KernelTransactionImplementation> pool,
                                             Clock clock,
-                                            TransactionTracer tracer )
+                                            TransactionTracer tracer,
+                                            boolean offHeapDeletedIds )
     {
         this.operations = operations;
         this.schemaWriteGuard = schemaWriteGuard;
@@ -193,6 +218,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.clock = clock;
         this.schemaStorage = new SchemaStorage( neoStore.getSchemaStore() );
         this.tracer = tracer;
+        this.offHeapDeletedIds = offHeapDeletedIds;
     }
 
     /** Reset this transaction to a vanilla state, turning it into a logically new transaction. */
@@ -203,6 +229,8 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.transactionType = TransactionType.ANY;
         this.hooksState = null;
         this.txState = null; // TODO: Implement txState.clear() instead, to re-use data structures
+        this.snapshot = null;
+        this.snapshotStoreLayer = null;
         this.legacyIndexTransactionState.initialize();
         this.recordState.initialize( lastCommittedTx );
         this.counts.initialize();
@@ -213,6 +241,29 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         return this;
     }
 
+    /**
+     * Turns this, newly initialized, transaction into a read-only transaction reading from the given snapshot,
+     * through the given view of the store layer, which takes no locks. The snapshot is closed along with
+     * this transaction.
+     */
+    public KernelTransactionImplementation readFromSnapshot( RecordVersions.Snapshot snapshot,
+            StoreReadLayer snapshotStoreLayer )
+    {
+        this.snapshot = snapshot;
+        this.snapshotStoreLayer = snapshotStoreLayer;
+        this.transactionType = TransactionType.SNAPSHOT;
+        return this;
+    }
+
+    /**
+     * @return the view of the store layer statements of this transaction read committed state through, if this is
+     * a snapshot transaction, otherwise {@code null}.
+     */
+    public StoreReadLayer snapshotStoreLayer()
+    {
+        return snapshotStoreLayer;
+    }
+
     @Override
     public void success()
     {
@@ -255,7 +306,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         if ( currentStatement == null )
         {
             currentStatement = new KernelStatement( this, new IndexReaderFactory.Caching( indexService ),
-                    labelScanStore, this, locks, operations );
+                    labelScanStore, this, snapshot != null ? NO_LOCKS : locks, operations );
         }
         currentStatement.acquire();
         return currentStatement;
@@ -308,7 +359,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     {
         if ( txState == null )
         {
-            txState = new TxState();
+            txState = new TxState( offHeapDeletedIds );
         }
         return txState;
     }
@@ -440,7 +491,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.locks = null;
         this.transactionType = null;
         this.hooksState = null;
-        this.txState = null;
+        releaseTxState();
         this.legacyIndexTransactionState = null;
     }
 
@@ -579,9 +630,25 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private void release()
     {
         locks.releaseAll();
+        releaseTxState();
+        if ( snapshot != null )
+        {
+            snapshot.close();
+            snapshot = null;
+            snapshotStoreLayer = null;
+        }
         pool.release( this );
     }
 
+    private void releaseTxState()
+    {
+        if ( txState != null )
+        {
+            txState.release();
+            txState = null;
+        }
+    }
+
     private class TransactionToRecordStateVisitor extends TxStateVisitor.Adapter
     {
         private final RelationshipDataExtractor edge = new RelationshipDataExtractor();
@@ -36,6 +36,7 @@ import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.state.ConstraintIndexCreator;
 import org.neo4j.kernel.impl.api.state.LegacyIndexTransactionStateImpl;
+import org.neo4j.kernel.impl.api.store.RecordVersions;
 import org.neo4j.kernel.impl.api.store.StoreReadLayer;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.locking.Locks;
@@ -77,6 +78,7 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
     private final SchemaIndexProviderMap providerMap;
     private final TransactionHeaderInformationFactory transactionHeaderInformationFactory;
     private final StoreReadLayer storeLayer;
+    private final RecordVersions recordVersions;
     private final TransactionCommitProcess transactionCommitProcess;
     private final IndexConfigStore indexConfigStore;
     private final LegacyIndexProviderLookup legacyIndexProviderLookup;
@@ -84,6 +86,7 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
     private final TransactionMonitor transactionMonitor;
     private final LifeSupport dataSourceLife;
     private final Tracers tracers;
+    private final boolean offHeapDeletedIds;
 
     // End Tx Dependencies
 
@@ -108,13 +111,14 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
                                StatementOperationParts statementOperations,
                                UpdateableSchemaState updateableSchemaState, SchemaWriteGuard schemaWriteGuard,
                                SchemaIndexProviderMap providerMap, TransactionHeaderInformationFactory txHeaderFactory,
-                               StoreReadLayer storeLayer,
+                               StoreReadLayer storeLayer, RecordVersions recordVersions,
                                TransactionCommitProcess transactionCommitProcess,
                                IndexConfigStore indexConfigStore,
                                LegacyIndexProviderLookup legacyIndexProviderLookup,
                                TransactionHooks hooks, TransactionMonitor transactionMonitor,
                                LifeSupport dataSourceLife,
-                               Tracers tracers )
+                               Tracers tracers,
+                               boolean offHeapDeletedIds )
     {
         this.neoStoreTransactionContextSupplier = neoStoreTransactionContextSupplier;
         this.neoStore = neoStore;
@@ -129,6 +133,7 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
         this.providerMap = providerMap;
         this.transactionHeaderInformationFactory = txHeaderFactory;
         this.storeLayer = storeLayer;
+        this.recordVersions = recordVersions;
         this.transactionCommitProcess = transactionCommitProcess;
         this.indexConfigStore = indexConfigStore;
         this.legacyIndexProviderLookup = legacyIndexProviderLookup;
@@ -136,6 +141,7 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
         this.transactionMonitor = transactionMonitor;
         this.dataSourceLife = dataSourceLife;
         this.tracers = tracers;
+        this.offHeapDeletedIds = offHeapDeletedIds;
     }
 
     /**
@@ -158,7 +164,8 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
                     labelScanStore, indexingService, updateableSchemaState, recordState, providerMap,
                     neoStore, locksClient, hooks, constraintIndexCreator, transactionHeaderInformationFactory,
                     transactionCommitProcess, transactionMonitor, storeLayer,
-                    legacyIndexTransactionState, localTxPool, Clock.SYSTEM_CLOCK, tracers.transactionTracer );
+                    legacyIndexTransactionState, localTxPool, Clock.SYSTEM_CLOCK, tracers.transactionTracer,
+                    offHeapDeletedIds );
 
             allTransactions.add( tx );
 
@@ -173,6 +180,19 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
         return localTxPool.acquire().initialize( neoStore.getLastCommittedTransactionId() );
     }
 
+    /**
+     * Creates a read-only transaction which sees a snapshot of the graph as it is when it starts, and which takes
+     * no locks, such that it neither waits for, nor holds up, any committing transactions.
+     */
+    public KernelTransaction newSnapshotInstance()
+    {
+        assertDatabaseIsRunning();
+        KernelTransactionImplementation tx =
+                localTxPool.acquire().initialize( neoStore.getLastCommittedTransactionId() );
+        RecordVersions.Snapshot snapshot = recordVersions.openSnapshot();
+        return tx.readFromSnapshot( snapshot, storeLayer.snapshotView( snapshot ) );
+    }
+
     /**
      * Global pool of transactions, wrapped by the thread-local marshland pool and so is not used directly.
      */
@@ -25,6 +25,7 @@ import org.neo4j.function.LongPredicate;
 import org.neo4j.helpers.ThisShouldNotHappenError;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.api.properties.Property;
+import org.neo4j.kernel.impl.api.index.IndexRangeMatching;
 import org.neo4j.kernel.impl.api.operations.EntityOperations;
 import org.neo4j.kernel.impl.api.operations.EntityReadOperations;
 
@@ -62,6 +63,69 @@ public class LookupFilter
         return indexedNodeIds;
     }
 
+    /**
+     * Numbers are stored in the index with double precision, so range seeks may return false positives around
+     * the bounds for integral values that cannot be represented exactly as doubles.
+     */
+    public static PrimitiveLongIterator numericRangeMatches( final EntityOperations operations,
+            final KernelStatement state, PrimitiveLongIterator indexedNodeIds, final int propertyKeyId,
+            final Number lower, final boolean includeLower, final Number upper, final boolean includeUpper )
+    {
+        return PrimitiveLongCollections.filter( indexedNodeIds, new LongPredicate()
+        {
+            @Override
+            public boolean test( long nodeId )
+            {
+                try
+                {
+                    Property property = operations.nodeGetProperty( state, nodeId, propertyKeyId );
+                    return property.isDefined() && IndexRangeMatching.inNumberRange( property.value( null ),
+                            lower, includeLower, upper, includeUpper );
+                }
+                catch ( EntityNotFoundException e )
+                {
+                    throw new ThisShouldNotHappenError( "Chris", "An index claims a node by id " + nodeId
+                            + " has the value. However, it looks like that node does not exist.", e );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Index range seeks by string may return false positives for bounds where the order of strings in the index
+     * may differ from the order of {@link String#compareTo(String)}.
+     *
+     * @see IndexRangeMatching#hasEncodingDependentOrder(String)
+     */
+    public static PrimitiveLongIterator stringRangeMatches( final EntityOperations operations,
+            final KernelStatement state, PrimitiveLongIterator indexedNodeIds, final int propertyKeyId,
+            final String lower, final boolean includeLower, final String upper, final boolean includeUpper )
+    {
+        if ( (lower == null || !IndexRangeMatching.hasEncodingDependentOrder( lower )) &&
+             (upper == null || !IndexRangeMatching.hasEncodingDependentOrder( upper )) )
+        {
+            return indexedNodeIds;
+        }
+        return PrimitiveLongCollections.filter( indexedNodeIds, new LongPredicate()
+        {
+            @Override
+            public boolean test( long nodeId )
+            {
+                try
+                {
+                    Property property = operations.nodeGetProperty( state, nodeId, propertyKeyId );
+                    return property.isDefined() && IndexRangeMatching.inStringRange( property.value( null ),
+                            lower, includeLower, upper, includeUpper );
+                }
+                catch ( EntityNotFoundException e )
+                {
+                    throw new ThisShouldNotHappenError( "Chris", "An index claims a node by id " + nodeId
+                            + " has the value. However, it looks like that node does not exist.", e );
+                }
+            }
+        } );
+    }
+
     private static boolean isNumberOrArray( Object value )
     {
         return value instanceof Number || value.getClass().isArray();
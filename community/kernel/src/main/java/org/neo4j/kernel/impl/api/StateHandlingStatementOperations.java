@@ -111,10 +111,20 @@ public class StateHandlingStatementOperations implements
         this.legacyIndexStore = legacyIndexStore;
     }
 
+    /**
+     * @return the store layer to read committed state through for the given statement, which is a view of
+     * a snapshot for statements of snapshot transactions.
+     */
+    private StoreReadLayer storeLayer( KernelStatement state )
+    {
+        StoreReadLayer snapshotStoreLayer = state.snapshotStoreLayer();
+        return snapshotStoreLayer != null ? snapshotStoreLayer : storeLayer;
+    }
+
     @Override
     public long nodeCreate( KernelStatement state )
     {
-        long nodeId = storeLayer.reserveNode();
+        long nodeId = storeLayer( state ).reserveNode();
         state.txState().nodeDoCreate( nodeId );
         return nodeId;
     }
@@ -141,7 +151,7 @@ public class StateHandlingStatementOperations implements
     {
         assertNodeExists( state, startNodeId );
         assertNodeExists( state, endNodeId );
-        long id = storeLayer.reserveRelationship();
+        long id = storeLayer( state ).reserveRelationship();
         state.txState().relationshipDoCreate( id, relationshipTypeId, startNodeId, endNodeId );
         return id;
     }
@@ -164,7 +174,7 @@ public class StateHandlingStatementOperations implements
         {
             try
             {
-                storeLayer.relationshipVisit( relationshipId, new RelationshipVisitor<RuntimeException>()
+                storeLayer( state ).relationshipVisit( relationshipId, new RelationshipVisitor<RuntimeException>()
                 {
                     @Override
                     public void visit( long relId, int type, long startNode, long endNode )
@@ -205,7 +215,7 @@ public class StateHandlingStatementOperations implements
             }
         }
 
-        return storeLayer.nodeExists( nodeId );
+        return storeLayer( state ).nodeExists( nodeId );
     }
 
     @Override
@@ -224,7 +234,7 @@ public class StateHandlingStatementOperations implements
             }
         }
 
-        return storeLayer.relationshipExists( relId );
+        return storeLayer( state ).relationshipExists( relId );
     }
 
     @Override
@@ -252,7 +262,7 @@ public class StateHandlingStatementOperations implements
             }
         }
 
-        return storeLayer.nodeHasLabel( nodeId, labelId );
+        return storeLayer( state ).nodeHasLabel( nodeId, labelId );
     }
 
     @Override
@@ -260,9 +270,9 @@ public class StateHandlingStatementOperations implements
     {
         if ( state.hasTxStateWithChanges() )
         {
-            return nodeGetLabels( storeLayer, state.txState(), nodeId );
+            return nodeGetLabels( storeLayer( state ), state.txState(), nodeId );
         }
-        return storeLayer.nodeGetLabels( nodeId );
+        return storeLayer( state ).nodeGetLabels( nodeId );
     }
 
     public static PrimitiveIntIterator nodeGetLabels( StoreReadLayer storeLayer, ReadableTxState txState, long nodeId )
@@ -283,13 +293,13 @@ public class StateHandlingStatementOperations implements
     @Override
     public PrimitiveLongIterator nodesGetAll( KernelStatement state )
     {
-        return state.txState().augmentNodesGetAll( storeLayer.nodesGetAll() );
+        return state.txState().augmentNodesGetAll( storeLayer( state ).nodesGetAll() );
     }
 
     @Override
     public RelationshipIterator relationshipsGetAll( KernelStatement state )
     {
-        return state.txState().augmentRelationshipsGetAll( storeLayer.relationshipsGetAll() );
+        return state.txState().augmentRelationshipsGetAll( storeLayer( state ).relationshipsGetAll() );
     }
 
     @Override
@@ -335,11 +345,11 @@ public class StateHandlingStatementOperations implements
         {
             PrimitiveLongIterator wLabelChanges =
                     state.txState().nodesWithLabelChanged( labelId ).augment(
-                            storeLayer.nodesGetForLabel( state, labelId ) );
+                            storeLayer( state ).nodesGetForLabel( state, labelId ) );
             return state.txState().addedAndRemovedNodes().augmentWithRemovals( wLabelChanges );
         }
 
-        return storeLayer.nodesGetForLabel( state, labelId );
+        return storeLayer( state ).nodesGetForLabel( state, labelId );
     }
 
     @Override
@@ -380,7 +390,7 @@ public class StateHandlingStatementOperations implements
             }
             else // *CREATE*
             { // create from scratch
-                for ( Iterator<UniquenessConstraint> it = storeLayer.constraintsGetForLabelAndPropertyKey(
+                for ( Iterator<UniquenessConstraint> it = storeLayer( state ).constraintsGetForLabelAndPropertyKey(
                         labelId, propertyKeyId ); it.hasNext(); )
                 {
                     if ( it.next().equals( labelId, propertyKeyId ) )
@@ -404,20 +414,20 @@ public class StateHandlingStatementOperations implements
     public Iterator<UniquenessConstraint> constraintsGetForLabelAndPropertyKey( KernelStatement state,
             int labelId, int propertyKeyId )
     {
-        return applyConstraintsDiff( state, storeLayer.constraintsGetForLabelAndPropertyKey(
+        return applyConstraintsDiff( state, storeLayer( state ).constraintsGetForLabelAndPropertyKey(
                 labelId, propertyKeyId ), labelId, propertyKeyId );
     }
 
     @Override
     public Iterator<UniquenessConstraint> constraintsGetForLabel( KernelStatement state, int labelId )
     {
-        return applyConstraintsDiff( state, storeLayer.constraintsGetForLabel( labelId ), labelId );
+        return applyConstraintsDiff( state, storeLayer( state ).constraintsGetForLabel( labelId ), labelId );
     }
 
     @Override
     public Iterator<UniquenessConstraint> constraintsGetAll( KernelStatement state )
     {
-        return applyConstraintsDiff( state, storeLayer.constraintsGetAll() );
+        return applyConstraintsDiff( state, storeLayer( state ).constraintsGetAll() );
     }
 
     private Iterator<UniquenessConstraint> applyConstraintsDiff( KernelStatement state,
@@ -461,7 +471,7 @@ public class StateHandlingStatementOperations implements
     @Override
     public IndexDescriptor indexesGetForLabelAndPropertyKey( KernelStatement state, int labelId, int propertyKey )
     {
-        IndexDescriptor indexDescriptor = storeLayer.indexesGetForLabelAndPropertyKey( labelId, propertyKey );
+        IndexDescriptor indexDescriptor = storeLayer( state ).indexesGetForLabelAndPropertyKey( labelId, propertyKey );
 
         Iterator<IndexDescriptor> rules = iterator( indexDescriptor );
         if ( state.hasTxStateWithChanges() )
@@ -507,7 +517,7 @@ public class StateHandlingStatementOperations implements
             }
         }
 
-        return storeLayer.indexGetState( descriptor );
+        return storeLayer( state ).indexGetState( descriptor );
     }
 
     private boolean checkIndexState( IndexDescriptor indexRule, ReadableDiffSets<IndexDescriptor> diffSet )
@@ -533,10 +543,10 @@ public class StateHandlingStatementOperations implements
         if ( state.hasTxStateWithChanges() )
         {
             return state.txState().indexDiffSetsByLabel( labelId )
-                    .apply( storeLayer.indexesGetForLabel( labelId ) );
+                    .apply( storeLayer( state ).indexesGetForLabel( labelId ) );
         }
 
-        return storeLayer.indexesGetForLabel( labelId );
+        return storeLayer( state ).indexesGetForLabel( labelId );
     }
 
     @Override
@@ -544,10 +554,10 @@ public class StateHandlingStatementOperations implements
     {
         if ( state.hasTxStateWithChanges() )
         {
-            return state.txState().indexChanges().apply( storeLayer.indexesGetAll() );
+            return state.txState().indexChanges().apply( storeLayer( state ).indexesGetAll() );
         }
 
-        return storeLayer.indexesGetAll();
+        return storeLayer( state ).indexesGetAll();
     }
 
     @Override
@@ -556,10 +566,10 @@ public class StateHandlingStatementOperations implements
         if ( state.hasTxStateWithChanges() )
         {
             return state.txState().constraintIndexDiffSetsByLabel( labelId )
-                    .apply( storeLayer.uniqueIndexesGetForLabel( labelId ) );
+                    .apply( storeLayer( state ).uniqueIndexesGetForLabel( labelId ) );
         }
 
-        return storeLayer.uniqueIndexesGetForLabel( labelId );
+        return storeLayer( state ).uniqueIndexesGetForLabel( labelId );
     }
 
     @Override
@@ -568,17 +578,17 @@ public class StateHandlingStatementOperations implements
         if ( state.hasTxStateWithChanges() )
         {
             return state.txState().constraintIndexChanges()
-                    .apply( storeLayer.uniqueIndexesGetAll() );
+                    .apply( storeLayer( state ).uniqueIndexesGetAll() );
         }
 
-        return storeLayer.uniqueIndexesGetAll();
+        return storeLayer( state ).uniqueIndexesGetAll();
     }
 
     @Override
     public long nodeGetUniqueFromIndexLookup( KernelStatement state, IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException, IndexBrokenKernelException
     {
-        PrimitiveLongResourceIterator committed = storeLayer.nodeGetUniqueFromIndexLookup( state, index, value );
+        PrimitiveLongResourceIterator committed = storeLayer( state ).nodeGetUniqueFromIndexLookup( state, index, value );
         PrimitiveLongIterator exactMatches = filterExactIndexMatches( state, index, value, committed );
         PrimitiveLongIterator changeFilteredMatches = filterIndexStateChanges( state, index, value, exactMatches );
         return single( resourceIterator( changeFilteredMatches, committed ), NO_SUCH_NODE );
@@ -588,7 +598,7 @@ public class StateHandlingStatementOperations implements
     public PrimitiveLongIterator nodesGetFromIndexLookup( KernelStatement state, IndexDescriptor index,
             Object value ) throws IndexNotFoundKernelException
     {
-        PrimitiveLongResourceIterator committed = storeLayer.nodesGetFromIndexLookup( state, index, value );
+        PrimitiveLongResourceIterator committed = storeLayer( state ).nodesGetFromIndexLookup( state, index, value );
         PrimitiveLongIterator exactMatches = filterExactIndexMatches( state, index, value, committed );
         PrimitiveLongIterator changeFilteredMatches = filterIndexStateChanges( state, index, value, exactMatches );
         return resourceIterator( changeFilteredMatches, committed );
@@ -598,11 +608,56 @@ public class StateHandlingStatementOperations implements
     public PrimitiveLongIterator nodesGetFromIndexScan( KernelStatement state, IndexDescriptor index ) throws
             IndexNotFoundKernelException
     {
-        PrimitiveLongResourceIterator committed = storeLayer.nodesGetFromIndexScan( state, index );
+        PrimitiveLongResourceIterator committed = storeLayer( state ).nodesGetFromIndexScan( state, index );
         PrimitiveLongIterator changeFilteredMatches = filterIndexStateChanges( state, index, null, committed );
         return resourceIterator( changeFilteredMatches, committed );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                                     Number lower, boolean includeLower,
+                                                                     Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        PrimitiveLongResourceIterator committed = storeLayer( state ).nodesGetFromIndexRangeSeekByNumber( state, index,
+                lower, includeLower, upper, includeUpper );
+        PrimitiveLongIterator exactMatches = LookupFilter.numericRangeMatches( this, state, committed,
+                index.getPropertyKeyId(), lower, includeLower, upper, includeUpper );
+        PrimitiveLongIterator changeFilteredMatches = filterIndexStateChanges( state, exactMatches,
+                state.hasTxStateWithChanges() ? state.txState().indexUpdatesForRangeSeekByNumber( index,
+                        lower, includeLower, upper, includeUpper ) : null );
+        return resourceIterator( changeFilteredMatches, committed );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( KernelStatement state, IndexDescriptor index,
+                                                                     String lower, boolean includeLower,
+                                                                     String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        PrimitiveLongResourceIterator committed = storeLayer( state ).nodesGetFromIndexRangeSeekByString( state, index,
+                lower, includeLower, upper, includeUpper );
+        PrimitiveLongIterator exactMatches = LookupFilter.stringRangeMatches( this, state, committed,
+                index.getPropertyKeyId(), lower, includeLower, upper, includeUpper );
+        PrimitiveLongIterator changeFilteredMatches = filterIndexStateChanges( state, exactMatches,
+                state.hasTxStateWithChanges() ? state.txState().indexUpdatesForRangeSeekByString( index,
+                        lower, includeLower, upper, includeUpper ) : null );
+        return resourceIterator( changeFilteredMatches, committed );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                                     String prefix )
+            throws IndexNotFoundKernelException
+    {
+        PrimitiveLongResourceIterator committed = storeLayer( state ).nodesGetFromIndexRangeSeekByPrefix( state, index,
+                prefix );
+        PrimitiveLongIterator changeFilteredMatches = filterIndexStateChanges( state, committed,
+                state.hasTxStateWithChanges() ? state.txState().indexUpdatesForRangeSeekByPrefix( index,
+                        prefix ) : null );
+        return resourceIterator( changeFilteredMatches, committed );
+    }
+
     private PrimitiveLongIterator filterExactIndexMatches( final KernelStatement state, IndexDescriptor index,
             Object value, PrimitiveLongResourceIterator committed )
     {
@@ -623,6 +678,19 @@ public class StateHandlingStatementOperations implements
         return nodeIds;
     }
 
+    private PrimitiveLongIterator filterIndexStateChanges( KernelStatement state, PrimitiveLongIterator nodeIds,
+            ReadableDiffSets<Long> labelPropertyChanges )
+    {
+        if ( labelPropertyChanges != null )
+        {
+            ReadableDiffSets<Long> nodes = state.txState().addedAndRemovedNodes();
+
+            // Apply to actual index range seek
+            return nodes.augmentWithRemovals( labelPropertyChanges.augment( nodeIds ) );
+        }
+        return nodeIds;
+    }
+
     @Override
     public Property nodeSetProperty( KernelStatement state, long nodeId, DefinedProperty property )
             throws EntityNotFoundException
@@ -736,7 +804,7 @@ public class StateHandlingStatementOperations implements
             return new PropertyKeyIdIterator( nodeGetAllProperties( state, nodeId ) );
         }
 
-        return storeLayer.nodeGetPropertyKeys( nodeId );
+        return storeLayer( state ).nodeGetPropertyKeys( nodeId );
     }
 
     @Override
@@ -757,7 +825,7 @@ public class StateHandlingStatementOperations implements
             return Property.noNodeProperty( nodeId, propertyKeyId );
         }
 
-        return storeLayer.nodeGetProperty( nodeId, propertyKeyId );
+        return storeLayer( state ).nodeGetProperty( nodeId, propertyKeyId );
     }
 
     @Override
@@ -776,10 +844,10 @@ public class StateHandlingStatementOperations implements
                 // EntityDeletedException instead and use it instead of returning empty values in similar places
                 throw new IllegalStateException( "Node " + nodeId + " has been deleted" );
             }
-            return state.txState().augmentNodeProperties( nodeId, storeLayer.nodeGetAllProperties( nodeId ) );
+            return state.txState().augmentNodeProperties( nodeId, storeLayer( state ).nodeGetAllProperties( nodeId ) );
         }
 
-        return storeLayer.nodeGetAllProperties( nodeId );
+        return storeLayer( state ).nodeGetAllProperties( nodeId );
     }
 
     @Override
@@ -791,7 +859,7 @@ public class StateHandlingStatementOperations implements
             return new PropertyKeyIdIterator( relationshipGetAllProperties( state, relationshipId ) );
         }
 
-        return storeLayer.relationshipGetPropertyKeys( relationshipId );
+        return storeLayer( state ).relationshipGetPropertyKeys( relationshipId );
     }
 
     @Override
@@ -811,7 +879,7 @@ public class StateHandlingStatementOperations implements
             }
             return Property.noRelationshipProperty( relationshipId, propertyKeyId );
         }
-        return storeLayer.relationshipGetProperty( relationshipId, propertyKeyId );
+        return storeLayer( state ).relationshipGetProperty( relationshipId, propertyKeyId );
     }
 
     @Override
@@ -831,11 +899,11 @@ public class StateHandlingStatementOperations implements
                 throw new IllegalStateException( "Relationship " + relationshipId + " has been deleted" );
             }
             return state.txState().augmentRelationshipProperties( relationshipId,
-                    storeLayer.relationshipGetAllProperties( relationshipId ) );
+                    storeLayer( state ).relationshipGetAllProperties( relationshipId ) );
         }
         else
         {
-            return storeLayer.relationshipGetAllProperties( relationshipId );
+            return storeLayer( state ).relationshipGetAllProperties( relationshipId );
         }
     }
 
@@ -847,7 +915,7 @@ public class StateHandlingStatementOperations implements
             return new PropertyKeyIdIterator( graphGetAllProperties( state ) );
         }
 
-        return storeLayer.graphGetPropertyKeys( state );
+        return storeLayer( state ).graphGetPropertyKeys( state );
     }
 
     @Override
@@ -870,36 +938,36 @@ public class StateHandlingStatementOperations implements
     {
         if ( state.hasTxStateWithChanges() )
         {
-            return state.txState().augmentGraphProperties( storeLayer.graphGetAllProperties() );
+            return state.txState().augmentGraphProperties( storeLayer( state ).graphGetAllProperties() );
         }
 
-        return storeLayer.graphGetAllProperties();
+        return storeLayer( state ).graphGetAllProperties();
     }
 
     @Override
     public long countsForNode( KernelStatement statement, int labelId )
     {
-        return storeLayer.countsForNode( labelId );
+        return storeLayer( statement ).countsForNode( labelId );
     }
 
     @Override
     public long countsForRelationship( KernelStatement statement, int startLabelId, int typeId, int endLabelId )
     {
-        return storeLayer.countsForRelationship( startLabelId, typeId, endLabelId );
+        return storeLayer( statement ).countsForRelationship( startLabelId, typeId, endLabelId );
     }
 
     @Override
     public long indexSize( KernelStatement statement, IndexDescriptor descriptor )
             throws IndexNotFoundKernelException
     {
-        return storeLayer.indexSize( descriptor );
+        return storeLayer( statement ).indexSize( descriptor );
     }
 
     @Override
     public double indexUniqueValuesPercentage( KernelStatement statement, IndexDescriptor descriptor )
             throws IndexNotFoundKernelException
     {
-        return storeLayer.indexUniqueValuesPercentage( descriptor );
+        return storeLayer( statement ).indexUniqueValuesPercentage( descriptor );
     }
 
     @Override
@@ -918,11 +986,11 @@ public class StateHandlingStatementOperations implements
             }
             else
             {
-                stored = storeLayer.nodeListRelationships( nodeId, direction, relTypes );
+                stored = storeLayer( state ).nodeListRelationships( nodeId, direction, relTypes );
             }
             return txState.augmentRelationships( nodeId, direction, relTypes, stored );
         }
-        return storeLayer.nodeListRelationships( nodeId, direction, relTypes );
+        return storeLayer( state ).nodeListRelationships( nodeId, direction, relTypes );
     }
 
     @Override
@@ -946,11 +1014,11 @@ public class StateHandlingStatementOperations implements
             }
             else
             {
-                stored = storeLayer.nodeListRelationships( nodeId, direction );
+                stored = storeLayer( state ).nodeListRelationships( nodeId, direction );
             }
             return txState.augmentRelationships( nodeId, direction, stored );
         }
-        return storeLayer.nodeListRelationships( nodeId, direction );
+        return storeLayer( state ).nodeListRelationships( nodeId, direction );
     }
 
     @Override
@@ -1011,14 +1079,14 @@ public class StateHandlingStatementOperations implements
 
             if( !state.txState().nodeIsAddedInThisTx( nodeId ))
             {
-                degree = storeLayer.nodeGetDegree( nodeId, direction, relType );
+                degree = storeLayer( state ).nodeGetDegree( nodeId, direction, relType );
             }
 
             return state.txState().augmentNodeDegree( nodeId, degree, direction, relType );
         }
         else
         {
-            return storeLayer.nodeGetDegree( nodeId, direction, relType );
+            return storeLayer( state ).nodeGetDegree( nodeId, direction, relType );
         }
     }
 
@@ -1035,13 +1103,13 @@ public class StateHandlingStatementOperations implements
 
             if( !state.txState().nodeIsAddedInThisTx( nodeId ))
             {
-                degree = storeLayer.nodeGetDegree( nodeId, direction );
+                degree = storeLayer( state ).nodeGetDegree( nodeId, direction );
             }
             return state.txState().augmentNodeDegree( nodeId, degree, direction );
         }
         else
         {
-            return storeLayer.nodeGetDegree( nodeId, direction );
+            return storeLayer( state ).nodeGetDegree( nodeId, direction );
         }
     }
 
@@ -1073,7 +1141,7 @@ public class StateHandlingStatementOperations implements
 
             // Augment with types stored on disk, minus any types where all rels of that type are deleted
             // in current tx.
-            PrimitiveIntIterator committedTypes = storeLayer.nodeGetRelationshipTypes( nodeId );
+            PrimitiveIntIterator committedTypes = storeLayer( state ).nodeGetRelationshipTypes( nodeId );
             while(committedTypes.hasNext())
             {
                 int current = committedTypes.next();
@@ -1087,7 +1155,7 @@ public class StateHandlingStatementOperations implements
         }
         else
         {
-            return storeLayer.nodeGetRelationshipTypes( nodeId );
+            return storeLayer( state ).nodeGetRelationshipTypes( nodeId );
         }
     }
 
@@ -1099,14 +1167,14 @@ public class StateHandlingStatementOperations implements
     public Long indexGetOwningUniquenessConstraintId( KernelStatement state, IndexDescriptor index )
             throws SchemaRuleNotFoundException
     {
-        return storeLayer.indexGetOwningUniquenessConstraintId( index );
+        return storeLayer( state ).indexGetOwningUniquenessConstraintId( index );
     }
 
     @Override
     public long indexGetCommittedId( KernelStatement state, IndexDescriptor index, SchemaStorage.IndexRuleKind kind )
             throws SchemaRuleNotFoundException
     {
-        return storeLayer.indexGetCommittedId( index, kind );
+        return storeLayer( state ).indexGetCommittedId( index, kind );
     }
 
     @Override
@@ -1243,7 +1311,7 @@ public class StateHandlingStatementOperations implements
                 return;
             }
         }
-        storeLayer.relationshipVisit( relId, visitor );
+        storeLayer( statement ).relationshipVisit( relId, visitor );
     }
 
     @Override
@@ -1255,10 +1323,10 @@ public class StateHandlingStatementOperations implements
     {
         if( statement.hasTxStateWithChanges() )
         {
-            return new AugmentWithLocalStateExpandCursor( storeLayer, statement.txState(),
+            return new AugmentWithLocalStateExpandCursor( storeLayer( statement ), statement.txState(),
                     inputCursor, nodeId, types, expandDirection, relId, relType, direction, startNodeId, neighborNodeId );
         }
-        return storeLayer.expand( inputCursor, nodeId, types, expandDirection,
+        return storeLayer( statement ).expand( inputCursor, nodeId, types, expandDirection,
                                   relId, relType, direction, startNodeId, neighborNodeId );
     }
 
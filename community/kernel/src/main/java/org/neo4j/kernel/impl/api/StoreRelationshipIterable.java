@@ -19,121 +19,159 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.io.IOException;
+
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.function.IntPredicate;
 import org.neo4j.graphdb.Direction;
-import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.kernel.api.EntityType;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.impl.api.store.RecordVersions;
 import org.neo4j.kernel.impl.api.store.RelationshipIterator;
 import org.neo4j.kernel.impl.store.InvalidRecordException;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
-import org.neo4j.kernel.impl.store.format.Store;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.store.format.v2_2.NodeStoreFormat_v2_2.NodeRecordCursor;
+import org.neo4j.kernel.impl.store.format.v2_2.RelationshipGroupStoreFormat_v2_2.RelationshipGroupRecordCursor;
+import org.neo4j.kernel.impl.store.format.v2_2.RelationshipStoreFormat_v2_2.RelationshipRecordCursor;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.Record;
-import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
-import org.neo4j.kernel.impl.store.standard.StandardStore;
 
 /**
  * Low level {@link PrimitiveLongIterable} for iterating over relationship chains, both sparse and dense.
  * Goes directly to {@link RelationshipStore} and {@link RelationshipGroupStore} for loading its data.
  *
- * {@link #iterator() Emits} {@link StoreRelationshipIterator}, which is a {@link RelationshipIterator}
- * with an added {@link StoreRelationshipIterator#recordClone() relationship record accessor}.
+ * {@link #iterator() Emits} {@link StoreRelationshipIterator}, which is a {@link RelationshipIterator}.
  *
- * No record are created when iterating through this iterator and the {@link RelationshipRecord} data can
- * also be accessed using {@link StoreRelationshipIterator#relationshipVisit(long, RelationshipVisitor)}
- * after a successful call to {@link StoreRelationshipIterator#next()}.
+ * No records are created when iterating through this iterator. Each iterator has record cursors of its own which
+ * it reads the fields it needs through, straight from the store pages. The relationship data can be accessed
+ * using {@link StoreRelationshipIterator#relationshipVisit(long, RelationshipVisitor)} after a successful call
+ * to {@link StoreRelationshipIterator#next()}.
  *
- * TODO this is an excellent place to plug in and use {@link StandardStore} with its {@link Store.RecordCursor}
- * to reduce overhead of calling {@link PagedFile#io(long, int)} on every step through the iterator.
+ * Given a {@link RecordVersions.Snapshot snapshot}, each record read from the store is replaced by its version in
+ * that snapshot, if it has one, which makes the chains walked those of the snapshot.
  */
 public class StoreRelationshipIterable implements PrimitiveLongIterable
 {
     private final NeoStore neoStore;
-    private final NodeRecord node;
+    private final RecordVersions.Snapshot snapshot;
+    private final long nodeId;
+    private final boolean dense;
+    private final long firstRelationship;
     private final IntPredicate type;
     private final Direction direction;
 
     public StoreRelationshipIterable( NeoStore neoStore, long nodeId, IntPredicate type, Direction direction )
             throws EntityNotFoundException
     {
-        this.neoStore = neoStore;
-        this.type = type;
-        this.direction = direction;
-        this.node = nodeRecord( neoStore, nodeId );
+        this( neoStore, null, nodeId, type, direction );
     }
 
-    public static RelationshipIterator iterator( NeoStore neoStore, long nodeId,
-                                                 IntPredicate type, Direction direction ) throws EntityNotFoundException
+    /**
+     * @param snapshot the snapshot to read the relationships of the node in, or {@code null} for reading
+     * them as they are in the store.
+     */
+    public StoreRelationshipIterable( NeoStore neoStore, RecordVersions.Snapshot snapshot, long nodeId,
+            IntPredicate type, Direction direction ) throws EntityNotFoundException
     {
-        NodeRecord node = nodeRecord( neoStore, nodeId );
-        return iterator( neoStore, node, type, direction );
-    }
+        this.neoStore = neoStore;
+        this.snapshot = snapshot;
+        this.nodeId = nodeId;
+        this.type = type;
+        this.direction = direction;
 
-    private static NodeRecord nodeRecord( NeoStore neoStore, long nodeId ) throws EntityNotFoundException
-    {
-        NodeRecord node = neoStore.getNodeStore().loadRecord( nodeId, null );
-        if ( node == null )
+        NodeRecordCursor node = neoStore.getNodeStore().newRecordCursor();
+        try
         {
-            throw new EntityNotFoundException( EntityType.NODE, nodeId );
+            boolean inUse = false;
+            boolean dense = false;
+            long firstRelationship = Record.NO_NEXT_RELATIONSHIP.intValue();
+            if ( node.position( nodeId ) )
+            {
+                do
+                {
+                    inUse = node.inUse();
+                    dense = node.isDense();
+                    firstRelationship = node.firstRelationship();
+                }
+                while ( node.shouldRetry() );
+            }
+            NodeRecord version = snapshot != null ? snapshot.node( nodeId ) : null;
+            if ( version != null )
+            {
+                inUse = version.inUse();
+                dense = version.isDense();
+                firstRelationship = version.getNextRel();
+            }
+            if ( !inUse )
+            {
+                throw new EntityNotFoundException( EntityType.NODE, nodeId );
+            }
+            this.dense = dense;
+            this.firstRelationship = firstRelationship;
         }
-        return node;
-    }
-
-    public static RelationshipIterator iterator( NeoStore neoStore, NodeRecord node,
-                                                 IntPredicate type, Direction direction )
-    {
-        RelationshipGroupStore groupStore = neoStore.getRelationshipGroupStore();
-        RelationshipStore relationshipStore = neoStore.getRelationshipStore();
-        if ( node.isDense() )
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        finally
         {
-            return new DenseIterator( node, groupStore, relationshipStore, type, direction );
+            node.close();
         }
-        return new SparseIterator( node, relationshipStore, type, direction );
     }
 
-    private static long followRelationshipChain( long nodeId, RelationshipRecord relRecord )
+    public static RelationshipIterator iterator( NeoStore neoStore, long nodeId,
+                                                 IntPredicate type, Direction direction ) throws EntityNotFoundException
     {
-        if ( relRecord.getFirstNode() == nodeId )
-        {
-            return relRecord.getFirstNextRel();
-        }
-        else if ( relRecord.getSecondNode() == nodeId )
-        {
-            return relRecord.getSecondNextRel();
-        }
+        return new StoreRelationshipIterable( neoStore, nodeId, type, direction ).iterator();
+    }
 
-        throw new InvalidRecordException( "While loading relationships for Node[" + nodeId +
-                "] a Relationship[" + relRecord.getId() + "] was encountered that had startNode: " +
-                relRecord.getFirstNode() + " and endNode: " + relRecord.getSecondNode() +
-                ", i.e. which had neither start nor end node as the node we're loading relationships for" );
+    public static RelationshipIterator iterator( NeoStore neoStore, RecordVersions.Snapshot snapshot, long nodeId,
+                                                 IntPredicate type, Direction direction ) throws EntityNotFoundException
+    {
+        return new StoreRelationshipIterable( neoStore, snapshot, nodeId, type, direction ).iterator();
     }
 
     @Override
     public RelationshipIterator iterator()
     {
-        return iterator( neoStore, node, type, direction );
+        RelationshipStore relationshipStore = neoStore.getRelationshipStore();
+        if ( dense )
+        {
+            return new DenseIterator( nodeId, firstRelationship, neoStore.getRelationshipGroupStore(),
+                    relationshipStore, snapshot, type, direction );
+        }
+        return new SparseIterator( nodeId, firstRelationship, relationshipStore, snapshot, type, direction );
     }
 
     public static abstract class StoreRelationshipIterator
             extends PrimitiveLongCollections.PrimitiveLongBaseIterator
             implements RelationshipIterator
     {
-        protected final RelationshipStore relationshipStore;
+        protected final long nodeId;
         protected final IntPredicate type;
         protected final Direction direction;
-        protected final RelationshipRecord relationship = new RelationshipRecord( -1 );
+        protected final RecordVersions.Snapshot snapshot;
+        private final RelationshipRecordCursor relationshipCursor;
 
-        private StoreRelationshipIterator( RelationshipStore relationshipStore,
-                                           IntPredicate type, Direction direction )
+        // Fields of the relationship last read, kept since the page it was read from isn't kept pinned
+        protected long relationshipId = -1;
+        protected int relationshipType;
+        protected long startNode;
+        protected long endNode;
+        protected long nextInChain;
+
+        private StoreRelationshipIterator( long nodeId, RelationshipStore relationshipStore,
+                                           RecordVersions.Snapshot snapshot, IntPredicate type, Direction direction )
         {
-            this.relationshipStore = relationshipStore;
+            this.nodeId = nodeId;
+            this.snapshot = snapshot;
+            this.relationshipCursor = relationshipStore.newRecordCursor();
             this.type = type;
             this.direction = direction;
         }
@@ -142,18 +180,86 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
         public <EXCEPTION extends Exception> boolean relationshipVisit( long relationshipId,
                 RelationshipVisitor<EXCEPTION> visitor ) throws EXCEPTION
         {
-            visitor.visit( relationship.getId(), relationship.getType(),
-                    relationship.getFirstNode(), relationship.getSecondNode() );
+            visitor.visit( this.relationshipId, relationshipType, startNode, endNode );
             return false;
         }
 
-        protected boolean directionMatches( long nodeId, RelationshipRecord relationship )
+        /**
+         * Reads the fields of the given relationship that this iterator needs, including the pointer to the next
+         * relationship in the chain of the node. The page is released right after, since there's no telling
+         * whether or not this iterator will be exhausted, or simply abandoned.
+         */
+        protected void readRelationship( long id )
+        {
+            try
+            {
+                boolean inUse = false;
+                long firstNextRel = Record.NO_NEXT_RELATIONSHIP.intValue();
+                long secondNextRel = Record.NO_NEXT_RELATIONSHIP.intValue();
+                if ( relationshipCursor.position( id ) )
+                {
+                    do
+                    {
+                        inUse = relationshipCursor.inUse();
+                        relationshipType = relationshipCursor.type();
+                        startNode = relationshipCursor.firstNode();
+                        endNode = relationshipCursor.secondNode();
+                        firstNextRel = relationshipCursor.firstNextRel();
+                        secondNextRel = relationshipCursor.secondNextRel();
+                    }
+                    while ( relationshipCursor.shouldRetry() );
+                }
+                RelationshipRecord version = snapshot != null ? snapshot.relationship( id ) : null;
+                if ( version != null )
+                {
+                    inUse = version.inUse();
+                    relationshipType = version.getType();
+                    startNode = version.getFirstNode();
+                    endNode = version.getSecondNode();
+                    firstNextRel = version.getFirstNextRel();
+                    secondNextRel = version.getSecondNextRel();
+                }
+                if ( !inUse )
+                {
+                    throw new InvalidRecordException( "RelationshipRecord[" + id + "] not in use" );
+                }
+                relationshipId = id;
+                nextInChain = followRelationshipChain( firstNextRel, secondNextRel );
+            }
+            catch ( IOException e )
+            {
+                throw new UnderlyingStorageException( e );
+            }
+            finally
+            {
+                relationshipCursor.close();
+            }
+        }
+
+        private long followRelationshipChain( long firstNextRel, long secondNextRel )
+        {
+            if ( startNode == nodeId )
+            {
+                return firstNextRel;
+            }
+            else if ( endNode == nodeId )
+            {
+                return secondNextRel;
+            }
+
+            throw new InvalidRecordException( "While loading relationships for Node[" + nodeId +
+                    "] a Relationship[" + relationshipId + "] was encountered that had startNode: " +
+                    startNode + " and endNode: " + endNode +
+                    ", i.e. which had neither start nor end node as the node we're loading relationships for" );
+        }
+
+        protected boolean directionMatches()
         {
             switch ( direction )
             {
             case BOTH: return true;
-            case OUTGOING: return relationship.getFirstNode() == nodeId;
-            case INCOMING: return relationship.getSecondNode() == nodeId;
+            case OUTGOING: return startNode == nodeId;
+            case INCOMING: return endNode == nodeId;
             default: throw new IllegalArgumentException( "Unknown direction " + direction );
             }
         }
@@ -161,15 +267,13 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
 
     private static class SparseIterator extends StoreRelationshipIterator
     {
-        private final long nodeId;
         private long nextRelId;
 
-        SparseIterator( NodeRecord nodeRecord, RelationshipStore relationshipStore,
-                        IntPredicate type, Direction direction )
+        SparseIterator( long nodeId, long firstRelationship, RelationshipStore relationshipStore,
+                        RecordVersions.Snapshot snapshot, IntPredicate type, Direction direction )
         {
-            super( relationshipStore, type, direction );
-            this.nodeId = nodeRecord.getId();
-            this.nextRelId = nodeRecord.getNextRel();
+            super( nodeId, relationshipStore, snapshot, type, direction );
+            this.nextRelId = firstRelationship;
         }
 
         @Override
@@ -177,19 +281,15 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
         {
             while ( nextRelId != Record.NO_NEXT_RELATIONSHIP.intValue() )
             {
-                relationshipStore.fillRecord( nextRelId, relationship, RecordLoad.NORMAL );
-                try
-                {
-                    // Filter by type and direction
-                    if ( type.test( relationship.getType() ) && directionMatches( nodeId, relationship ) )
-                    {
-                        return next( nextRelId );
-                    }
-                }
-                finally
+                long relId = nextRelId;
+                readRelationship( relId );
+                // Follow the relationship pointer to the next relationship
+                nextRelId = nextInChain;
+
+                // Filter by type and direction
+                if ( type.test( relationshipType ) && directionMatches() )
                 {
-                    // Follow the relationship pointer to the next relationship
-                    nextRelId = followRelationshipChain( nodeId, relationship );
+                    return next( relId );
                 }
             }
             return false;
@@ -198,34 +298,83 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
 
     private static class DenseIterator extends StoreRelationshipIterator
     {
-        private final long nodeId;
-        private final RelationshipGroupStore groupStore;
-        private RelationshipGroupRecord groupRecord;
+        private final RelationshipGroupRecordCursor groupCursor;
+        private long groupId;
+        // Fields of the current group, kept since the page it was read from isn't kept pinned
+        private int groupType;
+        private long nextGroupId;
+        private final long[] groupChainStarts = new long[GROUP_CHAINS.length];
         private int groupChainIndex;
         private long nextRelId;
 
-        DenseIterator( NodeRecord nodeRecord, RelationshipGroupStore groupStore,
-                       RelationshipStore relationshipStore, IntPredicate type, Direction direction )
+        DenseIterator( long nodeId, long firstGroup, RelationshipGroupStore groupStore,
+                       RelationshipStore relationshipStore, RecordVersions.Snapshot snapshot, IntPredicate type,
+                       Direction direction )
         {
-            super( relationshipStore, type, direction );
-            this.groupStore = groupStore;
-            this.nodeId = nodeRecord.getId();
-            // Apparently returns null if !inUse
-            this.groupRecord = groupStore.getRecord( nodeRecord.getNextRel() );
+            super( nodeId, relationshipStore, snapshot, type, direction );
+            this.groupCursor = groupStore.newRecordCursor();
+            this.groupId = firstGroup;
+            if ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+            {
+                readGroup();
+            }
             this.nextRelId = nextChainStart();
         }
 
+        private void readGroup()
+        {
+            try
+            {
+                boolean inUse = false;
+                if ( groupCursor.position( groupId ) )
+                {
+                    do
+                    {
+                        inUse = groupCursor.inUse();
+                        groupType = groupCursor.type();
+                        nextGroupId = groupCursor.nextGroup();
+                        groupChainStarts[GroupChain.OUT.ordinal()] = groupCursor.firstOut();
+                        groupChainStarts[GroupChain.IN.ordinal()] = groupCursor.firstIn();
+                        groupChainStarts[GroupChain.LOOP.ordinal()] = groupCursor.firstLoop();
+                    }
+                    while ( groupCursor.shouldRetry() );
+                }
+                RelationshipGroupRecord version = snapshot != null ? snapshot.relationshipGroup( groupId ) : null;
+                if ( version != null )
+                {
+                    inUse = version.inUse();
+                    groupType = version.getType();
+                    nextGroupId = version.getNext();
+                    groupChainStarts[GroupChain.OUT.ordinal()] = version.getFirstOut();
+                    groupChainStarts[GroupChain.IN.ordinal()] = version.getFirstIn();
+                    groupChainStarts[GroupChain.LOOP.ordinal()] = version.getFirstLoop();
+                }
+                if ( !inUse )
+                {
+                    throw new InvalidRecordException( "Record[" + groupId + "] not in use" );
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UnderlyingStorageException( e );
+            }
+            finally
+            {
+                groupCursor.close();
+            }
+        }
+
         private long nextChainStart()
         {
-            while ( groupRecord != null )
+            while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
             {
-                if ( type.test( groupRecord.getType() ) )
+                if ( type.test( groupType ) )
                 {
                     // Go to the next chain (direction) within this group
                     while ( groupChainIndex < GROUP_CHAINS.length )
                     {
                         GroupChain groupChain = GROUP_CHAINS[groupChainIndex++];
-                        long chainStart = groupChain.chainStart( groupRecord );
+                        long chainStart = groupChainStarts[groupChain.ordinal()];
                         if ( chainStart != Record.NO_NEXT_RELATIONSHIP.intValue() &&
                                 (direction == Direction.BOTH || groupChain.matchesDirection( direction ) ) )
                         {
@@ -235,8 +384,11 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
                 }
 
                 // Go to the next group
-                groupRecord = groupRecord.getNext() != Record.NO_NEXT_RELATIONSHIP.intValue() ?
-                        groupStore.getRecord( groupRecord.getNext() ) : null;
+                groupId = nextGroupId;
+                if ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+                {
+                    readGroup();
+                }
                 groupChainIndex = 0;
             }
             return Record.NO_NEXT_RELATIONSHIP.intValue();
@@ -247,22 +399,17 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
         {
             while ( nextRelId != Record.NO_NEXT_RELATIONSHIP.intValue() )
             {
-                relationshipStore.fillRecord( nextRelId, relationship, RecordLoad.NORMAL );
-                try
-                {
-                    return next( nextRelId );
-                }
-                finally
+                long relId = nextRelId;
+                readRelationship( relId );
+                // Follow the relationship pointer to the next relationship
+                nextRelId = nextInChain;
+                if ( nextRelId == Record.NO_NEXT_RELATIONSHIP.intValue() )
                 {
-                    // Follow the relationship pointer to the next relationship
-                    nextRelId = followRelationshipChain( nodeId, relationship );
-                    if ( nextRelId == Record.NO_NEXT_RELATIONSHIP.intValue() )
-                    {
-                        // End of chain, try the next chain
-                        nextRelId = nextChainStart();
-                        // Potentially end of all chains here, and that's fine, we'll exit below
-                    }
+                    // End of chain, try the next chain
+                    nextRelId = nextChainStart();
+                    // Potentially end of all chains here, and that's fine, we'll exit below
                 }
+                return next( relId );
             }
             return false;
         }
@@ -272,12 +419,6 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
     {
         OUT
         {
-            @Override
-            long chainStart( RelationshipGroupRecord groupRecord )
-            {
-                return groupRecord.getFirstOut();
-            }
-
             @Override
             boolean matchesDirection( Direction direction )
             {
@@ -286,12 +427,6 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
         },
         IN
         {
-            @Override
-            long chainStart( RelationshipGroupRecord groupRecord )
-            {
-                return groupRecord.getFirstIn();
-            }
-
             @Override
             boolean matchesDirection( Direction direction )
             {
@@ -300,12 +435,6 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
         },
         LOOP
         {
-            @Override
-            long chainStart( RelationshipGroupRecord groupRecord )
-            {
-                return groupRecord.getFirstLoop();
-            }
-
             @Override
             boolean matchesDirection( Direction direction )
             {
@@ -313,8 +442,6 @@ public class StoreRelationshipIterable implements PrimitiveLongIterable
             }
         };
 
-        abstract long chainStart( RelationshipGroupRecord groupRecord );
-
         abstract boolean matchesDirection( Direction direction );
     }
 
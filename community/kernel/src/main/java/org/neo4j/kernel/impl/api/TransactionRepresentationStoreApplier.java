@@ -25,6 +25,7 @@ import org.neo4j.concurrent.WorkSync;
 import org.neo4j.helpers.Provider;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.ValidatedIndexUpdates;
+import org.neo4j.kernel.impl.api.store.RecordVersions;
 import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.locking.LockGroup;
@@ -36,6 +37,7 @@ import org.neo4j.kernel.impl.transaction.command.HighIdTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.IndexTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.NeoCommandHandler;
 import org.neo4j.kernel.impl.transaction.command.NeoStoreTransactionApplier;
+import org.neo4j.kernel.impl.transaction.command.RecordVersioningTransactionApplier;
 import org.neo4j.kernel.impl.util.IdOrderingQueue;
 import org.neo4j.kernel.impl.util.function.Optional;
 import org.neo4j.unsafe.batchinsert.LabelScanWriter;
@@ -55,13 +57,15 @@ public class TransactionRepresentationStoreApplier
     private final IndexConfigStore indexConfigStore;
     private final LegacyIndexApplierLookup legacyIndexProviderLookup;
     private final IdOrderingQueue legacyIndexTransactionOrdering;
+    private final RecordVersions recordVersions;
 
     private final WorkSync<Provider<LabelScanWriter>,IndexTransactionApplier.LabelUpdateWork> labelScanStoreSync;
 
     public TransactionRepresentationStoreApplier(
             IndexingService indexingService, Provider<LabelScanWriter> labelScanWriters, NeoStore neoStore,
             CacheAccessBackDoor cacheAccess, LockService lockService, LegacyIndexApplierLookup legacyIndexProviderLookup,
-            IndexConfigStore indexConfigStore, IdOrderingQueue legacyIndexTransactionOrdering )
+            IndexConfigStore indexConfigStore, IdOrderingQueue legacyIndexTransactionOrdering,
+            RecordVersions recordVersions )
     {
         this.indexingService = indexingService;
         this.labelScanWriters = labelScanWriters;
@@ -71,6 +75,7 @@ public class TransactionRepresentationStoreApplier
         this.legacyIndexProviderLookup = legacyIndexProviderLookup;
         this.indexConfigStore = indexConfigStore;
         this.legacyIndexTransactionOrdering = legacyIndexTransactionOrdering;
+        this.recordVersions = recordVersions;
         labelScanStoreSync = new WorkSync<>( labelScanWriters );
     }
 
@@ -89,6 +94,12 @@ public class TransactionRepresentationStoreApplier
         {
             storeApplier = new CacheInvalidationTransactionApplier( storeApplier, neoStore, cacheAccess );
         }
+        if ( recordVersions.keepVersionsOf( transactionId ) )
+        {
+            // Except for this one, which must see the records before any of the others have touched them
+            storeApplier = new RecordVersioningTransactionApplier( storeApplier, neoStore, recordVersions,
+                    transactionId );
+        }
 
         // Schema index application
         IndexTransactionApplier indexApplier = new IndexTransactionApplier( indexingService, indexUpdates,
@@ -125,6 +136,6 @@ public class TransactionRepresentationStoreApplier
     {
         return new TransactionRepresentationStoreApplier( indexingService, labelScanWriters, neoStore, cacheAccess,
                                                           lockService, legacyIndexProviderLookup, indexConfigStore,
-                                                          legacyIndexTransactionOrdering );
+                                                          legacyIndexTransactionOrdering, recordVersions );
     }
 }
@@ -117,6 +117,12 @@ public abstract class AbstractDelegatingIndexProxy implements IndexProxy
         return getDelegate().getPopulationFailure();
     }
 
+    @Override
+    public PopulationProgress getIndexPopulationProgress()
+    {
+        return getDelegate().getIndexPopulationProgress();
+    }
+
     @Override
     public String toString()
     {
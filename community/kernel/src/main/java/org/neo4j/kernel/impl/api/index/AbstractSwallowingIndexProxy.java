@@ -51,6 +51,12 @@ public abstract class AbstractSwallowingIndexProxy implements IndexProxy
         return populationFailure;
     }
 
+    @Override
+    public PopulationProgress getIndexPopulationProgress()
+    {
+        return PopulationProgress.NONE;
+    }
+
     @Override
     public void start()
     {
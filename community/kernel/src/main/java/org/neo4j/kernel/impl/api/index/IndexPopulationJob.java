@@ -20,12 +20,23 @@
 package org.neo4j.kernel.impl.api.index;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveIntSet;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.function.Suppliers;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.api.exceptions.index.IndexCapacityExceededException;
@@ -38,93 +49,537 @@ import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.impl.api.UpdateableSchemaState;
+import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.register.Registers;
 
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
+import static java.util.Collections.newSetFromMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.neo4j.collection.primitive.PrimitiveIntCollections.asArray;
+import static org.neo4j.helpers.Exceptions.launderedException;
 import static org.neo4j.helpers.FutureAdapter.latchGuardedValue;
 import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
+import static org.neo4j.kernel.impl.util.JobScheduler.Group.indexPopulation;
 
 /**
- * Represents one job of initially populating an index over existing data in the database.
- * Scans the store directly.
+ * Represents one job of initially populating one or more indexes over existing data in the database.
+ * Scans the store directly, once for all the indexes of the job. The node store is split into ranges of node ids
+ * which are scanned by one or more threads, while the updates of each scanned range are fed as one batch to the
+ * {@link IndexPopulator populators}, always from the thread running the job.
  */
 public class IndexPopulationJob implements Runnable
 {
-    // NOTE: unbounded queue expected here
-    private final Queue<NodePropertyUpdate> queue = new ConcurrentLinkedQueue<>();
-    private final IndexDescriptor descriptor;
-
-    private final IndexConfiguration config;
-    private final SchemaIndexProvider.Descriptor providerDescriptor;
+    static final int NODES_PER_BATCH = 10_000;
 
-    private final IndexingService.Monitor monitor;
-    private final IndexPopulator populator;
-    private final FlippableIndexProxy flipper;
     private final IndexStoreView storeView;
     private final UpdateableSchemaState updateableSchemaState;
-    private final String indexUserDescription;
-    private final FailedIndexProxyFactory failureDelegate;
+    private final JobScheduler scheduler;
+    private final int scanThreads;
     private final LogProvider logProvider;
     private final Log log;
-    private final IndexCountsRemover indexCountsRemover;
+    private final IndexingService.Monitor monitor;
+    private final List<IndexPopulation> populations = new ArrayList<>();
+    private final Set<StoreScan<?>> storeScans = newSetFromMap( new ConcurrentHashMap<StoreScan<?>,Boolean>() );
     private final CountDownLatch doneSignal = new CountDownLatch( 1 );
 
-    private volatile StoreScan<IndexPopulationFailedKernelException> storeScan;
-    private volatile boolean cancelled;
-
-    public IndexPopulationJob(IndexDescriptor descriptor,
-                              IndexConfiguration config,
-                              SchemaIndexProvider.Descriptor providerDescriptor,
-                              String indexUserDescription,
-                              FailedIndexProxyFactory failureDelegateFactory,
-                              IndexPopulator populator,
-                              FlippableIndexProxy flipper,
-                              IndexStoreView storeView,
-                              UpdateableSchemaState updateableSchemaState,
-                              LogProvider logProvider,
-                              IndexingService.Monitor monitor )
+    // Ranges of node ids below this have been handed out to the scanning threads
+    private final AtomicLong nextNodeId = new AtomicLong();
+    // First node ids of the ranges which have been fed to the populators, only accessed by the job thread
+    private final PrimitiveLongSet populatedRanges = Primitive.longSet();
+
+    private volatile long scannedNodes;
+    private volatile long totalNodes;
+    private volatile boolean stopped;
+    private volatile Throwable scanFailure;
+
+    public IndexPopulationJob( IndexStoreView storeView,
+                               UpdateableSchemaState updateableSchemaState,
+                               JobScheduler scheduler,
+                               int scanThreads,
+                               LogProvider logProvider,
+                               IndexingService.Monitor monitor )
     {
-        this.descriptor = descriptor;
-        this.config = config;
-        this.providerDescriptor = providerDescriptor;
-        this.populator = populator;
-        this.flipper = flipper;
         this.storeView = storeView;
         this.updateableSchemaState = updateableSchemaState;
-        this.indexUserDescription = indexUserDescription;
-        this.failureDelegate = failureDelegateFactory;
+        this.scheduler = scheduler;
+        this.scanThreads = scanThreads;
         this.logProvider = logProvider;
         this.monitor = monitor;
         this.log = logProvider.getLog( getClass() );
-        this.indexCountsRemover = IndexCountsRemover.Factory.create( storeView, descriptor );
+    }
+
+    /**
+     * Adds an index for this job to populate. All indexes of a job must be added before it is started.
+     */
+    public IndexPopulation addPopulator( IndexPopulator populator,
+                                         IndexDescriptor descriptor,
+                                         IndexConfiguration config,
+                                         SchemaIndexProvider.Descriptor providerDescriptor,
+                                         String indexUserDescription,
+                                         FlippableIndexProxy flipper,
+                                         FailedIndexProxyFactory failureDelegateFactory )
+    {
+        IndexPopulation population = new IndexPopulation( populator, descriptor, config, providerDescriptor,
+                indexUserDescription, flipper, failureDelegateFactory );
+        populations.add( population );
+        return population;
     }
 
     @Override
     public void run()
     {
         String oldThreadName = currentThread().getName();
-        currentThread().setName( format( "Index populator on %s [runs on: %s]", indexUserDescription, oldThreadName ) );
-        boolean success = false;
-        Throwable failureCause = null;
+        currentThread().setName( format( "Index populator on %s [runs on: %s]", indexUserDescriptions(),
+                oldThreadName ) );
+        try
+        {
+            for ( IndexPopulation population : populations )
+            {
+                population.create();
+            }
+
+            try
+            {
+                if ( isPopulating() )
+                {
+                    indexAllNodes();
+                }
+            }
+            catch ( Throwable t )
+            {
+                for ( IndexPopulation population : populations )
+                {
+                    population.fail( t );
+                }
+            }
+
+            for ( IndexPopulation population : populations )
+            {
+                population.complete();
+            }
+        }
+        finally
+        {
+            for ( IndexPopulation population : populations )
+            {
+                population.doneSignal.countDown();
+            }
+            doneSignal.countDown();
+            currentThread().setName( oldThreadName );
+        }
+    }
+
+    private void indexAllNodes() throws Exception
+    {
+        PrimitiveIntSet labelIds = Primitive.intSet();
+        PrimitiveIntSet propertyKeyIds = Primitive.intSet();
+        for ( IndexPopulation population : populations )
+        {
+            labelIds.add( population.descriptor.getLabelId() );
+            propertyKeyIds.add( population.descriptor.getPropertyKeyId() );
+        }
+        int[] soughtLabelIds = asArray( labelIds.iterator() );
+        int[] soughtPropertyKeyIds = asArray( propertyKeyIds.iterator() );
+
+        if ( scanThreads > 1 )
+        {
+            scanInParallel( soughtLabelIds, soughtPropertyKeyIds );
+        }
+
+        // Also picks up the ranges of nodes created after the scanning threads found no more ranges to scan,
+        // and it being this thread which decides that there are no more ranges is what makes it safe to
+        // skip concurrent updates of nodes whose range has yet to be scanned.
+        Batch batch;
+        while ( (batch = scanNextRange( soughtLabelIds, soughtPropertyKeyIds )) != null )
+        {
+            populate( batch );
+        }
+    }
+
+    private void scanInParallel( final int[] labelIds, final int[] propertyKeyIds ) throws Exception
+    {
+        final BlockingQueue<Batch> batches = new ArrayBlockingQueue<>( scanThreads * 2 );
+        final CountDownLatch scanned = new CountDownLatch( scanThreads );
+        for ( int i = 0; i < scanThreads; i++ )
+        {
+            scheduler.schedule( indexPopulation, new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        Batch batch;
+                        while ( (batch = scanNextRange( labelIds, propertyKeyIds )) != null )
+                        {
+                            batches.put( batch );
+                        }
+                    }
+                    catch ( Throwable t )
+                    {
+                        if ( scanFailure == null )
+                        {
+                            scanFailure = t;
+                        }
+                        stop();
+                    }
+                    finally
+                    {
+                        scanned.countDown();
+                    }
+                }
+            } );
+        }
+
+        try
+        {
+            while ( true )
+            {
+                Batch batch = batches.poll( 10, MILLISECONDS );
+                if ( batch != null )
+                {
+                    populate( batch );
+                }
+                else if ( scanned.getCount() == 0 && batches.isEmpty() )
+                {
+                    break;
+                }
+            }
+        }
+        catch ( Throwable t )
+        {
+            // Have the scanning threads stop after their current range. What they have left to hand over
+            // fits in the emptied queue, so none of them stays blocked on it.
+            stop();
+            batches.clear();
+            throw t;
+        }
+
+        if ( scanFailure != null )
+        {
+            throw launderedException( scanFailure );
+        }
+    }
+
+    /**
+     * Scans the next range of node ids which has not been handed out to any thread yet.
+     *
+     * @return the updates of the scanned range, or {@code null} if there are no more ranges to scan.
+     */
+    private Batch scanNextRange( int[] labelIds, int[] propertyKeyIds )
+    {
+        long fromNodeId;
+        do
+        {
+            fromNodeId = nextNodeId.get();
+            long highId = storeView.nodeHighId();
+            totalNodes = highId;
+            if ( stopped || fromNodeId >= highId )
+            {
+                return null;
+            }
+        }
+        while ( !nextNodeId.compareAndSet( fromNodeId, fromNodeId + NODES_PER_BATCH ) );
 
+        final List<NodePropertyUpdate> updates = new ArrayList<>();
+        StoreScan<RuntimeException> storeScan = storeView.visitNodesInRange( labelIds, propertyKeyIds,
+                fromNodeId, fromNodeId + NODES_PER_BATCH, new Visitor<NodePropertyUpdate,RuntimeException>()
+                {
+                    @Override
+                    public boolean visit( NodePropertyUpdate update )
+                    {
+                        updates.add( update );
+                        return false;
+                    }
+                } );
+        storeScans.add( storeScan );
         try
         {
+            if ( !stopped )
+            {
+                storeScan.run();
+            }
+        }
+        finally
+        {
+            storeScans.remove( storeScan );
+        }
+        return new Batch( fromNodeId, updates );
+    }
+
+    private void populate( Batch batch )
+    {
+        for ( IndexPopulation population : populations )
+        {
+            population.add( batch.updates );
+        }
+        populatedRanges.add( batch.fromNodeId );
+        scannedNodes += NODES_PER_BATCH;
+
+        for ( IndexPopulation population : populations )
+        {
+            population.populateFromQueueIfAvailable();
+        }
+        if ( !isPopulating() )
+        {
+            // All indexes have failed or been cancelled, there's no point in scanning any further
+            stop();
+        }
+    }
+
+    private boolean isPopulated( long nodeId )
+    {
+        return populatedRanges.contains( nodeId - nodeId % NODES_PER_BATCH );
+    }
+
+    private boolean isPopulating()
+    {
+        for ( IndexPopulation population : populations )
+        {
+            if ( population.isPopulating() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void stop()
+    {
+        stopped = true;
+        for ( StoreScan<?> storeScan : storeScans )
+        {
+            storeScan.stop();
+        }
+    }
+
+    /**
+     * Cancels the population of all indexes of this job.
+     */
+    public Future<Void> cancel()
+    {
+        for ( IndexPopulation population : populations )
+        {
+            population.cancel();
+        }
+        return latchGuardedValue( Suppliers.<Void>singleton( null ), doneSignal, "Index population job cancel" );
+    }
+
+    public void awaitCompletion() throws InterruptedException
+    {
+        doneSignal.await();
+    }
+
+    private String indexUserDescriptions()
+    {
+        StringBuilder descriptions = new StringBuilder();
+        for ( IndexPopulation population : populations )
+        {
+            descriptions.append( descriptions.length() > 0 ? ", " : "" ).append( population.indexUserDescription );
+        }
+        return descriptions.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[populations:" + populations + "]";
+    }
+
+    private static class Batch
+    {
+        private final long fromNodeId;
+        private final List<NodePropertyUpdate> updates;
+
+        Batch( long fromNodeId, List<NodePropertyUpdate> updates )
+        {
+            this.fromNodeId = fromNodeId;
+            this.updates = updates;
+        }
+    }
+
+    /**
+     * The population of one of the indexes of this job.
+     */
+    public class IndexPopulation
+    {
+        // NOTE: unbounded queue expected here
+        private final Queue<NodePropertyUpdate> queue = new ConcurrentLinkedQueue<>();
+        // Updates held back until the scan has populated the range of their nodes, only accessed by the job thread
+        private final List<NodePropertyUpdate> pending = new ArrayList<>();
+        private final IndexPopulator populator;
+        private final IndexDescriptor descriptor;
+        private final IndexConfiguration config;
+        private final SchemaIndexProvider.Descriptor providerDescriptor;
+        private final String indexUserDescription;
+        private final FlippableIndexProxy flipper;
+        private final FailedIndexProxyFactory failureDelegate;
+        private final IndexCountsRemover indexCountsRemover;
+        private final CountDownLatch doneSignal = new CountDownLatch( 1 );
+
+        private volatile boolean created;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        IndexPopulation( IndexPopulator populator,
+                         IndexDescriptor descriptor,
+                         IndexConfiguration config,
+                         SchemaIndexProvider.Descriptor providerDescriptor,
+                         String indexUserDescription,
+                         FlippableIndexProxy flipper,
+                         FailedIndexProxyFactory failureDelegateFactory )
+        {
+            this.populator = populator;
+            this.descriptor = descriptor;
+            this.config = config;
+            this.providerDescriptor = providerDescriptor;
+            this.indexUserDescription = indexUserDescription;
+            this.flipper = flipper;
+            this.failureDelegate = failureDelegateFactory;
+            this.indexCountsRemover = IndexCountsRemover.Factory.create( storeView, descriptor );
+        }
+
+        private boolean isPopulating()
+        {
+            return !done && !cancelled;
+        }
+
+        private void create()
+        {
+            if ( cancelled )
+            {
+                // Cancelled before the job even got started, so there's nothing to undo
+                done();
+                return;
+            }
+
             try
             {
                 log.info( "Index population started: [%s]", indexUserDescription );
+                created = true;
                 populator.create();
                 storeView.replaceIndexCounts( descriptor, 0, 0, 0 );
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        private void add( List<NodePropertyUpdate> updates )
+        {
+            if ( !isPopulating() )
+            {
+                closeIfCancelled();
+                return;
+            }
+
+            try
+            {
+                for ( NodePropertyUpdate update : updates )
+                {
+                    if ( update.getPropertyKeyId() == descriptor.getPropertyKeyId() &&
+                         update.forLabel( descriptor.getLabelId() ) )
+                    {
+                        populator.add( update.getNodeId(), update.getValueAfter() );
+                    }
+                }
+            }
+            catch ( IndexEntryConflictException | IndexCapacityExceededException | IOException error )
+            {
+                fail( new IndexPopulationFailedKernelException( descriptor, indexUserDescription, error ) );
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        private void populateFromQueueIfAvailable()
+        {
+            if ( !isPopulating() )
+            {
+                return;
+            }
+
+            try
+            {
+                populateFromQueue( false );
+            }
+            catch ( IndexEntryConflictException | IndexCapacityExceededException | IOException error )
+            {
+                fail( new IndexPopulationFailedKernelException( descriptor, indexUserDescription, error ) );
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        private void populateFromQueue( boolean scanCompleted )
+                throws IndexEntryConflictException, IndexCapacityExceededException, IOException
+        {
+            if ( pending.isEmpty() && queue.isEmpty() )
+            {
+                return;
+            }
+
+            try ( IndexUpdater updater = populator.newPopulatingUpdater( storeView ) )
+            {
+                Iterator<NodePropertyUpdate> held = pending.iterator();
+                while ( held.hasNext() )
+                {
+                    NodePropertyUpdate update = held.next();
+                    if ( scanCompleted || isPopulated( update.getNodeId() ) )
+                    {
+                        updater.process( update );
+                        held.remove();
+                    }
+                }
+
+                // no need to check for null as nobody else is emptying this queue
+                for ( NodePropertyUpdate update; (update = queue.poll()) != null; )
+                {
+                    long nodeId = update.getNodeId();
+                    if ( scanCompleted || isPopulated( nodeId ) )
+                    {
+                        updater.process( update );
+                    }
+                    else if ( nodeId < nextNodeId.get() )
+                    {
+                        // The range of this node is being scanned right now, and it's unknown whether or not
+                        // the scan saw this change, so apply it after the range has been populated.
+                        pending.add( update );
+                    }
+                    // else the scan has yet to get to this node and will see this change when it does
+                }
+            }
+        }
 
-                indexAllNodes();
+        private void complete()
+        {
+            if ( done )
+            {
+                return;
+            }
+            if ( cancelled )
+            {
+                closeIfCancelled();
+                return;
+            }
+
+            try
+            {
                 verifyDeferredConstraints();
                 if ( cancelled )
                 {
-                    storeView.replaceIndexCounts( descriptor, 0, 0, 0 );
-                    // We remain in POPULATING state
+                    closeIfCancelled();
                     return;
                 }
 
@@ -133,7 +588,7 @@ public class IndexPopulationJob implements Runnable
                     @Override
                     public Void call() throws Exception
                     {
-                        populateFromQueueIfAvailable( Long.MAX_VALUE );
+                        populateFromQueue( true );
 
                         DoubleLongRegister result = Registers.newDoubleLongRegister();
                         long indexSize = populator.sampleResult( result );
@@ -147,10 +602,60 @@ public class IndexPopulationJob implements Runnable
                 };
 
                 flipper.flip( duringFlip, failureDelegate );
-                success = true;
+                done();
                 log.info( "Index population completed. Index is now online: [%s]", indexUserDescription );
             }
             catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        private void verifyDeferredConstraints() throws IndexPopulationFailedKernelException
+        {
+            monitor.verifyDeferredConstraints();
+            try
+            {
+                populator.verifyDeferredConstraints( storeView );
+            }
+            catch ( Exception conflict )
+            {
+                throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
+            }
+        }
+
+        private void closeIfCancelled()
+        {
+            if ( done || !cancelled )
+            {
+                return;
+            }
+
+            try
+            {
+                // We remain in POPULATING state
+                storeView.replaceIndexCounts( descriptor, 0, 0, 0 );
+                populator.close( false );
+            }
+            catch ( Throwable e )
+            {
+                log.error( format( "Unable to close cancelled populator for index: [%s]", indexUserDescription ), e );
+            }
+            finally
+            {
+                done();
+            }
+        }
+
+        private void fail( Throwable t )
+        {
+            if ( done || cancelled )
+            {
+                closeIfCancelled();
+                return;
+            }
+
+            try
             {
                 // If the cause of index population failure is a conflict in a (unique) index, the conflict is the
                 // failure
@@ -166,12 +671,9 @@ public class IndexPopulationJob implements Runnable
                 // Index conflicts are expected (for unique indexes) so we don't need to log them.
                 if ( !(t instanceof IndexEntryConflictException) /*TODO: && this is a unique index...*/ )
                 {
-                    log.error( format("Failed to populate index: [%s]", indexUserDescription), t );
+                    log.error( format( "Failed to populate index: [%s]", indexUserDescription ), t );
                 }
 
-                // Set failure cause to be stored persistently
-                failureCause = t;
-
                 // The flipper will have already flipped to a failed index context here, but
                 // it will not include the cause of failure, so we do another flip to a failed
                 // context that does.
@@ -186,116 +688,69 @@ public class IndexPopulationJob implements Runnable
             {
                 try
                 {
-                    if ( !success )
+                    if ( created )
                     {
-                        if ( failureCause != null )
-                        {
-                            populator.markAsFailed( failure( failureCause ).asString() );
-                        }
-
+                        populator.markAsFailed( failure( t ).asString() );
                         populator.close( false );
                     }
                 }
                 catch ( Throwable e )
                 {
-                    log.error( format("Unable to close failed populator for index: [%s]", indexUserDescription), e );
+                    log.error( format( "Unable to close failed populator for index: [%s]", indexUserDescription ),
+                            e );
+                }
+                finally
+                {
+                    done();
                 }
             }
         }
-        finally
+
+        private void done()
         {
+            done = true;
             doneSignal.countDown();
-            currentThread().setName( oldThreadName );
         }
-    }
-
-    private void indexAllNodes() throws IndexPopulationFailedKernelException
-    {
-        storeScan = storeView.visitNodesWithPropertyAndLabel( descriptor,
-                new Visitor<NodePropertyUpdate, IndexPopulationFailedKernelException>()
-                {
-                    @Override
-                    public boolean visit( NodePropertyUpdate update ) throws IndexPopulationFailedKernelException
-                    {
-                        try
-                        {
-                            populator.add( update.getNodeId(), update.getValueAfter() );
-                            populateFromQueueIfAvailable( update.getNodeId() );
-                        }
-                        catch ( IndexEntryConflictException | IndexCapacityExceededException | IOException error )
-                        {
-                            throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, error );
-                        }
-                        return false;
-                    }
-                } );
-        storeScan.run();
-    }
 
-    private void verifyDeferredConstraints() throws IndexPopulationFailedKernelException
-    {
-        monitor.verifyDeferredConstraints();
-        try
+        /**
+         * Cancels the population of this index, while the population of the other indexes of the job goes on.
+         */
+        public Future<Void> cancel()
         {
-            populator.verifyDeferredConstraints( storeView );
+            cancelled = true;
+            if ( !IndexPopulationJob.this.isPopulating() )
+            {
+                // No index left to populate, so stop scanning the store for them
+                stop();
+            }
+            return latchGuardedValue( Suppliers.<Void>singleton( null ), doneSignal, "Index population job cancel" );
         }
-        catch ( Exception conflict )
+
+        /**
+         * A transaction happened that produced the given updates. Let this job incorporate its data,
+         * feeding it to the {@link IndexPopulator}.
+         */
+        public void update( NodePropertyUpdate update )
         {
-            throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
+            queue.add( update );
         }
-    }
 
-    private void populateFromQueueIfAvailable( final long currentlyIndexedNodeId )
-            throws IndexEntryConflictException, IndexCapacityExceededException, IOException
-    {
-        if ( !queue.isEmpty() )
+        public PopulationProgress getProgress()
         {
-            try ( IndexUpdater updater = populator.newPopulatingUpdater( storeView ) )
-            {
-                do
-                {
-                    // no need to check for null as nobody else is emptying this queue
-                    NodePropertyUpdate update = queue.poll();
-                    // TODO: We see updates twice here from IndexStatisticsTest
-                    if ( update.getNodeId() <= currentlyIndexedNodeId )
-                    {
-                        updater.process( update );
-                    }
-                } while ( !queue.isEmpty() );
-            }
+            long total = totalNodes;
+            return new PopulationProgress( min( scannedNodes, total ), total );
         }
-    }
 
-    public Future<Void> cancel()
-    {
-        // Stop the population
-        if ( storeScan != null )
+        public void awaitCompletion() throws InterruptedException
         {
-            cancelled = true;
-            storeScan.stop();
+            doneSignal.await();
         }
 
-        return latchGuardedValue( Suppliers.<Void>singleton( null ), doneSignal, "Index population job cancel" );
-    }
-
-    /**
-     * A transaction happened that produced the given updates. Let this job incorporate its data,
-     * feeding it to the {@link IndexPopulator}.
-     */
-    public void update( NodePropertyUpdate update )
-    {
-        queue.add( update );
-    }
-
-    @Override
-    public String toString()
-    {
-        return getClass().getSimpleName() + "[populator:" + populator + ", descriptor:" + indexUserDescription + "]";
-    }
-
-    public void awaitCompletion() throws InterruptedException
-    {
-        doneSignal.await();
+        @Override
+        public String toString()
+        {
+            return getClass().getSimpleName() + "[populator:" + populator + ", descriptor:" + indexUserDescription +
+                   "]";
+        }
     }
-
 }
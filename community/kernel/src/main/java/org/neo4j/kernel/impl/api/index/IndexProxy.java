@@ -85,6 +85,11 @@ public interface IndexProxy
      */
     IndexPopulationFailure getPopulationFailure() throws IllegalStateException;
 
+    /**
+     * @return how far the population of this index has come, {@link PopulationProgress#DONE} once it's online.
+     */
+    PopulationProgress getIndexPopulationProgress();
+
     void force() throws IOException;
 
     /**
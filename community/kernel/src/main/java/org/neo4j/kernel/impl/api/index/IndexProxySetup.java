@@ -36,6 +36,7 @@ import org.neo4j.logging.LogProvider;
 import static java.lang.String.format;
 
 import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
+import static org.neo4j.kernel.impl.util.JobScheduler.Group.indexPopulation;
 
 public class IndexProxySetup
 {
@@ -45,6 +46,7 @@ public class IndexProxySetup
     private final UpdateableSchemaState updateableSchemaState;
     private final TokenNameLookup tokenNameLookup;
     private final JobScheduler scheduler;
+    private final int populationThreads;
     private final LogProvider logProvider;
 
     public IndexProxySetup( IndexSamplingConfig samplingConfig,
@@ -53,6 +55,7 @@ public class IndexProxySetup
                             UpdateableSchemaState updateableSchemaState,
                             TokenNameLookup tokenNameLookup,
                             JobScheduler scheduler,
+                            int populationThreads,
                             LogProvider logProvider )
     {
         this.samplingConfig = samplingConfig;
@@ -61,14 +64,31 @@ public class IndexProxySetup
         this.updateableSchemaState = updateableSchemaState;
         this.tokenNameLookup = tokenNameLookup;
         this.scheduler = scheduler;
+        this.populationThreads = populationThreads;
         this.logProvider = logProvider;
     }
 
+    /**
+     * @return a job for populating indexes with a single scan of the store, to be started with
+     * {@link #startIndexPopulation(IndexPopulationJob)} once the populating proxies of all its indexes are created.
+     */
+    public IndexPopulationJob newIndexPopulationJob( IndexingService.Monitor monitor )
+    {
+        return new IndexPopulationJob( storeView, updateableSchemaState, scheduler, populationThreads, logProvider,
+                monitor );
+    }
+
+    public void startIndexPopulation( IndexPopulationJob job )
+    {
+        scheduler.schedule( indexPopulation, job );
+    }
+
     public IndexProxy createPopulatingIndexProxy( final long ruleId,
                                                   final IndexDescriptor descriptor,
                                                   final SchemaIndexProvider.Descriptor providerDescriptor,
                                                   final boolean constraint,
-                                                  final IndexingService.Monitor monitor ) throws IOException
+                                                  final IndexingService.Monitor monitor,
+                                                  final IndexPopulationJob populationJob ) throws IOException
     {
         final FlippableIndexProxy flipper = new FlippableIndexProxy();
 
@@ -88,9 +108,10 @@ public class IndexProxySetup
                 logProvider
         );
 
+        IndexPopulationJob.IndexPopulation population = populationJob.addPopulator( populator, descriptor, config,
+                providerDescriptor, indexUserDescription, flipper, failureDelegateFactory );
         PopulatingIndexProxy populatingIndex =
-                new PopulatingIndexProxy( scheduler, descriptor, config, failureDelegateFactory, populator, flipper,
-                        storeView, updateableSchemaState, logProvider, indexUserDescription, providerDescriptor, monitor );
+                new PopulatingIndexProxy( descriptor, config, providerDescriptor, population );
         flipper.flipTo( populatingIndex );
 
         // Prepare for flipping to online mode
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+/**
+ * Value predicates matching the semantics of the range and prefix seeks offered by
+ * {@link org.neo4j.kernel.api.index.IndexReader}. Used where index results have to be verified or complemented
+ * against actual property values, e.g. for transaction state and for numbers that lost precision when indexed.
+ */
+public class IndexRangeMatching
+{
+    private IndexRangeMatching()
+    {
+    }
+
+    public static boolean inNumberRange( Object value, Number lower, boolean includeLower,
+                                         Number upper, boolean includeUpper )
+    {
+        if ( !(value instanceof Number) )
+        {
+            return false;
+        }
+        Number number = (Number) value;
+        if ( lower != null )
+        {
+            int comparison = compare( number, lower );
+            if ( comparison < 0 || (comparison == 0 && !includeLower) )
+            {
+                return false;
+            }
+        }
+        if ( upper != null )
+        {
+            int comparison = compare( number, upper );
+            if ( comparison > 0 || (comparison == 0 && !includeUpper) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean inStringRange( Object value, String lower, boolean includeLower,
+                                         String upper, boolean includeUpper )
+    {
+        if ( !(value instanceof String) )
+        {
+            return false;
+        }
+        String string = (String) value;
+        if ( lower != null )
+        {
+            int comparison = string.compareTo( lower );
+            if ( comparison < 0 || (comparison == 0 && !includeLower) )
+            {
+                return false;
+            }
+        }
+        if ( upper != null )
+        {
+            int comparison = string.compareTo( upper );
+            if ( comparison > 0 || (comparison == 0 && !includeUpper) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Strings are compared in UTF-16 order by {@link String#compareTo(String)}, while indexes may order them by their
+     * UTF-8 encoding, i.e. by code point. The two orders only disagree where a surrogate is compared to a character
+     * from {@code U+E000} and up, so ranges with bounds containing such characters may not be answered exactly by
+     * such an index.
+     */
+    public static boolean hasEncodingDependentOrder( String bound )
+    {
+        for ( int i = 0; i < bound.length(); i++ )
+        {
+            if ( bound.charAt( i ) >= Character.MIN_SURROGATE )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean hasPrefix( Object value, String prefix )
+    {
+        return value instanceof String && ((String) value).startsWith( prefix );
+    }
+
+    private static int compare( Number a, Number b )
+    {
+        if ( isIntegral( a ) && isIntegral( b ) )
+        {
+            return Long.compare( a.longValue(), b.longValue() );
+        }
+        return Double.compare( a.doubleValue(), b.doubleValue() );
+    }
+
+    private static boolean isIntegral( Number number )
+    {
+        return number instanceof Long || number instanceof Integer ||
+               number instanceof Short || number instanceof Byte;
+    }
+}
@@ -47,6 +47,21 @@ public interface IndexStoreView extends PropertyAccessor
             Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor,
             Visitor<NodeLabelUpdate, FAILURE> labelUpdateVisitor );
 
+    /**
+     * Retrieve the nodes with ids in the range {@code [fromNodeId, toNodeId)} which has got one or more of the
+     * given labels AND one or more of the given property key ids. Scans over different ranges may run concurrently,
+     * which is how a scan of the whole node store is split up between several threads.
+     *
+     * @return a {@link StoreScan} to start and to stop the scan.
+     */
+    <FAILURE extends Exception> StoreScan<FAILURE> visitNodesInRange( int[] labelIds, int[] propertyKeyIds,
+            long fromNodeId, long toNodeId, Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor );
+
+    /**
+     * @return the high id of the node store, i.e. one more than the highest id a node in the store can have.
+     */
+    long nodeHighId();
+
     Iterable<NodePropertyUpdate> nodeAsUpdates( long nodeId );
 
     DoubleLongRegister indexUpdatesAndSize( IndexDescriptor descriptor, DoubleLongRegister output );
@@ -173,6 +173,7 @@ public class IndexingService extends LifecycleAdapter
 
     public static IndexingService create( IndexSamplingConfig samplingConfig,
                                           JobScheduler scheduler,
+                                          int populationThreads,
                                           SchemaIndexProviderMap providerMap,
                                           IndexStoreView storeView,
                                           TokenNameLookup tokenNameLookup,
@@ -192,9 +193,8 @@ public class IndexingService extends LifecycleAdapter
         IndexSamplingControllerFactory factory =
                 new IndexSamplingControllerFactory( samplingConfig, storeView, scheduler, tokenNameLookup, logProvider );
         IndexSamplingController indexSamplingController = factory.create( indexMapRef );
-        IndexProxySetup proxySetup = new IndexProxySetup(
-                samplingConfig, storeView, providerMap, updateableSchemaState, tokenNameLookup, scheduler, logProvider
-        );
+        IndexProxySetup proxySetup = new IndexProxySetup( samplingConfig, storeView, providerMap,
+                updateableSchemaState, tokenNameLookup, scheduler, populationThreads, logProvider );
 
         return new IndexingService( proxySetup, providerMap, indexMapRef, storeView, indexRules,
                 indexSamplingController, tokenNameLookup, logProvider, monitor );
@@ -283,7 +283,8 @@ public class IndexingService extends LifecycleAdapter
         // Drop placeholder proxies for indexes that need to be rebuilt
         dropRecoveringIndexes( indexMap, rebuildingDescriptors );
 
-        // Rebuild indexes by recreating and repopulating them
+        // Rebuild indexes by recreating and repopulating them, all with a single scan of the store
+        IndexPopulationJob populationJob = proxySetup.newIndexPopulationJob( monitor );
         for ( Map.Entry<Long, Pair<IndexDescriptor, SchemaIndexProvider.Descriptor>> entry : rebuildingDescriptors.entrySet() )
         {
             long indexId = entry.getKey();
@@ -298,12 +299,16 @@ public class IndexingService extends LifecycleAdapter
              * they will get dropped as soon as recovery is completed by the constraint system.
              */
             IndexProxy proxy = proxySetup.createPopulatingIndexProxy(
-                    indexId, indexDescriptor, providerDescriptor, false, monitor );
+                    indexId, indexDescriptor, providerDescriptor, false, monitor, populationJob );
             proxy.start();
             indexMap.putIndexProxy( indexId, proxy );
         }
 
         indexMapRef.setIndexMap( indexMap );
+        if ( !rebuildingDescriptors.isEmpty() )
+        {
+            proxySetup.startIndexPopulation( populationJob );
+        }
 
         samplingController.recoverIndexSamples();
         samplingController.start();
@@ -351,6 +356,11 @@ public class IndexingService extends LifecycleAdapter
         }
     }
 
+    public PopulationProgress indexPopulationProgress( long indexId ) throws IndexNotFoundKernelException
+    {
+        return getIndexProxy( indexId ).getIndexPopulationProgress();
+    }
+
     /*
      * Creates an index.
      *
@@ -359,53 +369,74 @@ public class IndexingService extends LifecycleAdapter
      * will shut down.
      */
     public void createIndex( IndexRule rule )
+    {
+        createIndexes( rule );
+    }
+
+    /*
+     * Creates indexes, like createIndex. Indexes created together are populated together, with a single
+     * scan of the store.
+     */
+    public void createIndexes( IndexRule... rules )
     {
         IndexMap indexMap = indexMapRef.indexMapSnapshot();
+        IndexPopulationJob populationJob = null;
 
-        long ruleId = rule.getId();
-        IndexProxy index = indexMap.getIndexProxy( ruleId );
-        if ( index != null && state == State.NOT_STARTED )
-        {
-            // During recovery we might run into this scenario:
-            // - We're starting recovery on a database, where init() is called and all indexes that
-            //   are found in the store, instantiated and put into the IndexMap. Among them is index X.
-            // - While we recover the database we bump into a transaction creating index Y, with the
-            //   same IndexDescriptor, i.e. same label/property, as X. This is possible since this took
-            //   place before the creation of X.
-            // - When Y is dropped in between this creation and the creation of X (it will have to be
-            //   otherwise X wouldn't have had an opportunity to be created) the index is removed from
-            //   the IndexMap, both by id AND descriptor.
-            //
-            // Because of the scenario above we need to put this created index into the IndexMap
-            // again, otherwise it will disappear from the IndexMap (at least for lookup by descriptor)
-            // and not be able to accept changes applied from recovery later on.
-            indexMap.putIndexProxy( ruleId, index );
-            indexMapRef.setIndexMap( indexMap );
-            return;
-        }
-        final IndexDescriptor descriptor = new IndexDescriptor( rule.getLabel(), rule.getPropertyKey() );
-        SchemaIndexProvider.Descriptor providerDescriptor = rule.getProviderDescriptor();
-        boolean constraint = rule.isConstraintIndex();
-        if ( state == State.RUNNING )
+        for ( IndexRule rule : rules )
         {
-            try
+            long ruleId = rule.getId();
+            IndexProxy index = indexMap.getIndexProxy( ruleId );
+            if ( index != null && state == State.NOT_STARTED )
             {
-                index = proxySetup.createPopulatingIndexProxy(
-                        ruleId, descriptor, providerDescriptor, constraint, monitor );
-                index.start();
+                // During recovery we might run into this scenario:
+                // - We're starting recovery on a database, where init() is called and all indexes that
+                //   are found in the store, instantiated and put into the IndexMap. Among them is index X.
+                // - While we recover the database we bump into a transaction creating index Y, with the
+                //   same IndexDescriptor, i.e. same label/property, as X. This is possible since this took
+                //   place before the creation of X.
+                // - When Y is dropped in between this creation and the creation of X (it will have to be
+                //   otherwise X wouldn't have had an opportunity to be created) the index is removed from
+                //   the IndexMap, both by id AND descriptor.
+                //
+                // Because of the scenario above we need to put this created index into the IndexMap
+                // again, otherwise it will disappear from the IndexMap (at least for lookup by descriptor)
+                // and not be able to accept changes applied from recovery later on.
+                indexMap.putIndexProxy( ruleId, index );
+                continue;
             }
-            catch ( IOException e )
+            final IndexDescriptor descriptor = new IndexDescriptor( rule.getLabel(), rule.getPropertyKey() );
+            SchemaIndexProvider.Descriptor providerDescriptor = rule.getProviderDescriptor();
+            boolean constraint = rule.isConstraintIndex();
+            if ( state == State.RUNNING )
             {
-                throw new RuntimeException( e );
+                if ( populationJob == null )
+                {
+                    populationJob = proxySetup.newIndexPopulationJob( monitor );
+                }
+                try
+                {
+                    index = proxySetup.createPopulatingIndexProxy(
+                            ruleId, descriptor, providerDescriptor, constraint, monitor, populationJob );
+                    index.start();
+                }
+                catch ( IOException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+            else
+            {
+                index = proxySetup.createRecoveringIndexProxy( descriptor, providerDescriptor, constraint );
             }
+
+            indexMap.putIndexProxy( ruleId, index );
         }
-        else
+        indexMapRef.setIndexMap( indexMap );
+
+        if ( populationJob != null )
         {
-            index = proxySetup.createRecoveringIndexProxy( descriptor, providerDescriptor, constraint );
+            proxySetup.startIndexPopulation( populationJob );
         }
-
-        indexMap.putIndexProxy( rule.getId(), index );
-        indexMapRef.setIndexMap( indexMap );
     }
 
     public void addRecoveredNodeIds( PrimitiveLongSet nodeIds )
@@ -140,6 +140,12 @@ public class OnlineIndexProxy implements IndexProxy
         throw new IllegalStateException( this + " is ONLINE" );
     }
 
+    @Override
+    public PopulationProgress getIndexPopulationProgress()
+    {
+        return PopulationProgress.DONE;
+    }
+
     @Override
     public ResourceIterator<File> snapshotFiles() throws IOException
     {
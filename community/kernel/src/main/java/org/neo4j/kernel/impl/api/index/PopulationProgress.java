@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import static java.lang.String.format;
+
+/**
+ * How far the population of an index has come, as the number of nodes scanned so far out of the number of nodes
+ * in the store. All indexes populated by the same {@link IndexPopulationJob} share the same scan, and so the same
+ * progress.
+ */
+public class PopulationProgress
+{
+    public static final PopulationProgress NONE = new PopulationProgress( 0, 0 );
+    public static final PopulationProgress DONE = new PopulationProgress( 1, 1 );
+
+    private final long completed;
+    private final long total;
+
+    public PopulationProgress( long completed, long total )
+    {
+        this.completed = completed;
+        this.total = total;
+    }
+
+    public long getCompleted()
+    {
+        return completed;
+    }
+
+    public long getTotal()
+    {
+        return total;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "%s[%d/%d]", getClass().getSimpleName(), completed, total );
+    }
+}
@@ -298,10 +298,10 @@ public interface NodeState extends PropertyContainerState
         }
     }
 
-    abstract class Defaults extends StateDefaults<Long, NodeState, NodeState.Mutable>
+    abstract class Defaults extends StateDefaults<NodeState, NodeState.Mutable>
     {
         @Override
-        final Mutable createValue( Long id, TxState state )
+        final Mutable createValue( long id, TxState state )
         {
             return new Mutable( id, state );
         }
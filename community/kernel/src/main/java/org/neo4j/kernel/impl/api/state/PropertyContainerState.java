@@ -64,6 +64,9 @@ interface PropertyContainerState
     {
         private final long id;
         private static final ResourceIterator<DefinedProperty> NO_PROPERTIES = emptyIterator();
+        // Entities usually only have a few properties changed in a transaction, so start out small.
+        private static final int INITIAL_CAPACITY = 4;
+        private static final float RESIZE_AT_CAPACITY = 0.85f;
 
         private VersionedHashMap<Integer, DefinedProperty> addedProperties;
         private VersionedHashMap<Integer, DefinedProperty> changedProperties;
@@ -110,7 +113,7 @@ interface PropertyContainerState
 
             if ( changedProperties == null )
             {
-                changedProperties = new VersionedHashMap<>();
+                changedProperties = new VersionedHashMap<>( INITIAL_CAPACITY, RESIZE_AT_CAPACITY );
             }
             changedProperties.put( property.propertyKeyId(), property );
             if ( removedProperties != null )
@@ -134,7 +137,7 @@ interface PropertyContainerState
             }
             if ( addedProperties == null )
             {
-                addedProperties = new VersionedHashMap<>();
+                addedProperties = new VersionedHashMap<>( INITIAL_CAPACITY, RESIZE_AT_CAPACITY );
             }
             addedProperties.put( property.propertyKeyId(), property );
         }
@@ -150,7 +153,7 @@ interface PropertyContainerState
             }
             if ( removedProperties == null )
             {
-                removedProperties = new VersionedHashMap<>();
+                removedProperties = new VersionedHashMap<>( INITIAL_CAPACITY, RESIZE_AT_CAPACITY );
             }
             removedProperties.put( property.propertyKeyId(), property );
             if ( changedProperties != null )
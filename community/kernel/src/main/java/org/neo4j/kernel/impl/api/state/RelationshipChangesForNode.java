@@ -128,6 +128,11 @@ public class RelationshipChangesForNode
 
     }
 
+    // Most nodes only get a few relationships, of a few types, in a transaction. Starting out small keeps the
+    // state of transactions that touch millions of nodes from being dominated by empty buckets.
+    private static final int INITIAL_CAPACITY = 4;
+    private static final float RESIZE_AT_CAPACITY = 0.85f;
+
     private final DiffStrategy diffStrategy;
     private final Home relationshipHome;
 
@@ -153,7 +158,8 @@ public class RelationshipChangesForNode
         Set<Long> rels = relTypeToRelsMap.get( typeId );
         if(rels == null)
         {
-            rels = Collections.newSetFromMap(new VersionedHashMap<Long, Boolean>());
+            rels = Collections.newSetFromMap(
+                    new VersionedHashMap<Long, Boolean>( INITIAL_CAPACITY, RESIZE_AT_CAPACITY ) );
             relTypeToRelsMap.put( typeId, rels );
         }
 
@@ -177,7 +183,7 @@ public class RelationshipChangesForNode
     {
         if ( typesChanged == null )
         {
-            typesChanged = Primitive.intSet();
+            typesChanged = Primitive.intSet( INITIAL_CAPACITY );
         }
         typesChanged.add( type );
     }
@@ -349,7 +355,7 @@ public class RelationshipChangesForNode
     {
         if ( outgoing == null )
         {
-            outgoing = new VersionedHashMap<>();
+            outgoing = new VersionedHashMap<>( INITIAL_CAPACITY, RESIZE_AT_CAPACITY );
         }
         return outgoing;
     }
@@ -387,7 +393,7 @@ public class RelationshipChangesForNode
     {
         if ( incoming == null )
         {
-            incoming = new VersionedHashMap<>();
+            incoming = new VersionedHashMap<>( INITIAL_CAPACITY, RESIZE_AT_CAPACITY );
         }
         return incoming;
     }
@@ -396,7 +402,7 @@ public class RelationshipChangesForNode
     {
         if ( loops == null )
         {
-            loops = new VersionedHashMap<>();
+            loops = new VersionedHashMap<>( INITIAL_CAPACITY, RESIZE_AT_CAPACITY );
         }
         return loops;
     }
@@ -29,6 +29,8 @@ import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveIntObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.function.Function;
 import org.neo4j.function.Predicate;
 import org.neo4j.graphdb.Direction;
@@ -43,6 +45,7 @@ import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.api.txstate.TxStateVisitor;
 import org.neo4j.kernel.api.txstate.UpdateTriState;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
+import org.neo4j.kernel.impl.api.index.IndexRangeMatching;
 import org.neo4j.kernel.impl.api.store.RelationshipIterator;
 import org.neo4j.kernel.impl.util.diffsets.DiffSets;
 import org.neo4j.kernel.impl.util.diffsets.DiffSetsVisitor;
@@ -60,53 +63,57 @@ import static org.neo4j.kernel.api.properties.Property.property;
  *
  * See {@link org.neo4j.kernel.impl.api.KernelTransactionImplementation} for how this happens.
  *
+ * Node, relationship and label state is kept in primitive collections keyed by id, so that large transactions do not
+ * spend most of their memory on boxed ids and map entries. The ids of the nodes and relationships that are deleted in
+ * the transaction can optionally be kept {@linkplain #TxState(boolean) off the Java heap}.
+ *
  * This class is very large, as it has been used as a gathering point to consolidate all transaction state knowledge
  * into one component. Now that that work is done, this class should be refactored to increase transparency in how it
  * works.
  */
 public final class TxState implements TransactionState, RelationshipVisitor.Home
 {
-    private Map<Integer/*Label ID*/, LabelState.Mutable> labelStatesMap;
+    private PrimitiveLongObjectMap<LabelState.Mutable> labelStatesMap;
     private static final LabelState.Defaults LABEL_STATE = new LabelState.Defaults()
     {
         @Override
-        Map<Integer, LabelState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<LabelState.Mutable> getMap( TxState state )
         {
             return state.labelStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Integer, LabelState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<LabelState.Mutable> map )
         {
             state.labelStatesMap = map;
         }
     };
-    private Map<Long/*Node ID*/, NodeState.Mutable> nodeStatesMap;
+    private PrimitiveLongObjectMap<NodeState.Mutable> nodeStatesMap;
     private static final NodeState.Defaults NODE_STATE = new NodeState.Defaults()
     {
         @Override
-        Map<Long, NodeState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<NodeState.Mutable> getMap( TxState state )
         {
             return state.nodeStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Long, NodeState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<NodeState.Mutable> map )
         {
             state.nodeStatesMap = map;
         }
     };
-    private Map<Long/*Relationship ID*/, RelationshipState.Mutable> relationshipStatesMap;
+    private PrimitiveLongObjectMap<RelationshipState.Mutable> relationshipStatesMap;
     private static final RelationshipState.Defaults RELATIONSHIP_STATE = new RelationshipState.Defaults()
     {
         @Override
-        Map<Long, RelationshipState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<RelationshipState.Mutable> getMap( TxState state )
         {
             return state.relationshipStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Long, RelationshipState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<RelationshipState.Mutable> map )
         {
             state.relationshipStatesMap = map;
         }
@@ -132,8 +139,8 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
     // This is temporary. It is needed until we've removed nodes and rels from the global cache, to tell
     // that they were created and then deleted in the same tx. This is here just to set a save point to
     // get a large set of changes in, and is meant to be removed in the coming days in a follow-up commit.
-    private final Set<Long> nodesDeletedInTx = new HashSet<>();
-    private final Set<Long> relationshipsDeletedInTx = new HashSet<>();
+    private PrimitiveLongSet nodesDeletedInTx;
+    private PrimitiveLongSet relationshipsDeletedInTx;
 
     private Map<UniquenessConstraint, Long> createdConstraintIndexesByConstraint;
 
@@ -142,8 +149,23 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
 
     private PrimitiveIntObjectMap<Map<DefinedProperty, DiffSets<Long>>> indexUpdates;
 
+    private final boolean offHeap;
     private boolean hasChanges;
 
+    public TxState()
+    {
+        this( false );
+    }
+
+    /**
+     * @param offHeap whether to keep the ids of the nodes and relationships deleted in this transaction off the Java
+     * heap. That memory is only given back when the state is {@link #release() released}.
+     */
+    public TxState( boolean offHeap )
+    {
+        this.offHeap = offHeap;
+    }
+
     @Override
     public void accept( final TxStateVisitor visitor )
     {
@@ -461,6 +483,10 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
     {
         if ( nodes().remove( nodeId ) )
         {
+            if ( nodesDeletedInTx == null )
+            {
+                nodesDeletedInTx = newIdSet();
+            }
             nodesDeletedInTx.add( nodeId );
         }
 
@@ -506,7 +532,7 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
     {
         return addedAndRemovedNodes().isRemoved( nodeId )
                 // Temporary until we've stopped adding nodes to the global cache during tx.
-                || nodesDeletedInTx.contains( nodeId );
+                || (nodesDeletedInTx != null && nodesDeletedInTx.contains( nodeId ));
     }
 
     @Override
@@ -520,6 +546,10 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
     {
         if ( relationships().remove( id ) )
         {
+            if ( relationshipsDeletedInTx == null )
+            {
+                relationshipsDeletedInTx = newIdSet();
+            }
             relationshipsDeletedInTx.add( id );
         }
 
@@ -563,7 +593,7 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
     {
         return addedAndRemovedRelationships().isRemoved( relationshipId )
                 // Temporary until we stop adding rels to the global cache during tx
-                || relationshipsDeletedInTx.contains( relationshipId );
+                || (relationshipsDeletedInTx != null && relationshipsDeletedInTx.contains( relationshipId ));
     }
 
     @Override
@@ -1008,6 +1038,52 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
                                  property( descriptor.getPropertyKeyId(), value ) ) );
     }
 
+    @Override
+    public ReadableDiffSets<Long> indexUpdatesForRangeSeekByNumber( IndexDescriptor descriptor,
+                                                                    final Number lower, final boolean includeLower,
+                                                                    final Number upper, final boolean includeUpper )
+    {
+        return ReadableDiffSets.Empty.ifNull( getIndexUpdates( descriptor.getLabelId(),
+                descriptor.getPropertyKeyId(), new Predicate<Object>()
+                {
+                    @Override
+                    public boolean test( Object value )
+                    {
+                        return IndexRangeMatching.inNumberRange( value, lower, includeLower, upper, includeUpper );
+                    }
+                } ) );
+    }
+
+    @Override
+    public ReadableDiffSets<Long> indexUpdatesForRangeSeekByString( IndexDescriptor descriptor,
+                                                                    final String lower, final boolean includeLower,
+                                                                    final String upper, final boolean includeUpper )
+    {
+        return ReadableDiffSets.Empty.ifNull( getIndexUpdates( descriptor.getLabelId(),
+                descriptor.getPropertyKeyId(), new Predicate<Object>()
+                {
+                    @Override
+                    public boolean test( Object value )
+                    {
+                        return IndexRangeMatching.inStringRange( value, lower, includeLower, upper, includeUpper );
+                    }
+                } ) );
+    }
+
+    @Override
+    public ReadableDiffSets<Long> indexUpdatesForRangeSeekByPrefix( IndexDescriptor descriptor, final String prefix )
+    {
+        return ReadableDiffSets.Empty.ifNull( getIndexUpdates( descriptor.getLabelId(),
+                descriptor.getPropertyKeyId(), new Predicate<Object>()
+                {
+                    @Override
+                    public boolean test( Object value )
+                    {
+                        return IndexRangeMatching.hasPrefix( value, prefix );
+                    }
+                } ) );
+    }
+
     @Override
     public void indexDoUpdateProperty( IndexDescriptor descriptor, long nodeId,
                                        DefinedProperty propertyBefore, DefinedProperty propertyAfter )
@@ -1095,6 +1171,37 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
         return diffs;
     }
 
+    /**
+     * Collects the changes for all values of the given property matching the given predicate. Unlike
+     * {@link #getIndexUpdates(int, int)} the changes for different values are not applied in sequence, since a
+     * node moving between two matching values must still be considered added, regardless of iteration order.
+     */
+    private DiffSets<Long> getIndexUpdates( int label, int propertyKeyId, Predicate<Object> valueFilter )
+    {
+        if ( indexUpdates == null )
+        {
+            return null;
+        }
+        Map<DefinedProperty,DiffSets<Long>> updates = indexUpdates.get( label );
+        if ( updates == null )
+        {
+            return null;
+        }
+        Set<Long> added = new HashSet<>();
+        Set<Long> removed = new HashSet<>();
+        for ( Map.Entry<DefinedProperty,DiffSets<Long>> entry : updates.entrySet() )
+        {
+            DefinedProperty property = entry.getKey();
+            if ( property.propertyKeyId() == propertyKeyId && valueFilter.test( property.value() ) )
+            {
+                added.addAll( entry.getValue().getAdded() );
+                removed.addAll( entry.getValue().getRemoved() );
+            }
+        }
+        removed.removeAll( added );
+        return new DiffSets<>( added, removed );
+    }
+
     private Map<UniquenessConstraint, Long> createdConstraintIndexesByConstraint()
     {
         if ( createdConstraintIndexesByConstraint == null )
@@ -1104,6 +1211,26 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
         return createdConstraintIndexesByConstraint;
     }
 
+    private PrimitiveLongSet newIdSet()
+    {
+        return offHeap ? Primitive.offHeapLongSet( Primitive.DEFAULT_HEAP_CAPACITY ) : Primitive.longSet();
+    }
+
+    @Override
+    public void release()
+    {
+        if ( nodesDeletedInTx != null )
+        {
+            nodesDeletedInTx.close();
+            nodesDeletedInTx = null;
+        }
+        if ( relationshipsDeletedInTx != null )
+        {
+            relationshipsDeletedInTx.close();
+            relationshipsDeletedInTx = null;
+        }
+    }
+
     private boolean hasNodeState( long nodeId )
     {
         return nodeStatesMap != null && nodeStatesMap.containsKey( nodeId );
@@ -290,7 +290,7 @@ public class CacheLayer implements StoreReadLayer
             Object value )
             throws IndexNotFoundKernelException, IndexBrokenKernelException
     {
-        return diskLayer.nodeGetUniqueFromIndexLookup( state, schemaCache.indexId( index ), value );
+        return diskLayer.nodeGetUniqueFromIndexLookup( state, index, schemaCache.indexId( index ), value );
     }
 
     @Override
@@ -303,14 +303,44 @@ public class CacheLayer implements StoreReadLayer
     public PrimitiveLongResourceIterator nodesGetFromIndexLookup( KernelStatement state, IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException
     {
-        return diskLayer.nodesGetFromIndexLookup( state, schemaCache.indexId( index ), value );
+        return diskLayer.nodesGetFromIndexLookup( state, index, schemaCache.indexId( index ), value );
     }
 
     @Override
     public PrimitiveLongResourceIterator nodesGetFromIndexScan( KernelStatement state, IndexDescriptor index )
             throws IndexNotFoundKernelException
     {
-        return diskLayer.nodesGetFromIndexScan( state, schemaCache.indexId( index ) );
+        return diskLayer.nodesGetFromIndexScan( state, index, schemaCache.indexId( index ) );
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state,
+                                                                             IndexDescriptor index,
+                                                                             Number lower, boolean includeLower,
+                                                                             Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return diskLayer.nodesGetFromIndexRangeSeekByNumber( state, index, schemaCache.indexId( index ),
+                lower, includeLower, upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByString( KernelStatement state,
+                                                                             IndexDescriptor index,
+                                                                             String lower, boolean includeLower,
+                                                                             String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return diskLayer.nodesGetFromIndexRangeSeekByString( state, index, schemaCache.indexId( index ),
+                lower, includeLower, upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state,
+                                                                             IndexDescriptor index, String prefix )
+            throws IndexNotFoundKernelException
+    {
+        return diskLayer.nodesGetFromIndexRangeSeekByPrefix( state, index, schemaCache.indexId( index ), prefix );
     }
 
     @Override
@@ -526,4 +556,10 @@ public class CacheLayer implements StoreReadLayer
     {
         diskLayer.releaseRelationship( id );
     }
+
+    @Override
+    public StoreReadLayer snapshotView( RecordVersions.Snapshot snapshot )
+    {
+        return new CacheLayer( diskLayer.snapshotView( snapshot ), indexingService, schemaCache );
+    }
 }
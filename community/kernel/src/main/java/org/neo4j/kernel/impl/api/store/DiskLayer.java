@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.api.store;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -28,10 +29,13 @@ import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveIntObjectMap;
 import org.neo4j.collection.primitive.PrimitiveIntObjectVisitor;
 import org.neo4j.collection.primitive.PrimitiveIntSet;
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongCollections.PrimitiveLongBaseIterator;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.function.Function;
+import org.neo4j.function.LongPredicate;
 import org.neo4j.function.Predicate;
 import org.neo4j.function.Predicates;
 import org.neo4j.function.Supplier;
@@ -68,6 +72,7 @@ import org.neo4j.kernel.impl.core.TokenNotFoundException;
 import org.neo4j.kernel.impl.store.InvalidRecordException;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.SchemaStorage;
@@ -75,8 +80,9 @@ import org.neo4j.kernel.impl.store.UnderlyingStorageException;
 import org.neo4j.kernel.impl.store.UniquenessConstraintRule;
 import org.neo4j.kernel.impl.store.record.IndexRule;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
-import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRule;
 import org.neo4j.kernel.impl.transaction.state.PropertyLoader;
@@ -85,11 +91,14 @@ import org.neo4j.kernel.impl.util.register.NeoRegister;
 import org.neo4j.register.Register;
 
 import static org.neo4j.collection.primitive.PrimitiveIntCollections.asSet;
-import static org.neo4j.collection.primitive.PrimitiveLongCollections.count;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.concat;
 import static org.neo4j.function.IntPredicates.alwaysTrue;
 import static org.neo4j.helpers.collection.Iterables.filter;
 import static org.neo4j.helpers.collection.Iterables.map;
 import static org.neo4j.helpers.collection.IteratorUtil.resourceIterator;
+import static org.neo4j.kernel.impl.api.index.IndexRangeMatching.hasPrefix;
+import static org.neo4j.kernel.impl.api.index.IndexRangeMatching.inNumberRange;
+import static org.neo4j.kernel.impl.api.index.IndexRangeMatching.inStringRange;
 import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
 import static org.neo4j.kernel.impl.util.IoPrimitiveUtils.safeCastLongToInt;
@@ -121,9 +130,21 @@ public class DiskLayer implements StoreReadLayer
     private final NodeStore nodeStore;
     private final RelationshipGroupStore relationshipGroupStore;
     private final RelationshipStore relationshipStore;
+    private final PropertyStore propertyStore;
     private final SchemaStorage schemaStorage;
     private final CountsAccessor counts;
     private final PropertyLoader propertyLoader;
+    // The snapshot read by this view of the layer, or null if this layer reads what's in the store
+    private final RecordVersions.Snapshot snapshot;
+    // This layer is shared between all threads, so each thread gets its own record cursors for reading
+    private final ThreadLocal<StoreRecordReads> recordReads = new ThreadLocal<StoreRecordReads>()
+    {
+        @Override
+        protected StoreRecordReads initialValue()
+        {
+            return new StoreRecordReads( nodeStore, relationshipGroupStore, relationshipStore, snapshot );
+        }
+    };
 
     /**
      * A note on this taking Supplier<NeoStore> rather than just neo store: This is a workaround until the cache is
@@ -145,9 +166,33 @@ public class DiskLayer implements StoreReadLayer
         this.nodeStore = this.neoStore.getNodeStore();
         this.relationshipStore = this.neoStore.getRelationshipStore();
         this.relationshipGroupStore = this.neoStore.getRelationshipGroupStore();
+        this.propertyStore = this.neoStore.getPropertyStore();
         this.counts = neoStore.getCounts();
         this.propertyLoader = new PropertyLoader( neoStore );
+        this.snapshot = null;
+    }
+
+    private DiskLayer( DiskLayer store, RecordVersions.Snapshot snapshot )
+    {
+        this.relationshipTokenHolder = store.relationshipTokenHolder;
+        this.schemaStorage = store.schemaStorage;
+        this.indexService = store.indexService;
+        this.propertyKeyTokenHolder = store.propertyKeyTokenHolder;
+        this.labelTokenHolder = store.labelTokenHolder;
+        this.neoStore = store.neoStore;
+        this.nodeStore = store.nodeStore;
+        this.relationshipStore = store.relationshipStore;
+        this.relationshipGroupStore = store.relationshipGroupStore;
+        this.propertyStore = store.propertyStore;
+        this.counts = store.counts;
+        this.propertyLoader = store.propertyLoader;
+        this.snapshot = snapshot;
+    }
 
+    @Override
+    public DiskLayer snapshotView( RecordVersions.Snapshot snapshot )
+    {
+        return new DiskLayer( this, snapshot );
     }
 
     @Override
@@ -194,7 +239,7 @@ public class DiskLayer implements StoreReadLayer
     @Override
     public PrimitiveIntIterator nodeGetLabels( long nodeId ) throws EntityNotFoundException
     {
-        NodeRecord record = nodeStore.loadRecord( nodeId, null );
+        NodeRecord record = snapshot != null ? nodeInSnapshot( nodeId ) : nodeStore.loadRecord( nodeId, null );
         if ( record == null )
         {
             throw new EntityNotFoundException( EntityType.NODE, nodeId );
@@ -229,7 +274,7 @@ public class DiskLayer implements StoreReadLayer
     public RelationshipIterator nodeListRelationships( long nodeId, Direction direction )
             throws EntityNotFoundException
     {
-        return StoreRelationshipIterable.iterator( neoStore, nodeId, alwaysTrue(), direction );
+        return StoreRelationshipIterable.iterator( neoStore, snapshot, nodeId, alwaysTrue(), direction );
     }
 
     @Override
@@ -238,94 +283,147 @@ public class DiskLayer implements StoreReadLayer
     {
         // TODO Instead of having a PrimitiveIntSet here we can (in the dense case) have a sorted relTypes array
         // and use a predicate that knows that the types coming from accept will be sorted as well.
-        return StoreRelationshipIterable.iterator( neoStore, nodeId, asSet( relTypes ), direction );
+        return StoreRelationshipIterable.iterator( neoStore, snapshot, nodeId, asSet( relTypes ), direction );
     }
 
     @Override
     public int nodeGetDegree( long nodeId, Direction direction ) throws EntityNotFoundException
     {
-        NodeRecord node = nodeStore.loadRecord( nodeId, null );
-        if ( node == null )
+        StoreRecordReads reads = recordReads.get();
+        if ( !reads.readNode( nodeId ) )
         {
             throw new EntityNotFoundException( EntityType.NODE, nodeId );
         }
 
-        if ( node.isDense() )
+        if ( reads.nodeDense )
         {
-            long groupId = node.getNextRel();
+            long groupId = reads.nodeFirstRelationship;
             long count = 0;
             while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
             {
-                RelationshipGroupRecord group = relationshipGroupStore.getRecord( groupId );
-                count += nodeDegreeByDirection( nodeId, group, direction );
-                groupId = group.getNext();
+                readGroup( reads, groupId );
+                groupId = reads.groupNext;
+                count += nodeDegreeByDirection( nodeId, reads, direction );
             }
             return (int) count;
         }
 
-        return count( nodeListRelationships( nodeId, direction ) );
+        // TODO Degrees by direction of sparse nodes, and of dense nodes without summing up their groups, need
+        // stored per-direction counts, which is a record format change with a store migration that's not done yet
+        if ( direction == Direction.BOTH )
+        {   // The first relationship in the chain of a sparse node keeps the length of that chain
+            return (int) countByFirstPrevPointer( nodeId, reads, reads.nodeFirstRelationship );
+        }
+        return countSparseChain( nodeId, reads, reads.nodeFirstRelationship, direction,
+                ReadOperations.ANY_RELATIONSHIP_TYPE );
     }
 
     @Override
     public int nodeGetDegree( long nodeId, Direction direction, int relType ) throws EntityNotFoundException
     {
-        NodeRecord node = nodeStore.loadRecord( nodeId, null );
-        if ( node == null )
+        StoreRecordReads reads = recordReads.get();
+        if ( !reads.readNode( nodeId ) )
         {
             throw new EntityNotFoundException( EntityType.NODE, nodeId );
         }
 
-        if ( node.isDense() )
+        if ( reads.nodeDense )
         {
-            long groupId = node.getNextRel();
+            long groupId = reads.nodeFirstRelationship;
             while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
             {
-                RelationshipGroupRecord group = relationshipGroupStore.getRecord( groupId );
-                if ( group.getType() == relType )
+                readGroup( reads, groupId );
+                if ( reads.groupType == relType )
                 {
-                    return (int) nodeDegreeByDirection( nodeId, group, direction );
+                    return (int) nodeDegreeByDirection( nodeId, reads, direction );
                 }
-                groupId = group.getNext();
+                groupId = reads.groupNext;
             }
             return 0;
         }
 
-        return count( nodeListRelationships( nodeId, direction, new int[] {relType} ) );
+        return countSparseChain( nodeId, reads, reads.nodeFirstRelationship, direction, relType );
     }
 
-    private long nodeDegreeByDirection( long nodeId, RelationshipGroupRecord group, Direction direction )
+    /**
+     * Degree of the node in the group most recently read by the given reads.
+     */
+    private long nodeDegreeByDirection( long nodeId, StoreRecordReads reads, Direction direction )
     {
-        long loopCount = countByFirstPrevPointer( nodeId, group.getFirstLoop() );
+        long firstOut = reads.groupFirstOut;
+        long firstIn = reads.groupFirstIn;
+        long loopCount = countByFirstPrevPointer( nodeId, reads, reads.groupFirstLoop );
         switch ( direction )
         {
-        case OUTGOING: return countByFirstPrevPointer( nodeId, group.getFirstOut() ) + loopCount;
-        case INCOMING: return countByFirstPrevPointer( nodeId, group.getFirstIn() ) + loopCount;
-        case BOTH: return countByFirstPrevPointer( nodeId, group.getFirstOut() ) +
-                          countByFirstPrevPointer( nodeId, group.getFirstIn() ) + loopCount;
+        case OUTGOING: return countByFirstPrevPointer( nodeId, reads, firstOut ) + loopCount;
+        case INCOMING: return countByFirstPrevPointer( nodeId, reads, firstIn ) + loopCount;
+        case BOTH: return countByFirstPrevPointer( nodeId, reads, firstOut ) +
+                          countByFirstPrevPointer( nodeId, reads, firstIn ) + loopCount;
         default: throw new IllegalArgumentException( direction.name() );
         }
     }
 
+    /**
+     * Counts the relationships of a sparse node matching the given direction and type by walking its chain,
+     * which is no longer than the dense node threshold.
+     */
+    private int countSparseChain( long nodeId, StoreRecordReads reads, long relationshipId, Direction direction,
+            int relType )
+    {
+        int count = 0;
+        while ( relationshipId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            if ( !reads.readRelationship( relationshipId ) )
+            {
+                throw new InvalidRecordException( "RelationshipRecord[" + relationshipId + "] not in use" );
+            }
+            long startNode = reads.relationshipFirstNode;
+            long endNode = reads.relationshipSecondNode;
+            if ( relType == ReadOperations.ANY_RELATIONSHIP_TYPE || reads.relationshipType == relType )
+            {
+                Direction relDirection = directionOf( nodeId, relationshipId, startNode, endNode );
+                if ( direction == Direction.BOTH || relDirection == Direction.BOTH || relDirection == direction )
+                {
+                    count++;
+                }
+            }
+            relationshipId = startNode == nodeId ? reads.relationshipFirstNextRel : reads.relationshipSecondNextRel;
+        }
+        return count;
+    }
+
+    private void readGroup( StoreRecordReads reads, long groupId )
+    {
+        if ( !reads.readGroup( groupId ) )
+        {
+            throw new InvalidRecordException( "Record[" + groupId + "] not in use" );
+        }
+    }
+
     @Override
     public boolean nodeVisitDegrees( final long nodeId, final DegreeVisitor visitor )
     {
-        NodeRecord node = nodeStore.loadRecord( nodeId, null );
-        if ( node == null )
+        StoreRecordReads reads = recordReads.get();
+        if ( !reads.readNode( nodeId ) )
         {
             return true;
         }
 
-        if ( node.isDense() )
+        if ( reads.nodeDense )
         {
-            long groupId = node.getNextRel();
+            long groupId = reads.nodeFirstRelationship;
             while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
             {
-                RelationshipGroupRecord group = relationshipGroupStore.getRecord( groupId );
-                long outCount = countByFirstPrevPointer( nodeId, group.getFirstOut() );
-                long inCount = countByFirstPrevPointer( nodeId, group.getFirstIn() );
-                long loopCount = countByFirstPrevPointer( nodeId, group.getFirstLoop() );
-                visitor.visitDegree( group.getType(), (int)(outCount+loopCount), (int)(inCount+loopCount) );
-                groupId = group.getNext();
+                readGroup( reads, groupId );
+                // The visitor may well read from this layer too, so take what's needed from the group first
+                groupId = reads.groupNext;
+                int type = reads.groupType;
+                long firstIn = reads.groupFirstIn;
+                long firstLoop = reads.groupFirstLoop;
+                long outCount = countByFirstPrevPointer( nodeId, reads, reads.groupFirstOut );
+                long inCount = countByFirstPrevPointer( nodeId, reads, firstIn );
+                long loopCount = countByFirstPrevPointer( nodeId, reads, firstLoop );
+                visitor.visitDegree( type, (int)(outCount+loopCount), (int)(inCount+loopCount) );
             }
         }
         else
@@ -385,38 +483,44 @@ public class DiskLayer implements StoreReadLayer
                 relationshipId + " with startNode:" + startNode + " and endNode:" + endNode );
     }
 
-    private long countByFirstPrevPointer( long nodeId, long relationshipId )
+    private long countByFirstPrevPointer( long nodeId, StoreRecordReads reads, long relationshipId )
     {
         if ( relationshipId == Record.NO_NEXT_RELATIONSHIP.intValue() )
         {
             return 0;
         }
-        RelationshipRecord record = relationshipStore.getRecord( relationshipId );
-        if ( record.getFirstNode() == nodeId )
+        if ( !reads.readRelationship( relationshipId ) )
+        {
+            throw new InvalidRecordException( "RelationshipRecord[" + relationshipId + "] not in use" );
+        }
+        if ( reads.relationshipFirstNode == nodeId )
         {
-            return record.getFirstPrevRel();
+            return reads.relationshipFirstPrevRel;
         }
-        if ( record.getSecondNode() == nodeId )
+        if ( reads.relationshipSecondNode == nodeId )
         {
-            return record.getSecondPrevRel();
+            return reads.relationshipSecondPrevRel;
         }
-        throw new InvalidRecordException( "Node " + nodeId + " neither start nor end node of " + record );
+        throw new InvalidRecordException( "Node " + nodeId + " neither start nor end node of relationship " +
+                relationshipId + " with startNode:" + reads.relationshipFirstNode +
+                " and endNode:" + reads.relationshipSecondNode );
     }
 
     @Override
     public PrimitiveIntIterator nodeGetRelationshipTypes( long nodeId ) throws EntityNotFoundException
     {
-        final NodeRecord node = nodeStore.loadRecord( nodeId, null );
-        if ( node == null )
+        StoreRecordReads reads = recordReads.get();
+        if ( !reads.readNode( nodeId ) )
         {
             throw new EntityNotFoundException( EntityType.NODE, nodeId );
         }
 
-        if ( node.isDense() )
+        if ( reads.nodeDense )
         {
+            final long firstGroupId = reads.nodeFirstRelationship;
             return new PrimitiveIntCollections.PrimitiveIntBaseIterator()
             {
-                private long groupId = node.getNextRel();
+                private long groupId = firstGroupId;
 
                 @Override
                 protected boolean fetchNext()
@@ -426,15 +530,11 @@ public class DiskLayer implements StoreReadLayer
                         return false;
                     }
 
-                    RelationshipGroupRecord group = relationshipGroupStore.getRecord( groupId );
-                    try
-                    {
-                        return next( group.getType() );
-                    }
-                    finally
-                    {
-                        groupId = group.getNext();
-                    }
+                    // Not necessarily consumed by the thread creating it, so get the reads of the current thread
+                    StoreRecordReads reads = recordReads.get();
+                    readGroup( reads, groupId );
+                    groupId = reads.groupNext;
+                    return next( reads.groupType );
                 }
             };
         }
@@ -470,9 +570,89 @@ public class DiskLayer implements StoreReadLayer
     }
 
     @Override
-    public PrimitiveLongIterator nodesGetForLabel( KernelStatement state, int labelId )
+    public PrimitiveLongIterator nodesGetForLabel( KernelStatement state, final int labelId )
     {
-        return state.getLabelScanReader().nodesWithLabel( labelId );
+        PrimitiveLongIterator nodes = state.getLabelScanReader().nodesWithLabel( labelId );
+        if ( snapshot != null )
+        {
+            return nodesInSnapshot( nodes, new LongPredicate()
+            {
+                @Override
+                public boolean test( long nodeId )
+                {
+                    NodeRecord node = nodeInSnapshot( nodeId );
+                    return node != null && hasLabel( node, labelId );
+                }
+            } );
+        }
+        return nodes;
+    }
+
+    /**
+     * Label scans and indexes have no versions, so nodes found in them by a snapshot are only as they were in
+     * that snapshot if they haven't changed since. Nodes that have are left out and instead matched against
+     * their state in the snapshot, i.e. have the label scan or index lookup done on their versions.
+     * The nodes found must come from a label scan or index reader acquired before calling this, since the
+     * changed nodes are collected here, and that reader mustn't see changes of nodes not collected.
+     */
+    private PrimitiveLongIterator nodesInSnapshot( PrimitiveLongIterator found, LongPredicate matchesInSnapshot )
+    {
+        final PrimitiveLongSet changedNodes = snapshot.changedNodes();
+        PrimitiveLongIterator unchanged = PrimitiveLongCollections.filter( found, new LongPredicate()
+        {
+            @Override
+            public boolean test( long nodeId )
+            {
+                return !changedNodes.contains( nodeId );
+            }
+        } );
+        PrimitiveLongIterator changed = PrimitiveLongCollections.filter( changedNodes.iterator(), matchesInSnapshot );
+        return concat( Arrays.asList( unchanged, changed ).iterator() );
+    }
+
+    /**
+     * @return a predicate matching nodes having the label of the index and a property of its key matching
+     * the given predicate, in the snapshot of this view.
+     */
+    private LongPredicate indexedInSnapshot( final IndexDescriptor index, final Predicate<DefinedProperty> matches )
+    {
+        return new LongPredicate()
+        {
+            @Override
+            public boolean test( long nodeId )
+            {
+                NodeRecord node = nodeInSnapshot( nodeId );
+                if ( node == null || !hasLabel( node, index.getLabelId() ) )
+                {
+                    return false;
+                }
+                DefinedProperty property = property( propertiesInSnapshot( node.getNextProp() ),
+                        index.getPropertyKeyId() );
+                return property != null && matches.test( property );
+            }
+        };
+    }
+
+    private PrimitiveLongResourceIterator indexResult( IndexReader reader, PrimitiveLongIterator nodes,
+            IndexDescriptor index, Predicate<DefinedProperty> matches )
+    {
+        if ( snapshot != null )
+        {
+            nodes = nodesInSnapshot( nodes, indexedInSnapshot( index, matches ) );
+        }
+        return resourceIterator( nodes, reader );
+    }
+
+    private boolean hasLabel( NodeRecord node, int labelId )
+    {
+        for ( long label : parseLabelsField( node ).get( nodeStore ) )
+        {
+            if ( label == labelId )
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -489,6 +669,34 @@ public class DiskLayer implements StoreReadLayer
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state,
+                                                                             IndexDescriptor index,
+                                                                             Number lower, boolean includeLower,
+                                                                             Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByString( KernelStatement state,
+                                                                             IndexDescriptor index,
+                                                                             String lower, boolean includeLower,
+                                                                             String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state,
+                                                                             IndexDescriptor index, String prefix )
+            throws IndexNotFoundKernelException
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public IndexDescriptor indexesGetForLabelAndPropertyKey( int labelId, int propertyKey )
     {
@@ -586,15 +794,123 @@ public class DiskLayer implements StoreReadLayer
     @Override
     public boolean nodeExists( long nodeId )
     {
+        if ( snapshot != null )
+        {
+            return nodeInSnapshot( nodeId ) != null;
+        }
         return nodeStore.inUse( nodeId );
     }
 
     @Override
     public boolean relationshipExists( long relationshipId )
     {
+        if ( snapshot != null )
+        {
+            return relationshipInSnapshot( relationshipId, new RelationshipRecord( relationshipId ) ) != null;
+        }
         return relationshipStore.inUse( relationshipId );
     }
 
+    /**
+     * @return the node record, with its dynamic labels loaded, as it is in the snapshot of this view,
+     * or {@code null} if the node isn't in use in it.
+     */
+    private NodeRecord nodeInSnapshot( long nodeId )
+    {
+        // What's in the store is read before asking for a version, since only then is it certain that
+        // if the record has been overwritten by a newer transaction, there will be a version of it
+        NodeRecord record = nodeStore.loadRecord( nodeId, null );
+        InvalidRecordException failure = null;
+        if ( record != null )
+        {
+            try
+            {
+                nodeStore.ensureHeavy( record );
+            }
+            catch ( InvalidRecordException e )
+            {   // The dynamic labels were overwritten while reading them, in which case there's a version
+                failure = e;
+            }
+        }
+        NodeRecord version = snapshot.node( nodeId );
+        if ( version != null )
+        {
+            return version.inUse() ? version : null;
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+        return record;
+    }
+
+    /**
+     * @return the relationship record as it is in the snapshot of this view, either the given record filled
+     * from the store or a version, or {@code null} if the relationship isn't in use in it.
+     */
+    private RelationshipRecord relationshipInSnapshot( long relationshipId, RelationshipRecord record )
+    {
+        boolean inUse = relationshipStore.fillRecord( relationshipId, record, CHECK ) && record.inUse();
+        RelationshipRecord version = snapshot.relationship( relationshipId );
+        if ( version != null )
+        {
+            return version.inUse() ? version : null;
+        }
+        return inUse ? record : null;
+    }
+
+    /**
+     * @return the properties of the property chain starting at the given property record, as they are in
+     * the snapshot of this view.
+     */
+    private IteratingPropertyReceiver propertiesInSnapshot( long nextProp )
+    {
+        IteratingPropertyReceiver receiver = new IteratingPropertyReceiver();
+        while ( nextProp != Record.NO_NEXT_PROPERTY.intValue() )
+        {
+            PropertyRecord record = propertyStore.forceGetRecord( nextProp );
+            InvalidRecordException failure = null;
+            if ( record.inUse() )
+            {
+                try
+                {
+                    for ( PropertyBlock block : record )
+                    {
+                        propertyStore.ensureHeavy( block );
+                    }
+                }
+                catch ( InvalidRecordException e )
+                {   // The values were overwritten while reading them, in which case there's a version
+                    failure = e;
+                }
+            }
+            PropertyRecord version = snapshot.property( nextProp );
+            if ( version != null )
+            {
+                record = version;
+            }
+            else if ( failure != null )
+            {
+                throw failure;
+            }
+            if ( !record.inUse() )
+            {
+                throw new InvalidRecordException( "PropertyRecord[" + nextProp + "] not in use" );
+            }
+
+            // Versions are shared between snapshots and iterating over the blocks of a record isn't thread safe
+            synchronized ( record )
+            {
+                for ( PropertyBlock block : record )
+                {
+                    receiver.receive( block.newPropertyData( propertyStore ), record.getId() );
+                }
+                nextProp = record.getNextProp();
+            }
+        }
+        return receiver;
+    }
+
     @Override
     public Long indexGetOwningUniquenessConstraintId( IndexDescriptor index )
             throws SchemaRuleNotFoundException
@@ -715,9 +1031,7 @@ public class DiskLayer implements StoreReadLayer
     @Override
     public Property relationshipGetProperty( long relationshipId, int propertyKeyId ) throws EntityNotFoundException
     {
-        IteratingPropertyReceiver properties = propertyLoader.relLoadProperties( relationshipId,
-                new IteratingPropertyReceiver() );
-        Property property = property( properties, propertyKeyId );
+        Property property = property( relationshipLoadProperties( relationshipId ), propertyKeyId );
         return property != null ? property : Property.noRelationshipProperty( relationshipId, propertyKeyId );
     }
 
@@ -730,13 +1044,40 @@ public class DiskLayer implements StoreReadLayer
     @Override
     public Property nodeGetProperty( long nodeId, int propertyKeyId ) throws EntityNotFoundException
     {
-        IteratingPropertyReceiver properties = propertyLoader.nodeLoadProperties( nodeId,
-                new IteratingPropertyReceiver() );
-        Property property = property( properties, propertyKeyId );
+        Property property = property( nodeLoadProperties( nodeId ), propertyKeyId );
         return property != null ? property : Property.noNodeProperty( nodeId, propertyKeyId );
     }
 
-    private Property property( IteratingPropertyReceiver properties, int propertyKeyId )
+    private IteratingPropertyReceiver nodeLoadProperties( long nodeId )
+    {
+        if ( snapshot != null )
+        {
+            NodeRecord node = nodeInSnapshot( nodeId );
+            if ( node == null )
+            {
+                throw new InvalidRecordException( "NodeRecord[" + nodeId + "] not in use" );
+            }
+            return propertiesInSnapshot( node.getNextProp() );
+        }
+        return propertyLoader.nodeLoadProperties( nodeId, new IteratingPropertyReceiver() );
+    }
+
+    private IteratingPropertyReceiver relationshipLoadProperties( long relationshipId )
+    {
+        if ( snapshot != null )
+        {
+            RelationshipRecord relationship =
+                    relationshipInSnapshot( relationshipId, new RelationshipRecord( relationshipId ) );
+            if ( relationship == null )
+            {
+                throw new InvalidRecordException( "RelationshipRecord[" + relationshipId + "] not in use" );
+            }
+            return propertiesInSnapshot( relationship.getNextProp() );
+        }
+        return propertyLoader.relLoadProperties( relationshipId, new IteratingPropertyReceiver() );
+    }
+
+    private DefinedProperty property( IteratingPropertyReceiver properties, int propertyKeyId )
     {
         while ( properties.hasNext() )
         {
@@ -753,14 +1094,14 @@ public class DiskLayer implements StoreReadLayer
     public Iterator<DefinedProperty> nodeGetAllProperties( long nodeId )
             throws EntityNotFoundException
     {
-        return propertyLoader.nodeLoadProperties( nodeId, new IteratingPropertyReceiver() );
+        return nodeLoadProperties( nodeId );
     }
 
     @Override
     public Iterator<DefinedProperty> relationshipGetAllProperties( long relationshipId )
             throws EntityNotFoundException
     {
-        return propertyLoader.relLoadProperties( relationshipId, new IteratingPropertyReceiver() );
+        return relationshipLoadProperties( relationshipId );
 //        catch ( InvalidRecordException e )
 //        {
 //            throw new EntityNotFoundException( EntityType.RELATIONSHIP, relationshipId, e );
@@ -786,7 +1127,7 @@ public class DiskLayer implements StoreReadLayer
     }
 
     public PrimitiveLongResourceIterator nodeGetUniqueFromIndexLookup( KernelStatement state,
-            long indexId, Object value )
+            IndexDescriptor index, long indexId, Object value )
             throws IndexNotFoundKernelException
     {
         /* Here we have an intricate scenario where we need to return the PrimitiveLongIterator
@@ -795,21 +1136,91 @@ public class DiskLayer implements StoreReadLayer
          * a fresh reader that isn't associated with the current transaction and hence will not be
          * automatically closed. */
         IndexReader reader = state.getFreshIndexReader( indexId );
-        return resourceIterator( reader.lookup( value ), reader );
+        return indexResult( reader, reader.lookup( value ), index, valueEquals( value ) );
     }
 
-    public PrimitiveLongResourceIterator nodesGetFromIndexLookup( KernelStatement state, long index, Object value )
+    public PrimitiveLongResourceIterator nodesGetFromIndexLookup( KernelStatement state, IndexDescriptor index,
+                                                                  long indexId, Object value )
             throws IndexNotFoundKernelException
     {
-        IndexReader reader = state.getIndexReader( index );
-        return resourceIterator( reader.lookup( value ), reader );
+        IndexReader reader = state.getIndexReader( indexId );
+        return indexResult( reader, reader.lookup( value ), index, valueEquals( value ) );
     }
 
-    public PrimitiveLongResourceIterator nodesGetFromIndexScan( KernelStatement state, long index )
+    public PrimitiveLongResourceIterator nodesGetFromIndexScan( KernelStatement state, IndexDescriptor index,
+                                                                long indexId )
             throws IndexNotFoundKernelException
     {
-        IndexReader reader = state.getIndexReader( index );
-        return resourceIterator( reader.scan(), reader );
+        IndexReader reader = state.getIndexReader( indexId );
+        return indexResult( reader, reader.scan(), index, Predicates.<DefinedProperty>alwaysTrue() );
+    }
+
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state,
+                                                                             IndexDescriptor index, long indexId,
+                                                                             final Number lower,
+                                                                             final boolean includeLower,
+                                                                             final Number upper,
+                                                                             final boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        IndexReader reader = state.getIndexReader( indexId );
+        return indexResult( reader, reader.rangeSeekByNumber( lower, includeLower, upper, includeUpper ), index,
+                new Predicate<DefinedProperty>()
+                {
+                    @Override
+                    public boolean test( DefinedProperty property )
+                    {
+                        return inNumberRange( property.value(), lower, includeLower, upper, includeUpper );
+                    }
+                } );
+    }
+
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByString( KernelStatement state,
+                                                                             IndexDescriptor index, long indexId,
+                                                                             final String lower,
+                                                                             final boolean includeLower,
+                                                                             final String upper,
+                                                                             final boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        IndexReader reader = state.getIndexReader( indexId );
+        return indexResult( reader, reader.rangeSeekByString( lower, includeLower, upper, includeUpper ), index,
+                new Predicate<DefinedProperty>()
+                {
+                    @Override
+                    public boolean test( DefinedProperty property )
+                    {
+                        return inStringRange( property.value(), lower, includeLower, upper, includeUpper );
+                    }
+                } );
+    }
+
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state,
+                                                                             IndexDescriptor index, long indexId,
+                                                                             final String prefix )
+            throws IndexNotFoundKernelException
+    {
+        IndexReader reader = state.getIndexReader( indexId );
+        return indexResult( reader, reader.rangeSeekByPrefix( prefix ), index, new Predicate<DefinedProperty>()
+        {
+            @Override
+            public boolean test( DefinedProperty property )
+            {
+                return hasPrefix( property.value(), prefix );
+            }
+        } );
+    }
+
+    private static Predicate<DefinedProperty> valueEquals( final Object value )
+    {
+        return new Predicate<DefinedProperty>()
+        {
+            @Override
+            public boolean test( DefinedProperty property )
+            {
+                return property.valueEquals( value );
+            }
+        };
     }
 
     @Override
@@ -853,17 +1264,13 @@ public class DiskLayer implements StoreReadLayer
     public <EXCEPTION extends Exception> void relationshipVisit( long relationshipId,
             RelationshipVisitor<EXCEPTION> relationshipVisitor ) throws EntityNotFoundException, EXCEPTION
     {
-        // TODO Please don't create a record for this, it's ridiculous
-        RelationshipRecord record;
-        try
-        {
-            record = relationshipStore.getRecord( relationshipId );
-        }
-        catch ( InvalidRecordException e )
+        StoreRecordReads reads = recordReads.get();
+        if ( !reads.readRelationship( relationshipId ) )
         {
             throw new EntityNotFoundException( EntityType.RELATIONSHIP, relationshipId );
         }
-        relationshipVisitor.visit( relationshipId, record.getType(), record.getFirstNode(), record.getSecondNode() );
+        relationshipVisitor.visit( relationshipId, reads.relationshipType,
+                reads.relationshipFirstNode, reads.relationshipSecondNode );
     }
 
     @Override
@@ -891,6 +1298,14 @@ public class DiskLayer implements StoreReadLayer
                     {
                         try
                         {
+                            if ( snapshot != null )
+                            {
+                                if ( nodeInSnapshot( currentId ) != null )
+                                {
+                                    return next( currentId );
+                                }
+                                continue;
+                            }
                             NodeRecord record = store.loadRecord( currentId, reusableNodeRecord );
                             if ( record != null && record.inUse() )
                             {
@@ -927,6 +1342,7 @@ public class DiskLayer implements StoreReadLayer
             private long highId = store.getHighestPossibleIdInUse();
             private long currentId;
             private final RelationshipRecord reusableRecord = new RelationshipRecord( -1 ); // reused
+            private RelationshipRecord current = reusableRecord;
 
             @Override
             protected boolean fetchNext()
@@ -937,6 +1353,16 @@ public class DiskLayer implements StoreReadLayer
                     {
                         try
                         {
+                            if ( snapshot != null )
+                            {
+                                RelationshipRecord record = relationshipInSnapshot( currentId, reusableRecord );
+                                if ( record != null )
+                                {
+                                    current = record;
+                                    return next( currentId );
+                                }
+                                continue;
+                            }
                             if ( store.fillRecord( currentId, reusableRecord, CHECK ) && reusableRecord.inUse() )
                             {
                                 return next( reusableRecord.getId() );
@@ -965,8 +1391,8 @@ public class DiskLayer implements StoreReadLayer
             public <EXCEPTION extends Exception> boolean relationshipVisit( long relationshipId,
                     RelationshipVisitor<EXCEPTION> visitor ) throws EXCEPTION
             {
-                visitor.visit( relationshipId, reusableRecord.getType(),
-                        reusableRecord.getFirstNode(), reusableRecord.getSecondNode() );
+                visitor.visit( relationshipId, current.getType(),
+                        current.getFirstNode(), current.getSecondNode() );
                 return false;
             }
         };
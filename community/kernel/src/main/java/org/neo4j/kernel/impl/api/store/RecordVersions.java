@@ -0,0 +1,479 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.store;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.graphdb.TransactionFailureException;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+/**
+ * Bounded store of the versions of records that recently applied transactions have overwritten, for
+ * {@link Snapshot snapshots} to see the store as it was after a given transaction, without taking any locks.
+ *
+ * Before a transaction overwrites a node, relationship, relationship group or property record, the record as it
+ * is in the store is {@link #keepNode(long, NodeRecord) kept} in here along with the id of that transaction.
+ * A snapshot reading a record which has been overwritten by transactions newer than the one it pinned reads the
+ * version the oldest of those transactions overwrote, instead of what's in the store. Dynamic label and property
+ * value records are kept loaded in the versions of the records owning them, which is why they need no versions
+ * of their own.
+ *
+ * Versions are only kept while there are open snapshots and only for as long as any snapshot may need them.
+ * If more than the configured number of versions are needed the oldest are dropped anyway, and the snapshots
+ * needing them fail on their next read.
+ */
+public class RecordVersions
+{
+    private final TransactionIdStore transactionIdStore;
+    private final int maxVersions;
+
+    private final VersionedRecords<NodeRecord> nodes = new VersionedRecords<>();
+    private final VersionedRecords<RelationshipRecord> relationships = new VersionedRecords<>();
+    private final VersionedRecords<RelationshipGroupRecord> relationshipGroups = new VersionedRecords<>();
+    private final VersionedRecords<PropertyRecord> properties = new VersionedRecords<>();
+
+    // All kept versions, oldest first, for dropping them in the order they were kept
+    private final Queue<KeptVersion> keptVersions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger keptVersionCount = new AtomicInteger();
+    private final AtomicBoolean dropping = new AtomicBoolean();
+    private volatile long highestDroppedNeededTransactionId = -1;
+
+    // Pinned transaction ids of open snapshots, and how many snapshots with each of them are open
+    private final TreeMap<Long,Integer> pinnedTransactionIds = new TreeMap<>();
+    private final AtomicInteger openSnapshots = new AtomicInteger();
+    private final AtomicLong lastTransactionNotKeepingVersions = new AtomicLong( -1 );
+
+    public RecordVersions( TransactionIdStore transactionIdStore, int maxVersions )
+    {
+        this.transactionIdStore = transactionIdStore;
+        this.maxVersions = maxVersions;
+    }
+
+    /**
+     * Called before a transaction is applied, to decide whether or not it needs to keep versions of
+     * the records it overwrites, which it only needs to while there are open snapshots.
+     */
+    public boolean keepVersionsOf( long transactionId )
+    {
+        if ( openSnapshots.get() > 0 )
+        {
+            return true;
+        }
+
+        // Snapshots opened from here on need to wait for this transaction to be applied before pinning a
+        // transaction id. Check again afterwards, for a snapshot that opened without having seen this.
+        long lastNotKeeping;
+        while ( (lastNotKeeping = lastTransactionNotKeepingVersions.get()) < transactionId &&
+                !lastTransactionNotKeepingVersions.compareAndSet( lastNotKeeping, transactionId ) )
+        {   // Raced with another transaction, try again
+        }
+        return openSnapshots.get() > 0;
+    }
+
+    public void keepNode( long transactionId, NodeRecord record )
+    {
+        keep( nodes, transactionId, record.getId(), record, -1 );
+    }
+
+    public void keepRelationship( long transactionId, RelationshipRecord record )
+    {
+        keep( relationships, transactionId, record.getId(), record, -1 );
+    }
+
+    public void keepRelationshipGroup( long transactionId, RelationshipGroupRecord record )
+    {
+        keep( relationshipGroups, transactionId, record.getId(), record, -1 );
+    }
+
+    /**
+     * @param owningNode id of the node owning the property record, or -1 if it's owned by something else.
+     */
+    public void keepProperty( long transactionId, PropertyRecord record, long owningNode )
+    {
+        keep( properties, transactionId, record.getId(), record, owningNode );
+    }
+
+    private <RECORD> void keep( VersionedRecords<RECORD> records, long transactionId, long id, RECORD record,
+            long owningNode )
+    {
+        if ( records.keep( id, new Version<>( transactionId, record, owningNode, null ) ) )
+        {
+            keptVersions.add( new KeptVersion( records, id, transactionId ) );
+            keptVersionCount.incrementAndGet();
+            dropVersions();
+        }
+    }
+
+    /**
+     * Opens a snapshot of the store as it is after the most recently applied transaction.
+     * The snapshot must be {@link Snapshot#close() closed} when no longer used, so that the versions of
+     * records it needs can be dropped.
+     */
+    public Snapshot openSnapshot()
+    {
+        openSnapshots.incrementAndGet();
+
+        // Transactions that started to apply before the snapshot was counted above may not keep versions
+        // of the records they overwrite, so these must be applied before the snapshot can pin anything
+        long lastNotKeeping = lastTransactionNotKeepingVersions.get();
+        while ( transactionIdStore.getLastClosedTransactionId() < lastNotKeeping )
+        {
+            parkNanos( 100_000 );
+        }
+
+        long transactionId;
+        synchronized ( pinnedTransactionIds )
+        {
+            transactionId = transactionIdStore.getLastClosedTransactionId();
+            Integer count = pinnedTransactionIds.get( transactionId );
+            pinnedTransactionIds.put( transactionId, count == null ? 1 : count + 1 );
+        }
+        return new Snapshot( transactionId );
+    }
+
+    private void closeSnapshot( long transactionId )
+    {
+        synchronized ( pinnedTransactionIds )
+        {
+            int count = pinnedTransactionIds.get( transactionId );
+            if ( count == 1 )
+            {
+                pinnedTransactionIds.remove( transactionId );
+            }
+            else
+            {
+                pinnedTransactionIds.put( transactionId, count - 1 );
+            }
+        }
+        openSnapshots.decrementAndGet();
+        dropVersions();
+    }
+
+    /**
+     * Drops versions that no snapshot needs, or may come to need, anymore, oldest first. If there are more
+     * versions than allowed, versions still needed are dropped as well, failing the snapshots needing them.
+     * Only one thread drops versions at a time, others simply leave it to that thread.
+     */
+    private void dropVersions()
+    {
+        if ( !dropping.compareAndSet( false, true ) )
+        {
+            return;
+        }
+        try
+        {
+            long neededAfter;
+            synchronized ( pinnedTransactionIds )
+            {
+                // Snapshots opened from here on will pin at least the last closed transaction
+                neededAfter = transactionIdStore.getLastClosedTransactionId();
+                if ( !pinnedTransactionIds.isEmpty() )
+                {
+                    neededAfter = Math.min( neededAfter, pinnedTransactionIds.firstKey() );
+                }
+            }
+
+            KeptVersion oldest;
+            while ( (oldest = keptVersions.peek()) != null )
+            {
+                boolean needed = oldest.transactionId > neededAfter;
+                if ( needed )
+                {
+                    if ( keptVersionCount.get() <= maxVersions )
+                    {
+                        break;
+                    }
+                    highestDroppedNeededTransactionId =
+                            Math.max( highestDroppedNeededTransactionId, oldest.transactionId );
+                }
+                keptVersions.poll();
+                keptVersionCount.decrementAndGet();
+                oldest.records.drop( oldest.id, oldest.transactionId );
+            }
+        }
+        finally
+        {
+            dropping.set( false );
+        }
+    }
+
+    /**
+     * The store as it was after a pinned transaction, as far as the records kept in {@link RecordVersions}
+     * go. Readers ask the snapshot for the version of a record after having read it from the store, and use
+     * the version instead if there is one. Schema, counts and graph properties aren't covered by snapshots.
+     */
+    public class Snapshot implements AutoCloseable
+    {
+        private final long transactionId;
+        private boolean closed;
+
+        private Snapshot( long transactionId )
+        {
+            this.transactionId = transactionId;
+        }
+
+        /**
+         * @return id of the transaction this snapshot sees the store as it was after.
+         */
+        public long transactionId()
+        {
+            return transactionId;
+        }
+
+        /**
+         * @return the node record as it was in this snapshot, or {@code null} if what's in the store is.
+         */
+        public NodeRecord node( long id )
+        {
+            return version( nodes, id );
+        }
+
+        /**
+         * @return the relationship record as it was in this snapshot, or {@code null} if what's in the store is.
+         */
+        public RelationshipRecord relationship( long id )
+        {
+            return version( relationships, id );
+        }
+
+        /**
+         * @return the relationship group record as it was in this snapshot, or {@code null} if what's in
+         * the store is.
+         */
+        public RelationshipGroupRecord relationshipGroup( long id )
+        {
+            return version( relationshipGroups, id );
+        }
+
+        /**
+         * @return the property record, with its property values loaded, as it was in this snapshot,
+         * or {@code null} if what's in the store is.
+         */
+        public PropertyRecord property( long id )
+        {
+            return version( properties, id );
+        }
+
+        /**
+         * @return ids of nodes whose records, or properties, have been overwritten after this snapshot.
+         * Anything else is the same in the store as in this snapshot, which is what makes it possible to
+         * use indexes and label scans, which have no versions, for reading a snapshot.
+         */
+        public PrimitiveLongSet changedNodes()
+        {
+            PrimitiveLongSet changed = Primitive.longSet();
+            nodes.collectChangedSince( transactionId, changed, false );
+            properties.collectChangedSince( transactionId, changed, true );
+            assertVersionsKept();
+            return changed;
+        }
+
+        private <RECORD> RECORD version( VersionedRecords<RECORD> records, long id )
+        {
+            RECORD record = records.versionAfter( id, transactionId );
+            assertVersionsKept();
+            return record;
+        }
+
+        private void assertVersionsKept()
+        {
+            if ( transactionId < highestDroppedNeededTransactionId )
+            {
+                throw new TransactionFailureException( "The snapshot of transaction " + transactionId +
+                        " is no longer available, since more than " + maxVersions + " record versions would " +
+                        "have been needed to keep it. Use shorter snapshot transactions, or allow more versions." );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            if ( !closed )
+            {
+                closed = true;
+                closeSnapshot( transactionId );
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Snapshot[" + transactionId + "]";
+        }
+    }
+
+    /**
+     * Versions of the records of one store, by record id. The versions of a record form a list ordered by
+     * the transactions which kept them, oldest first. Lists are never changed, only replaced.
+     */
+    private static class VersionedRecords<RECORD>
+    {
+        private final ConcurrentMap<Long,Version<RECORD>> versions = new ConcurrentHashMap<>();
+
+        /**
+         * @return whether or not the version was kept, which it isn't if the transaction of it already kept
+         * a version of the same record.
+         */
+        boolean keep( long id, Version<RECORD> version )
+        {
+            while ( true )
+            {
+                Version<RECORD> existing = versions.get( id );
+                if ( existing == null )
+                {
+                    if ( versions.putIfAbsent( id, version ) == null )
+                    {
+                        return true;
+                    }
+                }
+                else if ( existing.keptBy( version.transactionId ) )
+                {
+                    return false;
+                }
+                else if ( versions.replace( id, existing, existing.insert( version ) ) )
+                {
+                    return true;
+                }
+            }
+        }
+
+        RECORD versionAfter( long id, long transactionId )
+        {
+            if ( versions.isEmpty() )
+            {
+                return null;
+            }
+            for ( Version<RECORD> version = versions.get( id ); version != null; version = version.newer )
+            {
+                if ( version.transactionId > transactionId )
+                {
+                    return version.record;
+                }
+            }
+            return null;
+        }
+
+        void collectChangedSince( long transactionId, PrimitiveLongSet target, boolean owningNodes )
+        {
+            for ( Map.Entry<Long,Version<RECORD>> entry : versions.entrySet() )
+            {
+                for ( Version<RECORD> version = entry.getValue(); version != null; version = version.newer )
+                {
+                    if ( version.transactionId > transactionId )
+                    {
+                        if ( !owningNodes )
+                        {
+                            target.add( entry.getKey() );
+                            break;
+                        }
+                        if ( version.owningNode != -1 )
+                        {
+                            target.add( version.owningNode );
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Drops the versions of the record kept by the given transaction and any older transactions.
+         */
+        void drop( long id, long transactionId )
+        {
+            while ( true )
+            {
+                Version<RECORD> existing = versions.get( id );
+                if ( existing == null || existing.transactionId > transactionId )
+                {
+                    return;
+                }
+                Version<RECORD> remaining = existing.newer;
+                while ( remaining != null && remaining.transactionId <= transactionId )
+                {
+                    remaining = remaining.newer;
+                }
+                if ( remaining == null ? versions.remove( id, existing ) : versions.replace( id, existing, remaining ) )
+                {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class Version<RECORD>
+    {
+        private final long transactionId;
+        private final RECORD record;
+        private final long owningNode;
+        private final Version<RECORD> newer;
+
+        Version( long transactionId, RECORD record, long owningNode, Version<RECORD> newer )
+        {
+            this.transactionId = transactionId;
+            this.record = record;
+            this.owningNode = owningNode;
+            this.newer = newer;
+        }
+
+        boolean keptBy( long transactionId )
+        {
+            return this.transactionId == transactionId || (newer != null && newer.keptBy( transactionId ));
+        }
+
+        Version<RECORD> insert( Version<RECORD> version )
+        {
+            if ( version.transactionId < transactionId )
+            {
+                return new Version<>( version.transactionId, version.record, version.owningNode, this );
+            }
+            return new Version<>( transactionId, record, owningNode, newer == null ? version : newer.insert( version ) );
+        }
+    }
+
+    private static class KeptVersion
+    {
+        private final VersionedRecords<?> records;
+        private final long id;
+        private final long transactionId;
+
+        KeptVersion( VersionedRecords<?> records, long id, long transactionId )
+        {
+            this.records = records;
+            this.id = id;
+            this.transactionId = transactionId;
+        }
+    }
+}
@@ -19,7 +19,6 @@
  */
 package org.neo4j.kernel.impl.api.store;
 
-import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
@@ -31,7 +30,8 @@ import org.neo4j.register.Register;
  * This is a temporary implementation of the store-layer expand cursor. The purpose of this is to be thrown away and
  * replaced by an implementation that works directly against the store files.
  *
- * As it stands, this delegates to a combination of getRels and visitRel in the store layer to perform it's duties.
+ * As it stands, this delegates to getRels in the store layer to perform it's duties, visiting each relationship
+ * through the returned iterator which already has read the data of it.
  */
 public class StoreExpandCursor implements Cursor
 {
@@ -76,7 +76,7 @@ public class StoreExpandCursor implements Cursor
         }
     };
 
-    private PrimitiveLongIterator relIterator;
+    private RelationshipIterator relIterator;
 
     public StoreExpandCursor( CacheLayer cacheLayer, Cursor inputCursor,
                               NeoRegister.Node.In nodeId, Register.Object.In<int[]> relTypes,
@@ -122,15 +122,8 @@ public class StoreExpandCursor implements Cursor
     {
         long next = relIterator.next();
         relId.write( next );
-        try
-        {
-            store.relationshipVisit( next, neighborFetcher );
-            return true;
-        }
-        catch ( EntityNotFoundException e )
-        {
-            return next();
-        }
+        relIterator.relationshipVisit( next, neighborFetcher );
+        return true;
     }
 
     private boolean nextInputNode()
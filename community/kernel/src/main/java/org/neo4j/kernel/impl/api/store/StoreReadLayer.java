@@ -65,9 +65,19 @@ public interface StoreReadLayer
     RelationshipIterator nodeListRelationships( long nodeId, Direction direction,
             int[] relTypes ) throws EntityNotFoundException;
 
+    /**
+     * Only the {@link Direction#BOTH} degree of a sparse node is a single record read, the length of its
+     * relationship chain is kept in the first relationship of it. Other degrees of a sparse node are counted by
+     * reading its whole relationship chain, which is bounded by the dense node threshold. Degrees of dense nodes
+     * are summed up from the counts kept in their relationship groups, one group per relationship type.
+     */
     int nodeGetDegree( long nodeId, Direction direction )
             throws EntityNotFoundException;
 
+    /**
+     * Counted by reading the whole relationship chain of a sparse node, and by finding the relationship group
+     * of the given type of a dense node. See {@link #nodeGetDegree(long, Direction)}.
+     */
     int nodeGetDegree( long nodeId, Direction direction, int relType )
             throws EntityNotFoundException;
 
@@ -134,6 +144,20 @@ public interface StoreReadLayer
     PrimitiveLongResourceIterator nodesGetFromIndexScan( KernelStatement state, IndexDescriptor index )
             throws IndexNotFoundKernelException;
 
+    PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                                      Number lower, boolean includeLower,
+                                                                      Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByString( KernelStatement state, IndexDescriptor index,
+                                                                      String lower, boolean includeLower,
+                                                                      String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                                      String prefix )
+            throws IndexNotFoundKernelException;
+
     IndexDescriptor indexesGetForLabelAndPropertyKey( int labelId, int propertyKey );
 
     InternalIndexState indexGetState( IndexDescriptor descriptor ) throws IndexNotFoundKernelException;
@@ -197,4 +221,10 @@ public interface StoreReadLayer
     long indexSize( IndexDescriptor descriptor ) throws IndexNotFoundKernelException;
 
     double indexUniqueValuesPercentage( IndexDescriptor descriptor ) throws IndexNotFoundKernelException;
+
+    /**
+     * @return a view of this layer reading nodes and relationships, with their labels and properties, as they are
+     * in the given snapshot. Schema, counts and graph properties are read as they are in the store.
+     */
+    StoreReadLayer snapshotView( RecordVersions.Snapshot snapshot );
 }
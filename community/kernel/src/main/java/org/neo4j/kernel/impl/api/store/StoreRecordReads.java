@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.store;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.store.format.v2_2.NodeStoreFormat_v2_2.NodeRecordCursor;
+import org.neo4j.kernel.impl.store.format.v2_2.RelationshipGroupStoreFormat_v2_2.RelationshipGroupRecordCursor;
+import org.neo4j.kernel.impl.store.format.v2_2.RelationshipStoreFormat_v2_2.RelationshipRecordCursor;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+/**
+ * Reads the fields {@link DiskLayer} needs from node, relationship group and relationship records straight from
+ * the store pages, using record cursors instead of loading records. An instance isn't thread safe and is meant to
+ * be reused by a single thread for all its reads. The fields of the most recently read record of each kind are
+ * kept in here, valid until the next read of the same kind, so callers should copy whatever they need
+ * to keep before reading another record of the same kind.
+ *
+ * The page a record is read from is released right after reading it, such that no page is ever left pinned
+ * by a reader that for some reason doesn't come back.
+ *
+ * Reads for a {@link RecordVersions.Snapshot snapshot} replace the fields read from the store with those of
+ * the version of the record in that snapshot, if it has one.
+ */
+class StoreRecordReads
+{
+    private final NodeRecordCursor nodeCursor;
+    private final RelationshipGroupRecordCursor groupCursor;
+    private final RelationshipRecordCursor relationshipCursor;
+    private final RecordVersions.Snapshot snapshot;
+
+    // Fields of the most recently read node
+    boolean nodeDense;
+    long nodeFirstRelationship;
+
+    // Fields of the most recently read relationship group
+    int groupType;
+    long groupNext;
+    long groupFirstOut;
+    long groupFirstIn;
+    long groupFirstLoop;
+
+    // Fields of the most recently read relationship
+    int relationshipType;
+    long relationshipFirstNode;
+    long relationshipSecondNode;
+    long relationshipFirstPrevRel;
+    long relationshipSecondPrevRel;
+    long relationshipFirstNextRel;
+    long relationshipSecondNextRel;
+
+    /**
+     * @param snapshot the snapshot to read records in, or {@code null} for reading them as they are in the store.
+     */
+    StoreRecordReads( NodeStore nodeStore, RelationshipGroupStore groupStore, RelationshipStore relationshipStore,
+            RecordVersions.Snapshot snapshot )
+    {
+        this.snapshot = snapshot;
+        this.nodeCursor = nodeStore.newRecordCursor();
+        this.groupCursor = groupStore.newRecordCursor();
+        this.relationshipCursor = relationshipStore.newRecordCursor();
+    }
+
+    /**
+     * @return whether or not the node is in use. Only if it is are the node fields of this instance valid.
+     */
+    boolean readNode( long nodeId )
+    {
+        try
+        {
+            boolean inUse = false;
+            if ( nodeCursor.position( nodeId ) )
+            {
+                do
+                {
+                    inUse = nodeCursor.inUse();
+                    nodeDense = nodeCursor.isDense();
+                    nodeFirstRelationship = nodeCursor.firstRelationship();
+                }
+                while ( nodeCursor.shouldRetry() );
+            }
+            NodeRecord version = snapshot != null ? snapshot.node( nodeId ) : null;
+            if ( version != null )
+            {
+                inUse = version.inUse();
+                nodeDense = version.isDense();
+                nodeFirstRelationship = version.getNextRel();
+            }
+            return inUse;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        finally
+        {
+            nodeCursor.close();
+        }
+    }
+
+    /**
+     * @return whether or not the group is in use. Only if it is are the group fields of this instance valid.
+     */
+    boolean readGroup( long groupId )
+    {
+        try
+        {
+            boolean inUse = false;
+            if ( groupCursor.position( groupId ) )
+            {
+                do
+                {
+                    inUse = groupCursor.inUse();
+                    groupType = groupCursor.type();
+                    groupNext = groupCursor.nextGroup();
+                    groupFirstOut = groupCursor.firstOut();
+                    groupFirstIn = groupCursor.firstIn();
+                    groupFirstLoop = groupCursor.firstLoop();
+                }
+                while ( groupCursor.shouldRetry() );
+            }
+            RelationshipGroupRecord version = snapshot != null ? snapshot.relationshipGroup( groupId ) : null;
+            if ( version != null )
+            {
+                inUse = version.inUse();
+                groupType = version.getType();
+                groupNext = version.getNext();
+                groupFirstOut = version.getFirstOut();
+                groupFirstIn = version.getFirstIn();
+                groupFirstLoop = version.getFirstLoop();
+            }
+            return inUse;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        finally
+        {
+            groupCursor.close();
+        }
+    }
+
+    /**
+     * @return whether or not the relationship is in use. Only if it is are the relationship fields of this
+     * instance valid.
+     */
+    boolean readRelationship( long relationshipId )
+    {
+        try
+        {
+            boolean inUse = false;
+            if ( relationshipCursor.position( relationshipId ) )
+            {
+                do
+                {
+                    inUse = relationshipCursor.inUse();
+                    relationshipType = relationshipCursor.type();
+                    relationshipFirstNode = relationshipCursor.firstNode();
+                    relationshipSecondNode = relationshipCursor.secondNode();
+                    relationshipFirstPrevRel = relationshipCursor.firstPrevRel();
+                    relationshipSecondPrevRel = relationshipCursor.secondPrevRel();
+                    relationshipFirstNextRel = relationshipCursor.firstNextRel();
+                    relationshipSecondNextRel = relationshipCursor.secondNextRel();
+                }
+                while ( relationshipCursor.shouldRetry() );
+            }
+            RelationshipRecord version = snapshot != null ? snapshot.relationship( relationshipId ) : null;
+            if ( version != null )
+            {
+                inUse = version.inUse();
+                relationshipType = version.getType();
+                relationshipFirstNode = version.getFirstNode();
+                relationshipSecondNode = version.getSecondNode();
+                relationshipFirstPrevRel = version.getFirstPrevRel();
+                relationshipSecondPrevRel = version.getSecondPrevRel();
+                relationshipFirstNextRel = version.getFirstNextRel();
+                relationshipSecondNextRel = version.getSecondNextRel();
+            }
+            return inUse;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        finally
+        {
+            relationshipCursor.close();
+        }
+    }
+}
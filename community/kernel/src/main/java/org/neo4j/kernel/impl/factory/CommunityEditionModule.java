@@ -87,7 +87,7 @@ public class CommunityEditionModule
 
         lockManager = deps.satisfyDependency( createLockManager( config, logging ) );
 
-        idGeneratorFactory = deps.satisfyDependency( createIdGeneratorFactory() );
+        idGeneratorFactory = deps.satisfyDependency( createIdGeneratorFactory( config ) );
 
         propertyKeyTokenHolder = life.add( deps.satisfyDependency( new PropertyKeyTokenHolder(
                 createPropertyKeyCreator( config, dataSourceManager, idGeneratorFactory ) ) ));
@@ -193,9 +193,9 @@ public class CommunityEditionModule
         return new DefaultKernelData( fileSystem, storeDir, config, graphAPI );
     }
 
-    protected IdGeneratorFactory createIdGeneratorFactory()
+    protected IdGeneratorFactory createIdGeneratorFactory( Config config )
     {
-        return new DefaultIdGeneratorFactory();
+        return new DefaultIdGeneratorFactory( config.get( GraphDatabaseSettings.concurrent_id_generation ) );
     }
 
     public static Locks createLockManager( Config config, LogService logging )
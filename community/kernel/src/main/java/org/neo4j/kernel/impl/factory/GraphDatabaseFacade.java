@@ -310,6 +310,37 @@ public class GraphDatabaseFacade
          }
      }
 
+    /**
+     * Starts a read-only transaction which sees a snapshot of the graph as it is when it starts, for reads that
+     * need a consistent view of the graph without holding up, or being held up by, committing transactions.
+     * Snapshot transactions take no locks, and changes committed after they started aren't visible to them,
+     * with the exception of schema, counts and graph properties. They can't be nested in other transactions.
+     *
+     * @return a new read-only snapshot transaction.
+     */
+    public Transaction beginSnapshotTx()
+    {
+        availabilityGuard.checkAvailability( transactionStartTimeout, TransactionFailureException.class );
+
+        if ( threadToTransactionBridge.getTopLevelTransactionBoundToThisThread( false ) != null )
+        {
+            throw new TransactionFailureException(
+                    "A snapshot transaction can't be started within another transaction" );
+        }
+
+        try
+        {
+            KernelTransaction transaction = kernel.get().newSnapshotTransaction();
+            TopLevelTransaction topLevelTransaction = new TopLevelTransaction( transaction, threadToTransactionBridge );
+            threadToTransactionBridge.bindTransactionToCurrentThread( topLevelTransaction );
+            return topLevelTransaction;
+        }
+        catch ( org.neo4j.kernel.api.exceptions.TransactionFailureException e )
+        {
+            throw new TransactionFailureException( "Failure to begin snapshot transaction", e );
+        }
+    }
+
      @Override
      public Result execute( String query ) throws QueryExecutionException
      {
@@ -26,12 +26,14 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicy;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.logging.Log;
 
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.mapped_memory_page_size;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_policy;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_memory;
 
 public class ConfiguringPageCacheFactory
@@ -64,7 +66,8 @@ public class ConfiguringPageCacheFactory
                 swapperFactory,
                 calculateMaxPages( config ),
                 calculatePageSize( config ),
-                tracer );
+                tracer,
+                calculateEvictionPolicy( config ) );
     }
 
     public int calculateMaxPages( Config config )
@@ -80,6 +83,11 @@ public class ConfiguringPageCacheFactory
         return config.get( mapped_memory_page_size ).intValue();
     }
 
+    public EvictionPolicy calculateEvictionPolicy( Config config )
+    {
+        return EvictionPolicy.valueOf( config.get( pagecache_eviction_policy ).toUpperCase() );
+    }
+
     public void dumpConfiguration( Log log )
     {
         long totalPhysicalMemory = totalPhysicalMemory();
@@ -88,7 +96,8 @@ public class ConfiguringPageCacheFactory
         long pageCacheMb = (calculateMaxPages( config ) * calculatePageSize( config )) / 1024 / 1024;
         String msg = "Physical mem: " + totalPhysicalMemMb + " MiB," +
                      " Heap size: " + maxVmUsageMb + " MiB," +
-                     " Page cache size: " + pageCacheMb + " MiB.";
+                     " Page cache size: " + pageCacheMb + " MiB," +
+                     " Eviction policy: " + config.get( pagecache_eviction_policy ) + ".";
 
         log.info( msg );
     }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.IOException;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheWarmer;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_warmup_mode;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_warmup_threads;
+import static org.neo4j.kernel.impl.util.JobScheduler.Group.pageCacheWarmup;
+
+/**
+ * Warms up the page cache with the pages that were in memory when the store files were last closed, and then keeps
+ * profiling the page cache until the store files are closed again.
+ *
+ * This must start after the store files have been mapped, and stop before they are unmapped. In the blocking mode, the
+ * profiled pages are loaded as part of starting up; otherwise they are loaded in the background. No profiles are
+ * written until the warmup has completed, so an interrupted warmup does not overwrite the profiles with a cold cache.
+ */
+public class PageCacheWarmerLifecycle extends LifecycleAdapter
+{
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final JobScheduler scheduler;
+    private final Config config;
+    private final Log log;
+
+    private PageCacheWarmer warmer;
+    private JobScheduler.JobHandle reheatJob;
+    private JobScheduler.JobHandle profileJob;
+    private volatile boolean reheated;
+
+    public PageCacheWarmerLifecycle( PageCache pageCache, FileSystemAbstraction fs, JobScheduler scheduler,
+            Config config, LogProvider logProvider )
+    {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.scheduler = scheduler;
+        this.config = config;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public void start()
+    {
+        if ( !config.get( pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        if ( !(pageCache instanceof MuninnPageCache) )
+        {
+            log.warn( "Page cache warmup is not supported by " + pageCache + ", and has been disabled." );
+            return;
+        }
+
+        final PageCacheWarmer warmer =
+                new PageCacheWarmer( fs, (MuninnPageCache) pageCache, config.get( pagecache_warmup_threads ) );
+        this.warmer = warmer;
+        reheated = false;
+        Runnable reheat = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                reheat( warmer );
+            }
+        };
+        if ( "blocking".equals( config.get( pagecache_warmup_mode ) ) )
+        {
+            reheat.run();
+        }
+        else
+        {
+            reheatJob = scheduler.schedule( pageCacheWarmup, reheat );
+        }
+
+        long interval = config.get( pagecache_warmup_profiling_interval );
+        profileJob = scheduler.scheduleRecurring( pageCacheWarmup, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if ( reheated )
+                {
+                    profile( warmer );
+                }
+            }
+        }, interval, interval, MILLISECONDS );
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( warmer == null )
+        {
+            return;
+        }
+
+        profileJob.cancel( false );
+        if ( reheated )
+        {
+            // Record the latest contents of the page cache, for the next time the store files are opened.
+            profile( warmer );
+        }
+        warmer.stop();
+        if ( reheatJob != null )
+        {
+            reheatJob.cancel( false );
+            reheatJob = null;
+        }
+        warmer = null;
+    }
+
+    private void reheat( PageCacheWarmer warmer )
+    {
+        long startTime = System.currentTimeMillis();
+        try
+        {
+            long pagesLoaded = warmer.reheat();
+            log.info( "Page cache warmup loaded " + pagesLoaded + " pages in " +
+                      (System.currentTimeMillis() - startTime) + " ms." );
+            reheated = true;
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache warmup failed, and the page cache will warm up as the data is accessed.", e );
+            reheated = true;
+        }
+    }
+
+    private void profile( PageCacheWarmer warmer )
+    {
+        try
+        {
+            warmer.profile();
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to profile the page cache for the page cache warmup.", e );
+        }
+    }
+}
@@ -24,14 +24,15 @@ import java.io.IOException;
 import java.util.Map;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
-import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.DefaultFileSystemAbstraction;
 import org.neo4j.kernel.EmbeddedGraphDatabase;
 import org.neo4j.kernel.GraphDatabaseDependencies;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.record.NeoStoreUtil;
-import org.neo4j.kernel.impl.transaction.log.LogRecoveryCheck;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.LatestCheckPointFinder;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReaderFactory;
 import org.neo4j.logging.LogProvider;
 
 /**
@@ -79,10 +80,9 @@ public class StoreRecoverer
             // then NOT creating a new log file (will be done the next startup)
             return false;
         }
-        try ( StoreChannel logChannel = fs.open( log, "r" ) )
-        {
-            return LogRecoveryCheck.recoveryRequired(logChannel);
-        }
+        LatestCheckPointFinder checkPointFinder =
+                new LatestCheckPointFinder( logFiles, fs, new LogEntryReaderFactory().versionable() );
+        return checkPointFinder.find( currentLogVersion ) != LogPosition.UNSPECIFIED;
     }
 
     public void recover( File dataDir, Map<String, String> params, LogProvider userLogProvider )
@@ -42,6 +42,8 @@ import org.neo4j.kernel.impl.store.id.IdGenerator;
 import org.neo4j.kernel.impl.store.id.IdGeneratorImpl;
 import org.neo4j.kernel.impl.store.id.IdSequence;
 import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.standard.StoreIdGenerator;
+import org.neo4j.kernel.impl.store.standard.StoreToolkit;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.Logger;
@@ -253,6 +255,49 @@ public abstract class CommonAbstractStore implements IdSequence, AutoCloseable
 
     protected abstract int getEffectiveRecordSize();
 
+    /**
+     * @return a {@link StoreToolkit} for reading this store using the record cursors of the corresponding
+     * {@link org.neo4j.kernel.impl.store.standard.StoreFormat}, which then read their fields straight from the pages
+     * of this store. Such cursors only read, so the id generator view of the toolkit only knows about the high id.
+     */
+    protected StoreToolkit newStoreToolkit()
+    {
+        StoreIdGenerator highIdView = new StoreIdGenerator()
+        {
+            @Override
+            public long allocate()
+            {
+                throw new UnsupportedOperationException( "Record cursors don't allocate ids" );
+            }
+
+            @Override
+            public void free( long id )
+            {
+                throw new UnsupportedOperationException( "Record cursors don't free ids" );
+            }
+
+            @Override
+            public long highestIdInUse()
+            {
+                return getHighestPossibleIdInUse();
+            }
+
+            @Override
+            public void setHighestIdInUse( long highId )
+            {
+                throw new UnsupportedOperationException( "Record cursors don't change the high id" );
+            }
+
+            @Override
+            public void rebuild( long highestIdInUse )
+            {
+                throw new UnsupportedOperationException( "Record cursors don't rebuild ids" );
+            }
+        };
+        return new StoreToolkit( getEffectiveRecordSize(), storeFile.pageSize(), getNumberOfReservedLowIds(),
+                null, highIdView );
+    }
+
     /**
      * Note: This method runs before the file has been mapped by the page cache, and therefore needs to
      * operate on the store files directly. This method is called by constructors.
@@ -35,6 +35,8 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.IdType;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.store.format.v2_2.NodeStoreFormat_v2_2;
+import org.neo4j.kernel.impl.store.format.v2_2.NodeStoreFormat_v2_2.NodeRecordCursor;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.Record;
@@ -45,6 +47,7 @@ import org.neo4j.kernel.monitoring.Monitors;
 import static org.neo4j.io.pagecache.PagedFile.PF_EXCLUSIVE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
+import static org.neo4j.kernel.impl.store.format.Store.SF_NO_FLAGS;
 import static org.neo4j.kernel.impl.store.AbstractDynamicStore.readFullByteArrayFromHeavyRecords;
 
 /**
@@ -77,6 +80,8 @@ public class NodeStore extends AbstractRecordStore<NodeRecord> implements Store
     // in_use(byte)+next_rel_id(int)+next_prop_id(int)+labels(5)+extra(byte)
     public static final int RECORD_SIZE = 15;
 
+    private static final NodeStoreFormat_v2_2 FORMAT = new NodeStoreFormat_v2_2();
+
     private DynamicArrayStore dynamicLabelStore;
 
     public NodeStore(
@@ -119,6 +124,16 @@ public class NodeStore extends AbstractRecordStore<NodeRecord> implements Store
         return getRecordSize();
     }
 
+    /**
+     * @return a new cursor reading nodes straight from the pages of this store, without creating records.
+     * The cursor keeps the page it is at pinned until it's {@link NodeRecordCursor#close() closed}, after which it
+     * can be reused.
+     */
+    public NodeRecordCursor newRecordCursor()
+    {
+        return FORMAT.createCursor( storeFile, newStoreToolkit(), SF_NO_FLAGS );
+    }
+
     public void ensureHeavy( NodeRecord node )
     {
         if ( NodeLabelsField.fieldPointsToDynamicRecordOfLabels( node.getLabelField() ) )
@@ -165,6 +165,33 @@ public interface RecordStore<R extends AbstractBaseRecord> extends IdSequence
             }
             progressListener.done();
         }
+
+        /**
+         * Applies this processor to the records with ids in the range {@code [fromId, toId)}, for when a store
+         * is split into id ranges which are processed by different threads. Progress is left to the caller.
+         */
+        public <R extends AbstractBaseRecord> void applyFilteredInRange( RecordStore<R> store,
+                long fromId, long toId, Predicate<? super R>... filters ) throws FAILURE
+        {
+            scan:
+            for ( long id = Math.max( fromId, store.getNumberOfReservedLowIds() ); id < toId; id++ )
+            {
+                if ( shouldStop )
+                {
+                    break;
+                }
+
+                R record = store.forceGetRecord( id );
+                for ( Predicate<? super R> filter : filters )
+                {
+                    if ( !filter.test( record ) )
+                    {
+                        continue scan;
+                    }
+                }
+                store.accept( this, record );
+            }
+        }
     }
 
     static class Scanner
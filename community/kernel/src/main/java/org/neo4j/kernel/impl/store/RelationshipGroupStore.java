@@ -29,6 +29,8 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.IdType;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.store.format.v2_2.RelationshipGroupStoreFormat_v2_2;
+import org.neo4j.kernel.impl.store.format.v2_2.RelationshipGroupStoreFormat_v2_2.RelationshipGroupRecordCursor;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.logging.LogProvider;
@@ -36,6 +38,7 @@ import org.neo4j.kernel.monitoring.Monitors;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EXCLUSIVE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
+import static org.neo4j.kernel.impl.store.format.Store.SF_NO_FLAGS;
 
 public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGroupRecord> implements Store
 {
@@ -48,6 +51,8 @@ public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGrou
     public static final int RECORD_SIZE = 25;
     public static final String TYPE_DESCRIPTOR = "RelationshipGroupStore";
 
+    private static final RelationshipGroupStoreFormat_v2_2 FORMAT = new RelationshipGroupStoreFormat_v2_2();
+
     private int denseNodeThreshold;
 
     public RelationshipGroupStore(
@@ -277,6 +282,16 @@ public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGrou
         return getRecordSize();
     }
 
+    /**
+     * @return a new cursor reading relationship groups straight from the pages of this store, without creating records.
+     * The cursor keeps the page it is at pinned until it's {@link RelationshipGroupRecordCursor#close() closed}, after which it
+     * can be reused.
+     */
+    public RelationshipGroupRecordCursor newRecordCursor()
+    {
+        return FORMAT.createCursor( storeFile, newStoreToolkit(), SF_NO_FLAGS );
+    }
+
     @Override
     public int getRecordSize()
     {
@@ -28,6 +28,8 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.IdType;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.store.format.v2_2.RelationshipStoreFormat_v2_2;
+import org.neo4j.kernel.impl.store.format.v2_2.RelationshipStoreFormat_v2_2.RelationshipRecordCursor;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
@@ -36,6 +38,7 @@ import org.neo4j.kernel.monitoring.Monitors;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EXCLUSIVE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
+import static org.neo4j.kernel.impl.store.format.Store.SF_NO_FLAGS;
 
 /**
  * Implementation of the relationship store.
@@ -55,6 +58,8 @@ public class RelationshipStore extends AbstractRecordStore<RelationshipRecord> i
     // second_next_rel_id+next_prop_id(int)+first-in-chain-markers(1)
     public static final int RECORD_SIZE = 34;
 
+    private static final RelationshipStoreFormat_v2_2 FORMAT = new RelationshipStoreFormat_v2_2();
+
     public RelationshipStore(
             File fileName,
             Config configuration,
@@ -93,6 +98,16 @@ public class RelationshipStore extends AbstractRecordStore<RelationshipRecord> i
         return getRecordSize();
     }
 
+    /**
+     * @return a new cursor reading relationships straight from the pages of this store, without creating records.
+     * The cursor keeps the page it is at pinned until it's {@link RelationshipRecordCursor#close() closed}, after which it
+     * can be reused.
+     */
+    public RelationshipRecordCursor newRecordCursor()
+    {
+        return FORMAT.createCursor( storeFile, newStoreToolkit(), SF_NO_FLAGS );
+    }
+
     @Override
     public RelationshipRecord getRecord( long id )
     {
@@ -160,6 +160,11 @@ public class NodeStoreFormat_v2_2 extends FixedSizeRecordStoreFormat<NodeRecord,
                      cursor.getUnsignedInt( offset + NEXT_REL_BASE ),
                     (cursor.getByte(offset + IN_USE) & 0xEL) << 31 );
         }
+
+        public boolean isDense( PageCursor cursor, int offset )
+        {
+            return (cursor.getByte( offset + EXTRA ) & 0x1) > 0;
+        }
     }
 
     /**
@@ -178,5 +183,14 @@ public class NodeStoreFormat_v2_2 extends FixedSizeRecordStoreFormat<NodeRecord,
         {
             return format.firstRelationship( pageCursor, currentRecordOffset );
         }
+
+        /**
+         * Read whether the node the cursor currently points at is dense, in which case the
+         * {@link #firstRelationship() first relationship} is the id of its first relationship group.
+         */
+        public boolean isDense()
+        {
+            return format.isDense( pageCursor, currentRecordOffset );
+        }
     }
 }
@@ -152,6 +152,39 @@ public class RelationshipGroupStoreFormat_v2_2 extends FixedSizeRecordStoreForma
         {
             return (cursor.getByte( offset + IN_USE ) & 0x1) == 1;
         }
+
+        public int type( PageCursor cursor, int offset )
+        {
+            return cursor.getShort( offset + TYPE );
+        }
+
+        public long next( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + NEXT_LOW_BITS ),
+                    (cursor.getByte( offset + IN_USE ) & 0xEL) << 31 );
+        }
+
+        public long firstOut( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + NEXT_OUT_LOW_BITS ),
+                    (cursor.getByte( offset + IN_USE ) & 0x70L) << 28 );
+        }
+
+        public long firstIn( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + NEXT_IN_LOW_BITS ),
+                    (cursor.getByte( offset + HIGH_BYTE ) & 0xEL) << 31 );
+        }
+
+        public long firstLoop( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + NEXT_LOOP_LOW_BITS ),
+                    (cursor.getByte( offset + HIGH_BYTE ) & 0x70L) << 28 );
+        }
     }
 
     /**
@@ -166,6 +199,34 @@ public class RelationshipGroupStoreFormat_v2_2 extends FixedSizeRecordStoreForma
             super( file, toolkit, format, flags );
         }
 
-        // TODO: Add field-reading methods here to allow traversing rels without creating relationship record objects
+        /** Read the relationship type of the group the cursor currently points at. */
+        public int type()
+        {
+            return format.type( pageCursor, currentRecordOffset );
+        }
+
+        /** Read the id of the next group of the node from the group the cursor currently points at. */
+        public long nextGroup()
+        {
+            return format.next( pageCursor, currentRecordOffset );
+        }
+
+        /** Read the first outgoing relationship from the group the cursor currently points at. */
+        public long firstOut()
+        {
+            return format.firstOut( pageCursor, currentRecordOffset );
+        }
+
+        /** Read the first incoming relationship from the group the cursor currently points at. */
+        public long firstIn()
+        {
+            return format.firstIn( pageCursor, currentRecordOffset );
+        }
+
+        /** Read the first loop relationship from the group the cursor currently points at. */
+        public long firstLoop()
+        {
+            return format.firstLoop( pageCursor, currentRecordOffset );
+        }
     }
 }
@@ -192,6 +192,53 @@ public class RelationshipStoreFormat_v2_2 extends FixedSizeRecordStoreFormat<Rel
         {
             return (cursor.getByte( offset + IN_USE ) & 0x1) == 1;
         }
+
+        public long firstNode( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + FIRST_NODE ),
+                    (cursor.getByte( offset + IN_USE ) & 0xEL) << 31 );
+        }
+
+        public long secondNode( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + SECOND_NODE ),
+                    (cursor.getInt( offset + TYPE ) & 0x70000000L) << 4 );
+        }
+
+        public int type( PageCursor cursor, int offset )
+        {
+            return cursor.getInt( offset + TYPE ) & 0xFFFF;
+        }
+
+        public long firstPrevRel( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + FIRST_PREV_REL ),
+                    (cursor.getInt( offset + TYPE ) & 0xE000000L) << 7 );
+        }
+
+        public long firstNextRel( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + FIRST_NEXT_REL ),
+                    (cursor.getInt( offset + TYPE ) & 0x1C00000L) << 10 );
+        }
+
+        public long secondPrevRel( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + SECOND_PREV_REL ),
+                    (cursor.getInt( offset + TYPE ) & 0x380000L) << 13 );
+        }
+
+        public long secondNextRel( PageCursor cursor, int offset )
+        {
+            return longFromIntAndMod(
+                    cursor.getUnsignedInt( offset + SECOND_NEXT_REL ),
+                    (cursor.getInt( offset + TYPE ) & 0x70000L) << 16 );
+        }
     }
 
     /**
@@ -205,6 +252,52 @@ public class RelationshipStoreFormat_v2_2 extends FixedSizeRecordStoreFormat<Rel
             super( file, toolkit, format, flags );
         }
 
-        // TODO: Add field-reading methods here to allow traversing rels without creating relationship record objects
+        /** Read the start node id from the record the cursor currently points at. */
+        public long firstNode()
+        {
+            return format.firstNode( pageCursor, currentRecordOffset );
+        }
+
+        /** Read the end node id from the record the cursor currently points at. */
+        public long secondNode()
+        {
+            return format.secondNode( pageCursor, currentRecordOffset );
+        }
+
+        /** Read the relationship type from the record the cursor currently points at. */
+        public int type()
+        {
+            return format.type( pageCursor, currentRecordOffset );
+        }
+
+        /**
+         * Read the previous relationship in the start node chain from the record the cursor currently points at.
+         * For the first relationship in the chain this is the length of the chain instead.
+         */
+        public long firstPrevRel()
+        {
+            return format.firstPrevRel( pageCursor, currentRecordOffset );
+        }
+
+        /** Read the next relationship in the start node chain from the record the cursor currently points at. */
+        public long firstNextRel()
+        {
+            return format.firstNextRel( pageCursor, currentRecordOffset );
+        }
+
+        /**
+         * Read the previous relationship in the end node chain from the record the cursor currently points at.
+         * For the first relationship in the chain this is the length of the chain instead.
+         */
+        public long secondPrevRel()
+        {
+            return format.secondPrevRel( pageCursor, currentRecordOffset );
+        }
+
+        /** Read the next relationship in the end node chain from the record the cursor currently points at. */
+        public long secondNextRel()
+        {
+            return format.secondNextRel( pageCursor, currentRecordOffset );
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.id;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+
+import static org.neo4j.kernel.impl.store.id.IdGeneratorImpl.INTEGER_MINUS_ONE;
+
+/**
+ * An {@link IdGenerator} that hands out ids without taking any locks in the common case.
+ * <p>
+ * New ids are handed out from small ranges that each thread reserves for itself, by bumping the high id with a
+ * compare-and-set. Freed ids are kept in lock-free queues. With aggressive reuse, freed ids are handed out again
+ * right away, just like with {@link IdGeneratorImpl}. Without it, they are passed on to the id file in batches, and
+ * can only be reused in the next session.
+ * <p>
+ * The id file itself, and the defragged ids from previous sessions, are managed by an {@link IdGeneratorImpl}, which
+ * is only locked when a batch of defragged ids is read, when a batch of freed ids is written, and on close.
+ * <p>
+ * The ids that remain in the range of a thread that has died are handed out again as soon as another thread first
+ * asks for an id, so threads that come and go don't strand reserved ids. The ids that remain in the thread ranges
+ * when the generator is closed are written to the id file as free ids, so they are not lost. The generator must
+ * therefore only be closed once no other thread is using it anymore.
+ */
+public class ConcurrentIdGenerator implements IdGenerator
+{
+    public static final int DEFAULT_RANGE_SIZE = 64;
+
+    private static final long NO_ID = -1;
+
+    private final IdGeneratorImpl delegate;
+    private final File fileName;
+    private final long max;
+    private final boolean aggressiveReuse;
+    private final int grabSize;
+    private final int rangeSize;
+
+    private final AtomicLong highId;
+    // Bumped when the high id is moved backwards, which invalidates the ranges that threads have reserved so far.
+    private final AtomicInteger rangeGeneration = new AtomicInteger();
+    private final Queue<Range> ranges = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Range> threadRange = new ThreadLocal<Range>()
+    {
+        @Override
+        protected Range initialValue()
+        {
+            reclaimRangesOfDeadThreads();
+            Range range = new Range( Thread.currentThread() );
+            ranges.add( range );
+            return range;
+        }
+    };
+
+    // Ids that can be handed out again in this session.
+    private final Queue<Long> reusableIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reusableIdCount = new AtomicInteger();
+    // Ids freed in this session, that cannot be reused before the next session.
+    private final Queue<Long> releasedIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger releasedIdCount = new AtomicInteger();
+    // Whether the delegate might have more defragged ids for us.
+    private volatile boolean delegateHasDefragIds = true;
+    private volatile boolean closed;
+
+    /**
+     * Opens the id generator represented by {@code fileName}, with the same parameters as
+     * {@link IdGeneratorImpl#IdGeneratorImpl(FileSystemAbstraction, File, int, long, boolean, long)}.
+     *
+     * @param rangeSize the number of new ids that each thread reserves at a time.
+     */
+    public ConcurrentIdGenerator( FileSystemAbstraction fs, File fileName, int grabSize, long max,
+            boolean aggressiveReuse, long highId, int rangeSize )
+    {
+        if ( rangeSize < 1 )
+        {
+            throw new IllegalArgumentException( "Illegal rangeSize: " + rangeSize );
+        }
+        this.delegate = new IdGeneratorImpl( fs, fileName, grabSize, max, aggressiveReuse, highId );
+        this.fileName = fileName;
+        this.max = max;
+        this.aggressiveReuse = aggressiveReuse;
+        this.grabSize = grabSize;
+        this.rangeSize = rangeSize;
+        this.highId = new AtomicLong( delegate.getHighId() );
+    }
+
+    @Override
+    public long nextId()
+    {
+        assertStillOpen();
+        // Taken first, since the first call on a thread reclaims ids from the ranges of dead threads
+        Range range = threadRange.get();
+        long id = nextReusableId();
+        if ( id != NO_ID )
+        {
+            return id;
+        }
+
+        do
+        {
+            if ( range.next == range.end || range.generation != rangeGeneration.get() )
+            {
+                reserve( range );
+            }
+            // Skip the integer -1 (0xFFFFFFFF) because it represents
+            // special values, f.ex. the end of a relationships/property chain.
+            id = range.next++;
+        }
+        while ( id == INTEGER_MINUS_ONE );
+        return id;
+    }
+
+    @Override
+    public IdRange nextIdBatch( int size )
+    {
+        assertStillOpen();
+        long[] defragIds = new long[size];
+        int count = 0;
+        long id;
+        while ( count < size && (id = nextReusableId()) != NO_ID )
+        {
+            defragIds[count++] = id;
+        }
+        if ( count < size )
+        {
+            long[] tmpArray = defragIds;
+            defragIds = new long[count];
+            System.arraycopy( tmpArray, 0, defragIds, 0, count );
+        }
+
+        int sizeLeftForRange = size - count;
+        long start;
+        do
+        {
+            start = highId.get();
+            assertIdWithinCapacity( start + sizeLeftForRange );
+        }
+        while ( !highId.compareAndSet( start, start + sizeLeftForRange ) );
+        return new IdRange( defragIds, start, sizeLeftForRange );
+    }
+
+    private void reserve( Range range )
+    {
+        int generation = rangeGeneration.get();
+        long start;
+        long end;
+        do
+        {
+            start = highId.get();
+            assertIdWithinCapacity( start );
+            // Never reserve beyond the max id, and never overflow when the max is close to Long.MAX_VALUE.
+            end = max - start < rangeSize ? max + 1 : start + rangeSize;
+        }
+        while ( !highId.compareAndSet( start, end ) );
+        range.next = start;
+        range.end = end;
+        range.generation = generation;
+    }
+
+    /**
+     * Makes the ids left in the ranges of threads that have died reusable, and forgets those ranges. Seeing that a
+     * thread is no longer alive also makes everything that thread did to its range visible to us. Removing the range
+     * from {@link #ranges} decides which thread gets to reclaim it, if several sweep at the same time.
+     */
+    private void reclaimRangesOfDeadThreads()
+    {
+        int generation = rangeGeneration.get();
+        for ( Iterator<Range> iterator = ranges.iterator(); iterator.hasNext(); )
+        {
+            Range range = iterator.next();
+            Thread owner = range.get();
+            if ( (owner == null || !owner.isAlive()) && ranges.remove( range ) && range.generation == generation )
+            {
+                int reclaimed = 0;
+                for ( long id = range.next; id < range.end; id++ )
+                {
+                    if ( id != INTEGER_MINUS_ONE )
+                    {
+                        reusableIds.add( id );
+                        reclaimed++;
+                    }
+                }
+                range.next = range.end;
+                reusableIdCount.addAndGet( reclaimed );
+            }
+        }
+    }
+
+    private long nextReusableId()
+    {
+        Long id = reusableIds.poll();
+        if ( id != null )
+        {
+            reusableIdCount.decrementAndGet();
+            return id;
+        }
+        return delegateHasDefragIds ? nextDefragIdFromDelegate() : NO_ID;
+    }
+
+    private long nextDefragIdFromDelegate()
+    {
+        synchronized ( delegate )
+        {
+            // Another thread might have refilled the queue while we waited for the lock.
+            Long id = reusableIds.poll();
+            if ( id != null )
+            {
+                reusableIdCount.decrementAndGet();
+                return id;
+            }
+            if ( !delegateHasDefragIds )
+            {
+                return NO_ID;
+            }
+
+            long[] defragIds = delegate.nextDefragIdBatch( grabSize );
+            if ( defragIds.length == 0 )
+            {
+                delegateHasDefragIds = false;
+                return NO_ID;
+            }
+            for ( int i = 1; i < defragIds.length; i++ )
+            {
+                reusableIds.add( defragIds[i] );
+            }
+            reusableIdCount.addAndGet( defragIds.length - 1 );
+            return defragIds[0];
+        }
+    }
+
+    private void assertIdWithinCapacity( long id )
+    {
+        if ( id > max || id < 0 )
+        {
+            throw new UnderlyingStorageException(
+                    "Id capacity exceeded: " + id + " is not within bounds [0; " + max + "] for " + fileName );
+        }
+    }
+
+    private void assertStillOpen()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "Closed id generator " + fileName );
+        }
+    }
+
+    /**
+     * Sets the next free "high" id. Moving the high id backwards, like when the id generator is rebuilt, makes the
+     * threads drop the ranges of new ids they have reserved so far.
+     */
+    @Override
+    public void setHighId( long id )
+    {
+        assertIdWithinCapacity( id );
+        if ( id < highId.get() )
+        {
+            rangeGeneration.incrementAndGet();
+        }
+        highId.set( id );
+    }
+
+    @Override
+    public long getHighId()
+    {
+        return highId.get();
+    }
+
+    @Override
+    public long getHighestPossibleIdInUse()
+    {
+        return getHighId() - 1;
+    }
+
+    @Override
+    public void freeId( long id )
+    {
+        if ( id == INTEGER_MINUS_ONE )
+        {
+            return;
+        }
+
+        if ( closed )
+        {
+            throw new IllegalStateException( "Generator closed " + fileName );
+        }
+        if ( id < 0 || id >= highId.get() )
+        {
+            throw new IllegalArgumentException( "Illegal id[" + id + "], highId is " + highId.get() );
+        }
+
+        if ( aggressiveReuse )
+        {
+            reusableIds.add( id );
+            if ( reusableIdCount.incrementAndGet() > grabSize )
+            {
+                // Don't keep too many of them in memory; the delegate makes them readable again from the id file.
+                releaseToDelegate( reusableIds, reusableIdCount, grabSize / 2 );
+                delegateHasDefragIds = true;
+            }
+        }
+        else
+        {
+            releasedIds.add( id );
+            if ( releasedIdCount.incrementAndGet() >= grabSize )
+            {
+                releaseToDelegate( releasedIds, releasedIdCount, 0 );
+            }
+        }
+    }
+
+    private void releaseToDelegate( Queue<Long> ids, AtomicInteger idCount, int keep )
+    {
+        synchronized ( delegate )
+        {
+            Long id;
+            while ( idCount.get() > keep && (id = ids.poll()) != null )
+            {
+                idCount.decrementAndGet();
+                if ( id >= delegate.getHighId() )
+                {
+                    // The id came from a range that was reserved after the delegate last saw our high id.
+                    delegate.setHighId( highId.get() );
+                }
+                delegate.freeId( id );
+            }
+        }
+    }
+
+    /**
+     * Closes the id generator, after writing all the ids that were freed, or reserved but not handed out, to the id
+     * file. Must not be called while other threads are still using the generator.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+
+        synchronized ( delegate )
+        {
+            delegate.setHighId( highId.get() );
+            releaseToDelegate( releasedIds, releasedIdCount, 0 );
+            releaseToDelegate( reusableIds, reusableIdCount, 0 );
+            int generation = rangeGeneration.get();
+            for ( Range range : ranges )
+            {
+                if ( range.generation == generation )
+                {
+                    for ( long id = range.next; id < range.end; id++ )
+                    {
+                        delegate.freeId( id );
+                    }
+                    range.next = range.end;
+                }
+            }
+            delegate.close();
+        }
+    }
+
+    @Override
+    public long getNumberOfIdsInUse()
+    {
+        return getHighId() - getDefragCount();
+    }
+
+    @Override
+    public long getDefragCount()
+    {
+        return delegate.getDefragCount() + reusableIdCount.get() + releasedIdCount.get();
+    }
+
+    @Override
+    public void delete()
+    {
+        if ( !closed )
+        {
+            throw new RuntimeException( "Must be closed to delete" );
+        }
+        delegate.delete();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConcurrentIdGenerator " + hashCode() + " [highId=" + highId + ", defragged=" + getDefragCount() +
+               ", fileName=" + fileName + ", max=" + max + ", aggressive=" + aggressiveReuse +
+               ", rangeSize=" + rangeSize + "]";
+    }
+
+    /**
+     * The new ids that a thread has reserved for itself, from {@code next} inclusive to {@code end} exclusive. Only
+     * ever touched by the owning thread, by {@link #close()}, and by the thread that reclaims it once the owning
+     * thread has died. The owning thread is only weakly referenced, so that the range doesn't keep it around.
+     */
+    private static final class Range extends WeakReference<Thread>
+    {
+        long next;
+        long end;
+        int generation = -1;
+
+        Range( Thread owner )
+        {
+            super( owner );
+        }
+    }
+}
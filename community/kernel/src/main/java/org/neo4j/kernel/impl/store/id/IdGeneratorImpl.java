@@ -221,6 +221,21 @@ public class IdGeneratorImpl implements IdGenerator
 
     @Override
     public synchronized IdRange nextIdBatch( int size )
+    {
+        long[] defragIds = nextDefragIdBatch( size );
+        int sizeLeftForRange = size - defragIds.length;
+        long start = highId.get();
+        setHighId( start + sizeLeftForRange );
+        return new IdRange( defragIds, start, sizeLeftForRange );
+    }
+
+    /**
+     * Returns up to {@code size} defragged ids, without touching the high id.
+     *
+     * @param size the maximum number of ids to return.
+     * @return the defragged ids, which are fewer than {@code size} if there aren't enough of them.
+     */
+    synchronized long[] nextDefragIdBatch( int size )
     {
         assertStillOpen();
 
@@ -241,11 +256,7 @@ public class IdGeneratorImpl implements IdGenerator
         long[] tmpArray = defragIds;
         defragIds = new long[count];
         System.arraycopy( tmpArray, 0, defragIds, 0, count );
-
-        int sizeLeftForRange = size - count;
-        long start = highId.get();
-        setHighId( start + sizeLeftForRange );
-        return new IdRange( defragIds, start, sizeLeftForRange );
+        return defragIds;
     }
 
     /**
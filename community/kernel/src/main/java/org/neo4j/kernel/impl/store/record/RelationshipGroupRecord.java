@@ -139,6 +139,15 @@ public class RelationshipGroupRecord extends Abstract64BitRecord
         this.owningNode = owningNode;
     }
 
+    @Override
+    public RelationshipGroupRecord clone()
+    {
+        RelationshipGroupRecord clone = new RelationshipGroupRecord( getId(), type, firstOut, firstIn, firstLoop,
+                owningNode, next, inUse() );
+        clone.setPrev( prev );
+        return clone;
+    }
+
     @Override
     public String toString()
     {
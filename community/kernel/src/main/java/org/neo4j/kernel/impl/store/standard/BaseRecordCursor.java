@@ -79,12 +79,15 @@ public class BaseRecordCursor<RECORD, FORMAT extends RecordFormat<RECORD>> imple
             this.currentRecordId = toolkit.highestKnownId() + 1;
             this.stepSize = -1;
         }
-        this.record = format.newRecord( -1 );
     }
 
     @Override
     public RECORD reusedRecord()
     {
+        if ( record == null )
+        {   // Created on first use, cursors only reading individual fields never need it
+            record = format.newRecord( -1 );
+        }
         format.deserialize( pageCursor, currentRecordOffset, currentRecordId, record );
         return record;
     }
@@ -166,12 +169,17 @@ public class BaseRecordCursor<RECORD, FORMAT extends RecordFormat<RECORD>> imple
         return pageCursor.shouldRetry();
     }
 
+    /**
+     * Releases the page this cursor is at. The cursor can still be {@link #position(long) positioned} again
+     * after this, which is how a cursor is reused.
+     */
     @Override
     public void close()
     {
         if ( pageCursor != null )
         {
             pageCursor.close();
+            pageCursor = null;
         }
     }
 
@@ -54,6 +54,7 @@ public class IndexTransactionApplier extends NeoCommandHandler.Adapter
 {
     private final ValidatedIndexUpdates indexUpdates;
     private List<NodeLabelUpdate> labelUpdates;
+    private List<IndexRule> createdIndexes;
 
     private final IndexingService indexingService;
     private final WorkSync<Provider<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync;
@@ -71,6 +72,12 @@ public class IndexTransactionApplier extends NeoCommandHandler.Adapter
     {
         try
         {
+            if ( createdIndexes != null )
+            {
+                // Have the indexes created by this transaction populated together
+                indexingService.createIndexes( createdIndexes.toArray( new IndexRule[createdIndexes.size()] ) );
+            }
+
             if ( labelUpdates != null )
             {
                 updateLabelScanStore();
@@ -198,7 +205,11 @@ public class IndexTransactionApplier extends NeoCommandHandler.Adapter
                 }
                 break;
             case CREATE:
-                indexingService.createIndex( (IndexRule) command.getSchemaRule() );
+                if ( createdIndexes == null )
+                {
+                    createdIndexes = new ArrayList<>();
+                }
+                createdIndexes.add( (IndexRule) command.getSchemaRule() );
                 break;
             case DELETE:
                 indexingService.dropIndex( (IndexRule) command.getSchemaRule() );
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.impl.api.store.RecordVersions;
+import org.neo4j.kernel.impl.store.NeoStore;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipGroupCommand;
+
+/**
+ * Keeps the records a transaction is about to overwrite in {@link RecordVersions}, for snapshots to read.
+ * Records are read from the store right before being overwritten, rather than taken from the commands, since
+ * not all commands carry the record as it was before, and since dynamic label and property value records
+ * are needed in the versions as well. This must decorate all other store appliers, so that versions are kept
+ * before the store is touched.
+ */
+public class RecordVersioningTransactionApplier extends NeoCommandHandler.Delegator
+{
+    private final NeoStore neoStore;
+    private final RecordVersions recordVersions;
+    private final long transactionId;
+
+    public RecordVersioningTransactionApplier( NeoCommandHandler delegate, NeoStore neoStore,
+            RecordVersions recordVersions, long transactionId )
+    {
+        super( delegate );
+        this.neoStore = neoStore;
+        this.recordVersions = recordVersions;
+        this.transactionId = transactionId;
+    }
+
+    @Override
+    public boolean visitNodeCommand( NodeCommand command ) throws IOException
+    {
+        NodeStore nodeStore = neoStore.getNodeStore();
+        NodeRecord record = nodeStore.forceGetRecord( command.getKey() );
+        nodeStore.ensureHeavy( record );
+        recordVersions.keepNode( transactionId, record );
+        return super.visitNodeCommand( command );
+    }
+
+    @Override
+    public boolean visitRelationshipCommand( RelationshipCommand command ) throws IOException
+    {
+        // Not using forceGetRecord, since it leaves the id unset for records beyond the end of the store
+        RelationshipRecord record = new RelationshipRecord( command.getKey() );
+        neoStore.getRelationshipStore().fillRecord( command.getKey(), record, RecordLoad.FORCE );
+        recordVersions.keepRelationship( transactionId, record );
+        return super.visitRelationshipCommand( command );
+    }
+
+    @Override
+    public boolean visitRelationshipGroupCommand( RelationshipGroupCommand command ) throws IOException
+    {
+        recordVersions.keepRelationshipGroup( transactionId,
+                neoStore.getRelationshipGroupStore().forceGetRecord( command.getKey() ) );
+        return super.visitRelationshipGroupCommand( command );
+    }
+
+    @Override
+    public boolean visitPropertyCommand( PropertyCommand command ) throws IOException
+    {
+        PropertyStore propertyStore = neoStore.getPropertyStore();
+        PropertyRecord record = propertyStore.forceGetRecord( command.getKey() );
+        for ( PropertyBlock block : record )
+        {
+            propertyStore.ensureHeavy( block );
+        }
+        recordVersions.keepProperty( transactionId, record, command.getNodeId() );
+        return super.visitPropertyCommand( command );
+    }
+}
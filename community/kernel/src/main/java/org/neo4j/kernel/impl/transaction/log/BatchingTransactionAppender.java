@@ -66,6 +66,30 @@ class BatchingTransactionAppender implements TransactionAppender
         }
     }
 
+    /**
+     * Per-thread buffer which transactions are serialized into before entering the critical section where they're
+     * appended to the log. That way concurrent committers serialize their transactions in parallel and only the
+     * copying of the serialized bytes, followed by the commit entry which needs the transaction id, is done
+     * one transaction at a time. Transactions too big for the buffer are serialized again, straight into the log,
+     * in the critical section instead, so that the buffers stay small.
+     */
+    private static class TransactionSerializer
+    {
+        final HeapWritableLogChannel buffer = new HeapWritableLogChannel();
+        final IndexCommandDetector indexCommandDetector = new IndexCommandDetector( new CommandWriter( buffer ) );
+        final TransactionLogWriter writer =
+                new TransactionLogWriter( new LogEntryWriterv1( buffer, indexCommandDetector ) );
+
+        void serialize( TransactionRepresentation transaction ) throws IOException
+        {
+            // Reset command writer so that we, after we've written the transaction, can ask it whether or
+            // not any legacy index command was written. If so then there's additional ordering to care about.
+            buffer.clear();
+            indexCommandDetector.reset();
+            writer.serialize( transaction );
+        }
+    }
+
     // For the graph store and schema indexes order-of-updates are managed by the high level entity locks
     // such that changes are applied to the affected records in the same order that they are written to the
     // log. For the legacy indexes there are no such locks, and hence no such ordering. This queue below
@@ -80,7 +104,14 @@ class BatchingTransactionAppender implements TransactionAppender
     private final TransactionIdStore transactionIdStore;
     private final TransactionLogWriter transactionLogWriter;
     private final LogPositionMarker positionMarker = new LogPositionMarker();
-    private final IndexCommandDetector indexCommandDetector;
+    private final ThreadLocal<TransactionSerializer> serializers = new ThreadLocal<TransactionSerializer>()
+    {
+        @Override
+        protected TransactionSerializer initialValue()
+        {
+            return new TransactionSerializer();
+        }
+    };
     private final KernelHealth kernelHealth;
     private final Lock forceLock;
 
@@ -97,8 +128,8 @@ class BatchingTransactionAppender implements TransactionAppender
         this.kernelHealth = kernelHealth;
         this.channel = logFile.getWriter();
         this.transactionMetadataCache = transactionMetadataCache;
-        this.indexCommandDetector = new IndexCommandDetector( new CommandWriter( channel ) );
-        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriterv1( channel, indexCommandDetector ) );
+        this.transactionLogWriter = new TransactionLogWriter(
+                new LogEntryWriterv1( channel, new CommandWriter( channel ) ) );
         forceLock = new ReentrantLock();
     }
 
@@ -114,14 +145,18 @@ class BatchingTransactionAppender implements TransactionAppender
         TransactionCommitment commit;
         try
         {
-            // Synchronized with logFile to get absolute control over concurrent rotations happening
-            synchronized ( logFile )
+            try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
             {
-                try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+                // Serialize outside of the lock, this is the bulk of the work of appending a transaction
+                TransactionSerializer serializer = serializers.get();
+                serializer.serialize( transaction );
+
+                // Synchronized with logFile to get absolute control over concurrent rotations happening
+                synchronized ( logFile )
                 {
                     transactionId = transactionIdStore.nextCommittingTransactionId();
                     phase = 1;
-                    commit = appendToLog( transaction, transactionId );
+                    commit = appendToLog( serializer, transaction, transactionId );
                 }
             }
 
@@ -150,6 +185,9 @@ class BatchingTransactionAppender implements TransactionAppender
         // a checkRotation, which any thread could call at any time. Although that method was added to
         // be able to test a certain thing, so it should go away actually.
 
+        TransactionSerializer serializer = serializers.get();
+        serializer.serialize( transaction );
+
         // Synchronized with logFile to get absolute control over concurrent rotations happening
         synchronized ( logFile )
         {
@@ -160,7 +198,7 @@ class BatchingTransactionAppender implements TransactionAppender
                         "Received " + transaction + " with txId:" + expectedTransactionId +
                         " to be applied, but appending it ended up generating an unexpected txId:" + transactionId );
             }
-            return appendToLog( transaction, transactionId );
+            return appendToLog( serializer, transaction, transactionId );
         }
     }
 
@@ -191,13 +229,9 @@ class BatchingTransactionAppender implements TransactionAppender
      * @return A TransactionCommitment instance with metadata about the committed transaction, such as whether or not this transaction
      * contains any legacy index changes.
      */
-    private TransactionCommitment appendToLog(
+    private TransactionCommitment appendToLog( TransactionSerializer serializer,
             TransactionRepresentation transaction, long transactionId ) throws IOException
     {
-        // Reset command writer so that we, after we've written the transaction, can ask it whether or
-        // not any legacy index command was written. If so then there's additional ordering to care about below.
-        indexCommandDetector.reset();
-
         // The outcome of this try block is either of:
         // a) transaction successfully appended, at which point we return a Commitment to be used after force
         // b) transaction failed to be appended, at which point a kernel panic is issued
@@ -209,8 +243,19 @@ class BatchingTransactionAppender implements TransactionAppender
             LogPosition logPosition;
             synchronized ( channel )
             {
+                // The transaction id is handed out and the transaction written within the same critical section,
+                // which keeps the log position seen by a check point in line with the last committing transaction id
                 logPosition = channel.getCurrentPosition( positionMarker ).newPosition();
-                transactionLogWriter.append( transaction, transactionId );
+                if ( serializer.buffer.hasOverflowed() )
+                {
+                    // Too big to have been kept in the buffer, so serialize it straight into the log instead
+                    transactionLogWriter.serialize( transaction );
+                }
+                else
+                {
+                    serializer.buffer.writeTo( channel );
+                }
+                transactionLogWriter.commit( transaction, transactionId );
             }
 
             long transactionChecksum = checksum(
@@ -219,7 +264,7 @@ class BatchingTransactionAppender implements TransactionAppender
                     transactionId, logPosition, transaction.getMasterId(), transaction.getAuthorId(),
                     transactionChecksum );
 
-            boolean hasLegacyIndexChanges = indexCommandDetector.hasWrittenAnyLegacyIndexCommand();
+            boolean hasLegacyIndexChanges = serializer.indexCommandDetector.hasWrittenAnyLegacyIndexCommand();
             if ( hasLegacyIndexChanges )
             {
                 // Offer this transaction id to the queue so that the legacy index applier can take part in the ordering
@@ -328,6 +373,29 @@ class BatchingTransactionAppender implements TransactionAppender
         LockSupport.parkNanos( this, parkTime );
     }
 
+    @Override
+    public void checkPoint( LogPosition logPosition ) throws IOException
+    {
+        // Synchronized with logFile, so that the check point neither ends up in the middle of a transaction,
+        // nor in the middle of a rotation
+        synchronized ( logFile )
+        {
+            try
+            {
+                synchronized ( channel )
+                {
+                    transactionLogWriter.checkPoint( logPosition );
+                }
+            }
+            catch ( final Throwable panic )
+            {
+                kernelHealth.panic( panic );
+                throw panic;
+            }
+        }
+        force();
+    }
+
     @Override
     public void force() throws IOException
     {
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import static org.neo4j.helpers.Format.KB;
+
+/**
+ * {@link WritableLogChannel} which keeps everything written to it in a heap buffer, growing as needed. Used for
+ * serializing log entries before it's known where in the log they will end up, to later have them
+ * {@link #writeTo(WritableLogChannel) written} to the actual log channel in one go.
+ *
+ * The buffer doesn't grow beyond {@link #MAX_SIZE}. Anything written beyond that makes this channel
+ * {@link #hasOverflowed() overflow}, after which the rest is discarded and the contents have to be written
+ * to the actual log channel some other way.
+ */
+class HeapWritableLogChannel implements WritableLogChannel
+{
+    private static final int INITIAL_SIZE = 4 * KB;
+    static final int MAX_SIZE = 256 * KB;
+
+    private ByteBuffer buffer = ByteBuffer.allocate( INITIAL_SIZE );
+    private boolean overflowed;
+
+    /**
+     * Writes what has been put into this channel since it was last {@link #clear() cleared} to the given channel.
+     */
+    public void writeTo( WritableLogChannel channel ) throws IOException
+    {
+        if ( overflowed )
+        {
+            throw new IllegalStateException( "Contents exceeded " + MAX_SIZE + " bytes and weren't kept" );
+        }
+        channel.put( buffer.array(), buffer.position() );
+    }
+
+    /**
+     * @return whether or not more than {@link #MAX_SIZE} bytes have been put into this channel since it was
+     * last {@link #clear() cleared}.
+     */
+    public boolean hasOverflowed()
+    {
+        return overflowed;
+    }
+
+    public void clear()
+    {
+        buffer.clear();
+        overflowed = false;
+    }
+
+    @Override
+    public WritableLogChannel put( byte value ) throws IOException
+    {
+        if ( hasSpaceFor( 1 ) )
+        {
+            buffer.put( value );
+        }
+        return this;
+    }
+
+    @Override
+    public WritableLogChannel putShort( short value ) throws IOException
+    {
+        if ( hasSpaceFor( 2 ) )
+        {
+            buffer.putShort( value );
+        }
+        return this;
+    }
+
+    @Override
+    public WritableLogChannel putInt( int value ) throws IOException
+    {
+        if ( hasSpaceFor( 4 ) )
+        {
+            buffer.putInt( value );
+        }
+        return this;
+    }
+
+    @Override
+    public WritableLogChannel putLong( long value ) throws IOException
+    {
+        if ( hasSpaceFor( 8 ) )
+        {
+            buffer.putLong( value );
+        }
+        return this;
+    }
+
+    @Override
+    public WritableLogChannel putFloat( float value ) throws IOException
+    {
+        if ( hasSpaceFor( 4 ) )
+        {
+            buffer.putFloat( value );
+        }
+        return this;
+    }
+
+    @Override
+    public WritableLogChannel putDouble( double value ) throws IOException
+    {
+        if ( hasSpaceFor( 8 ) )
+        {
+            buffer.putDouble( value );
+        }
+        return this;
+    }
+
+    @Override
+    public WritableLogChannel put( byte[] value, int length ) throws IOException
+    {
+        if ( hasSpaceFor( length ) )
+        {
+            buffer.put( value, 0, length );
+        }
+        return this;
+    }
+
+    private boolean hasSpaceFor( int spaceInBytes )
+    {
+        if ( overflowed )
+        {
+            return false;
+        }
+        if ( buffer.remaining() < spaceInBytes )
+        {
+            int required = buffer.position() + spaceInBytes;
+            if ( required < 0 || required > MAX_SIZE )
+            {
+                // Too big to keep on the heap, so give up on the contents and keep only the default sized buffer
+                overflowed = true;
+                if ( buffer.capacity() > INITIAL_SIZE )
+                {
+                    buffer = ByteBuffer.allocate( INITIAL_SIZE );
+                }
+                return false;
+            }
+            ByteBuffer grown = ByteBuffer.allocate( min( max( buffer.capacity() * 2, required ), MAX_SIZE ) );
+            buffer.flip();
+            grown.put( buffer );
+            buffer = grown;
+        }
+        return true;
+    }
+
+    @Override
+    public LogPositionMarker getCurrentPosition( LogPositionMarker positionMarker ) throws IOException
+    {
+        // Where in the log the contents of this buffer end up isn't known until it's written there
+        positionMarker.unspecified();
+        return positionMarker;
+    }
+
+    @Override
+    public void emptyBufferIntoChannelAndClearIt() throws IOException
+    {   // Nothing to empty, the contents of this channel are written explicitly using writeTo
+    }
+
+    @Override
+    public void force() throws IOException
+    {   // Nothing to force, this channel lives on the heap only
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+    }
+}
@@ -26,8 +26,8 @@ import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 /**
  * Used to check if a log rotation is needed, and also to execute a log rotation.
  *
- * The implementation also makes sure that stores are forced to disk.
- *
+ * Rotating does not force the stores to disk, that is what
+ * {@link org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer check points} are for.
  */
 public interface LogRotation
 {
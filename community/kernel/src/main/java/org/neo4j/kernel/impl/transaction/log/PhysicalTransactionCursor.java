@@ -25,6 +25,7 @@ import java.util.List;
 
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.entry.CheckPoint;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommand;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
@@ -58,11 +59,16 @@ public class PhysicalTransactionCursor<T extends ReadableLogChannel>
     @Override
     public boolean next() throws IOException
     {
-        LogEntry entry = entryReader.readLogEntry( channel );
-        if ( entry == null )
+        LogEntry entry;
+        do
         {
-            return false;
+            entry = entryReader.readLogEntry( channel );
+            if ( entry == null )
+            {
+                return false;
+            }
         }
+        while ( entry instanceof CheckPoint ); // Check points are written in between transactions
 
         assert entry instanceof LogEntryStart : "Expected Start entry, read " + entry + " instead";
         LogEntryStart startEntry = (LogEntryStart) entry;
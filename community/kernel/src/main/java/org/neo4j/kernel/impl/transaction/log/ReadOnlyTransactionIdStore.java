@@ -49,6 +49,12 @@ public class ReadOnlyTransactionIdStore implements TransactionIdStore
         throw new UnsupportedOperationException( "Read-only transaction ID store" );
     }
 
+    @Override
+    public long getLastCommittingTransactionId()
+    {
+        return transactionId;
+    }
+
     @Override
     public void transactionCommitted( long transactionId, long checksum )
     {
@@ -78,4 +78,14 @@ public interface TransactionAppender
      * @throws IOException if there was any problem forcing.
      */
     void force() throws IOException;
+
+    /**
+     * Appends a {@link org.neo4j.kernel.impl.transaction.log.entry.CheckPoint check point} to the log, saying that
+     * all transactions before the given position have been applied to the store, and that the store has been
+     * forced, and then forces the log. The check point is never appended in the middle of a transaction.
+     *
+     * @param logPosition the position in the log from where recovery will have to start.
+     * @throws IOException if there was a problem appending the check point, or forcing the log.
+     */
+    void checkPoint( LogPosition logPosition ) throws IOException;
 }
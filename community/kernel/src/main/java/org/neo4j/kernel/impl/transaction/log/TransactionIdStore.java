@@ -50,6 +50,12 @@ public interface TransactionIdStore
      */
     long nextCommittingTransactionId();
 
+    /**
+     * @return the transaction id last returned from {@link #nextCommittingTransactionId()}, whether or not that
+     * transaction has been {@link #transactionCommitted(long, long) committed} yet.
+     */
+    long getLastCommittingTransactionId();
+
     /**
      * Signals that a transaction with the given transaction id has been committed (i.e. appended to a log).
      * Calls to this method may come in out-of-transaction-id order. The highest gap-free transaction id
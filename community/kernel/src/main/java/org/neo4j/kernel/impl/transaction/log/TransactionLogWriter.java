@@ -34,6 +34,16 @@ public class TransactionLogWriter
     }
 
     public void append( TransactionRepresentation transaction, long transactionId ) throws IOException
+    {
+        serialize( transaction );
+        commit( transaction, transactionId );
+    }
+
+    /**
+     * Writes the start entry and commands of a transaction, i.e. all of it except the commit entry
+     * which needs the transaction id.
+     */
+    public void serialize( TransactionRepresentation transaction ) throws IOException
     {
         writer.writeStartEntry( transaction.getMasterId(), transaction.getAuthorId(),
                 transaction.getTimeStarted(), transaction.getLatestCommittedTxWhenStarted(),
@@ -41,8 +51,16 @@ public class TransactionLogWriter
 
         // Write all the commands to the log channel
         writer.serialize( transaction );
+    }
 
+    public void commit( TransactionRepresentation transaction, long transactionId ) throws IOException
+    {
         // Write commit record
         writer.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
     }
+
+    public void checkPoint( LogPosition logPosition ) throws IOException
+    {
+        writer.writeCheckPointEntry( logPosition );
+    }
 }
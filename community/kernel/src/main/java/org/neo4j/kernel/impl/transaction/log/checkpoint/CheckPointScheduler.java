@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.neo4j.kernel.impl.util.JobScheduler.Group.checkPoint;
+
+/**
+ * Regularly asks the {@link CheckPointer} to check point, if its {@link CheckPointThreshold} has been reached.
+ */
+public class CheckPointScheduler extends LifecycleAdapter
+{
+    /**
+     * How often to look at the threshold. The time threshold is typically much longer than this, but the transaction
+     * count threshold can be reached at any time.
+     */
+    public static final long DEFAULT_CHECK_INTERVAL_MILLIS = 10_000;
+
+    private final CheckPointer checkPointer;
+    private final JobScheduler scheduler;
+    private final long checkIntervalMillis;
+    private final Log log;
+    private JobScheduler.JobHandle handle;
+
+    public CheckPointScheduler( CheckPointer checkPointer, JobScheduler scheduler, long checkIntervalMillis,
+            LogProvider logProvider )
+    {
+        this.checkPointer = checkPointer;
+        this.scheduler = scheduler;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public void start()
+    {
+        handle = scheduler.scheduleRecurring( checkPoint, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    checkPointer.checkPointIfNeeded();
+                }
+                catch ( IOException e )
+                {
+                    log.error( "Check point failed, and will be retried later.", e );
+                }
+            }
+        }, checkIntervalMillis, checkIntervalMillis, MILLISECONDS );
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( handle != null )
+        {
+            handle.cancel( false );
+            handle = null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.neo4j.helpers.Clock;
+
+/**
+ * Decides when it is time for a check point: when a given number of transactions have committed since the last one,
+ * or when a given amount of time has passed since the last one and at least one transaction has committed since.
+ */
+public class CheckPointThreshold
+{
+    private final int transactionInterval;
+    private final long timeIntervalMillis;
+    private final Clock clock;
+
+    private volatile long lastCheckPointedTransactionId;
+    private volatile long lastCheckPointTimeMillis;
+
+    public CheckPointThreshold( int transactionInterval, long timeIntervalMillis, Clock clock )
+    {
+        this.transactionInterval = transactionInterval;
+        this.timeIntervalMillis = timeIntervalMillis;
+        this.clock = clock;
+    }
+
+    public boolean isCheckPointingNeeded( long lastCommittedTransactionId )
+    {
+        long transactionsSinceCheckPoint = lastCommittedTransactionId - lastCheckPointedTransactionId;
+        if ( transactionsSinceCheckPoint <= 0 )
+        {
+            return false;
+        }
+        return transactionsSinceCheckPoint >= transactionInterval ||
+               clock.currentTimeMillis() - lastCheckPointTimeMillis >= timeIntervalMillis;
+    }
+
+    public void checkPointHappened( long transactionId )
+    {
+        lastCheckPointedTransactionId = transactionId;
+        lastCheckPointTimeMillis = clock.currentTimeMillis();
+    }
+}
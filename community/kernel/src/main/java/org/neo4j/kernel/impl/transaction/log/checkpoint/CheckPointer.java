@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.IOException;
+
+/**
+ * Flushes the store files, and then writes a {@link org.neo4j.kernel.impl.transaction.log.entry.CheckPoint} into
+ * the transaction log, pointing at the position from which recovery needs to start. Transactions keep committing
+ * while the store files are being flushed.
+ */
+public interface CheckPointer
+{
+    long NO_CHECK_POINT = -1;
+
+    /**
+     * Performs a check point, but only if the {@link CheckPointThreshold} says that it is time for one.
+     *
+     * @return the id of the last transaction covered by the check point, or {@link #NO_CHECK_POINT} if no check point
+     * was performed.
+     * @throws IOException if flushing the store files, or writing the check point, failed.
+     */
+    long checkPointIfNeeded() throws IOException;
+
+    /**
+     * Performs a check point, whether or not the {@link CheckPointThreshold} says that it is time for one.
+     *
+     * @return the id of the last transaction covered by the check point, or {@link #NO_CHECK_POINT} if the check
+     * pointer has been stopped.
+     * @throws IOException if flushing the store files, or writing the check point, failed.
+     */
+    long forceCheckPoint() throws IOException;
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.kernel.KernelHealth;
+import org.neo4j.kernel.impl.transaction.log.LogFile;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.LogRotationControl;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.WritableLogChannel;
+import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+
+/**
+ * Performs check points while transactions keep committing. A check point goes like this:
+ * <ol>
+ * <li>Under the log file monitor, which keeps out appenders, note the current position of the log, and the id of
+ * the last transaction appended before it.</li>
+ * <li>Without holding any monitor, wait for that transaction, and all before it, to be closed, and then flush the
+ * store files. Transactions committing in the meantime might also be flushed, which is fine since applying a
+ * transaction again during recovery is harmless.</li>
+ * <li>Write a check point entry with the noted position into the log, and prune the log files before it.</li>
+ * </ol>
+ * A check point is performed when starting, so that there always is one to recover from, and when stopping, so that
+ * there is nothing to recover on the next start. The final check point is performed while the data source holds the
+ * log file monitor, so it does not wait for any check point in progress, which might be waiting for that same monitor.
+ * Such a check point instead gives up, when it eventually gets the monitor and finds that the check pointer has been
+ * stopped.
+ */
+public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
+{
+    private final TransactionIdStore transactionIdStore;
+    private final CheckPointThreshold threshold;
+    private final LogRotationControl storeFlusher;
+    private final LogicalTransactionStore logicalTransactionStore;
+    private final LogFile logFile;
+    private final LogPruning logPruning;
+    private final KernelHealth kernelHealth;
+    private final Log msgLog;
+    private final Lock checkPointLock = new ReentrantLock();
+    private final LogPositionMarker positionMarker = new LogPositionMarker();
+    private volatile boolean stopped = true;
+
+    public CheckPointerImpl( TransactionIdStore transactionIdStore, CheckPointThreshold threshold,
+            LogRotationControl storeFlusher, LogicalTransactionStore logicalTransactionStore, LogFile logFile,
+            LogPruning logPruning, KernelHealth kernelHealth, LogProvider logProvider )
+    {
+        this.transactionIdStore = transactionIdStore;
+        this.threshold = threshold;
+        this.storeFlusher = storeFlusher;
+        this.logicalTransactionStore = logicalTransactionStore;
+        this.logFile = logFile;
+        this.logPruning = logPruning;
+        this.kernelHealth = kernelHealth;
+        this.msgLog = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public void start() throws IOException
+    {
+        stopped = false;
+        forceCheckPoint();
+    }
+
+    @Override
+    public void stop() throws IOException
+    {
+        try
+        {
+            doCheckPoint( "database shutdown", true );
+        }
+        finally
+        {
+            stopped = true;
+        }
+    }
+
+    @Override
+    public long checkPointIfNeeded() throws IOException
+    {
+        checkPointLock.lock();
+        try
+        {
+            if ( threshold.isCheckPointingNeeded( transactionIdStore.getLastCommittedTransactionId() ) )
+            {
+                return doCheckPoint( "scheduled", false );
+            }
+            return NO_CHECK_POINT;
+        }
+        finally
+        {
+            checkPointLock.unlock();
+        }
+    }
+
+    @Override
+    public long forceCheckPoint() throws IOException
+    {
+        checkPointLock.lock();
+        try
+        {
+            return doCheckPoint( "forced", false );
+        }
+        finally
+        {
+            checkPointLock.unlock();
+        }
+    }
+
+    private long doCheckPoint( String trigger, boolean last ) throws IOException
+    {
+        LogPosition logPosition;
+        long lastAppendedTransactionId;
+        synchronized ( logFile )
+        {
+            if ( stopped )
+            {
+                return NO_CHECK_POINT;
+            }
+            WritableLogChannel writer = logFile.getWriter();
+            synchronized ( writer )
+            {
+                logPosition = writer.getCurrentPosition( positionMarker ).newPosition();
+            }
+            lastAppendedTransactionId = transactionIdStore.getLastCommittingTransactionId();
+        }
+
+        msgLog.info( "Check point (" + trigger + ") at " + logPosition + " for transaction " +
+                     lastAppendedTransactionId + ": starting store flush." );
+        awaitTransactionsClosed( lastAppendedTransactionId );
+        storeFlusher.forceEverything();
+        kernelHealth.assertHealthy( IOException.class );
+
+        synchronized ( logFile )
+        {
+            if ( stopped )
+            {
+                return NO_CHECK_POINT;
+            }
+            logicalTransactionStore.getAppender().checkPoint( logPosition );
+            if ( last )
+            {
+                stopped = true;
+            }
+        }
+        threshold.checkPointHappened( lastAppendedTransactionId );
+        msgLog.info( "Check point (" + trigger + ") at " + logPosition + " for transaction " +
+                     lastAppendedTransactionId + ": completed." );
+
+        logPruning.pruneLogs( logPosition.getLogVersion() );
+        return lastAppendedTransactionId;
+    }
+
+    private void awaitTransactionsClosed( long transactionId ) throws IOException
+    {
+        while ( transactionIdStore.getLastClosedTransactionId() < transactionId )
+        {
+            // A transaction that fails to be applied panics the kernel, and might then never be closed
+            kernelHealth.assertHealthy( IOException.class );
+            LockSupport.parkNanos( 1_000_000 ); // 1 ms
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.IOException;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
+import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadableVersionableLogChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.CheckPoint;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel.DEFAULT_READ_AHEAD_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+
+/**
+ * Finds the position in the transaction log that recovery needs to start from, by looking for the latest
+ * {@link CheckPoint}, from the newest log file and backwards. Recovery is only needed if there is a transaction
+ * at or after the position that check point points at.
+ * <p>
+ * Logs written before check points were introduced have none. Back then the store was flushed on every rotation,
+ * so only the transactions in the newest log file need recovery.
+ */
+public class LatestCheckPointFinder
+{
+    private final PhysicalLogFiles logFiles;
+    private final FileSystemAbstraction fileSystem;
+    private final LogEntryReader<ReadableVersionableLogChannel> logEntryReader;
+
+    public LatestCheckPointFinder( PhysicalLogFiles logFiles, FileSystemAbstraction fileSystem,
+            LogEntryReader<ReadableVersionableLogChannel> logEntryReader )
+    {
+        this.logFiles = logFiles;
+        this.fileSystem = fileSystem;
+        this.logEntryReader = logEntryReader;
+    }
+
+    /**
+     * @param fromVersion the newest log version.
+     * @return the position to start recovery from, or {@link LogPosition#UNSPECIFIED} if no recovery is needed.
+     * @throws IOException if the log files could not be read.
+     */
+    public LogPosition find( long fromVersion ) throws IOException
+    {
+        LogPositionMarker marker = new LogPositionMarker();
+        LogPosition newestStart = null;
+        CheckPoint latestCheckPoint = null;
+        for ( long version = fromVersion; version >= 0 && logFiles.versionExists( version ); version-- )
+        {
+            try ( ReadableVersionableLogChannel channel = new ReadAheadLogChannel(
+                    PhysicalLogFile.openForVersion( logFiles, fileSystem, version ), NO_MORE_CHANNELS,
+                    DEFAULT_READ_AHEAD_SIZE ) )
+            {
+                LogPosition newestStartInFile = null;
+                LogEntry entry;
+                while ( (entry = readLogEntry( channel, marker )) != null )
+                {
+                    if ( entry instanceof CheckPoint )
+                    {
+                        latestCheckPoint = entry.as();
+                    }
+                    else if ( entry instanceof LogEntryStart )
+                    {
+                        newestStartInFile = marker.newPosition();
+                    }
+                }
+                if ( newestStart == null )
+                {
+                    newestStart = newestStartInFile;
+                }
+            }
+
+            if ( latestCheckPoint != null )
+            {
+                LogPosition checkPointPosition = latestCheckPoint.getLogPosition();
+                return newestStart != null && !isBefore( newestStart, checkPointPosition )
+                       ? checkPointPosition
+                       : LogPosition.UNSPECIFIED;
+            }
+        }
+
+        // No check point anywhere, so the logs were written before there were check points
+        return newestStart != null && newestStart.getLogVersion() == fromVersion
+               ? new LogPosition( fromVersion, LOG_HEADER_SIZE )
+               : LogPosition.UNSPECIFIED;
+    }
+
+    private LogEntry readLogEntry( ReadableVersionableLogChannel channel, LogPositionMarker marker )
+            throws IOException
+    {
+        channel.getCurrentPosition( marker );
+        return logEntryReader.readLogEntry( channel );
+    }
+
+    private static boolean isBefore( LogPosition position, LogPosition other )
+    {
+        return position.getLogVersion() < other.getLogVersion() ||
+               (position.getLogVersion() == other.getLogVersion() &&
+                position.getByteOffset() < other.getByteOffset());
+    }
+}
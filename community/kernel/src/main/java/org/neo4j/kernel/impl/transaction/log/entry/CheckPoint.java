@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.impl.transaction.command.LogHandler;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.CHECK_POINT;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersions.CURRENT_LOG_ENTRY_VERSION;
+
+/**
+ * Marks that everything in the log before {@link #getLogPosition()} has been applied to, and forced in, the store
+ * and the indexes. Recovery only needs to replay the transactions that come after the position of the latest check
+ * point.
+ */
+public class CheckPoint extends AbstractLogEntry
+{
+    private final LogPosition logPosition;
+
+    public CheckPoint( LogPosition logPosition )
+    {
+        this( CURRENT_LOG_ENTRY_VERSION, logPosition );
+    }
+
+    public CheckPoint( byte version, LogPosition logPosition )
+    {
+        super( CHECK_POINT, version );
+        this.logPosition = logPosition;
+    }
+
+    public LogPosition getLogPosition()
+    {
+        return logPosition;
+    }
+
+    @Override
+    public void accept( LogHandler handler ) throws IOException
+    {
+        // Check points are not part of any transaction, so there is nothing to hand over
+    }
+
+    @Override
+    public <T extends LogEntry> T as()
+    {
+        return (T) this;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CheckPoint[position=" + logPosition + "]";
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        return logPosition.equals( ((CheckPoint) o).logPosition );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return logPosition.hashCode();
+    }
+}
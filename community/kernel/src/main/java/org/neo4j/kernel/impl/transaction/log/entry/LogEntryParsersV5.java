@@ -129,6 +129,30 @@ public enum LogEntryParsersV5 implements LogEntryParser<LogEntry>
                     return LogEntryByteCodes.TX_1P_COMMIT;
                 }
 
+                @Override
+                public boolean skip()
+                {
+                    return false;
+                }
+            },
+
+    CHECK_POINT
+            {
+                @Override
+                public LogEntry parse( byte version, ReadableLogChannel channel, LogPositionMarker marker,
+                                       CommandReaderFactory commandReaderFactory ) throws IOException
+                {
+                    long logVersion = channel.getLong();
+                    long byteOffset = channel.getLong();
+                    return new CheckPoint( version, new LogPosition( logVersion, byteOffset ) );
+                }
+
+                @Override
+                public byte byteCode()
+                {
+                    return LogEntryByteCodes.CHECK_POINT;
+                }
+
                 @Override
                 public boolean skip()
                 {
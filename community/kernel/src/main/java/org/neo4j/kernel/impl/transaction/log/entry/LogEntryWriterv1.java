@@ -25,8 +25,10 @@ import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.impl.transaction.command.NeoCommandHandler;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.WritableLogChannel;
 
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.CHECK_POINT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.COMMAND;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.TX_1P_COMMIT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.TX_START;
@@ -73,6 +75,13 @@ public class LogEntryWriterv1 implements LogEntryWriter
         channel.putLong( transactionId ).putLong( timeWritten );
     }
 
+    @Override
+    public void writeCheckPointEntry( LogPosition logPosition ) throws IOException
+    {
+        writeLogEntryHeader( CHECK_POINT );
+        channel.putLong( logPosition.getLogVersion() ).putLong( logPosition.getByteOffset() );
+    }
+
     @Override
     public void serialize( TransactionRepresentation tx ) throws IOException
     {
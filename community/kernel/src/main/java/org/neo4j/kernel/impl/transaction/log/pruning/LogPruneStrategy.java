@@ -21,5 +21,9 @@ package org.neo4j.kernel.impl.transaction.log.pruning;
 
 public interface LogPruneStrategy
 {
-    void prune();
+    /**
+     * Prunes log files that are no longer needed, among those with a version lower than {@code upToLogVersion}.
+     * Log files from that version and onwards are needed for recovery, and are never pruned.
+     */
+    void prune( long upToLogVersion );
 }
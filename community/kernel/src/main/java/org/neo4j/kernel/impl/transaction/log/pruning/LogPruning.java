@@ -22,16 +22,15 @@ package org.neo4j.kernel.impl.transaction.log.pruning;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-import org.neo4j.kernel.impl.transaction.log.LogRotation;
+import org.neo4j.kernel.impl.transaction.log.LogRotation.PrintFormat;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
-import org.neo4j.kernel.impl.transaction.log.LogRotation.PrintFormat;
 
 /**
- * This class listens for rotations and does log pruning.
+ * This class does log pruning after check points. Only log files older than the one the latest check point points
+ * into can be pruned, since the rest are needed for recovery.
  */
 public class LogPruning
-    implements LogRotation.Monitor
 {
     private final Lock pruneLock = new ReentrantLock();
     private final LogPruneStrategy pruneStrategy;
@@ -43,13 +42,10 @@ public class LogPruning
         msgLog = logProvider.getLog( getClass() );
     }
 
-    @Override
-    public void startedRotating( long currentVersion )
-    {
-    }
-
-    @Override
-    public void finishedRotating( long currentVersion )
+    /**
+     * Prunes the log files with a version lower than {@code upToLogVersion}, as far as the prune strategy allows.
+     */
+    public void pruneLogs( long upToLogVersion )
     {
         // Only one is allowed to do pruning at any given time,
         // and it's OK to skip pruning if another one is doing so right now.
@@ -58,18 +54,18 @@ public class LogPruning
             Thread thread = Thread.currentThread();
             String threadStr = "[" + thread.getId() + ":" + thread.getName() + "]";
 
-            msgLog.info( PrintFormat.prefix( currentVersion ) + threadStr + " Starting log pruning." );
+            msgLog.info( PrintFormat.prefix( upToLogVersion ) + threadStr + " Starting log pruning." );
 
             try
             {
-                pruneStrategy.prune();
+                pruneStrategy.prune( upToLogVersion );
             }
             finally
             {
                 pruneLock.unlock();
             }
 
-            msgLog.info( PrintFormat.prefix( currentVersion ) + threadStr + " Log pruning complete." );
+            msgLog.info( PrintFormat.prefix( upToLogVersion ) + threadStr + " Log pruning complete." );
         }
     }
 }
@@ -51,6 +51,9 @@ import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.register.Register.DoubleLongRegister;
 
+import static java.lang.Math.max;
+
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.range;
 import static org.neo4j.kernel.api.index.NodePropertyUpdate.EMPTY_LONG_ARRAY;
 import static org.neo4j.kernel.api.labelscan.NodeLabelUpdate.labelChanges;
 import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
@@ -150,32 +153,43 @@ public class NeoStoreIndexStoreView implements IndexStoreView
             @Override
             protected Update read( NodeRecord node )
             {
-                long[] labels = parseLabelsField( node ).get( nodeStore );
-                Update update = new Update( node.getId(), labels );
-                if ( !containsAnyLabel( labelIds, labels ) )
-                {
-                    return update;
-                }
-                properties: for ( PropertyBlock property : properties( node ) )
+                return readUpdate( node, labelIds, propertyKeyIds );
+            }
+
+            @Override
+            protected void process( Update update ) throws FAILURE
+            {
+                labelUpdateVisitor.visit( update.labels );
+                for ( NodePropertyUpdate propertyUpdate : update )
                 {
-                    int propertyKeyId = property.getKeyIndexId();
-                    for ( int sought : propertyKeyIds )
-                    {
-                        if ( propertyKeyId == sought )
-                        {
-                            update.add( NodePropertyUpdate
-                                                .add( node.getId(), propertyKeyId, valueOf( property ), labels ) );
-                            continue properties;
-                        }
-                    }
+                    propertyUpdateVisitor.visit( propertyUpdate );
                 }
-                return update;
+            }
+        };
+    }
+
+    @Override
+    public <FAILURE extends Exception> StoreScan<FAILURE> visitNodesInRange(
+            final int[] labelIds, final int[] propertyKeyIds, final long fromNodeId, final long toNodeId,
+            final Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor )
+    {
+        return new NodeStoreScan<Update, FAILURE>()
+        {
+            @Override
+            protected PrimitiveLongIterator nodeIds()
+            {
+                return range( max( fromNodeId, nodeStore.getNumberOfReservedLowIds() ), toNodeId - 1 );
+            }
+
+            @Override
+            protected Update read( NodeRecord node )
+            {
+                return readUpdate( node, labelIds, propertyKeyIds );
             }
 
             @Override
             protected void process( Update update ) throws FAILURE
             {
-                labelUpdateVisitor.visit( update.labels );
                 for ( NodePropertyUpdate propertyUpdate : update )
                 {
                     propertyUpdateVisitor.visit( propertyUpdate );
@@ -184,6 +198,35 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         };
     }
 
+    @Override
+    public long nodeHighId()
+    {
+        return nodeStore.getHighId();
+    }
+
+    private Update readUpdate( NodeRecord node, int[] labelIds, int[] propertyKeyIds )
+    {
+        long[] labels = parseLabelsField( node ).get( nodeStore );
+        Update update = new Update( node.getId(), labels );
+        if ( !containsAnyLabel( labelIds, labels ) )
+        {
+            return update;
+        }
+        properties: for ( PropertyBlock property : properties( node ) )
+        {
+            int propertyKeyId = property.getKeyIndexId();
+            for ( int sought : propertyKeyIds )
+            {
+                if ( propertyKeyId == sought )
+                {
+                    update.add( NodePropertyUpdate.add( node.getId(), propertyKeyId, valueOf( property ), labels ) );
+                    continue properties;
+                }
+            }
+        }
+        return update;
+    }
+
     @Override
     public Iterable<NodePropertyUpdate> nodeAsUpdates( long nodeId )
     {
@@ -347,10 +390,15 @@ public class NeoStoreIndexStoreView implements IndexStoreView
 
         protected abstract void process( RESULT result ) throws FAILURE;
 
+        protected PrimitiveLongIterator nodeIds()
+        {
+            return new StoreIdIterator( nodeStore );
+        }
+
         @Override
         public void run() throws FAILURE
         {
-            PrimitiveLongIterator nodeIds = new StoreIdIterator( nodeStore );
+            PrimitiveLongIterator nodeIds = nodeIds();
             continueScanning = true;
             while ( continueScanning && nodeIds.hasNext() )
             {
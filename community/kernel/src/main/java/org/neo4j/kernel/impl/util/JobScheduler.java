@@ -63,10 +63,25 @@ public interface JobScheduler extends Lifecycle
         indexSampling,
         pageCacheEviction,
 
+        /**
+         * Profiles the page cache, and loads the profiled pages back in after a restart.
+         */
+        pageCacheWarmup,
+
+        /**
+         * Flushes the store files and writes check points into the transaction log.
+         */
+        checkPoint,
+
         /**
          * Rotates internal diagnostic logs
          */
         internalLogRotation,
+
+        /**
+         * Writes and rotates the query log.
+         */
+        queryLogging,
     }
 
     interface JobHandle
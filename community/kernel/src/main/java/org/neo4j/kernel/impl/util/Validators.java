@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.util.Arrays;
 
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.kernel.impl.recovery.StoreRecoverer;
 import org.neo4j.kernel.impl.store.record.NeoStoreUtil;
 
 public class Validators
@@ -90,6 +91,29 @@ public class Validators
         }
     };
 
+    public static final Validator<File> CONTAINS_NO_DATABASE_NEEDING_RECOVERY = new Validator<File>()
+    {
+        @Override
+        public void validate( File value )
+        {
+            boolean recoveryNeeded;
+            try
+            {
+                recoveryNeeded = new StoreRecoverer( new DefaultFileSystemAbstraction() ).recoveryNeededAt( value );
+            }
+            catch ( IOException e )
+            {
+                throw new IllegalArgumentException( "Unable to tell whether the database in directory '" + value +
+                        "' needs recovery: " + e.getMessage() );
+            }
+            if ( recoveryNeeded )
+            {
+                throw new IllegalArgumentException( "Directory '" + value + "' contains a database which was not " +
+                        "shut down cleanly and needs recovery" );
+            }
+        }
+    };
+
     public static <T> Validator<T[]> atLeast( final String key, final int length )
     {
         return new Validator<T[]>()
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
+
+/**
+ * Input ids of the nodes which already exist in the store in an {@link IncrementalImport incremental import},
+ * read from the {@link IncrementalImport#idPropertyKey() id property} of those nodes.
+ * <p>
+ * Iterating over it gives one id per node id up to the node high id at the time of instantiation, where nodes
+ * not in use or without the id property get a placeholder. This way positions line up with node ids,
+ * which is what {@link IdMapper#prepare(InputIterable, org.neo4j.unsafe.impl.batchimport.input.Collector,
+ * org.neo4j.helpers.progress.ProgressListener) preparing the id mapper} expects.
+ */
+public class ExistingNodeIds implements InputIterable<Object>
+{
+    // Never looked at by the IdMapper since no id was put for those node ids
+    private static final Object NO_ID = new Object();
+
+    private final NodeStore nodeStore;
+    private final PropertyStore propertyStore;
+    private final int propertyKeyId;
+    private final long highId;
+
+    public ExistingNodeIds( NodeStore nodeStore, PropertyStore propertyStore, int propertyKeyId )
+    {
+        this.nodeStore = nodeStore;
+        this.propertyStore = propertyStore;
+        this.propertyKeyId = propertyKeyId;
+        this.highId = nodeStore.getHighId();
+    }
+
+    /**
+     * @return the node high id at the time of instantiation, i.e. ids of existing nodes are lower than this.
+     */
+    public long highId()
+    {
+        return highId;
+    }
+
+    /**
+     * @return the input id of the given node, or {@code null} if the node isn't in use or doesn't have
+     * the id property.
+     */
+    public Object idOf( NodeRecord node )
+    {
+        if ( !node.inUse() || node.getNextProp() == Record.NO_NEXT_PROPERTY.intValue() )
+        {
+            return null;
+        }
+
+        for ( PropertyRecord propertyRecord : propertyStore.getPropertyRecordChain( node.getNextProp() ) )
+        {
+            for ( PropertyBlock property : propertyRecord )
+            {
+                if ( property.getKeyIndexId() == propertyKeyId )
+                {
+                    propertyStore.ensureHeavy( property );
+                    return property.getType().getValue( property, propertyStore );
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public InputIterator<Object> iterator()
+    {
+        return new ExistingIdsIterator();
+    }
+
+    @Override
+    public boolean supportsMultiplePasses()
+    {
+        return true;
+    }
+
+    /**
+     * @return ids of the existing nodes followed by the given {@code ids} of the imported nodes, i.e. the ids
+     * of all nodes in node id order.
+     */
+    public InputIterable<Object> followedBy( final InputIterable<Object> ids )
+    {
+        return new InputIterable<Object>()
+        {
+            @Override
+            public InputIterator<Object> iterator()
+            {
+                return new FollowedByIterator( new ExistingIdsIterator(), ids.iterator() );
+            }
+
+            @Override
+            public boolean supportsMultiplePasses()
+            {
+                return ids.supportsMultiplePasses();
+            }
+        };
+    }
+
+    private class ExistingIdsIterator extends PrefetchingIterator<Object> implements InputIterator<Object>
+    {
+        private long nextId;
+
+        @Override
+        protected Object fetchNextOrNull()
+        {
+            if ( nextId >= highId )
+            {
+                return null;
+            }
+
+            // A not used record is what we want for ids not in use
+            NodeRecord node = new NodeRecord( nextId );
+            nodeStore.loadRecord( nextId++, node );
+            Object id = idOf( node );
+            return id != null ? id : NO_ID;
+        }
+
+        @Override
+        public String sourceDescription()
+        {
+            return "existing nodes in " + nodeStore.getStorageFileName() + " (line number is node id)";
+        }
+
+        @Override
+        public long lineNumber()
+        {
+            return nextId-1;
+        }
+
+        @Override
+        public long position()
+        {
+            return nextId * NodeStore.RECORD_SIZE;
+        }
+
+        @Override
+        public void close()
+        {   // Nothing to close
+        }
+    }
+
+    private static class FollowedByIterator extends PrefetchingIterator<Object> implements InputIterator<Object>
+    {
+        private final InputIterator<Object> first;
+        private final InputIterator<Object> then;
+        private InputIterator<Object> current;
+
+        FollowedByIterator( InputIterator<Object> first, InputIterator<Object> then )
+        {
+            this.first = first;
+            this.then = then;
+            this.current = first;
+        }
+
+        @Override
+        protected Object fetchNextOrNull()
+        {
+            if ( current == first && !first.hasNext() )
+            {
+                current = then;
+            }
+            return current.hasNext() ? current.next() : null;
+        }
+
+        @Override
+        public String sourceDescription()
+        {
+            return current.sourceDescription();
+        }
+
+        @Override
+        public long lineNumber()
+        {
+            return current.lineNumber();
+        }
+
+        @Override
+        public long position()
+        {
+            return current.position();
+        }
+
+        @Override
+        public void close()
+        {
+            first.close();
+            then.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
+import org.neo4j.unsafe.impl.batchimport.input.Group;
+
+/**
+ * Puts the input ids of existing nodes, read from their id property, into the {@link IdMapper} so that
+ * imported relationships can refer to them. Existing nodes are put in the {@link Group#GLOBAL global} group.
+ */
+public class ExistingNodeIdsProcessor implements RecordProcessor<NodeRecord>
+{
+    private final ExistingNodeIds ids;
+    private final IdMapper idMapper;
+
+    public ExistingNodeIdsProcessor( ExistingNodeIds ids, IdMapper idMapper )
+    {
+        this.ids = ids;
+        this.idMapper = idMapper;
+    }
+
+    @Override
+    public boolean process( NodeRecord node )
+    {
+        Object id = ids.idOf( node );
+        if ( id != null )
+        {
+            idMapper.put( id, node.getId(), Group.GLOBAL );
+        }
+        return false;
+    }
+
+    @Override
+    public void done()
+    {   // Nothing to do here
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
+import org.neo4j.unsafe.impl.batchimport.staging.Stage;
+
+/**
+ * Reads the input ids of the nodes already in the store into the {@link IdMapper}, before any node is imported.
+ * Ids must be put in node id order, which is why this is a stage of its own.
+ */
+public class ExistingNodeIdsStage extends Stage
+{
+    public ExistingNodeIdsStage( Configuration config, NodeStore nodeStore, ExistingNodeIds ids, IdMapper idMapper )
+    {
+        super( "Existing node ids", config );
+        add( new ReadNodeRecordsStep( control(), config, nodeStore, ids.highId() ) );
+        add( new RecordProcessorStep<>( control(), "ID", config,
+                new ExistingNodeIdsProcessor( ids, idMapper ), true ) );
+    }
+}
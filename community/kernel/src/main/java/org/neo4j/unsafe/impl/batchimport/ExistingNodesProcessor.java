@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipCache;
+
+/**
+ * Tells the {@link NodeRelationshipCache} about the format of existing nodes, i.e. whether or not they are dense,
+ * so that relationships imported for them are linked the same way as their existing relationships.
+ */
+public class ExistingNodesProcessor implements RecordProcessor<NodeRecord>
+{
+    private final NodeRelationshipCache cache;
+
+    public ExistingNodesProcessor( NodeRelationshipCache cache )
+    {
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean process( NodeRecord node )
+    {
+        cache.existingNode( node.getId(), node.isDense() );
+        return false;
+    }
+
+    @Override
+    public void done()
+    {   // Nothing to do here
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipCache;
+import org.neo4j.unsafe.impl.batchimport.staging.Stage;
+
+/**
+ * Tells the {@link NodeRelationshipCache} about the existing nodes in an {@link IncrementalImport incremental
+ * import}. Must be executed after relationships have been counted and before any relationship is imported.
+ */
+public class ExistingNodesStage extends Stage
+{
+    /**
+     * @param highId nodes with lower ids than this are existing nodes.
+     */
+    public ExistingNodesStage( Configuration config, NodeStore nodeStore, long highId, NodeRelationshipCache cache )
+    {
+        super( "Existing nodes", config );
+        add( new ReadNodeRecordsStep( control(), config, nodeStore, highId ) );
+        add( new RecordProcessorStep<>( control(), "EXISTING", config, new ExistingNodesProcessor( cache ), true ) );
+    }
+}
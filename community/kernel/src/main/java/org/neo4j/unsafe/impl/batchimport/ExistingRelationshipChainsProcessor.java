@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipCache;
+
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+/**
+ * Puts the first relationship of each existing relationship chain, together with the chain count stored in it,
+ * into the {@link NodeRelationshipCache}. Relationships imported for existing nodes are then linked in front
+ * of their existing chains. Chains of nodes that don't get any relationships from the import are left alone
+ * by the cache.
+ */
+public class ExistingRelationshipChainsProcessor implements RecordProcessor<RelationshipRecord>
+{
+    private final NodeRelationshipCache cache;
+
+    public ExistingRelationshipChainsProcessor( NodeRelationshipCache cache )
+    {
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean process( RelationshipRecord record )
+    {
+        // The previous relationship field of the first relationship in a chain holds the chain count
+        if ( record.getFirstNode() == record.getSecondNode() )
+        {
+            if ( record.isFirstInFirstChain() )
+            {
+                cache.putExistingChain( record.getFirstNode(), record.getType(), BOTH, record.getId(),
+                        (int) record.getFirstPrevRel() );
+            }
+        }
+        else
+        {
+            if ( record.isFirstInFirstChain() )
+            {
+                cache.putExistingChain( record.getFirstNode(), record.getType(), OUTGOING, record.getId(),
+                        (int) record.getFirstPrevRel() );
+            }
+            if ( record.isFirstInSecondChain() )
+            {
+                cache.putExistingChain( record.getSecondNode(), record.getType(), INCOMING, record.getId(),
+                        (int) record.getSecondPrevRel() );
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void done()
+    {   // Nothing to do here
+    }
+}
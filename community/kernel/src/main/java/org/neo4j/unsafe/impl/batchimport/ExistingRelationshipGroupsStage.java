@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.helpers.Predicate;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipCache;
+import org.neo4j.unsafe.impl.batchimport.staging.Stage;
+
+/**
+ * Deletes the existing {@link RelationshipGroupRecord relationship groups} of existing dense nodes which get
+ * relationships from an {@link IncrementalImport incremental import}. {@link NodeFirstRelationshipStage}
+ * creates new groups for those nodes, covering both their existing and imported relationships. This is cheaper
+ * than updating the existing groups in place, since that would require random access into the group store.
+ * Must be executed after {@link ExistingNodesStage} and before {@link NodeFirstRelationshipStage}.
+ */
+public class ExistingRelationshipGroupsStage extends Stage
+{
+    public ExistingRelationshipGroupsStage( Configuration config, RelationshipGroupStore store,
+            final NodeRelationshipCache cache )
+    {
+        super( "Existing relationship groups", config );
+        add( new ReadRelationshipGroupRecordsStep( control(), config, store ) );
+        add( new UpdateRecordsStep<>( control(), config, store, new Predicate<RelationshipGroupRecord>()
+        {
+            @Override
+            public boolean accept( RelationshipGroupRecord group )
+            {
+                // Existing groups are owned by existing nodes, which are dense in the cache only if they are
+                // dense in the store and get imported relationships
+                return !cache.isDense( group.getOwningNode() );
+            }
+        } ) );
+    }
+}
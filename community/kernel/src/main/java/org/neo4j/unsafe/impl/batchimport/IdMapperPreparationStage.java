@@ -36,10 +36,19 @@ public class IdMapperPreparationStage extends Stage
 {
     public IdMapperPreparationStage( Configuration config, IdMapper idMapper, InputIterable<InputNode> nodes,
             InputCache inputCache, Collector collector, StatsProvider memoryUsageStats )
+    {
+        this( config, idMapper, idsOf( nodes.supportsMultiplePasses() ? nodes : inputCache.nodes() ),
+                collector, memoryUsageStats );
+    }
+
+    /**
+     * @param allIds ids of all nodes {@link IdMapper#put(Object, long, org.neo4j.unsafe.impl.batchimport.input.Group)
+     * put} into the {@link IdMapper}, in node id order.
+     */
+    public IdMapperPreparationStage( Configuration config, IdMapper idMapper, InputIterable<Object> allIds,
+            Collector collector, StatsProvider memoryUsageStats )
     {
         super( "Prepare node index", config );
-        add( new IdMapperPreparationStep( control(), config,
-                idMapper, idsOf( nodes.supportsMultiplePasses() ? nodes : inputCache.nodes() ),
-                collector, memoryUsageStats ) );
+        add( new IdMapperPreparationStep( control(), config, idMapper, allIds, collector, memoryUsageStats ) );
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
+import org.neo4j.unsafe.impl.batchimport.input.Group;
+import org.neo4j.unsafe.impl.batchimport.input.Input;
+
+/**
+ * Whether or not, and how, the {@link ParallelBatchImporter} imports into a store which already contains data.
+ * New nodes and relationships are appended to the store, where relationships are linked into the relationship
+ * chains of the existing nodes they connect. All indexes in the store, as well as the counts store, are
+ * updated to include the imported data. The store must have been shut down cleanly and must not have any
+ * constraints, since those can't be verified for the imported data.
+ * <p>
+ * Input relationships refer to existing nodes in one of two ways:
+ * <ul>
+ * <li>By actual node id, if the {@link Input#idMapper() id mapper} of the input maps input ids to actual ids.
+ * New nodes must then have ids higher than any node in the store.</li>
+ * <li>By the value of an {@link #idPropertyKey() id property} that the existing nodes have, which typically
+ * is the property that the input ids were stored in when the existing nodes were imported. Those values are
+ * read into the {@link IdMapper} before importing the new nodes. Existing nodes belong to the
+ * {@link Group#GLOBAL global} id space and input ids equal to those of existing nodes are treated
+ * as duplicates.</li>
+ * </ul>
+ */
+public class IncrementalImport
+{
+    /**
+     * Only allows importing into an empty store.
+     */
+    public static final IncrementalImport NONE = new IncrementalImport( false, null );
+
+    private final boolean enabled;
+    private final String idPropertyKey;
+
+    private IncrementalImport( boolean enabled, String idPropertyKey )
+    {
+        this.enabled = enabled;
+        this.idPropertyKey = idPropertyKey;
+    }
+
+    /**
+     * @param idPropertyKey property key of the property that existing nodes have their input ids in,
+     * or {@code null} if the input refers to existing nodes by their actual ids, or not at all.
+     * @return an {@link IncrementalImport} allowing import into a store which already contains data.
+     */
+    public static IncrementalImport enabled( String idPropertyKey )
+    {
+        return new IncrementalImport( true, idPropertyKey );
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return property key of the property that existing nodes have their input ids in, or {@code null}
+     * if existing nodes aren't mapped by property.
+     */
+    public String idPropertyKey()
+    {
+        return idPropertyKey;
+    }
+
+    @Override
+    public String toString()
+    {
+        return enabled ? "IncrementalImport[idPropertyKey:" + idPropertyKey + "]" : "IncrementalImport[NONE]";
+    }
+}
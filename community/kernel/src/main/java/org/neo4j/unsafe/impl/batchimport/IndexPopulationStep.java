@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
+import org.neo4j.unsafe.impl.batchimport.staging.BatchSender;
+import org.neo4j.unsafe.impl.batchimport.staging.ProcessorStep;
+import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
+import org.neo4j.unsafe.impl.batchimport.store.BatchingIndexes;
+
+/**
+ * Adds the nodes passing through, that have the label and property of any of the {@link BatchingIndexes indexes}
+ * being populated, to those indexes. Labels are looked up in a previously populated {@link NodeLabelsCache} and
+ * property values are read from the {@link PropertyStore}. There can only be one processor since index populators
+ * aren't meant to be added to concurrently.
+ */
+public class IndexPopulationStep extends ProcessorStep<NodeRecord[]>
+{
+    private final BatchingIndexes indexes;
+    private final IndexDescriptor[] descriptors;
+    private final PropertyStore propertyStore;
+    private final NodeLabelsCache cache;
+    private final NodeLabelsCache.Client client;
+    private final boolean endOfLine;
+    private final boolean[] nodeHasIndexLabel;
+    private int[] labels = new int[10]; // and grows on demand
+
+    public IndexPopulationStep( StageControl control, Configuration config, BatchingIndexes indexes,
+            PropertyStore propertyStore, NodeLabelsCache cache, boolean endOfLine )
+    {
+        super( control, "INDEX", config, 1 );
+        this.indexes = indexes;
+        this.descriptors = indexes.getIndexDescriptors();
+        this.propertyStore = propertyStore;
+        this.cache = cache;
+        this.client = cache.newClient();
+        this.endOfLine = endOfLine;
+        this.nodeHasIndexLabel = new boolean[descriptors.length];
+    }
+
+    @Override
+    protected void process( NodeRecord[] batch, BatchSender sender ) throws Throwable
+    {
+        for ( NodeRecord node : batch )
+        {
+            if ( node.inUse() && node.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() &&
+                 hasAnyIndexLabel( node.getId() ) )
+            {
+                addToIndexes( node );
+            }
+        }
+
+        if ( !endOfLine )
+        {
+            sender.send( batch );
+        }
+    }
+
+    private boolean hasAnyIndexLabel( long nodeId )
+    {
+        labels = cache.get( client, nodeId, labels );
+        boolean any = false;
+        for ( int i = 0; i < descriptors.length; i++ )
+        {
+            nodeHasIndexLabel[i] = false;
+            for ( int label : labels )
+            {
+                if ( label == -1 )
+                {   // We reached the end of it
+                    break;
+                }
+                if ( label == descriptors[i].getLabelId() )
+                {
+                    nodeHasIndexLabel[i] = any = true;
+                    break;
+                }
+            }
+        }
+        return any;
+    }
+
+    private void addToIndexes( NodeRecord node ) throws Exception
+    {
+        for ( PropertyRecord propertyRecord : propertyStore.getPropertyRecordChain( node.getNextProp() ) )
+        {
+            for ( PropertyBlock property : propertyRecord )
+            {
+                Object value = null;
+                for ( int i = 0; i < descriptors.length; i++ )
+                {
+                    if ( nodeHasIndexLabel[i] && property.getKeyIndexId() == descriptors[i].getPropertyKeyId() )
+                    {
+                        if ( value == null )
+                        {
+                            propertyStore.ensureHeavy( property );
+                            value = property.getType().getValue( property, propertyStore );
+                        }
+                        indexes.populator( i ).add( node.getId(), value );
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.unsafe.batchinsert.LabelScanWriter;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
+import org.neo4j.unsafe.impl.batchimport.staging.BatchSender;
+import org.neo4j.unsafe.impl.batchimport.staging.ProcessorStep;
+import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
+
+import static java.util.Arrays.copyOf;
+
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.kernel.api.labelscan.NodeLabelUpdate.labelChanges;
+
+/**
+ * Writes the labels of the nodes passing through, as they are in a previously populated {@link NodeLabelsCache},
+ * to a {@link LabelScanStore}. Batches must arrive in node id order, which is why there can only be one processor.
+ * Nodes with lower ids than a given node id are skipped, since they're already in the label scan store.
+ */
+public class LabelScanStoreUpdateStep extends ProcessorStep<NodeRecord[]>
+{
+    private final LabelScanStore labelScanStore;
+    private final NodeLabelsCache cache;
+    private final NodeLabelsCache.Client client;
+    private final boolean endOfLine;
+    private final long fromNodeId;
+    private int[] labels = new int[10]; // and grows on demand
+
+    public LabelScanStoreUpdateStep( StageControl control, Configuration config, LabelScanStore labelScanStore,
+            NodeLabelsCache cache, boolean endOfLine )
+    {
+        this( control, config, labelScanStore, cache, 0, endOfLine );
+    }
+
+    public LabelScanStoreUpdateStep( StageControl control, Configuration config, LabelScanStore labelScanStore,
+            NodeLabelsCache cache, long fromNodeId, boolean endOfLine )
+    {
+        super( control, "LABEL SCAN", config, 1 );
+        this.fromNodeId = fromNodeId;
+        this.labelScanStore = labelScanStore;
+        this.cache = cache;
+        this.client = cache.newClient();
+        this.endOfLine = endOfLine;
+    }
+
+    @Override
+    protected void process( NodeRecord[] batch, BatchSender sender ) throws Throwable
+    {
+        // A writer holds a lock that only the thread that opened it can release, and processors can run on
+        // different threads from one batch to the next, so use one writer per batch.
+        try ( LabelScanWriter writer = labelScanStore.newWriter() )
+        {
+            for ( NodeRecord node : batch )
+            {
+                if ( node.inUse() && node.getId() >= fromNodeId )
+                {
+                    long[] nodeLabels = labelsOf( node.getId() );
+                    if ( nodeLabels.length > 0 )
+                    {
+                        writer.write( labelChanges( node.getId(), EMPTY_LONG_ARRAY, nodeLabels ) );
+                    }
+                }
+            }
+        }
+
+        if ( !endOfLine )
+        {
+            sender.send( batch );
+        }
+    }
+
+    private long[] labelsOf( long nodeId )
+    {
+        labels = cache.get( client, nodeId, labels );
+        long[] result = new long[labels.length];
+        int length = 0;
+        for ( int label : labels )
+        {
+            if ( label == -1 )
+            {   // We reached the end of it
+                break;
+            }
+            result[length++] = label;
+        }
+        return length == result.length ? result : copyOf( result, length );
+    }
+}
@@ -21,23 +21,47 @@ package org.neo4j.unsafe.impl.batchimport;
 
 import org.neo4j.kernel.impl.api.CountsAccessor;
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
 import org.neo4j.unsafe.impl.batchimport.staging.Stage;
 import org.neo4j.unsafe.impl.batchimport.stats.StatsProvider;
+import org.neo4j.unsafe.impl.batchimport.store.BatchingIndexes;
 
 /**
  * Reads all records from {@link RelationshipStore} and process the counts in them. Uses a {@link NodeLabelsCache}
  * previously populated by f.ex {@link ProcessNodeCountsDataStep}.
+ * <p>
+ * Optionally also writes the labels to the label scan store and populates schema indexes of {@link BatchingIndexes},
+ * in steps downstream of the counting, which populates the {@link NodeLabelsCache} that those steps read labels from.
  */
 public class NodeCountsStage extends Stage
 {
     public NodeCountsStage( Configuration config, NodeLabelsCache cache, NodeStore nodeStore,
             int highLabelId, CountsAccessor.Updater countsUpdater, StatsProvider... additionalStatsProviders )
+    {
+        this( config, cache, nodeStore, null, null, highLabelId, countsUpdater, additionalStatsProviders );
+    }
+
+    public NodeCountsStage( Configuration config, NodeLabelsCache cache, NodeStore nodeStore,
+            PropertyStore propertyStore, BatchingIndexes indexes, int highLabelId,
+            CountsAccessor.Updater countsUpdater, StatsProvider... additionalStatsProviders )
     {
         super( "Node counts", config );
+        boolean updateLabelScanStore = indexes != null && indexes.getLabelScanStore() != null;
+        boolean populateIndexes = indexes != null && indexes.getIndexDescriptors().length > 0;
         add( new ReadNodeRecordsStep( control(), config, nodeStore ) );
         add( new RecordProcessorStep<>( control(), "COUNT", config, new NodeCountsProcessor(
-                nodeStore, cache, highLabelId, countsUpdater ), true, additionalStatsProviders ) );
+                nodeStore, cache, highLabelId, countsUpdater ), !updateLabelScanStore && !populateIndexes,
+                additionalStatsProviders ) );
+        if ( updateLabelScanStore )
+        {
+            add( new LabelScanStoreUpdateStep( control(), config, indexes.getLabelScanStore(), cache,
+                    indexes.firstImportedNodeId(), !populateIndexes ) );
+        }
+        if ( populateIndexes )
+        {
+            add( new IndexPopulationStep( control(), config, indexes, propertyStore, cache, true ) );
+        }
     }
 }
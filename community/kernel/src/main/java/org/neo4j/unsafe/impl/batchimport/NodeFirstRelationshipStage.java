@@ -36,16 +36,27 @@ public class NodeFirstRelationshipStage extends Stage
 {
     public NodeFirstRelationshipStage( Configuration config, NodeStore nodeStore,
             RelationshipGroupStore relationshipGroupStore, NodeRelationshipCache cache, Collector collector )
+    {
+        this( config, nodeStore, relationshipGroupStore, cache, collector, 0 );
+    }
+
+    /**
+     * @param firstImportedNodeId nodes with lower ids than this existed before the import and are never deleted,
+     * even if reported as duplicates.
+     */
+    public NodeFirstRelationshipStage( Configuration config, NodeStore nodeStore,
+            RelationshipGroupStore relationshipGroupStore, NodeRelationshipCache cache, Collector collector,
+            long firstImportedNodeId )
     {
         super( "Node --> Relationship", config );
         add( new ReadNodeRecordsStep( control(), config, nodeStore ) );
         add( new RecordProcessorStep<>( control(), "LINK", config,
                 new NodeFirstRelationshipProcessor( relationshipGroupStore, cache ), false ) );
         add( new UpdateRecordsStep<>( control(), config, nodeStore,
-                deleteDuplicates( collector.leftOverDuplicateNodesIds() ) ) );
+                deleteDuplicates( collector.leftOverDuplicateNodesIds(), firstImportedNodeId ) ) );
     }
 
-    private Predicate<NodeRecord> deleteDuplicates( final PrimitiveLongIterator ids )
+    private Predicate<NodeRecord> deleteDuplicates( final PrimitiveLongIterator ids, final long firstImportedNodeId )
     {
         return !ids.hasNext() ? Predicates.<NodeRecord>TRUE() : new Predicate<NodeRecord>()
         {
@@ -62,7 +73,7 @@ public class NodeFirstRelationshipStage extends Stage
                     {
                         current = ids.next();
                     }
-                    return false;
+                    return node.getId() < firstImportedNodeId;
                 }
                 return true;
             }
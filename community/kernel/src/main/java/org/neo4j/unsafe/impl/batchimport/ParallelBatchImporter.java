@@ -23,12 +23,15 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collections;
 
 import org.neo4j.function.Function;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.helpers.Format;
+import org.neo4j.helpers.Service;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.api.CountsAccessor;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.Log;
@@ -36,6 +39,7 @@ import org.neo4j.logging.LogProvider;
 import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
 import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipCache;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdGenerator;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdGenerators;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
 import org.neo4j.unsafe.impl.batchimport.input.Collector;
 import org.neo4j.unsafe.impl.batchimport.input.Input;
@@ -46,6 +50,7 @@ import org.neo4j.unsafe.impl.batchimport.staging.DynamicProcessorAssigner;
 import org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitor;
 import org.neo4j.unsafe.impl.batchimport.staging.Stage;
 import org.neo4j.unsafe.impl.batchimport.stats.StatsProvider;
+import org.neo4j.unsafe.impl.batchimport.store.BatchingIndexes;
 import org.neo4j.unsafe.impl.batchimport.store.BatchingNeoStore;
 import org.neo4j.unsafe.impl.batchimport.store.BatchingPageCache.WriterFactory;
 import org.neo4j.unsafe.impl.batchimport.store.io.IoMonitor;
@@ -53,6 +58,7 @@ import org.neo4j.unsafe.impl.batchimport.store.io.IoMonitor;
 import static java.lang.System.currentTimeMillis;
 
 import static org.neo4j.unsafe.impl.batchimport.AdditionalInitialIds.EMPTY;
+import static org.neo4j.unsafe.impl.batchimport.Utils.idsOf;
 import static org.neo4j.unsafe.impl.batchimport.WriterFactories.parallel;
 import static org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory.AUTO;
 import static org.neo4j.unsafe.impl.batchimport.staging.ExecutionSupervisors.superviseExecution;
@@ -80,14 +86,23 @@ public class ParallelBatchImporter implements BatchImporter
     private final Monitors monitors;
     private final WriterFactory writerFactory;
     private final AdditionalInitialIds additionalInitialIds;
+    private final Iterable<KernelExtensionFactory<?>> kernelExtensions;
+    private final IncrementalImport incremental;
 
     /**
      * Advanced usage of the parallel batch importer, for special and very specific cases. Please use
      * a constructor with fewer arguments instead.
+     *
+     * @param kernelExtensions {@link KernelExtensionFactory kernel extensions} providing the label scan store and
+     * schema index provider to build the label scan store and {@link Input#indexes() indexes} with, as part of the
+     * import.
+     * @param incremental whether or not to allow importing into a store which already contains data,
+     * see {@link IncrementalImport}.
      */
     public ParallelBatchImporter( File storeDir, FileSystemAbstraction fileSystem, Configuration config,
             LogProvider logProvider, ExecutionMonitor executionMonitor, Function<Configuration,WriterFactory> writerFactory,
-            AdditionalInitialIds additionalInitialIds )
+            AdditionalInitialIds additionalInitialIds, Iterable<KernelExtensionFactory<?>> kernelExtensions,
+            IncrementalImport incremental )
     {
         this.storeDir = storeDir;
         this.fileSystem = fileSystem;
@@ -99,6 +114,37 @@ public class ParallelBatchImporter implements BatchImporter
         this.monitors = new Monitors();
         this.writeMonitor = new IoMonitor();
         this.writerFactory = writerFactory.apply( config );
+        this.kernelExtensions = kernelExtensions;
+        this.incremental = incremental;
+    }
+
+    /**
+     * Advanced usage of the parallel batch importer, for special and very specific cases. Please use
+     * a constructor with fewer arguments instead. Only imports into an empty store.
+     *
+     * @param kernelExtensions {@link KernelExtensionFactory kernel extensions} providing the label scan store and
+     * schema index provider to build the label scan store and {@link Input#indexes() indexes} with, as part of the
+     * import.
+     */
+    public ParallelBatchImporter( File storeDir, FileSystemAbstraction fileSystem, Configuration config,
+            LogProvider logProvider, ExecutionMonitor executionMonitor, Function<Configuration,WriterFactory> writerFactory,
+            AdditionalInitialIds additionalInitialIds, Iterable<KernelExtensionFactory<?>> kernelExtensions )
+    {
+        this( storeDir, fileSystem, config, logProvider, executionMonitor, writerFactory, additionalInitialIds,
+                kernelExtensions, IncrementalImport.NONE );
+    }
+
+    /**
+     * Advanced usage of the parallel batch importer, for special and very specific cases. Please use
+     * a constructor with fewer arguments instead. Imports without any kernel extensions, i.e. the imported
+     * store will have its label scan store rebuilt on first startup and can't have any {@link Input#indexes()}.
+     */
+    public ParallelBatchImporter( File storeDir, FileSystemAbstraction fileSystem, Configuration config,
+            LogProvider logProvider, ExecutionMonitor executionMonitor, Function<Configuration,WriterFactory> writerFactory,
+            AdditionalInitialIds additionalInitialIds )
+    {
+        this( storeDir, fileSystem, config, logProvider, executionMonitor, writerFactory, additionalInitialIds,
+                Collections.<KernelExtensionFactory<?>>emptyList() );
     }
 
     /**
@@ -108,9 +154,22 @@ public class ParallelBatchImporter implements BatchImporter
      */
     public ParallelBatchImporter( File storeDir, Configuration config, LogProvider logProvider,
             ExecutionMonitor executionMonitor )
+    {
+        this( storeDir, config, logProvider, executionMonitor, IncrementalImport.NONE );
+    }
+
+    /**
+     * Instantiates {@link ParallelBatchImporter} with default services and behaviour, like
+     * {@link #ParallelBatchImporter(File, Configuration, LogProvider, ExecutionMonitor)}, but which can
+     * import into a store which already contains data, see {@link IncrementalImport}.
+     */
+    @SuppressWarnings( "unchecked" )
+    public ParallelBatchImporter( File storeDir, Configuration config, LogProvider logProvider,
+            ExecutionMonitor executionMonitor, IncrementalImport incremental )
     {
         this( storeDir, new DefaultFileSystemAbstraction(), config, logProvider,
-                withDynamicProcessorAssignment( executionMonitor, config ), parallel(), EMPTY );
+                withDynamicProcessorAssignment( executionMonitor, config ), parallel(), EMPTY,
+                (Iterable) Service.load( KernelExtensionFactory.class ), incremental );
     }
 
     @Override
@@ -126,7 +185,10 @@ public class ParallelBatchImporter implements BatchImporter
         boolean hasBadEntries = false;
         File badFile = new File( storeDir, Configuration.BAD_FILE_NAME );
         try ( BatchingNeoStore neoStore = new BatchingNeoStore( fileSystem, storeDir, config,
-              writeMonitor, logProvider, monitors, writerFactory, additionalInitialIds );
+              writeMonitor, logProvider, monitors, writerFactory, additionalInitialIds, incremental.isEnabled() );
+              // Closed after the counts updater, since it writes index counts to the counts store when closing
+              BatchingIndexes indexes = new BatchingIndexes( neoStore, fileSystem, storeDir, kernelExtensions,
+                      input.indexes(), logProvider );
               OutputStream badOutput = new BufferedOutputStream( fileSystem.openAsOutputStream( badFile, false ) );
               Collector badCollector = input.badCollector( badOutput );
               CountsAccessor.Updater countsUpdater = neoStore.getCountsStore().reset(
@@ -141,6 +203,36 @@ public class ParallelBatchImporter implements BatchImporter
             InputIterable<InputNode> nodes = input.nodes();
             InputIterable<InputRelationship> relationships = input.relationships();
 
+            // Existing data in an incremental import, imported nodes and relationships go after it
+            long firstNodeId = neoStore.getNodeStore().getHighId();
+            long firstRelationshipId = neoStore.getRelationshipStore().getHighId();
+            ExistingNodeIds existingNodeIds = null;
+            if ( firstNodeId > 0 || firstRelationshipId > 0 )
+            {
+                if ( input.specificRelationshipIds() )
+                {
+                    throw new IllegalStateException( "Specific relationship ids can't be imported into a store " +
+                            "which already contains relationships" );
+                }
+                idGenerator = idGenerator.dependsOnInput()
+                        ? IdGenerators.notBelow( idGenerator, firstNodeId )
+                        : IdGenerators.startingFrom( firstNodeId );
+                if ( incremental.idPropertyKey() != null )
+                {
+                    if ( !idMapper.needsPreparation() )
+                    {
+                        throw new IllegalStateException( "Existing nodes can't be looked up by " +
+                                incremental.idPropertyKey() + " since input ids are actual node ids" );
+                    }
+                    existingNodeIds = new ExistingNodeIds( neoStore.getNodeStore(), neoStore.getPropertyStore(),
+                            neoStore.getPropertyKeyRepository().getOrCreateId( incremental.idPropertyKey() ) );
+                    executeStages( new ExistingNodeIdsStage( config, neoStore.getNodeStore(), existingNodeIds,
+                            idMapper ) );
+                }
+                log.info( "Importing into a store with existing data, nodes from id " + firstNodeId +
+                        " and relationships from id " + firstRelationshipId + " onwards" );
+            }
+
             // Stage 1 -- nodes, properties, labels
             NodeStage nodeStage = new NodeStage( config, writeMonitor, writerFactory,
                     nodes, idMapper, idGenerator, neoStore, inputCache, memoryUsageStats );
@@ -155,8 +247,12 @@ public class ParallelBatchImporter implements BatchImporter
                 // So we need to execute the node stage first as it fills the id mapper and prepares it in the end,
                 // before executing any stage that needs ids from the id mapper, for example calc dense node stage.
                 executeStages( nodeStage );
-                executeStages( new IdMapperPreparationStage( config, idMapper, nodes, inputCache,
-                        badCollector, memoryUsageStats ) );
+                executeStages( existingNodeIds != null
+                        ? new IdMapperPreparationStage( config, idMapper, existingNodeIds.followedBy( idsOf(
+                                nodes.supportsMultiplePasses() ? nodes : inputCache.nodes() ) ),
+                                badCollector, memoryUsageStats )
+                        : new IdMapperPreparationStage( config, idMapper, nodes, inputCache,
+                                badCollector, memoryUsageStats ) );
                 executeStages( calculateDenseNodesStage );
             }
             else
@@ -165,6 +261,16 @@ public class ParallelBatchImporter implements BatchImporter
                 executeStages( nodeStage, calculateDenseNodesStage );
             }
             nodeRelationshipCache.fixateNodes();
+            if ( firstNodeId > 0 )
+            {   // Seed the cache with the existing relationship chains of the existing nodes that get
+                // relationships imported, so that the imported relationships are linked in front of them
+                executeStages( new ExistingNodesStage( config, neoStore.getNodeStore(), firstNodeId,
+                        nodeRelationshipCache ) );
+                executeStages( new ExistingRelationshipChainsStage( config, neoStore.getRelationshipStore(),
+                        nodeRelationshipCache ) );
+                executeStages( new ExistingRelationshipGroupsStage( config, neoStore.getRelationshipGroupStore(),
+                        nodeRelationshipCache ) );
+            }
 
             // Stage 3 -- relationships, properties
             final RelationshipStage relationshipStage = new RelationshipStage( config, writeMonitor, writerFactory,
@@ -179,21 +285,23 @@ public class ParallelBatchImporter implements BatchImporter
 
             // Stage 4 -- set node nextRel fields
             executeStages( new NodeFirstRelationshipStage( config, neoStore.getNodeStore(),
-                    neoStore.getRelationshipGroupStore(), nodeRelationshipCache, badCollector ) );
+                    neoStore.getRelationshipGroupStore(), nodeRelationshipCache, badCollector, firstNodeId ) );
             // Stage 5 -- link relationship chains together
             nodeRelationshipCache.clearRelationships();
             executeStages( new RelationshipLinkbackStage( config, neoStore.getRelationshipStore(),
-                    nodeRelationshipCache ) );
+                    nodeRelationshipCache, firstRelationshipId ) );
 
             // Release this potentially really big piece of cached data
             nodeRelationshipCache.close();
             nodeRelationshipCache = null;
 
-            // Stage 6 -- count nodes per label and labels per node
+            // Stage 6 -- count nodes per label and labels per node, label scan store and schema indexes
             nodeLabelsCache = new NodeLabelsCache( AUTO, neoStore.getLabelRepository().getHighId() );
             memoryUsageStats = new MemoryUsageStatsProvider( nodeLabelsCache );
             executeStages( new NodeCountsStage( config, nodeLabelsCache, neoStore.getNodeStore(),
-                    neoStore.getLabelRepository().getHighId(), countsUpdater, memoryUsageStats ) );
+                    neoStore.getPropertyStore(), indexes, neoStore.getLabelRepository().getHighId(), countsUpdater,
+                    memoryUsageStats ) );
+            indexes.populationCompleted();
             // Stage 7 -- count label-[type]->label
             executeStages( new RelationshipCountsStage( config, nodeLabelsCache, neoStore.getRelationshipStore(),
                     neoStore.getLabelRepository().getHighId(),
@@ -39,10 +39,18 @@ public class ReadNodeRecordsStep extends IoProducerStep
     private long id;
 
     public ReadNodeRecordsStep( StageControl control, Configuration config, NodeStore nodeStore )
+    {
+        this( control, config, nodeStore, nodeStore.getHighId() );
+    }
+
+    /**
+     * @param highId reads nodes up to, but not including, this id.
+     */
+    public ReadNodeRecordsStep( StageControl control, Configuration config, NodeStore nodeStore, long highId )
     {
         super( control, config );
         this.nodeStore = nodeStore;
-        this.highId = nodeStore.getHighId();
+        this.highId = highId;
     }
 
     @Override
@@ -26,19 +26,38 @@ import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipCache;
 /**
  * Links the {@code previous} fields in {@link RelationshipRecord relationship records}. This is done after
  * a forward pass where the {@code next} fields are linked.
+ *
+ * In an {@link IncrementalImport incremental import} the imported relationships of an existing node are linked
+ * in front of its existing chain. The existing relationship first in such a chain then gets its {@code previous}
+ * field linked to the last imported relationship in front of it, and is no longer first in chain.
  */
 public class RelationshipLinkbackProcessor implements RecordProcessor<RelationshipRecord>
 {
     private final NodeRelationshipCache cache;
+    private final long firstImportedRelationshipId;
 
     public RelationshipLinkbackProcessor( NodeRelationshipCache cache )
+    {
+        this( cache, 0 );
+    }
+
+    /**
+     * @param firstImportedRelationshipId relationships with lower ids than this existed before the import.
+     */
+    public RelationshipLinkbackProcessor( NodeRelationshipCache cache, long firstImportedRelationshipId )
     {
         this.cache = cache;
+        this.firstImportedRelationshipId = firstImportedRelationshipId;
     }
 
     @Override
     public boolean process( RelationshipRecord record )
     {
+        if ( record.getId() < firstImportedRelationshipId )
+        {
+            return linkExisting( record );
+        }
+
         boolean isLoop = record.getFirstNode() == record.getSecondNode();
         if ( isLoop )
         {
@@ -81,6 +100,41 @@ public class RelationshipLinkbackProcessor implements RecordProcessor<Relationsh
         return true;
     }
 
+    private boolean linkExisting( RelationshipRecord record )
+    {
+        // Imported relationships have all been linked back at this point, since they have higher ids,
+        // so what's in the cache is the last imported relationship in front of an existing chain, if any
+        boolean changed = false;
+        boolean isLoop = record.getFirstNode() == record.getSecondNode();
+        if ( record.isFirstInFirstChain() )
+        {
+            long prevRel = cache.getRelationship( record.getFirstNode(), record.getType(),
+                    isLoop ? Direction.BOTH : Direction.OUTGOING );
+            if ( prevRel != -1 )
+            {
+                record.setFirstInFirstChain( false );
+                record.setFirstPrevRel( prevRel );
+                if ( isLoop )
+                {
+                    record.setFirstInSecondChain( false );
+                    record.setSecondPrevRel( prevRel );
+                }
+                changed = true;
+            }
+        }
+        if ( !isLoop && record.isFirstInSecondChain() )
+        {
+            long prevRel = cache.getRelationship( record.getSecondNode(), record.getType(), Direction.INCOMING );
+            if ( prevRel != -1 )
+            {
+                record.setFirstInSecondChain( false );
+                record.setSecondPrevRel( prevRel );
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
     @Override
     public void done()
     {   // Nothing to do here
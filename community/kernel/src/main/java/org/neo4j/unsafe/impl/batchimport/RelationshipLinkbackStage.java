@@ -31,11 +31,20 @@ import org.neo4j.unsafe.impl.batchimport.staging.Stage;
 public class RelationshipLinkbackStage extends Stage
 {
     public RelationshipLinkbackStage( Configuration config, RelationshipStore store, NodeRelationshipCache cache )
+    {
+        this( config, store, cache, 0 );
+    }
+
+    /**
+     * @param firstImportedRelationshipId relationships with lower ids than this existed before the import.
+     */
+    public RelationshipLinkbackStage( Configuration config, RelationshipStore store, NodeRelationshipCache cache,
+            long firstImportedRelationshipId )
     {
         super( "Relationship --> Relationship", config );
         add( new ReadRelationshipRecordsBackwardsStep( control(), config, store ) );
         add( new RecordProcessorStep<>( control(), "LINK", config,
-                new RelationshipLinkbackProcessor( cache ), false ) );
+                new RelationshipLinkbackProcessor( cache, firstImportedRelationshipId ), false ) );
         add( new UpdateRecordsStep<>( control(), config, store ) );
     }
 }
@@ -20,12 +20,14 @@
 package org.neo4j.unsafe.impl.batchimport.cache;
 
 /**
- * Manipulator of node cache fields containing relationship id and relationship count.
+ * Manipulator of node cache fields containing relationship id and relationship count, and for node fields
+ * also a flag for keeping an existing sparse node sparse regardless of its count.
  */
 public class IdFieldManipulator
 {
-    private static final LongBitsManipulator MANIPULATOR = new LongBitsManipulator( 64-29 /*id*/, 29/*count*/ );
-    private static final long EMPTY_FIELD = MANIPULATOR.template( true, false );
+    private static final LongBitsManipulator MANIPULATOR =
+            new LongBitsManipulator( 64-29 /*id*/, 28/*count*/, 1/*forced sparse*/ );
+    private static final long EMPTY_FIELD = MANIPULATOR.template( true, false, false );
 
     private IdFieldManipulator()
     {
@@ -56,6 +58,17 @@ public class IdFieldManipulator
         return MANIPULATOR.set( field, 1, count );
     }
 
+    public static long setForcedSparse( long field )
+    {
+        return MANIPULATOR.set( field, 2, 1 );
+    }
+
+    public static boolean isForcedSparse( long field )
+    {
+        // A slot with all its bits set reads as -1
+        return MANIPULATOR.get( field, 2 ) != 0;
+    }
+
     public static long cleanId( long field )
     {
         return MANIPULATOR.clear( field, 0, true );
@@ -23,6 +23,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.graphdb.Direction;
 
+import static java.lang.Math.max;
+
 /**
  * Caches of parts of node store and relationship group store. A crucial part of batch import where
  * any random access must be covered by this cache. All I/O, both read and write must be sequential.
@@ -68,7 +70,71 @@ public class NodeRelationshipCache implements MemoryStatsVisitor.Home
             return false;
         }
 
-        return IdFieldManipulator.getCount( field ) >= denseNodeThreshold;
+        return !IdFieldManipulator.isForcedSparse( field ) &&
+                IdFieldManipulator.getCount( field ) >= denseNodeThreshold;
+    }
+
+    /**
+     * Used in an incremental import for a node which already exists in the store and gets relationships
+     * from the import, before any relationship is put for it. The node keeps the format it has in the store,
+     * i.e. a dense node is treated as dense regardless of its count and a sparse node stays sparse regardless
+     * of how many relationships it ends up with. Its existing relationships are then put using
+     * {@link #putExistingChain(long, int, Direction, long, int)}. Nodes without any imported relationships
+     * are left as they are.
+     *
+     * @param nodeId id of the existing node.
+     * @param dense whether or not the node is dense in the store.
+     */
+    public void existingNode( long nodeId, boolean dense )
+    {
+        long field = array.get( nodeId );
+        if ( IdFieldManipulator.getCount( field ) == 0 )
+        {   // No imported relationships for this node, its existing relationships stay as they are
+            return;
+        }
+
+        if ( dense )
+        {
+            int count = max( IdFieldManipulator.getCount( field ), denseNodeThreshold );
+            field = IdFieldManipulator.setCount( field, count );
+        }
+        else
+        {
+            field = IdFieldManipulator.setForcedSparse( field );
+        }
+        array.set( nodeId, field );
+    }
+
+    /**
+     * Puts the first relationship of a relationship chain which already exists in the store, for an
+     * {@link #existingNode(long, boolean) existing node}. Relationships put after this will be linked
+     * in front of it and the count of the chain will include the {@code count} existing relationships.
+     * Chains of nodes without any imported relationships are ignored.
+     *
+     * @param nodeId id of the existing node.
+     * @param type relationship type of the chain, only used for dense nodes.
+     * @param direction direction of the chain, only used for dense nodes.
+     * @param firstRelId id of the first relationship in the existing chain.
+     * @param count number of relationships in the existing chain.
+     */
+    public void putExistingChain( long nodeId, int type, Direction direction, long firstRelId, int count )
+    {
+        if ( IdFieldManipulator.getCount( array.get( nodeId ) ) == 0 )
+        {   // No imported relationships for this node, its existing relationships stay as they are
+            return;
+        }
+
+        getAndPutRelationship( nodeId, type, direction, firstRelId, false );
+        long field = array.get( nodeId );
+        if ( fieldIsDense( field ) )
+        {
+            long relGroupIndex = relGroupCache.findGroupIndexForType( IdFieldManipulator.getId( field ), type );
+            relGroupCache.changeCount( relGroupIndex, direction, count );
+        }
+        else
+        {
+            array.set( nodeId, IdFieldManipulator.changeCount( field, count ) );
+        }
     }
 
     public long getAndPutRelationship( long nodeId, int type, Direction direction, long firstRelId,
@@ -133,6 +199,21 @@ public class NodeRelationshipCache implements MemoryStatsVisitor.Home
     }
 
     public int getCount( long nodeId, int type, Direction direction )
+    {
+        return IdFieldManipulator.getCount( relationshipField( nodeId, type, direction ) );
+    }
+
+    /**
+     * Gets the relationship last put for the given node, type and direction, without putting a new one.
+     *
+     * @return the relationship id, or {@code -1} if there's none.
+     */
+    public long getRelationship( long nodeId, int type, Direction direction )
+    {
+        return IdFieldManipulator.getId( relationshipField( nodeId, type, direction ) );
+    }
+
+    private long relationshipField( long nodeId, int type, Direction direction )
     {
         long field = array.get( nodeId );
         if ( fieldIsDense( field ) )
@@ -140,17 +221,16 @@ public class NodeRelationshipCache implements MemoryStatsVisitor.Home
             long relGroupIndex = IdFieldManipulator.getId( field );
             if ( relGroupIndex == EMPTY )
             {
-                return 0;
+                return IdFieldManipulator.emptyField();
             }
             relGroupIndex = relGroupCache.findGroupIndexForType( relGroupIndex, type );
             if ( relGroupIndex == EMPTY )
             {
-                return 0;
+                return IdFieldManipulator.emptyField();
             }
             field = relGroupCache.getField( relGroupIndex, relGroupCache.directionIndex( direction ) );
         }
-
-        return IdFieldManipulator.getCount( field );
+        return field;
     }
 
     public void fixateNodes()
@@ -336,6 +416,13 @@ public class NodeRelationshipCache implements MemoryStatsVisitor.Home
             return putRelField( newIndex, direction, relId, trueForIncrement );
         }
 
+        private void changeCount( long relGroupIndex, Direction direction, int diff )
+        {
+            int directionIndex = directionIndex( direction );
+            long field = getField( relGroupIndex, directionIndex );
+            setField( relGroupIndex, directionIndex, IdFieldManipulator.changeCount( field, diff ) );
+        }
+
         private void setNextField( long relGroupIndex, long next )
         {
             long field = getField( relGroupIndex, INDEX_NEXT_AND_TYPE );
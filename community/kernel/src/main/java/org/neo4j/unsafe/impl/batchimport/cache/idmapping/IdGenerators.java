@@ -63,6 +63,37 @@ public class IdGenerators
         }
     }
 
+    /**
+     * @param generator {@link IdGenerator} to guard.
+     * @param lowestId lowest id the generator may generate, f.ex. the first id not used by the existing
+     * nodes of an incremental import.
+     * @return an {@link IdGenerator} which returns the ids of {@code generator}, failing on ids lower than
+     * {@code lowestId}.
+     */
+    public static IdGenerator notBelow( final IdGenerator generator, final long lowestId )
+    {
+        return new IdGenerator()
+        {
+            @Override
+            public long generate( Object inputId )
+            {
+                long id = generator.generate( inputId );
+                if ( id < lowestId )
+                {
+                    throw new IllegalArgumentException( "Node id " + id + " is already in use by an existing " +
+                            "node, ids must be " + lowestId + " or higher" );
+                }
+                return id;
+            }
+
+            @Override
+            public boolean dependsOnInput()
+            {
+                return generator.dependsOnInput();
+            }
+        };
+    }
+
     /**
      * @param startingId the first id returned. The next one will be this value + 1, then + 2 a.s.o.
      * @return an {@link IdGenerator} that returns ids incrementally, starting from the given id.
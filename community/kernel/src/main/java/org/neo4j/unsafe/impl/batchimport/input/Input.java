@@ -72,4 +72,10 @@ public interface Input
      * and {@link InputNode duplicate nodes} to an output stream for later handling.
      */
     Collector badCollector( OutputStream out );
+
+    /**
+     * @return the {@link InputIndex schema indexes} to create and populate as part of the import, so that the
+     * imported store comes up with those indexes online.
+     */
+    Iterable<InputIndex> indexes();
 }
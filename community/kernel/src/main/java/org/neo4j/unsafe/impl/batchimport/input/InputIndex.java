@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input;
+
+import org.neo4j.unsafe.impl.batchimport.BatchImporter;
+
+/**
+ * A schema index, on a label and property key, which a {@link BatchImporter} should create and populate
+ * as part of the import.
+ */
+public class InputIndex
+{
+    private final String label;
+    private final String propertyKey;
+
+    public InputIndex( String label, String propertyKey )
+    {
+        this.label = label;
+        this.propertyKey = propertyKey;
+    }
+
+    public String label()
+    {
+        return label;
+    }
+
+    public String propertyKey()
+    {
+        return propertyKey;
+    }
+
+    @Override
+    public String toString()
+    {
+        return ":" + label + "(" + propertyKey + ")";
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * label.hashCode() + propertyKey.hashCode();
+    }
+
+    @Override
+    public boolean equals( Object obj )
+    {
+        return obj instanceof InputIndex &&
+               ((InputIndex) obj).label.equals( label ) && ((InputIndex) obj).propertyKey.equals( propertyKey );
+    }
+}
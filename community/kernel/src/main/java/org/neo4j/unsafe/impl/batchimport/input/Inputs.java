@@ -21,6 +21,7 @@ package org.neo4j.unsafe.impl.batchimport.input;
 
 import java.io.File;
 import java.io.OutputStream;
+import java.util.Collections;
 
 import org.neo4j.unsafe.impl.batchimport.InputIterable;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdGenerator;
@@ -45,6 +46,15 @@ public class Inputs
             final InputIterable<InputNode> nodes, final InputIterable<InputRelationship> relationships,
             final IdMapper idMapper, final IdGenerator idGenerator, final boolean specificRelationshipIds,
             final int badTolerance )
+    {
+        return input( nodes, relationships, idMapper, idGenerator, specificRelationshipIds, badTolerance,
+                Collections.<InputIndex>emptyList() );
+    }
+
+    public static Input input(
+            final InputIterable<InputNode> nodes, final InputIterable<InputRelationship> relationships,
+            final IdMapper idMapper, final IdGenerator idGenerator, final boolean specificRelationshipIds,
+            final int badTolerance, final Iterable<InputIndex> indexes )
     {
         return new Input()
         {
@@ -83,6 +93,12 @@ public class Inputs
             {
                 return Collectors.badCollector( out, badTolerance );
             }
+
+            @Override
+            public Iterable<InputIndex> indexes()
+            {
+                return indexes;
+            }
         };
     }
 
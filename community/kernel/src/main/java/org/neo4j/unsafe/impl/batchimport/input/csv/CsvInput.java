@@ -20,6 +20,7 @@
 package org.neo4j.unsafe.impl.batchimport.input.csv;
 
 import java.io.OutputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -35,6 +36,7 @@ import org.neo4j.unsafe.impl.batchimport.input.Collector;
 import org.neo4j.unsafe.impl.batchimport.input.DataException;
 import org.neo4j.unsafe.impl.batchimport.input.Groups;
 import org.neo4j.unsafe.impl.batchimport.input.Input;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
 import org.neo4j.unsafe.impl.batchimport.input.InputNode;
 import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
 
@@ -53,6 +55,7 @@ public class CsvInput implements Input
     private final Configuration config;
     private final Groups groups = new Groups();
     private final Function<OutputStream,Collector> collectorFactory;
+    private final Iterable<InputIndex> indexes;
 
     /**
      * @param nodeDataFactory multiple {@link DataFactory} instances providing data, each {@link DataFactory}
@@ -65,11 +68,28 @@ public class CsvInput implements Input
      * @param relationshipHeaderFactory factory for reading relationship headers.
      * @param idType {@link IdType} to expect in id fields of node and relationship input.
      * @param config CSV configuration.
+     * @param collectorFactory factory for the {@link Collector} of bad input.
      */
     public CsvInput(
             Iterable<DataFactory<InputNode>> nodeDataFactory, Header.Factory nodeHeaderFactory,
             Iterable<DataFactory<InputRelationship>> relationshipDataFactory, Header.Factory relationshipHeaderFactory,
             IdType idType, Configuration config, Function<OutputStream,Collector> collectorFactory )
+    {
+        this( nodeDataFactory, nodeHeaderFactory, relationshipDataFactory, relationshipHeaderFactory, idType, config,
+                collectorFactory, Collections.<InputIndex>emptyList() );
+    }
+
+    /**
+     * Like {@link #CsvInput(Iterable, Header.Factory, Iterable, Header.Factory, IdType, Configuration, Function)},
+     * but also with schema indexes to create and populate as part of the import.
+     *
+     * @param indexes {@link InputIndex schema indexes} to create and populate.
+     */
+    public CsvInput(
+            Iterable<DataFactory<InputNode>> nodeDataFactory, Header.Factory nodeHeaderFactory,
+            Iterable<DataFactory<InputRelationship>> relationshipDataFactory, Header.Factory relationshipHeaderFactory,
+            IdType idType, Configuration config, Function<OutputStream,Collector> collectorFactory,
+            Iterable<InputIndex> indexes )
     {
         assertSaneConfiguration( config );
 
@@ -80,6 +100,7 @@ public class CsvInput implements Input
         this.idType = idType;
         this.config = config;
         this.collectorFactory = collectorFactory;
+        this.indexes = indexes;
     }
 
     private void assertSaneConfiguration( Configuration config )
@@ -201,4 +222,10 @@ public class CsvInput implements Input
     {
         return collectorFactory.apply( out );
     }
+
+    @Override
+    public Iterable<InputIndex> indexes()
+    {
+        return indexes;
+    }
 }
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.graphdb.DependencyResolver.SelectionStrategy;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.api.exceptions.index.IndexCapacityExceededException;
+import org.neo4j.kernel.api.index.IndexConfiguration;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.extension.KernelExtensions;
+import org.neo4j.kernel.extension.UnsatisfiedDependencyStrategies;
+import org.neo4j.kernel.impl.api.CountsAccessor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
+import org.neo4j.kernel.impl.logging.SimpleLogService;
+import org.neo4j.kernel.impl.spi.KernelContext;
+import org.neo4j.kernel.impl.store.NeoStore;
+import org.neo4j.kernel.impl.store.SchemaStore;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.IndexRule;
+import org.neo4j.kernel.impl.store.record.SchemaRule;
+import org.neo4j.kernel.impl.transaction.state.NeoStoreSupplier;
+import org.neo4j.kernel.impl.util.Dependencies;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.register.Register.DoubleLongRegister;
+import org.neo4j.register.Registers;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
+
+/**
+ * The {@link LabelScanStore} and schema indexes of a {@link BatchingNeoStore}, loaded from
+ * {@link KernelExtensionFactory kernel extensions} the same way a database would load them. Populating them
+ * as part of an import means that the imported store comes up with the label scan store and all requested
+ * indexes online, instead of rebuilding and populating them on first startup.
+ * <p>
+ * Must be instantiated before any nodes are imported, since an instantiated {@link LabelScanStore} without
+ * any index files rebuilds itself from the store. Only nodes from {@link #firstImportedNodeId()} and onwards
+ * are then written to it. The requested indexes are created in the schema store right away and, together with
+ * any indexes already in the store, are populated by the importer through {@link #populator(int)}.
+ * Uniqueness constraints already in the store are not supported, since imported data can't be verified
+ * against them.
+ */
+public class BatchingIndexes implements AutoCloseable
+{
+    private final LifeSupport life = new LifeSupport();
+    private final NeoStore neoStore;
+    private final Log log;
+    private final LabelScanStore labelScanStore;
+    private final IndexDescriptor[] descriptors;
+    private final IndexPopulator[] populators;
+    private final DoubleLongRegister[] samples;
+    private final long[] sizes;
+    private final long firstImportedNodeId;
+    private boolean populationCompleted;
+
+    public BatchingIndexes( final BatchingNeoStore store, final FileSystemAbstraction fileSystem,
+            final File storeDir, Iterable<KernelExtensionFactory<?>> kernelExtensions, Iterable<InputIndex> indexes,
+            LogProvider logProvider ) throws IOException
+    {
+        this.neoStore = store.getNeoStore();
+        this.log = logProvider.getLog( getClass() );
+        this.firstImportedNodeId = store.getNodeStore().getHighId();
+
+        Dependencies dependencies = new Dependencies();
+        dependencies.satisfyDependencies( fileSystem, store.getNeo4jConfig(),
+                new SimpleLogService( logProvider, logProvider ), new NeoStoreSupplier()
+                {
+                    @Override
+                    public NeoStore get()
+                    {
+                        return neoStore;
+                    }
+                } );
+        KernelContext kernelContext = new KernelContext()
+        {
+            @Override
+            public FileSystemAbstraction fileSystem()
+            {
+                return fileSystem;
+            }
+
+            @Override
+            public File storeDir()
+            {
+                return storeDir;
+            }
+        };
+        life.start();
+        try
+        {
+            KernelExtensions extensions = life.add( new KernelExtensions( kernelContext, kernelExtensions,
+                    dependencies, UnsatisfiedDependencyStrategies.ignore() ) );
+
+            LabelScanStoreProvider labelScanStoreProvider =
+                    resolve( extensions, LabelScanStoreProvider.class, LabelScanStoreProvider.HIGHEST_PRIORITIZED );
+            if ( labelScanStoreProvider != null )
+            {
+                labelScanStore = life.add( labelScanStoreProvider.getLabelScanStore() );
+            }
+            else
+            {
+                labelScanStore = null;
+                log.info( "No label scan store available to the import, it will be rebuilt on first startup" );
+            }
+
+            List<IndexRule> existingRules = existingIndexRules();
+            Set<InputIndex> uniqueIndexes = new LinkedHashSet<>();
+            for ( InputIndex index : indexes )
+            {
+                if ( !exists( store, index, existingRules ) )
+                {
+                    uniqueIndexes.add( index );
+                }
+            }
+            int count = existingRules.size() + uniqueIndexes.size();
+            descriptors = new IndexDescriptor[count];
+            populators = new IndexPopulator[count];
+            samples = new DoubleLongRegister[count];
+            sizes = new long[count];
+            if ( count > 0 )
+            {
+                SchemaIndexProvider provider = resolve( extensions, SchemaIndexProvider.class,
+                        SchemaIndexProvider.HIGHEST_PRIORITIZED_OR_NONE );
+                if ( provider == null || provider == SchemaIndexProvider.NO_INDEX_PROVIDER )
+                {
+                    throw new IllegalStateException( "Indexes " + uniqueIndexes + " requested and " +
+                            existingRules.size() + " existing in the store, but there's no " +
+                            "schema index provider available to the import" );
+                }
+                recreateIndexes( store, provider, existingRules );
+                createIndexes( store, provider, new ArrayList<>( uniqueIndexes ), existingRules.size() );
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            life.shutdown();
+            throw e;
+        }
+    }
+
+    private List<IndexRule> existingIndexRules()
+    {
+        List<IndexRule> rules = new ArrayList<>();
+        Iterator<SchemaRule> allRules = neoStore.getSchemaStore().loadAllSchemaRules();
+        while ( allRules.hasNext() )
+        {
+            SchemaRule rule = allRules.next();
+            if ( rule.getKind() != SchemaRule.Kind.INDEX_RULE )
+            {
+                throw new IllegalStateException( "Can't import into a store with " + rule + ", only stores " +
+                        "without uniqueness constraints are supported" );
+            }
+            rules.add( (IndexRule) rule );
+        }
+        return rules;
+    }
+
+    private static boolean exists( BatchingNeoStore store, InputIndex index, List<IndexRule> existingRules )
+    {
+        int labelId = store.getLabelRepository().getOrCreateId( index.label() );
+        int propertyKeyId = store.getPropertyKeyRepository().getOrCreateId( index.propertyKey() );
+        for ( IndexRule rule : existingRules )
+        {
+            if ( rule.getLabel() == labelId && rule.getPropertyKey() == propertyKeyId )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recreateIndexes( BatchingNeoStore store, SchemaIndexProvider provider, List<IndexRule> rules )
+            throws IOException
+    {
+        IndexSamplingConfig samplingConfig = new IndexSamplingConfig( store.getNeo4jConfig() );
+        for ( int i = 0; i < rules.size(); i++ )
+        {
+            IndexRule rule = rules.get( i );
+            if ( !rule.getProviderDescriptor().equals( provider.getProviderDescriptor() ) )
+            {
+                throw new IllegalStateException( "Existing " + rule + " is of another provider than " +
+                        provider.getProviderDescriptor() + ", which is the one available to the import" );
+            }
+
+            // The existing index is populated from scratch, with the existing and the imported nodes alike
+            descriptors[i] = new IndexDescriptor( rule.getLabel(), rule.getPropertyKey() );
+            populators[i] = provider.getPopulator( rule.getId(), descriptors[i], new IndexConfiguration( false ),
+                    samplingConfig );
+            populators[i].create();
+            log.info( "Repopulating existing index " + rule + " as part of the import" );
+        }
+    }
+
+    private void createIndexes( BatchingNeoStore store, SchemaIndexProvider provider, List<InputIndex> indexes,
+            int offset ) throws IOException
+    {
+        SchemaStore schemaStore = neoStore.getSchemaStore();
+        IndexSamplingConfig samplingConfig = new IndexSamplingConfig( store.getNeo4jConfig() );
+        for ( int i = offset; i < offset + indexes.size(); i++ )
+        {
+            InputIndex index = indexes.get( i - offset );
+            int labelId = store.getLabelRepository().getOrCreateId( index.label() );
+            int propertyKeyId = store.getPropertyKeyRepository().getOrCreateId( index.propertyKey() );
+            IndexRule rule = IndexRule.indexRule( schemaStore.nextId(), labelId, propertyKeyId,
+                    provider.getProviderDescriptor() );
+            for ( DynamicRecord record : schemaStore.allocateFrom( rule ) )
+            {
+                schemaStore.updateRecord( record );
+            }
+
+            descriptors[i] = new IndexDescriptor( labelId, propertyKeyId );
+            populators[i] = provider.getPopulator( rule.getId(), descriptors[i], new IndexConfiguration( false ),
+                    samplingConfig );
+            populators[i].create();
+            log.info( "Populating index " + index + " as part of the import" );
+        }
+    }
+
+    private static <T> T resolve( KernelExtensions extensions, Class<T> type, SelectionStrategy selector )
+    {
+        try
+        {
+            return extensions.resolveDependency( type, selector );
+        }
+        catch ( IllegalArgumentException e )
+        {   // There are no such extensions on the class path, f.ex. when migrating a store
+            return null;
+        }
+    }
+
+    /**
+     * @return id of the first node imported, i.e. the first node to write to the {@link #getLabelScanStore()
+     * label scan store}. Nodes with lower ids were in the store before the import.
+     */
+    public long firstImportedNodeId()
+    {
+        return firstImportedNodeId;
+    }
+
+    /**
+     * @return the {@link LabelScanStore} to write the labels of all imported nodes to, or {@code null} if there's
+     * no label scan store available to the import.
+     */
+    public LabelScanStore getLabelScanStore()
+    {
+        return labelScanStore;
+    }
+
+    /**
+     * @return descriptors of the indexes to populate, where the descriptor at index {@code i} goes together
+     * with {@link #populator(int) populator i}.
+     */
+    public IndexDescriptor[] getIndexDescriptors()
+    {
+        return descriptors;
+    }
+
+    public IndexPopulator populator( int index )
+    {
+        return populators[index];
+    }
+
+    /**
+     * Called when all nodes have been added to the {@link #populator(int) populators}. The indexes will be
+     * marked as online, and their counts and samples stored, when this instance is {@link #close() closed}.
+     */
+    public void populationCompleted()
+    {
+        for ( int i = 0; i < populators.length; i++ )
+        {
+            samples[i] = Registers.newDoubleLongRegister();
+            sizes[i] = populators[i].sampleResult( samples[i] );
+        }
+        populationCompleted = true;
+    }
+
+    /**
+     * Closes the indexes and the {@link LabelScanStore}. Index counts are written to the counts store of the
+     * {@link BatchingNeoStore}, so the counts store must not be reset or otherwise updated at this point.
+     */
+    @Override
+    public void close() throws IOException, IndexCapacityExceededException
+    {
+        try
+        {
+            for ( IndexPopulator populator : populators )
+            {
+                if ( populator != null )
+                {
+                    populator.close( populationCompleted );
+                }
+            }
+            if ( populationCompleted && populators.length > 0 )
+            {
+                try ( CountsAccessor.IndexStatsUpdater updater = neoStore.getCounts().updateIndexCounts() )
+                {
+                    for ( int i = 0; i < populators.length; i++ )
+                    {
+                        int labelId = descriptors[i].getLabelId();
+                        int propertyKeyId = descriptors[i].getPropertyKeyId();
+                        updater.replaceIndexSample( labelId, propertyKeyId,
+                                samples[i].readFirst(), samples[i].readSecond() );
+                        updater.replaceIndexUpdateAndSize( labelId, propertyKeyId, 0L, sizes[i] );
+                    }
+                }
+            }
+        }
+        finally
+        {
+            life.shutdown();
+        }
+    }
+}
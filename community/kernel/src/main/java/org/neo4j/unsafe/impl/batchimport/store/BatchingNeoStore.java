@@ -26,6 +26,7 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.recovery.StoreRecoverer;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
@@ -72,6 +73,20 @@ public class BatchingNeoStore implements AutoCloseable
     public BatchingNeoStore( FileSystemAbstraction fileSystem, File storeDir,
                              Configuration config, Monitor writeMonitor, LogProvider logProvider,
                              Monitors monitors, WriterFactory writerFactory, AdditionalInitialIds initialIds )
+    {
+        this( fileSystem, storeDir, config, writeMonitor, logProvider, monitors, writerFactory, initialIds, false );
+    }
+
+    /**
+     * @param incremental whether or not to allow the store to already contain data. If it does then the
+     * existing tokens are read so that they can be used by the imported data, and the last committed
+     * transaction id of the store is kept, instead of being set from {@code initialIds}. A store which
+     * needs recovery is refused, since the import would write over whatever recovery would have restored.
+     */
+    public BatchingNeoStore( FileSystemAbstraction fileSystem, File storeDir,
+                             Configuration config, Monitor writeMonitor, LogProvider logProvider,
+                             Monitors monitors, WriterFactory writerFactory, AdditionalInitialIds initialIds,
+                             boolean incremental )
     {
         this.fileSystem = fileSystem;
         this.monitors = monitors;
@@ -80,12 +95,17 @@ public class BatchingNeoStore implements AutoCloseable
         this.storeDir = storeDir;
         this.neo4jConfig = new Config( stringMap( dense_node_threshold.name(), valueOf( config.denseNodeThreshold() ) ),
                         GraphDatabaseSettings.class );
+        if ( incremental )
+        {
+            verifyNoRecoveryNeeded( fileSystem, storeDir );
+        }
 
         this.pageCache = new BatchingPageCache( fileSystem, config.fileChannelBufferSize(),
                 config.bigFileChannelBufferSizeMultiplier(), writerFactory, writeMonitor );
         this.neoStore = newNeoStore( pageCache );
         flushNeoStoreAndAwaitEverythingWritten();
-        if ( alreadyContainsData( neoStore ) )
+        boolean containsData = alreadyContainsData( neoStore );
+        if ( containsData && !incremental )
         {
             neoStore.close();
             throw new IllegalStateException( storeDir + " already contains data, cannot do import here" );
@@ -98,14 +118,41 @@ public class BatchingNeoStore implements AutoCloseable
         {
             throw new UnderlyingStorageException( e );
         }
-        neoStore.setLastCommittedAndClosedTransactionId(
-                initialIds.lastCommittedTransactionId(), initialIds.lastCommittedTransactionChecksum() );
+        if ( !containsData )
+        {
+            neoStore.setLastCommittedAndClosedTransactionId(
+                    initialIds.lastCommittedTransactionId(), initialIds.lastCommittedTransactionChecksum() );
+        }
         this.propertyKeyRepository = new BatchingPropertyKeyTokenRepository(
                 neoStore.getPropertyKeyTokenStore(), initialIds.highPropertyKeyTokenId() );
         this.labelRepository = new BatchingLabelTokenRepository(
                 neoStore.getLabelTokenStore(), initialIds.highLabelTokenId() );
         this.relationshipTypeRepository = new BatchingRelationshipTypeTokenRepository(
                 neoStore.getRelationshipTypeTokenStore(), initialIds.highRelationshipTypeTokenId() );
+        if ( incremental )
+        {
+            propertyKeyRepository.readExistingTokens();
+            labelRepository.readExistingTokens();
+            relationshipTypeRepository.readExistingTokens();
+        }
+    }
+
+    private static void verifyNoRecoveryNeeded( FileSystemAbstraction fileSystem, File storeDir )
+    {
+        boolean recoveryNeeded;
+        try
+        {
+            recoveryNeeded = new StoreRecoverer( fileSystem ).recoveryNeededAt( storeDir );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        if ( recoveryNeeded )
+        {
+            throw new IllegalStateException( storeDir + " was not shut down cleanly and needs recovery. Start and " +
+                    "shut down the database normally before importing into it" );
+        }
     }
 
     private boolean alreadyContainsData( NeoStore neoStore )
@@ -177,6 +224,16 @@ public class BatchingNeoStore implements AutoCloseable
         return neoStore.getCounts();
     }
 
+    NeoStore getNeoStore()
+    {
+        return neoStore;
+    }
+
+    Config getNeo4jConfig()
+    {
+        return neo4jConfig;
+    }
+
     @Override
     public void close()
     {
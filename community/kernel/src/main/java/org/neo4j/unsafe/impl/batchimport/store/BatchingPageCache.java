@@ -517,12 +517,6 @@ public class BatchingPageCache implements PageCache
 
         @Override
         public boolean next() throws IOException
-        {
-            return next( currentPageId+1 );
-        }
-
-        @Override
-        public boolean next( long pageId ) throws IOException
         {
             if ( !pinned )
             {
@@ -530,6 +524,15 @@ public class BatchingPageCache implements PageCache
                 return true;
             }
 
+            return next( currentPageId+1 );
+        }
+
+        @Override
+        public boolean next( long pageId ) throws IOException
+        {
+            // An explicit page id goes to that page, also on the first call, f.ex. when scanning a store
+            // backwards to find its high id
+            pinned = true;
             ensurePagePlacedOver( pageId );
             return true;
         }
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
 
+import org.neo4j.kernel.impl.core.Token;
 import org.neo4j.kernel.impl.store.TokenStore;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
@@ -45,12 +46,28 @@ public abstract class BatchingTokenRepository<T extends TokenRecord>
     private final Map<String,Integer> tokens = new HashMap<>();
     private final TokenStore<T> store;
     private int highId;
+    // Tokens with lower ids than this already exist in the store and are not created when closing
+    private int firstCreatedId;
 
     public BatchingTokenRepository( TokenStore<T> store, int highId )
     {
         this.store = store;
-        // TODO read the store into the repository, i.e. into existing?
-        this.highId = highId;
+        this.highId = firstCreatedId = highId;
+    }
+
+    /**
+     * Reads the tokens that already exist in the store into this repository, so that names of existing
+     * tokens resolve to their existing ids. Used when importing into a store which already contains data.
+     */
+    public void readExistingTokens()
+    {
+        for ( Token token : store.getTokens( Integer.MAX_VALUE ) )
+        {
+            tokens.put( token.name(), token.id() );
+            highId = max( highId, token.id() + 1 );
+        }
+        highId = max( highId, (int) store.getHighId() );
+        firstCreatedId = highId;
     }
 
     public int getOrCreateId( String name )
@@ -150,7 +167,10 @@ public abstract class BatchingTokenRepository<T extends TokenRecord>
         Map<Integer,String> sorted = new TreeMap<>();
         for ( Map.Entry<String,Integer> entry : tokens.entrySet() )
         {
-            sorted.put( entry.getValue(), entry.getKey() );
+            if ( entry.getValue() >= firstCreatedId )
+            {
+                sorted.put( entry.getValue(), entry.getKey() );
+            }
         }
         return sorted.entrySet();
     }
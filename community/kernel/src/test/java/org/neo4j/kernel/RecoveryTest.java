@@ -32,6 +32,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.DeadSimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile;
@@ -104,6 +105,12 @@ public class RecoveryTest
                     return logVersionRepository.getCurrentLogVersion();
                 }
 
+                @Override
+                public LogPosition getPositionToRecoverFrom()
+                {
+                    return new LogPosition( logVersion, LOG_HEADER_SIZE );
+                }
+
                 @Override
                 public Visitor<LogVersionedStoreChannel, IOException> getRecoverer()
                 {
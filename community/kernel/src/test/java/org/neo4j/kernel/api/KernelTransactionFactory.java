@@ -58,6 +58,6 @@ public class KernelTransactionFactory
                 mock( LegacyIndexTransactionState.class ),
                 mock(Pool.class),
                 Clock.SYSTEM_CLOCK,
-                TransactionTracer.NULL );
+                TransactionTracer.NULL, false );
     }
 }
@@ -375,7 +375,7 @@ public class KernelTransactionImplementationTest
         KernelTransactionImplementation transaction = new KernelTransactionImplementation(
                 null, null, null, null, null, recordState, null, neoStore, new NoOpClient(),
                 hooks, null, headerInformationFactory, commitProcess, transactionMonitor, null, legacyIndexState,
-                mock( Pool.class ), clock, TransactionTracer.NULL );
+                mock( Pool.class ), clock, TransactionTracer.NULL, false );
         transaction.initialize( 0 );
         return transaction;
     }
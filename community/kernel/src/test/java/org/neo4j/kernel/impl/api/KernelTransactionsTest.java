@@ -136,9 +136,9 @@ public class KernelTransactionsTest
 
         return new KernelTransactions( contextSupplier, mock( NeoStore.class ), locks,
                 mock( IntegrityValidator.class ), null, null, null, null, null, null, null,
-                TransactionHeaderInformationFactory.DEFAULT, null, commitProcess, null,
+                TransactionHeaderInformationFactory.DEFAULT, null, null, commitProcess, null,
                 null, new TransactionHooks(), mock( TransactionMonitor.class ), life,
-                new Tracers( "null", NullLog.getInstance() ) );
+                new Tracers( "null", NullLog.getInstance() ), false );
     }
 
     private static TransactionCommitProcess newRememberingCommitProcess( final TransactionRepresentation[] slot )
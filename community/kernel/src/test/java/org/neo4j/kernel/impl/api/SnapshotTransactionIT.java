@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.ConstraintViolationException;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.TransactionFailureException;
+import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.impl.factory.GraphDatabaseFacade;
+import org.neo4j.test.DatabaseRule;
+import org.neo4j.test.ImpermanentDatabaseRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import static org.neo4j.graphdb.DynamicLabel.label;
+import static org.neo4j.graphdb.DynamicRelationshipType.withName;
+import static org.neo4j.helpers.collection.IteratorUtil.asSet;
+import static org.neo4j.helpers.collection.IteratorUtil.asUniqueSet;
+import static org.neo4j.helpers.collection.IteratorUtil.count;
+
+public class SnapshotTransactionIT
+{
+    private static final int MAX_VERSIONS = 100;
+
+    public final @Rule DatabaseRule db = new ImpermanentDatabaseRule()
+    {
+        @Override
+        protected void configure( GraphDatabaseBuilder builder )
+        {
+            super.configure( builder );
+            builder.setConfig( GraphDatabaseSettings.snapshot_record_versions, String.valueOf( MAX_VERSIONS ) );
+        }
+    };
+
+    private final Label label = label( "Person" );
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+
+    @Test
+    public void shouldNotSeeChangesCommittedAfterSnapshotStarted() throws Exception
+    {
+        // GIVEN
+        final Node[] nodes = new Node[2];
+        final Relationship[] relationship = new Relationship[1];
+        try ( Transaction tx = db.beginTx() )
+        {
+            nodes[0] = db.createNode( label );
+            nodes[0].setProperty( "name", "Alice" );
+            nodes[1] = db.createNode( label );
+            nodes[1].setProperty( "name", "Bob" );
+            relationship[0] = nodes[0].createRelationshipTo( nodes[1], withName( "KNOWS" ) );
+            tx.success();
+        }
+
+        try ( Transaction tx = snapshotTx() )
+        {
+            // WHEN
+            final Node[] created = new Node[1];
+            inOtherTransaction( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    nodes[0].setProperty( "name", "Carol" );
+                    nodes[0].addLabel( label( "Other" ) );
+                    relationship[0].delete();
+                    nodes[1].delete();
+                    created[0] = db.createNode( label );
+                }
+            } );
+
+            // THEN
+            assertEquals( "Alice", nodes[0].getProperty( "name" ) );
+            assertEquals( asSet( label ), asSet( nodes[0].getLabels() ) );
+            assertEquals( "Bob", nodes[1].getProperty( "name" ) );
+            assertEquals( nodes[1], nodes[0].getSingleRelationship( withName( "KNOWS" ), Direction.OUTGOING )
+                    .getEndNode() );
+            assertEquals( 1, nodes[0].getDegree() );
+            assertEquals( asSet( nodes[0], nodes[1] ), asUniqueSet( graph().findNodes( label ) ) );
+            try
+            {
+                graph().getNodeById( created[0].getId() );
+                fail( "Should not see a node created after the snapshot" );
+            }
+            catch ( NotFoundException e )
+            {   // Good
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( "Carol", nodes[0].getProperty( "name" ) );
+            assertEquals( 0, nodes[0].getDegree() );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldFindNodesInIndexAsTheyWereInSnapshot() throws Exception
+    {
+        // GIVEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( label ).on( "name" ).create();
+            tx.success();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 10, TimeUnit.SECONDS );
+            tx.success();
+        }
+        final Node alice;
+        try ( Transaction tx = db.beginTx() )
+        {
+            alice = db.createNode( label );
+            alice.setProperty( "name", "Alice" );
+            tx.success();
+        }
+
+        try ( Transaction tx = snapshotTx() )
+        {
+            // WHEN
+            inOtherTransaction( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    alice.setProperty( "name", "Carol" );
+                    db.createNode( label ).setProperty( "name", "Alice" );
+                }
+            } );
+
+            // THEN
+            assertEquals( asSet( alice ), asUniqueSet( graph().findNodes( label, "name", "Alice" ) ) );
+            assertFalse( graph().findNodes( label, "name", "Carol" ).hasNext() );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldNotAllowWritesInSnapshotTransaction() throws Exception
+    {
+        try ( Transaction tx = snapshotTx() )
+        {
+            graph().createNode();
+            fail( "Should not be able to write in a snapshot transaction" );
+        }
+        catch ( ConstraintViolationException e )
+        {
+            assertEquals( "Cannot perform data updates in a read-only snapshot transaction.", e.getMessage() );
+        }
+    }
+
+    @Test
+    public void shouldFailSnapshotNeedingMoreVersionsThanAllowed() throws Exception
+    {
+        // GIVEN
+        final Node node;
+        try ( Transaction tx = db.beginTx() )
+        {
+            node = graph().createNode();
+            node.setProperty( "count", 0 );
+            tx.success();
+        }
+
+        try ( Transaction tx = snapshotTx() )
+        {
+            // WHEN
+            inOtherTransaction( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for ( int i = 0; i < MAX_VERSIONS * 2; i++ )
+                    {
+                        graph().createNode();
+                    }
+                }
+            } );
+
+            // THEN
+            try
+            {
+                node.getProperty( "count" );
+                fail( "Should have failed, since the versions of the snapshot have been dropped" );
+            }
+            catch ( TransactionFailureException e )
+            {   // Good
+            }
+        }
+
+        // and the next snapshot is fine
+        try ( Transaction tx = snapshotTx() )
+        {
+            assertEquals( 0, node.getProperty( "count" ) );
+            assertEquals( MAX_VERSIONS * 2 + 1, count( graph().getAllNodes() ) );
+            tx.success();
+        }
+    }
+
+    private GraphDatabaseAPI graph()
+    {
+        return db.getGraphDatabaseAPI();
+    }
+
+    private Transaction snapshotTx()
+    {
+        return ((GraphDatabaseFacade) graph()).beginSnapshotTx();
+    }
+
+    private void inOtherTransaction( final Runnable changes ) throws Exception
+    {
+        writer.submit( new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                try ( Transaction tx = db.beginTx() )
+                {
+                    changes.run();
+                    tx.success();
+                }
+                return null;
+            }
+        } ).get( 10, TimeUnit.SECONDS );
+    }
+}
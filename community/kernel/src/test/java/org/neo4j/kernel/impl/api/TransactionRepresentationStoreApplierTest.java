@@ -31,6 +31,7 @@ import org.neo4j.helpers.collection.MapUtil;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.ValidatedIndexUpdates;
+import org.neo4j.kernel.impl.api.store.RecordVersions;
 import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.index.IndexDefineCommand;
@@ -81,7 +82,7 @@ public class TransactionRepresentationStoreApplierTest
     {
         TransactionRepresentationStoreApplier applier = new TransactionRepresentationStoreApplier( indexService,
                 labelScanStore, neoStore, cacheAccess, lockService, legacyIndexProviderLookup,
-                indexConfigStore, queue );
+                indexConfigStore, queue, new RecordVersions( neoStore, 0 ) );
 
         TransactionRepresentation transaction = mock( TransactionRepresentation.class );
 
@@ -100,7 +101,8 @@ public class TransactionRepresentationStoreApplierTest
         NodeStore nodeStore = mock( NodeStore.class );
         when( neoStore.getNodeStore() ).thenReturn( nodeStore );
         TransactionRepresentationStoreApplier applier = new TransactionRepresentationStoreApplier( indexService,
-                labelScanStore, neoStore, cacheAccess, lockService, legacyIndexProviderLookup, indexConfigStore, queue );
+                labelScanStore, neoStore, cacheAccess, lockService, legacyIndexProviderLookup, indexConfigStore, queue,
+                new RecordVersions( neoStore, 0 ) );
         long nodeId = 5L;
         TransactionRepresentation transaction = createNodeTransaction( nodeId );
 
@@ -133,7 +135,7 @@ public class TransactionRepresentationStoreApplierTest
         IdOrderingQueue queue = mock( IdOrderingQueue.class );
         TransactionRepresentationStoreApplier applier = new TransactionRepresentationStoreApplier( indexService,
                 labelScanStore, neoStore, cacheAccess, lockService, legacyIndexProviderLookup, indexConfigStore,
-                queue );
+                queue, new RecordVersions( neoStore, 0 ) );
         TransactionRepresentation transaction = new PhysicalTransactionRepresentation( indexTransaction() );
 
         // WHEN
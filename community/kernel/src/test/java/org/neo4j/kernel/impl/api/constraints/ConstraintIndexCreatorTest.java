@@ -210,6 +210,12 @@ public class ConstraintIndexCreatorTest
             };
         }
 
+        @Override
+        public KernelTransaction newSnapshotTransaction()
+        {
+            throw new UnsupportedOperationException( "Please implement" );
+        }
+
         @Override
         public void registerTransactionHook( TransactionHook hook )
         {
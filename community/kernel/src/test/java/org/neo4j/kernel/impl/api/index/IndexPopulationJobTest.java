@@ -170,6 +170,39 @@ public class IndexPopulationJobTest
         verifyNoMoreInteractions( populator );
     }
 
+    @Test
+    public void shouldPopulateMultipleIndexesFromTheSameScan() throws Exception
+    {
+        // GIVEN
+        String value = "Mattias";
+        long node1 = createNode( map( name, value ), FIRST );
+        long node2 = createNode( map( age, 31 ), FIRST );
+        long node3 = createNode( map( age, 35, name, value ), FIRST );
+        IndexPopulator namePopulator = spy( inMemoryPopulator( false ) );
+        IndexPopulator agePopulator = mock( IndexPopulator.class );
+        NeoStoreIndexStoreView storeView = spy( indexStoreView );
+        IndexPopulationJob job = newIndexPopulationJob( FIRST, name, namePopulator, new FlippableIndexProxy(),
+                storeView, NullLogProvider.getInstance(), false );
+        FlippableIndexProxy ageFlipper = new FlippableIndexProxy();
+        ageFlipper.setFlipTarget( mock( IndexProxyFactory.class ) );
+        job.addPopulator( agePopulator, indexDescriptor( FIRST, age ), new IndexConfiguration( false ),
+                PROVIDER_DESCRIPTOR, format( ":%s(%s)", FIRST.name(), age ), ageFlipper,
+                mock( FailedIndexProxyFactory.class ) );
+
+        // WHEN
+        job.run();
+
+        // THEN
+        verify( namePopulator ).add( node1, value );
+        verify( namePopulator ).add( node3, value );
+        verify( namePopulator ).close( true );
+        verify( agePopulator ).add( node2, 31 );
+        verify( agePopulator ).add( node3, 35 );
+        verify( agePopulator ).close( true );
+        verify( storeView, times( 1 ) ).visitNodesInRange( any( int[].class ), any( int[].class ), anyLong(),
+                anyLong(), Matchers.<Visitor<NodePropertyUpdate,RuntimeException>>any() );
+    }
+
     @Test
     public void shouldIndexConcurrentUpdatesWhilePopulating() throws Exception
     {
@@ -184,7 +217,7 @@ public class IndexPopulationJobTest
         NodeChangingWriter populator = new NodeChangingWriter( changeNode, propertyKeyId, value1, changedValue,
                 labelId );
         IndexPopulationJob job = newIndexPopulationJob( FIRST, name, populator, new FlippableIndexProxy(), false );
-        populator.setJob( job );
+        populator.setPopulation( population );
 
         // WHEN
         job.run();
@@ -209,7 +242,7 @@ public class IndexPopulationJobTest
         int propertyKeyId = getPropertyKeyForName( name );
         NodeDeletingWriter populator = new NodeDeletingWriter( node2, propertyKeyId, value2, labelId );
         IndexPopulationJob job = newIndexPopulationJob( FIRST, name, populator, new FlippableIndexProxy(), false );
-        populator.setJob( job );
+        populator.setPopulation( population );
 
         // WHEN
         job.run();
@@ -249,7 +282,8 @@ public class IndexPopulationJobTest
         FlippableIndexProxy index = mock( FlippableIndexProxy.class );
         IndexStoreView storeView = mock( IndexStoreView.class );
         ControlledStoreScan storeScan = new ControlledStoreScan();
-        when( storeView.visitNodesWithPropertyAndLabel( any( IndexDescriptor.class ),
+        when( storeView.nodeHighId() ).thenReturn( 1L );
+        when( storeView.visitNodesInRange( any( int[].class ), any( int[].class ), anyLong(), anyLong(),
                 Matchers.<Visitor<NodePropertyUpdate, RuntimeException>>any() ) ).thenReturn( storeScan );
 
         final IndexPopulationJob job = newIndexPopulationJob( FIRST, name, populator, index, storeView,
@@ -427,7 +461,7 @@ public class IndexPopulationJobTest
     private class NodeChangingWriter extends IndexPopulator.Adapter
     {
         private final Set<Pair<Long, Object>> added = new HashSet<>();
-        private IndexPopulationJob job;
+        private IndexPopulationJob.IndexPopulation population;
         private final long nodeToChange;
         private final Object newValue;
         private final Object previousValue;
@@ -449,7 +483,7 @@ public class IndexPopulationJobTest
             if ( nodeId == 2 )
             {
                 long[] labels = new long[]{label};
-                job.update( change( nodeToChange, propertyKeyId, previousValue, labels, newValue, labels ) );
+                population.update( change( nodeToChange, propertyKeyId, previousValue, labels, newValue, labels ) );
             }
             added.add( Pair.of( nodeId, propertyValue ) );
         }
@@ -493,9 +527,9 @@ public class IndexPopulationJobTest
             };
         }
 
-        public void setJob( IndexPopulationJob job )
+        public void setPopulation( IndexPopulationJob.IndexPopulation population )
         {
-            this.job = job;
+            this.population = population;
         }
     }
 
@@ -504,7 +538,7 @@ public class IndexPopulationJobTest
         private final Map<Long, Object> added = new HashMap<>();
         private final Map<Long, Object> removed = new HashMap<>();
         private final long nodeToDelete;
-        private IndexPopulationJob job;
+        private IndexPopulationJob.IndexPopulation population;
         private final int propertyKeyId;
         private final Object valueToDelete;
         private final int label;
@@ -517,9 +551,9 @@ public class IndexPopulationJobTest
             this.label = label;
         }
 
-        public void setJob( IndexPopulationJob job )
+        public void setPopulation( IndexPopulationJob.IndexPopulation population )
         {
-            this.job = job;
+            this.population = population;
         }
 
         @Override
@@ -527,7 +561,7 @@ public class IndexPopulationJobTest
         {
             if ( nodeId == 2 )
             {
-                job.update( remove( nodeToDelete, propertyKeyId, valueToDelete, new long[]{label} ) );
+                population.update( remove( nodeToDelete, propertyKeyId, valueToDelete, new long[]{label} ) );
             }
             added.put( nodeId, propertyValue );
         }
@@ -593,6 +627,7 @@ public class IndexPopulationJobTest
     private CountsTracker counts;
     private NeoStoreIndexStoreView indexStoreView;
     private KernelSchemaStateStore stateHolder;
+    private IndexPopulationJob.IndexPopulation population;
 
     private int labelId;
     public final @Rule CleanupRule cleanup = new CleanupRule();
@@ -648,12 +683,12 @@ public class IndexPopulationJobTest
     {
         IndexDescriptor descriptor = indexDescriptor( label, propertyKey );
         flipper.setFlipTarget( mock( IndexProxyFactory.class ) );
-        return new IndexPopulationJob(
-                descriptor, new IndexConfiguration( constraint ), PROVIDER_DESCRIPTOR,
-                format( ":%s(%s)", label.name(), propertyKey ),
-                failureDelegateFactory,
-                populator, flipper, storeView,
-                stateHolder, logProvider, IndexingService.NO_MONITOR );
+        IndexPopulationJob job = new IndexPopulationJob( storeView, stateHolder, null, 1, logProvider,
+                IndexingService.NO_MONITOR );
+        population = job.addPopulator( populator, descriptor, new IndexConfiguration( constraint ),
+                PROVIDER_DESCRIPTOR, format( ":%s(%s)", label.name(), propertyKey ), flipper,
+                failureDelegateFactory );
+        return job;
     }
 
     private IndexDescriptor indexDescriptor( Label label, String propertyKey )
@@ -120,4 +120,10 @@ public class IndexProxyAdapter implements IndexProxy
     {
         throw new IllegalStateException( "This index isn't failed" );
     }
+
+    @Override
+    public PopulationProgress getIndexPopulationProgress()
+    {
+        return PopulationProgress.NONE;
+    }
 }
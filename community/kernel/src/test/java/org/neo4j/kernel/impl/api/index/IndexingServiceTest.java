@@ -209,11 +209,13 @@ public class IndexingServiceTest
         order.verify( populator ).add( 1, "value1" );
 
 
-        // invoked from indexAllNodes(), empty because the id we added (2) is bigger than the one we indexed (1)
+        // invoked from indexAllNodes(), with value2 since the id we added (2) is in the range of ids which
+        // has been scanned by the time the update is applied
         //
-        // (We don't get an update for value2 here because we mock a fake store that doesn't contain it
+        // (We don't get value2 from the scan itself because we mock a fake store that doesn't contain it
         //  just for the purpose of testing this behavior)
         order.verify( populator ).newPopulatingUpdater( storeView );
+        order.verify( updater ).process( value2 );
         order.verify( updater ).close();
         order.verify( populator ).verifyDeferredConstraints( storeView );
         order.verify( populator ).sampleResult( any( Register.DoubleLong.Out.class ) );
@@ -290,7 +292,7 @@ public class IndexingServiceTest
         IndexRule failedIndex     = indexRule( 3, 2, 2, PROVIDER_DESCRIPTOR );
 
         IndexingService indexingService = life.add( IndexingService.create( new IndexSamplingConfig( new Config() ),
-                mock( JobScheduler.class ), providerMap, mock( IndexStoreView.class ), mockLookup,
+                mock( JobScheduler.class ), 1, providerMap, mock( IndexStoreView.class ), mockLookup,
                 mock( UpdateableSchemaState.class ), asList( onlineIndex, populatingIndex, failedIndex ),
                 logProvider, IndexingService.NO_MONITOR ) );
 
@@ -329,7 +331,7 @@ public class IndexingServiceTest
         IndexRule failedIndex     = indexRule( 3, 2, 2, PROVIDER_DESCRIPTOR );
 
         IndexingService indexingService = IndexingService.create( new IndexSamplingConfig( new Config() ),
-                mock( JobScheduler.class ), providerMap, storeView, mockLookup, mock( UpdateableSchemaState.class ),
+                mock( JobScheduler.class ), 1, providerMap, storeView, mockLookup, mock( UpdateableSchemaState.class ),
                 asList( onlineIndex, populatingIndex, failedIndex ), logProvider, IndexingService.NO_MONITOR );
 
         when( provider.getInitialState( onlineIndex.getId() ) ).thenReturn( ONLINE );
@@ -806,6 +808,7 @@ public class IndexingServiceTest
 
         return life.add( IndexingService.create( new IndexSamplingConfig( new Config() ),
                         life.add( new Neo4jJobScheduler() ),
+                        1,
                         new DefaultSchemaIndexProviderMap( indexProvider ),
                         storeView,
                         nameLookup,
@@ -832,14 +835,22 @@ public class IndexingServiceTest
 
         void getsProcessedByStoreScanFrom( IndexStoreView mock )
         {
-            when( mock.visitNodesWithPropertyAndLabel( any( IndexDescriptor.class ), visitor( any( Visitor.class ) ) ) )
-                    .thenAnswer( this );
+            long highId = 0;
+            for ( NodePropertyUpdate update : updates )
+            {
+                highId = Math.max( highId, update.getNodeId() + 1 );
+            }
+            when( mock.nodeHighId() ).thenReturn( highId );
+            when( mock.visitNodesInRange( any( int[].class ), any( int[].class ), anyLong(), anyLong(),
+                    visitor( any( Visitor.class ) ) ) ).thenAnswer( this );
         }
 
         @Override
         public StoreScan<RuntimeException> answer( InvocationOnMock invocation ) throws Throwable
         {
-            final Visitor<NodePropertyUpdate, RuntimeException> visitor = visitor( invocation.getArguments()[1] );
+            final long fromNodeId = (Long) invocation.getArguments()[2];
+            final long toNodeId = (Long) invocation.getArguments()[3];
+            final Visitor<NodePropertyUpdate, RuntimeException> visitor = visitor( invocation.getArguments()[4] );
             return new StoreScan<RuntimeException>()
             {
                 @Override
@@ -847,7 +858,10 @@ public class IndexingServiceTest
                 {
                     for ( NodePropertyUpdate update : updates )
                     {
-                        visitor.visit( update );
+                        if ( update.getNodeId() >= fromNodeId && update.getNodeId() < toNodeId )
+                        {
+                            visitor.visit( update );
+                        }
                     }
                 }
 
@@ -81,6 +81,79 @@ class HashBasedIndex extends InMemoryIndexImplementation
         return toPrimitiveIterator( all.iterator() );
     }
 
+    @Override
+    public PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower,
+                                                    Number upper, boolean includeUpper )
+    {
+        Set<Long> nodeIds = new HashSet<>();
+        for ( Map.Entry<Object,Set<Long>> entry : data().entrySet() )
+        {
+            Object key = entry.getKey();
+            if ( key instanceof Number )
+            {
+                double value = ((Number) key).doubleValue();
+                if ( lower != null && (includeLower ? value < lower.doubleValue() : value <= lower.doubleValue()) )
+                {
+                    continue;
+                }
+                if ( upper != null && (includeUpper ? value > upper.doubleValue() : value >= upper.doubleValue()) )
+                {
+                    continue;
+                }
+                nodeIds.addAll( entry.getValue() );
+            }
+        }
+        return toPrimitiveIterator( nodeIds.iterator() );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+                                                    String upper, boolean includeUpper )
+    {
+        Set<Long> nodeIds = new HashSet<>();
+        for ( Map.Entry<Object,Set<Long>> entry : data().entrySet() )
+        {
+            Object key = entry.getKey();
+            if ( key instanceof String )
+            {
+                String value = (String) key;
+                if ( lower != null )
+                {
+                    int comparison = value.compareTo( lower );
+                    if ( comparison < 0 || (comparison == 0 && !includeLower) )
+                    {
+                        continue;
+                    }
+                }
+                if ( upper != null )
+                {
+                    int comparison = value.compareTo( upper );
+                    if ( comparison > 0 || (comparison == 0 && !includeUpper) )
+                    {
+                        continue;
+                    }
+                }
+                nodeIds.addAll( entry.getValue() );
+            }
+        }
+        return toPrimitiveIterator( nodeIds.iterator() );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+    {
+        Set<Long> nodeIds = new HashSet<>();
+        for ( Map.Entry<Object,Set<Long>> entry : data().entrySet() )
+        {
+            Object key = entry.getKey();
+            if ( key instanceof String && ((String) key).startsWith( prefix ) )
+            {
+                nodeIds.addAll( entry.getValue() );
+            }
+        }
+        return toPrimitiveIterator( nodeIds.iterator() );
+    }
+
     @Override
     boolean doAdd( Object propertyValue, long nodeId, boolean applyIdempotently )
     {
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.state;
+
+import static java.lang.System.nanoTime;
+import static org.neo4j.kernel.api.properties.Property.intProperty;
+import static org.neo4j.kernel.api.properties.Property.noNodeProperty;
+
+/**
+ * Measures how much Java heap {@link TxState} holds per changed entity, for a few typical bulk update workloads.
+ * <p>
+ * Run with {@code -DBenchmark=<benchmark>}, and optionally {@code -DImplementation=<implementation>},
+ * {@code -Diterations} and {@code -DentityCount}. Give the JVM enough heap to hold the state of
+ * {@code entityCount} changes, so that the measurement is not disturbed by {@link OutOfMemoryError}s.
+ */
+public class TxStateFootprintBenchmark
+{
+    public static void main( String... args )
+    {
+        Benchmark benchmark = get( Benchmark.class, null );
+        Implementation impl = get( Implementation.class, Implementation.ON_HEAP.name() );
+        int iterations = Integer.getInteger( "iterations", 5 );
+        int entityCount = Integer.getInteger( "entityCount", 1_000_000 );
+        System.out.printf( "=== %s / %s - %d entities ===%n", benchmark, impl, entityCount );
+        for ( int i = 0; i < iterations; i++ )
+        {
+            execute( benchmark, impl, entityCount );
+        }
+    }
+
+    enum Benchmark
+    {
+        CREATE_NODES
+                {
+                    @Override
+                    void apply( TxState state, long id )
+                    {
+                        state.nodeDoCreate( id );
+                        state.nodeDoAddLabel( 0, id );
+                        state.nodeDoReplaceProperty( id, noNodeProperty( id, 0 ), intProperty( 0, (int) id ) );
+                    }
+                },
+        UPDATE_NODES
+                {
+                    @Override
+                    void apply( TxState state, long id )
+                    {
+                        state.nodeDoReplaceProperty( id, intProperty( 0, 0 ), intProperty( 0, (int) id ) );
+                    }
+                },
+        CREATE_AND_DELETE_NODES
+                {
+                    @Override
+                    void apply( TxState state, long id )
+                    {
+                        state.nodeDoCreate( id );
+                        state.nodeDoDelete( id );
+                    }
+                },
+        CREATE_RELATIONSHIPS
+                {
+                    @Override
+                    void apply( TxState state, long id )
+                    {
+                        state.relationshipDoCreate( id, 0, id, id + 1 );
+                    }
+                };
+
+        abstract void apply( TxState state, long id );
+    }
+
+    enum Implementation
+    {
+        ON_HEAP( false ),
+        OFF_HEAP( true );
+
+        private final boolean offHeap;
+
+        Implementation( boolean offHeap )
+        {
+            this.offHeap = offHeap;
+        }
+    }
+
+    static void execute( Benchmark benchmark, Implementation impl, int entityCount )
+    {
+        long heapBefore = usedHeap();
+        long time = nanoTime();
+        TxState state = new TxState( impl.offHeap );
+        try
+        {
+            for ( long id = 0; id < entityCount; id++ )
+            {
+                benchmark.apply( state, id );
+            }
+            time = nanoTime() - time;
+            long heapAfter = usedHeap();
+            System.out.printf( "heap=%.3fMB; perEntity=%.1fB; time=%.3fms; throughput=%.0fchanges/s%n",
+                    (heapAfter - heapBefore) / (1024.0 * 1024.0), (heapAfter - heapBefore) / (double) entityCount,
+                    time / 1_000_000.0, entityCount / (time / 1_000_000_000.0) );
+            // Keep the state reachable until it has been measured.
+            if ( !state.hasChanges() )
+            {
+                throw new IllegalStateException( "No changes in " + state );
+            }
+        }
+        finally
+        {
+            state.release();
+        }
+    }
+
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // A few rounds, since a single System.gc() does not necessarily collect everything.
+        for ( int i = 0; i < 5; i++ )
+        {
+            System.gc();
+            used = Math.min( used, runtime.totalMemory() - runtime.freeMemory() );
+        }
+        return used;
+    }
+
+    static <E extends Enum<E>> E get( Class<E> type, String defaultValue )
+    {
+        String value = System.getProperty( type.getSimpleName(), defaultValue );
+        if ( value == null )
+        {
+            throw new IllegalArgumentException( type.getSimpleName() + " not specified." );
+        }
+        try
+        {
+            return Enum.valueOf( type, value );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new IllegalArgumentException( "No such " + type.getSimpleName() + ": " + value );
+        }
+    }
+}
@@ -47,6 +47,7 @@ import org.neo4j.test.RepeatRule;
 
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -465,6 +466,31 @@ public class TxStateTest
         } );
     }
 
+    @Test
+    public void shouldRememberEntitiesCreatedAndDeletedInTxWhenKeptOffHeap() throws Exception
+    {
+        // GIVEN
+        TxState offHeapState = new TxState( true );
+        try
+        {
+            // WHEN
+            offHeapState.nodeDoCreate( 0 );
+            offHeapState.nodeDoDelete( 0 );
+            offHeapState.relationshipDoCreate( 1, 0, 2, 3 );
+            offHeapState.relationshipDoDelete( 1, 0, 2, 3 );
+
+            // THEN
+            assertTrue( offHeapState.nodeIsDeletedInThisTx( 0 ) );
+            assertFalse( offHeapState.nodeIsDeletedInThisTx( 1 ) );
+            assertTrue( offHeapState.relationshipIsDeletedInThisTx( 1 ) );
+            assertFalse( offHeapState.relationshipIsDeletedInThisTx( 0 ) );
+        }
+        finally
+        {
+            offHeapState.release();
+        }
+    }
+
     @Test
     @RepeatRule.Repeat(times = 100)
     public void shouldVisitCreatedNodesBeforeDeletedNodes() throws Exception
@@ -20,10 +20,15 @@
 package org.neo4j.kernel.impl.api.store;
 
 import org.junit.Test;
+import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Transaction;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.TestCase.assertTrue;
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
 import static org.neo4j.graphdb.DynamicRelationshipType.withName;
 import static org.neo4j.helpers.collection.MapUtil.map;
 
@@ -80,4 +85,33 @@ public class DiskLayerNodeAndRelTest extends DiskLayerTest
         assertFalse( disk.relationshipExists( neverExisted ) );
     }
 
+    @Test
+    public void shouldCountDegreesOfSparseNode() throws Exception
+    {
+        // Given
+        long node;
+        try( Transaction tx = db.beginTx() )
+        {
+            Node center = db.createNode();
+            node = center.getId();
+            center.createRelationshipTo( db.createNode(), withName( "A" ) );
+            center.createRelationshipTo( db.createNode(), withName( "A" ) );
+            center.createRelationshipTo( db.createNode(), withName( "B" ) ).delete();
+            db.createNode().createRelationshipTo( center, withName( "B" ) );
+            center.createRelationshipTo( center, withName( "A" ) );
+            tx.success();
+        }
+        int typeA = disk.relationshipTypeGetForName( "A" );
+        int typeB = disk.relationshipTypeGetForName( "B" );
+
+        // When & then
+        assertEquals( 4, disk.nodeGetDegree( node, BOTH ) );
+        assertEquals( 3, disk.nodeGetDegree( node, OUTGOING ) );
+        assertEquals( 2, disk.nodeGetDegree( node, INCOMING ) );
+        assertEquals( 3, disk.nodeGetDegree( node, BOTH, typeA ) );
+        assertEquals( 3, disk.nodeGetDegree( node, OUTGOING, typeA ) );
+        assertEquals( 1, disk.nodeGetDegree( node, INCOMING, typeA ) );
+        assertEquals( 1, disk.nodeGetDegree( node, INCOMING, typeB ) );
+        assertEquals( 0, disk.nodeGetDegree( node, OUTGOING, typeB ) );
+    }
 }
@@ -20,12 +20,10 @@
 package org.neo4j.kernel.impl.api.store;
 
 import org.junit.Test;
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
 
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
-import org.neo4j.kernel.impl.api.state.TxStateTest;
 import org.neo4j.kernel.impl.util.Cursors;
 import org.neo4j.kernel.impl.util.register.NeoRegister;
 import org.neo4j.register.Register;
@@ -36,8 +34,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
-import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,24 +48,29 @@ import static org.neo4j.register.Registers.newObjectRegister;
 public class StoreExpandCursorTest
 {
     @Test
-    public void shouldDelegateToGetRelsAndRelVisitor() throws Exception
+    public void shouldDelegateToGetRelsAndVisitRelsThroughTheIterator() throws Exception
     {
         // Given
-        RelationshipIterator rels = TxStateTest.wrapInRelationshipIterator( iterator( 1 ) );
-
-        CacheLayer cache = mock(CacheLayer.class);
-        when(cache.nodeListRelationships( anyLong(), any(Direction.class), any(int[].class) )).thenReturn( rels );
-
-        doAnswer(  new Answer<Object>()
+        final PrimitiveLongIterator relIds = iterator( 1 );
+        RelationshipIterator rels = new RelationshipIterator.BaseIterator()
         {
             @Override
-            public Object answer( InvocationOnMock invocation ) throws Throwable
+            protected boolean fetchNext()
             {
-                RelationshipVisitor visitor = (RelationshipVisitor) invocation.getArguments()[1];
-                visitor.visit( (Long)invocation.getArguments()[0], 0, 1337, 2 );
-                return null;
+                return relIds.hasNext() && next( relIds.next() );
             }
-        }  ).when(cache).relationshipVisit( anyLong(), any(RelationshipVisitor.class) );
+
+            @Override
+            public <EXCEPTION extends Exception> boolean relationshipVisit( long relationshipId,
+                    RelationshipVisitor<EXCEPTION> visitor ) throws EXCEPTION
+            {
+                visitor.visit( relationshipId, 0, 1337, 2 );
+                return false;
+            }
+        };
+
+        CacheLayer cache = mock(CacheLayer.class);
+        when(cache.nodeListRelationships( anyLong(), any(Direction.class), any(int[].class) )).thenReturn( rels );
 
         // IO registers we'll need
         NeoRegister.RelationshipRegister relId = newRelationshipRegister();
@@ -93,5 +96,6 @@ public class StoreExpandCursorTest
         assertThat( direction.read(), equalTo(Direction.OUTGOING));
 
         assertFalse( cursor.next() );
+        verify( cache, never() ).relationshipVisit( anyLong(), any( RelationshipVisitor.class ) );
     }
 }
@@ -42,6 +42,7 @@ import org.neo4j.test.PageCacheRule;
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.neo4j.kernel.impl.store.NeoStore.DEFAULT_NAME;
 import static org.neo4j.kernel.impl.store.StoreFactory.RELATIONSHIP_STORE_NAME;
 import static org.neo4j.kernel.impl.store.impl.StoreMatchers.records;
@@ -122,4 +123,36 @@ public class RelationshipFormatComplianceTest
         assertThat( record, equalTo( expectedRecord ) );
         relStore.close();
     }
+
+    @Test
+    public void readsFieldsThroughRecordCursorOfRelationshipStore() throws Throwable
+    {
+        // Given
+        NeoStore neoStore = storeFactory.createNeoStore();
+        RelationshipStore relStore = neoStore.getRelationshipStore();
+
+        RelationshipRecord expectedRecord = new RelationshipRecord( relStore.nextId(), 0x3_0000_0001L, 1, 1337 );
+        expectedRecord.setInUse( true );
+        expectedRecord.setFirstPrevRel( 10 );
+        expectedRecord.setFirstNextRel( 0x1_0000_0002L );
+        expectedRecord.setSecondPrevRel( 0x2_0000_0003L );
+        expectedRecord.setSecondNextRel( 4 );
+        relStore.updateRecord( expectedRecord );
+
+        // When
+        RelationshipStoreFormat_v2_2.RelationshipRecordCursor cursor = relStore.newRecordCursor();
+        assertTrue( cursor.position( expectedRecord.getId() ) );
+
+        // Then
+        assertTrue( cursor.inUse() );
+        assertThat( cursor.firstNode(), equalTo( 0x3_0000_0001L ) );
+        assertThat( cursor.secondNode(), equalTo( 1L ) );
+        assertThat( cursor.type(), equalTo( 1337 ) );
+        assertThat( cursor.firstPrevRel(), equalTo( 10L ) );
+        assertThat( cursor.firstNextRel(), equalTo( 0x1_0000_0002L ) );
+        assertThat( cursor.secondPrevRel(), equalTo( 0x2_0000_0003L ) );
+        assertThat( cursor.secondNextRel(), equalTo( 4L ) );
+        cursor.close();
+        neoStore.close();
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.id;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrentIdGeneratorTest
+{
+    public final
+    @Rule
+    EphemeralFileSystemRule fsr = new EphemeralFileSystemRule();
+    private final File file = new File( "ids" );
+
+    @Test
+    public void shouldHandOutUniqueIdsToConcurrentThreads() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file );
+        final IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 1_000_000, false, 0, 16 );
+        int threads = 8;
+        final int idsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+
+        // WHEN
+        List<Future<long[]>> futures = new ArrayList<>();
+        for ( int i = 0; i < threads; i++ )
+        {
+            futures.add( executor.submit( new Callable<long[]>()
+            {
+                @Override
+                public long[] call()
+                {
+                    long[] ids = new long[idsPerThread];
+                    for ( int j = 0; j < idsPerThread; j++ )
+                    {
+                        ids[j] = idGenerator.nextId();
+                    }
+                    return ids;
+                }
+            } ) );
+        }
+
+        // THEN
+        Set<Long> allIds = new HashSet<>();
+        for ( Future<long[]> future : futures )
+        {
+            for ( long id : future.get() )
+            {
+                assertTrue( "Id " + id + " was handed out more than once", allIds.add( id ) );
+                assertTrue( id < idGenerator.getHighId() );
+            }
+        }
+        executor.shutdown();
+        assertEquals( threads * idsPerThread, allIds.size() );
+    }
+
+    @Test
+    public void shouldNotLoseReservedIdsOfThreadsThatHaveDied() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file );
+        final IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 1_000_000, false, 0, 16 );
+        int threads = 1_000;
+        final long[] ids = new long[threads];
+
+        // WHEN
+        for ( int i = 0; i < threads; i++ )
+        {
+            final int thread = i;
+            Thread shortLived = new Thread( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    ids[thread] = idGenerator.nextId();
+                }
+            } );
+            shortLived.start();
+            shortLived.join();
+        }
+
+        // THEN
+        Set<Long> allIds = new HashSet<>();
+        for ( long id : ids )
+        {
+            assertTrue( "Id " + id + " was handed out more than once", allIds.add( id ) );
+        }
+        // Without reclaiming, every thread would have stranded the rest of its range of 16 ids
+        assertTrue( "High id " + idGenerator.getHighId(), idGenerator.getHighId() <= threads + 16 );
+    }
+
+    @Test
+    public void shouldReuseFreedIdsRightAwayWithAggressiveReuse() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file );
+        IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 100, true, 0, 4 );
+        long id = idGenerator.nextId();
+
+        // WHEN
+        idGenerator.freeId( id );
+
+        // THEN
+        assertEquals( id, idGenerator.nextId() );
+    }
+
+    @Test
+    public void shouldNotReuseFreedIdsBeforeNextSessionWithoutAggressiveReuse() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file );
+        IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 100, false, 0, 4 );
+        long freedId = idGenerator.nextId();
+        idGenerator.freeId( freedId );
+
+        // WHEN
+        long nextId = idGenerator.nextId();
+        idGenerator.close();
+        idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 100, false, 0, 4 );
+
+        // THEN
+        assertThat( nextId, equalTo( freedId + 1 ) );
+        assertEquals( freedId, idGenerator.nextId() );
+    }
+
+    @Test
+    public void shouldKeepReservedButUnusedIdsAcrossSessions() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file );
+        IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 100, false, 0, 10 );
+        idGenerator.nextId();
+        idGenerator.nextId();
+
+        // WHEN
+        idGenerator.close();
+        idGenerator = new IdGeneratorImpl( fsr.get(), file, 100, 100, false, 0 );
+
+        // THEN
+        assertEquals( 10, idGenerator.getHighId() );
+        for ( long id = 2; id <= 10; id++ )
+        {
+            assertEquals( id, idGenerator.nextId() );
+        }
+    }
+
+    @Test
+    public void shouldHandOutRangesWithinCapacity() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file );
+        IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 5, false, 0, 4 );
+        for ( int i = 0; i <= 5; i++ )
+        {
+            assertEquals( i, idGenerator.nextId() );
+        }
+
+        // WHEN
+        try
+        {
+            idGenerator.nextId();
+            fail( "Should have failed" );
+        }
+        catch ( UnderlyingStorageException e )
+        {   // THEN good
+        }
+    }
+
+    @Test
+    public void shouldDropReservedRangesWhenHighIdIsMovedBackwards() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file );
+        IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 100, false, 0, 10 );
+        idGenerator.nextId();
+
+        // WHEN
+        idGenerator.setHighId( 0 );
+
+        // THEN
+        assertEquals( 0, idGenerator.nextId() );
+        assertEquals( 10, idGenerator.getHighId() );
+    }
+
+    @Test
+    public void shouldHandOutBatchesAfterReusableIds() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file );
+        IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 100, 100, true, 0, 4 );
+        idGenerator.nextId();
+        idGenerator.freeId( 0 );
+
+        // WHEN
+        IdRange range = idGenerator.nextIdBatch( 3 );
+
+        // THEN
+        assertThat( range.getDefragIds(), equalTo( new long[]{0} ) );
+        assertEquals( 4, range.getRangeStart() );
+        assertEquals( 2, range.getRangeLength() );
+        assertEquals( 6, idGenerator.getHighId() );
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.id;
+
+import java.io.File;
+
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+
+/**
+ * Compares {@link IdGeneratorImpl} with {@link ConcurrentIdGenerator}, with a growing number of threads.
+ * <p>
+ * Run with {@code -DBenchmark=<benchmark> -DImplementation=<implementation>}, and optionally {@code -DminThreads},
+ * {@code -DmaxThreads}, {@code -Diterations} and {@code -DidCount}.
+ */
+public class IdGeneratorMicroBenchmark
+{
+    public static void main( String... args )
+    {
+        get( Benchmark.class ).execute( get( Implementation.class ) );
+    }
+
+    enum Benchmark
+    {
+        NEXT_ID
+                {
+                    @Override
+                    void execute( Implementation impl )
+                    {
+                        run( this, impl, false, false );
+                    }
+                },
+        NEXT_AND_FREE_ID
+                {
+                    @Override
+                    void execute( Implementation impl )
+                    {
+                        run( this, impl, true, false );
+                    }
+                },
+        NEXT_AND_FREE_ID_AGGRESSIVE
+                {
+                    @Override
+                    void execute( Implementation impl )
+                    {
+                        run( this, impl, true, true );
+                    }
+                };
+
+        abstract void execute( Implementation impl );
+
+        private static void run( Benchmark benchmark, Implementation impl, boolean free, boolean aggressiveReuse )
+        {
+            int minThreads = Integer.getInteger( "minThreads", 1 );
+            int maxThreads = Integer.getInteger( "maxThreads", cores() * 2 );
+            int iterations = Integer.getInteger( "iterations", 20 );
+            int idCount = Integer.getInteger( "idCount", 1_000_000 );
+            for ( int threads = minThreads; threads <= maxThreads; threads++ )
+            {
+                System.out.printf( "=== %s / %s - %s threads ===%n", benchmark, impl, threads );
+                executeIds( impl, threads, iterations, idCount, free, aggressiveReuse );
+            }
+        }
+    }
+
+    enum Implementation
+    {
+        SYNCHRONIZED
+                {
+                    @Override
+                    IdGenerator create( FileSystemAbstraction fs, File file, boolean aggressiveReuse )
+                    {
+                        return new IdGeneratorImpl( fs, file, 1024, Long.MAX_VALUE, aggressiveReuse, 0 );
+                    }
+                },
+        CONCURRENT
+                {
+                    @Override
+                    IdGenerator create( FileSystemAbstraction fs, File file, boolean aggressiveReuse )
+                    {
+                        return new ConcurrentIdGenerator( fs, file, 1024, Long.MAX_VALUE, aggressiveReuse, 0,
+                                ConcurrentIdGenerator.DEFAULT_RANGE_SIZE );
+                    }
+                };
+
+        abstract IdGenerator create( FileSystemAbstraction fs, File file, boolean aggressiveReuse );
+    }
+
+    static class IdThread extends MeasuringThread
+    {
+        private final IdGenerator ids;
+        private final boolean free;
+
+        IdThread( IdGenerator ids, int idCount, boolean free )
+        {
+            super( idCount );
+            this.ids = ids;
+            this.free = free;
+        }
+
+        @Override
+        protected void execute()
+        {
+            long time = nanoTime();
+            long id = ids.nextId();
+            if ( free )
+            {
+                ids.freeId( id );
+            }
+            update( nanoTime() - time );
+        }
+    }
+
+    static void executeIds( Implementation impl, int threadCount, int iterations, int idCount, boolean free,
+                            boolean aggressiveReuse )
+    {
+        File file = new File( "ids" );
+        for ( int i = 0; i < iterations; i++ )
+        {
+            EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
+            try
+            {
+                IdGeneratorImpl.createGenerator( fs, file );
+                IdGenerator ids = impl.create( fs, file, aggressiveReuse );
+                MeasuringThread[] threads = new MeasuringThread[threadCount];
+                for ( int t = 0; t < threadCount; t++ )
+                {
+                    threads[t] = new IdThread( ids, idCount, free );
+                }
+                execute( threads );
+                ids.close();
+            }
+            finally
+            {
+                fs.shutdown();
+            }
+        }
+    }
+
+    private static void execute( MeasuringThread[] threads )
+    {
+        long startTime = nanoTime();
+        for ( MeasuringThread thread : threads )
+        {
+            thread.start();
+        }
+        for ( MeasuringThread thread : threads )
+        {
+            try
+            {
+                thread.join();
+            }
+            catch ( InterruptedException e )
+            {
+                throw new RuntimeException( e );
+            }
+        }
+        long elapsedTime = nanoTime() - startTime;
+        long minTime = Long.MAX_VALUE, maxTime = 0, totalTime = 0;
+        double count = 0.0;
+        for ( MeasuringThread thread : threads )
+        {
+            minTime = min( minTime, thread.minTime );
+            maxTime = max( maxTime, thread.maxTime );
+            totalTime += thread.totalTime;
+            count += thread.iterations;
+        }
+        System.out.printf( "min=%dns; max=%.3fus; total=%.3fms; avg=%.3fns; throughput=%.0fids/s%n",
+                           minTime, maxTime / 1_000.0, totalTime / 1_000_000.0, totalTime / count,
+                           count / (elapsedTime / 1_000_000_000.0) );
+    }
+
+    static <E extends Enum<E>> E get( Class<E> type )
+    {
+        try
+        {
+            return Enum.valueOf( type, System.getProperty( type.getSimpleName() ) );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new IllegalArgumentException(
+                    "No such " + type.getSimpleName() + ": " + System.getProperty( type.getSimpleName() ) );
+        }
+        catch ( NullPointerException e )
+        {
+            throw new IllegalArgumentException( type.getSimpleName() + " not specified." );
+        }
+    }
+
+    private static int cores()
+    {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    static abstract class MeasuringThread extends Thread
+    {
+        final int iterations;
+        long minTime = Long.MAX_VALUE, maxTime, totalTime;
+
+        MeasuringThread( int iterations )
+        {
+            this.iterations = iterations;
+        }
+
+        @Override
+        public final void run()
+        {
+            for ( int i = 0; i < iterations; i++ )
+            {
+                execute();
+            }
+        }
+
+        void update( long time )
+        {
+            minTime = min( minTime, time );
+            maxTime = max( maxTime, time );
+            totalTime += time;
+        }
+
+        protected abstract void execute();
+    }
+}
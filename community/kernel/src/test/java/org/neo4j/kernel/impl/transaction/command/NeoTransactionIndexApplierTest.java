@@ -125,7 +125,7 @@ public class NeoTransactionIndexApplierTest
 
         // Then
         assertFalse( result );
-        verify( indexingService ).createIndex( indexRule );
+        verify( indexingService ).createIndexes( indexRule );
     }
 
     @Test
@@ -34,6 +34,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 
 import org.neo4j.helpers.collection.MapUtil;
+import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.KernelHealth;
 import org.neo4j.kernel.impl.index.IndexDefineCommand;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
@@ -59,6 +60,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
@@ -72,7 +74,10 @@ import static org.mockito.Mockito.when;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import static org.neo4j.helpers.Format.MB;
+
 import static org.neo4j.helpers.Exceptions.contains;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LOG_VERSION;
 import static org.neo4j.kernel.impl.util.IdOrderingQueue.BYPASS;
 
 public class BatchingTransactionAppenderTest
@@ -168,6 +173,40 @@ public class BatchingTransactionAppenderTest
         }
     }
 
+    @Test
+    public void shouldAppendTransactionsTooBigToBeBuffered() throws Exception
+    {
+        // GIVEN
+        InMemoryVersionableLogChannel channel = new InMemoryVersionableLogChannel( 0, CURRENT_LOG_VERSION, 4 * MB );
+        LogFile logFile = mock( LogFile.class );
+        when( logFile.getWriter() ).thenReturn( channel );
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L, 3L );
+        TransactionAppender appender = new BatchingTransactionAppender( logFile, LogRotation.NO_ROTATION,
+                new TransactionMetadataCache( 10, 100 ), transactionIdStore, BYPASS, mock( KernelHealth.class ) );
+        int nodes = 20_000;
+
+        // WHEN
+        appender.append( createNodesTransaction( nodes ), logAppendEvent );
+        int sizeOfBigTransaction = channel.writerPosition();
+        appender.append( createNodesTransaction( 1 ), logAppendEvent );
+
+        // THEN
+        assertTrue( "Transaction should not have fit in the buffer, it was only " + sizeOfBigTransaction + " bytes",
+                sizeOfBigTransaction > HeapWritableLogChannel.MAX_SIZE );
+        final LogEntryReader<ReadableVersionableLogChannel> logEntryReader = new LogEntryReaderFactory().versionable();
+        try ( PhysicalTransactionCursor<ReadableVersionableLogChannel> reader =
+                      new PhysicalTransactionCursor<>( channel, logEntryReader ) )
+        {
+            assertTrue( reader.next() );
+            assertEquals( 2, reader.get().getCommitEntry().getTxId() );
+            assertEquals( nodes, countCommands( reader.get().getTransactionRepresentation() ) );
+            assertTrue( reader.next() );
+            assertEquals( 3, reader.get().getCommitEntry().getTxId() );
+            assertEquals( 1, countCommands( reader.get().getTransactionRepresentation() ) );
+        }
+    }
+
     @Test
     public void shouldNotAppendCommittedTransactionsWhenTooFarAhead() throws Exception
     {
@@ -217,7 +256,7 @@ public class BatchingTransactionAppenderTest
         String failureMessage = "Forces a failure";
         WritableLogChannel channel = spy( new InMemoryLogChannel() );
         IOException failure = new IOException( failureMessage );
-        when( channel.putInt( anyInt() ) ).thenThrow( failure );
+        when( channel.put( any( byte[].class ), anyInt() ) ).thenThrow( failure );
         LogFile logFile = mock( LogFile.class );
         when( logFile.getWriter() ).thenReturn( channel );
         TransactionMetadataCache metadataCache = new TransactionMetadataCache( 10, 10 );
@@ -245,6 +284,39 @@ public class BatchingTransactionAppenderTest
         }
     }
 
+    @Test
+    public void shouldNotGenerateTransactionIdForTransactionFailingToBeSerialized() throws Exception
+    {
+        // GIVEN
+        String failureMessage = "Forces a failure";
+        WritableLogChannel channel = spy( new InMemoryLogChannel() );
+        LogFile logFile = mock( LogFile.class );
+        when( logFile.getWriter() ).thenReturn( channel );
+        TransactionMetadataCache metadataCache = new TransactionMetadataCache( 10, 10 );
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        KernelHealth health = mock( KernelHealth.class );
+        TransactionAppender appender = new BatchingTransactionAppender( logFile, LogRotation.NO_ROTATION,
+                metadataCache, transactionIdStore, BYPASS, health );
+
+        // WHEN
+        TransactionRepresentation transaction = mock( TransactionRepresentation.class );
+        when( transaction.additionalHeader() ).thenReturn( new byte[0] );
+        doThrow( new IOException( failureMessage ) ).when( transaction ).accept( any( Visitor.class ) );
+        try
+        {
+            appender.append( transaction, logAppendEvent );
+            fail( "Expected append to fail. Something is wrong with the test itself" );
+        }
+        catch ( IOException e )
+        {
+            // THEN the transaction was serialized before getting an id, so nothing got written to the log
+            assertTrue( contains( e, failureMessage, IOException.class ) );
+            verifyNoMoreInteractions( transactionIdStore );
+            verify( channel, times( 0 ) ).put( any( byte[].class ), anyInt() );
+            verifyNoMoreInteractions( health );
+        }
+    }
+
     @SuppressWarnings( "rawtypes" )
     @Test
     public void shouldOrderTransactionsMakingLegacyIndexChanges() throws Exception
@@ -432,6 +504,37 @@ public class BatchingTransactionAppenderTest
         return transaction;
     }
 
+    private TransactionRepresentation createNodesTransaction( int nodes )
+    {
+        Collection<Command> commands = new ArrayList<>();
+        for ( int i = 0; i < nodes; i++ )
+        {
+            NodeCommand command = new NodeCommand();
+            NodeRecord after = new NodeRecord( i );
+            after.setInUse( true );
+            command.init( new NodeRecord( i ), after );
+            commands.add( command );
+        }
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( commands );
+        transaction.setHeader( new byte[0], 0, 0, 0, 0, 0, -1 );
+        return transaction;
+    }
+
+    private int countCommands( TransactionRepresentation transaction ) throws IOException
+    {
+        final int[] count = new int[1];
+        transaction.accept( new Visitor<Command,IOException>()
+        {
+            @Override
+            public boolean visit( Command element ) throws IOException
+            {
+                count[0]++;
+                return false;
+            }
+        } );
+        return count[0];
+    }
+
     private Collection<Command> singleCreateNodeCommand()
     {
         Collection<Command> commands = new ArrayList<>();
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Measures the number of small write transactions committed per second, for an increasing number of concurrent
+ * committers. Each committer creates nodes of its own, so that the committers don't contend on entity locks
+ * and the throughput is that of the commit path itself.
+ */
+public class CommitThroughputBenchmark
+{
+    public static void main( String... args ) throws Exception
+    {
+        int minThreads = Integer.getInteger( "minThreads", 1 );
+        int maxThreads = Integer.getInteger( "maxThreads", Runtime.getRuntime().availableProcessors() * 4 );
+        int seconds = Integer.getInteger( "seconds", 10 );
+        int nodesPerTransaction = Integer.getInteger( "nodesPerTransaction", 10 );
+        File storeDir = new File( System.getProperty( "storeDir", "target/commit-throughput-benchmark" ) );
+
+        for ( int threads = minThreads; threads <= maxThreads; threads *= 2 )
+        {
+            FileUtils.deleteRecursively( storeDir );
+            GraphDatabaseService db = new TestGraphDatabaseFactory().newEmbeddedDatabase( storeDir.getPath() );
+            try
+            {
+                execute( db, threads, seconds, nodesPerTransaction );
+            }
+            finally
+            {
+                db.shutdown();
+            }
+        }
+    }
+
+    private static void execute( GraphDatabaseService db, int threadCount, int seconds,
+            int nodesPerTransaction ) throws InterruptedException, IOException
+    {
+        final AtomicBoolean end = new AtomicBoolean();
+        CommittingThread[] threads = new CommittingThread[threadCount];
+        CountDownLatch start = new CountDownLatch( 1 );
+        for ( int i = 0; i < threadCount; i++ )
+        {
+            threads[i] = new CommittingThread( db, start, end, nodesPerTransaction );
+            threads[i].start();
+        }
+
+        long startTime = nanoTime();
+        start.countDown();
+        Thread.sleep( seconds * 1000L );
+        end.set( true );
+        long commits = 0;
+        for ( CommittingThread thread : threads )
+        {
+            thread.join();
+            if ( thread.failure != null )
+            {
+                throw new RuntimeException( thread.failure );
+            }
+            commits += thread.commits;
+        }
+        double time = (nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf( "threads=%d; commits=%d; commits/s=%.1f%n", threadCount, commits, commits / time );
+    }
+
+    private static class CommittingThread extends Thread
+    {
+        private final GraphDatabaseService db;
+        private final CountDownLatch start;
+        private final AtomicBoolean end;
+        private final int nodesPerTransaction;
+        private long commits;
+        private Throwable failure;
+
+        CommittingThread( GraphDatabaseService db, CountDownLatch start, AtomicBoolean end,
+                int nodesPerTransaction )
+        {
+            this.db = db;
+            this.start = start;
+            this.end = end;
+            this.nodesPerTransaction = nodesPerTransaction;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                start.await();
+                while ( !end.get() )
+                {
+                    try ( Transaction tx = db.beginTx() )
+                    {
+                        for ( int i = 0; i < nodesPerTransaction; i++ )
+                        {
+                            Node node = db.createNode();
+                            node.setProperty( "key", i );
+                        }
+                        tx.success();
+                    }
+                    commits++;
+                }
+            }
+            catch ( Throwable e )
+            {
+                failure = e;
+            }
+        }
+    }
+}
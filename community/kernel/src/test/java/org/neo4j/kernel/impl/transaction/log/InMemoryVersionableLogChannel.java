@@ -33,6 +33,12 @@ public class InMemoryVersionableLogChannel extends InMemoryLogChannel implements
 
     public InMemoryVersionableLogChannel( long version, byte formatVersion )
     {
+        this( version, formatVersion, 1000 );
+    }
+
+    public InMemoryVersionableLogChannel( long version, byte formatVersion, int size )
+    {
+        super( size );
         this.version = version;
         this.formatVersion = formatVersion;
     }
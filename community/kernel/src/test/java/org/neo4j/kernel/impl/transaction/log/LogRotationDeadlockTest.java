@@ -26,17 +26,13 @@ import java.io.IOException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
-import org.neo4j.graphdb.index.IndexImplementation;
-import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.kernel.KernelHealth;
 import org.neo4j.kernel.LogRotationImpl;
-import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.impl.api.TransactionApplicationMode;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationStoreApplier;
 import org.neo4j.kernel.impl.api.index.IndexUpdatesValidator;
-import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.locking.LockGroup;
 import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
@@ -57,6 +53,8 @@ public class LogRotationDeadlockTest
      * Problem was that rotating thread that went to wait for all committed
      * transactions to be closed held monitor that threads needed to grab between
      * the point where transactions were committed and they were closed.
+     * Rotation no longer waits for anything, so it must be able to complete
+     * while a committer is halted in between.
      */
     @Test
     public void shouldNotDeadlockDuringRotation() throws Exception
@@ -67,19 +65,22 @@ public class LogRotationDeadlockTest
         LogFile logFile = mock( LogFile.class );
         when( logFile.getWriter() ).thenReturn( new InMemoryLogChannel() );
         final Barrier.Control inBetweenCommittedAndClosed = new Barrier.Control();
-        LogRotationControl rotationControl = new LogRotationControl( txIdStore, mock( IndexingService.class ),
-                mock( LabelScanStore.class ), Iterables.<IndexImplementation,IndexImplementation>iterable() )
+        LogRotation.Monitor rotationMonitor = new LogRotation.Monitor()
         {
             @Override
-            public void awaitAllTransactionsClosed()
+            public void startedRotating( long currentVersion )
             {
                 inBetweenCommittedAndClosed.release();
-                super.awaitAllTransactionsClosed();
+            }
+
+            @Override
+            public void finishedRotating( long currentVersion )
+            {
             }
         };
         KernelHealth health = mock( KernelHealth.class );
-        LogRotationImpl rotation = new LogRotationImpl( mock( LogRotation.Monitor.class ), logFile,
-                rotationControl, health, NullLogProvider.getInstance() );
+        LogRotationImpl rotation = new LogRotationImpl( rotationMonitor, logFile, health,
+                NullLogProvider.getInstance() );
 
         // controlled batching transaction appender that will halt a committer
         TransactionAppender appender = new BatchingTransactionAppender( logFile, rotation,
@@ -107,8 +108,7 @@ public class LogRotationDeadlockTest
         inBetweenCommittedAndClosed.await();
 
         // and another transaction appender comes in and wants to rotate the log,
-        // where the rotation resumes the first appender at the point where it starts awaiting
-        // committed transactions to be closed
+        // where the rotation resumes the first appender once it has started rotating
         when( logFile.rotationNeeded() ).thenReturn( true );
         Future<Void> rotateFuture = rotator.execute( commitArbitraryTransaction( commitProcess ) );
 
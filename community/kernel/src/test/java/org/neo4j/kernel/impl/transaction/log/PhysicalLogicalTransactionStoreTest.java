@@ -43,6 +43,7 @@ import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.Monitor;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.LatestCheckPointFinder;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReaderFactory;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -171,6 +172,12 @@ public class PhysicalLogicalTransactionStoreTest
                 return 0;
             }
 
+            @Override
+            public LogPosition getPositionToRecoverFrom() throws IOException
+            {
+                return new LatestCheckPointFinder( logFiles, fs, new LogEntryReaderFactory().versionable() ).find( 0 );
+            }
+
             @Override
             public Visitor<LogVersionedStoreChannel, IOException> getRecoverer()
             {
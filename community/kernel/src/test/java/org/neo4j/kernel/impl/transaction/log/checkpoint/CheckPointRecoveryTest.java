@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.impl.recovery.StoreRecoverer;
+import org.neo4j.kernel.impl.transaction.log.LogRotation;
+import org.neo4j.test.EphemeralFileSystemRule;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.tooling.GlobalGraphOperations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.IteratorUtil.count;
+
+public class CheckPointRecoveryTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+    private final File storeDir = new File( "dir" ).getAbsoluteFile();
+
+    @Test
+    public void shouldNotNeedRecoveryAfterCheckPoint() throws Exception
+    {
+        // GIVEN
+        GraphDatabaseAPI db = newDb( fsRule.get() );
+        createNodes( db, 10 );
+
+        // WHEN
+        db.getDependencyResolver().resolveDependency( CheckPointer.class ).forceCheckPoint();
+        EphemeralFileSystemAbstraction crashed = fsRule.get().snapshot();
+        db.shutdown();
+
+        // THEN
+        assertFalse( new StoreRecoverer( crashed ).recoveryNeededAt( storeDir ) );
+    }
+
+    @Test
+    public void shouldRecoverTransactionsInLogFilesRotatedAfterCheckPoint() throws Exception
+    {
+        // GIVEN
+        GraphDatabaseAPI db = newDb( fsRule.get() );
+        createNodes( db, 10 );
+        db.getDependencyResolver().resolveDependency( CheckPointer.class ).forceCheckPoint();
+
+        // WHEN
+        // rotation no longer flushes the store, so transactions in the rotated log files need recovery
+        createNodes( db, 10 );
+        db.getDependencyResolver().resolveDependency( LogRotation.class ).rotateLogFile();
+        createNodes( db, 10 );
+        db.getDependencyResolver().resolveDependency( LogRotation.class ).rotateLogFile();
+        EphemeralFileSystemAbstraction crashed = fsRule.get().snapshot();
+        db.shutdown();
+
+        // THEN
+        assertTrue( new StoreRecoverer( crashed ).recoveryNeededAt( storeDir ) );
+        db = newDb( crashed );
+        try
+        {
+            assertEquals( 30, countNodes( db ) );
+        }
+        finally
+        {
+            db.shutdown();
+        }
+        assertFalse( new StoreRecoverer( crashed ).recoveryNeededAt( storeDir ) );
+    }
+
+    private GraphDatabaseAPI newDb( EphemeralFileSystemAbstraction fs )
+    {
+        return (GraphDatabaseAPI) new TestGraphDatabaseFactory().setFileSystem( fs )
+                .newImpermanentDatabase( storeDir );
+    }
+
+    private void createNodes( GraphDatabaseService db, int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                db.createNode().setProperty( "name", "node" + i );
+                tx.success();
+            }
+        }
+    }
+
+    private long countNodes( GraphDatabaseService db )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            return count( GlobalGraphOperations.at( db ).getAllNodes() );
+        }
+    }
+}
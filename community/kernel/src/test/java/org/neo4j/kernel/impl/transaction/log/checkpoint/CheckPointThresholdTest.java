@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.junit.Test;
+
+import org.neo4j.helpers.FakeClock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CheckPointThresholdTest
+{
+    private final FakeClock clock = new FakeClock();
+    private final CheckPointThreshold threshold = new CheckPointThreshold( 10, MINUTES.toMillis( 5 ), clock );
+
+    @Test
+    public void shouldCheckPointWhenEnoughTransactionsHaveCommitted() throws Exception
+    {
+        // GIVEN
+        threshold.checkPointHappened( 5 );
+
+        // THEN
+        assertFalse( threshold.isCheckPointingNeeded( 14 ) );
+        assertTrue( threshold.isCheckPointingNeeded( 15 ) );
+    }
+
+    @Test
+    public void shouldCheckPointWhenEnoughTimeHasPassed() throws Exception
+    {
+        // GIVEN
+        threshold.checkPointHappened( 5 );
+
+        // WHEN
+        clock.forward( 5, MINUTES );
+
+        // THEN
+        assertTrue( threshold.isCheckPointingNeeded( 6 ) );
+    }
+
+    @Test
+    public void shouldNotCheckPointWithoutNewTransactions() throws Exception
+    {
+        // GIVEN
+        threshold.checkPointHappened( 5 );
+
+        // WHEN
+        clock.forward( 10, MINUTES );
+
+        // THEN
+        assertFalse( threshold.isCheckPointingNeeded( 5 ) );
+    }
+
+    @Test
+    public void shouldStartCountingAgainAfterCheckPoint() throws Exception
+    {
+        // GIVEN
+        threshold.checkPointHappened( 5 );
+        clock.forward( 5, MINUTES );
+
+        // WHEN
+        threshold.checkPointHappened( 20 );
+        clock.forward( 1, MILLISECONDS );
+
+        // THEN
+        assertFalse( threshold.isCheckPointingNeeded( 21 ) );
+    }
+}
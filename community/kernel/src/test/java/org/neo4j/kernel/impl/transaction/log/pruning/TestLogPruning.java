@@ -41,6 +41,7 @@ import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadableVersionableLogChannel;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReaderFactory;
 import org.neo4j.test.TestGraphDatabaseFactory;
 
@@ -161,6 +162,8 @@ public class TestLogPruning
         if ( ++performedTransactions >= rotateEveryNTransactions )
         {
             db.getDependencyResolver().resolveDependency( LogRotation.class ).rotateLogFile();
+            // Logs are pruned after check points, and only up to the log file that the check point points into
+            db.getDependencyResolver().resolveDependency( CheckPointer.class ).forceCheckPoint();
             performedTransactions = 0;
         }
 
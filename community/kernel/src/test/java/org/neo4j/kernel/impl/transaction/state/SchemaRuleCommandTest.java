@@ -92,9 +92,10 @@ public class SchemaRuleCommandTest
 
         // WHEN
         indexApplier.visitSchemaRuleCommand( command );
+        indexApplier.apply();
 
         // THEN
-        verify( indexes ).createIndex( rule );
+        verify( indexes ).createIndexes( rule );
     }
 
     @Test
@@ -161,6 +161,62 @@ public class NodeRelationshipCacheTest
         verifyNoMoreInteractions( visitor );
     }
 
+    @Test
+    public void shouldKeepExistingSparseNodeSparseAndLinkInFrontOfItsChain() throws Exception
+    {
+        // GIVEN an existing sparse node getting more imported relationships than the dense node threshold
+        long node = 0;
+        NodeRelationshipCache link = new NodeRelationshipCache( NumberArrayFactory.AUTO, 5 );
+        increment( link, node, 10 );
+
+        // WHEN
+        link.existingNode( node, false );
+        link.putExistingChain( node, 0, Direction.OUTGOING, 7, 3 );
+
+        // THEN
+        assertFalse( link.isDense( node ) );
+        assertEquals( 7L, link.getRelationship( node, 0, Direction.OUTGOING ) );
+        assertEquals( 7L, link.getAndPutRelationship( node, 0, Direction.OUTGOING, 20, true ) );
+        assertEquals( 13, link.getCount( node, 0, Direction.OUTGOING ) );
+    }
+
+    @Test
+    public void shouldKeepExistingDenseNodeDenseAndLinkInFrontOfItsChains() throws Exception
+    {
+        // GIVEN an existing dense node getting fewer imported relationships than the dense node threshold
+        long node = 1;
+        NodeRelationshipCache link = new NodeRelationshipCache( NumberArrayFactory.AUTO, 5 );
+        increment( link, node, 2 );
+
+        // WHEN
+        link.existingNode( node, true );
+        link.putExistingChain( node, 0, Direction.INCOMING, 3, 4 );
+
+        // THEN
+        assertTrue( link.isDense( node ) );
+        assertEquals( 3L, link.getAndPutRelationship( node, 0, Direction.INCOMING, 10, true ) );
+        assertEquals( 5, link.getCount( node, 0, Direction.INCOMING ) );
+        assertEquals( -1L, link.getRelationship( node, 0, Direction.OUTGOING ) );
+        assertEquals( -1L, link.getRelationship( node, 1, Direction.INCOMING ) );
+    }
+
+    @Test
+    public void shouldIgnoreExistingNodeWithoutImportedRelationships() throws Exception
+    {
+        // GIVEN
+        long node = 2;
+        NodeRelationshipCache link = new NodeRelationshipCache( NumberArrayFactory.AUTO, 5 );
+
+        // WHEN
+        link.existingNode( node, true );
+        link.putExistingChain( node, 0, Direction.OUTGOING, 3, 4 );
+
+        // THEN
+        assertFalse( link.isDense( node ) );
+        assertEquals( -1L, link.getRelationship( node, 0, Direction.OUTGOING ) );
+        assertEquals( 0, link.getCount( node, 0, Direction.OUTGOING ) );
+    }
+
     private void testNode( NodeRelationshipCache link, long node, int type, Direction direction )
     {
         int count = link.getCount( node, type, direction );
@@ -25,21 +25,33 @@ import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.index.FieldInfo.IndexOptions;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MultiTermQuery;
+import org.apache.lucene.search.NumericRangeQuery;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
 import org.apache.lucene.util.NumericUtils;
 
 import org.neo4j.kernel.api.index.ArrayEncoder;
+import org.neo4j.kernel.impl.api.index.IndexRangeMatching;
 
 import static java.lang.String.format;
 import static org.apache.lucene.document.Field.Index.NOT_ANALYZED;
 import static org.apache.lucene.document.Field.Store.NO;
 import static org.apache.lucene.document.Field.Store.YES;
+import static org.neo4j.kernel.impl.api.index.IndexRangeMatching.hasEncodingDependentOrder;
 
 public class LuceneDocumentStructure
 {
     static final String NODE_ID_KEY = "id";
 
+    /**
+     * Numbers are indexed as a single full precision term (see {@link ValueEncoding#Number}), so range queries
+     * over them must not expect any lower precision terms to be present.
+     */
+    private static final int FULL_PRECISION_STEP = Integer.MAX_VALUE;
+
     Document newDocument( long nodeId )
     {
         Document document = new Document();
@@ -230,6 +242,49 @@ public class LuceneDocumentStructure
         throw new IllegalArgumentException( format( "Unable to create newQuery for %s", value ) );
     }
 
+    /**
+     * Numbers are indexed as doubles, so an exclusive bound may round to the same double as values just inside it.
+     * The bounds are therefore always included here, leaving it to the exact filtering of the results to exclude
+     * the values actually equal to an exclusive bound.
+     */
+    public Query newRangeSeekByNumberQuery( Number lower, boolean includeLower, Number upper, boolean includeUpper )
+    {
+        NumericRangeQuery<Double> query = NumericRangeQuery.newDoubleRange( ValueEncoding.Number.key(),
+                FULL_PRECISION_STEP,
+                lower == null ? null : lower.doubleValue(),
+                upper == null ? null : upper.doubleValue(),
+                true, true );
+        query.setRewriteMethod( MultiTermQuery.CONSTANT_SCORE_FILTER_REWRITE );
+        return query;
+    }
+
+    /**
+     * Bounds for which the order of terms in the index may differ from {@link String#compareTo(String)} are left
+     * open, see {@link IndexRangeMatching#hasEncodingDependentOrder(String)}. The results are then filtered exactly.
+     */
+    public Query newRangeSeekByStringQuery( String lower, boolean includeLower, String upper, boolean includeUpper )
+    {
+        if ( lower != null && hasEncodingDependentOrder( lower ) )
+        {
+            lower = null;
+        }
+        if ( upper != null && hasEncodingDependentOrder( upper ) )
+        {
+            upper = null;
+        }
+        TermRangeQuery query = new TermRangeQuery( ValueEncoding.String.key(), lower, upper,
+                includeLower, includeUpper );
+        query.setRewriteMethod( MultiTermQuery.CONSTANT_SCORE_FILTER_REWRITE );
+        return query;
+    }
+
+    public Query newRangeSeekByPrefixQuery( String prefix )
+    {
+        PrefixQuery query = new PrefixQuery( new Term( ValueEncoding.String.key(), prefix ) );
+        query.setRewriteMethod( MultiTermQuery.CONSTANT_SCORE_FILTER_REWRITE );
+        return query;
+    }
+
     public Term newQueryForChangeOrRemove( long nodeId )
     {
         return new Term( NODE_ID_KEY, "" + nodeId );
@@ -77,6 +77,67 @@ public class LuceneIndexAccessorTest
         reader.close();
     }
 
+    @Test
+    public void indexReaderShouldSupportRangeSeekByNumber() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList( add( nodeId, -5 ), add( nodeId2, 10 ), add( nodeId3, 42.5d ),
+                add( nodeId4, "40" ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // WHEN/THEN
+        assertEquals( asSet( nodeId, nodeId2 ), asUniqueSet( reader.rangeSeekByNumber( -5, true, 10, true ) ) );
+        assertEquals( asSet( nodeId2, nodeId3 ), asUniqueSet( reader.rangeSeekByNumber( 0, true, null, false ) ) );
+        assertEquals( asSet( nodeId2 ), asUniqueSet( reader.rangeSeekByNumber( 0, false, 42, false ) ) );
+        reader.close();
+    }
+
+    @Test
+    public void indexReaderShouldLeaveExclusivityOfNumberBoundsToExactFiltering() throws Exception
+    {
+        // GIVEN longs which round to the same double, 2^53, in the index
+        long bound = 1L << 53;
+        updateAndCommit( asList( add( nodeId, bound - 1 ), add( nodeId2, bound ), add( nodeId3, bound + 1 ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // WHEN/THEN values at, or rounded to, an exclusive bound are not dropped
+        assertEquals( asSet( nodeId2, nodeId3 ), asUniqueSet( reader.rangeSeekByNumber( bound, false, null, false ) ) );
+        assertEquals( asSet( nodeId, nodeId2, nodeId3 ),
+                asUniqueSet( reader.rangeSeekByNumber( null, false, bound + 1, false ) ) );
+        reader.close();
+    }
+
+    @Test
+    public void indexReaderShouldSupportRangeSeekByString() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList( add( nodeId, "Anna" ), add( nodeId2, "Bob" ), add( nodeId3, "Bobby" ),
+                add( nodeId4, 40 ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // WHEN/THEN
+        assertEquals( asSet( nodeId, nodeId2 ), asUniqueSet( reader.rangeSeekByString( "Anna", true, "Bob", true ) ) );
+        assertEquals( asSet( nodeId2 ), asUniqueSet( reader.rangeSeekByString( "Anna", false, "Bobby", false ) ) );
+        assertEquals( asSet( nodeId2, nodeId3 ), asUniqueSet( reader.rangeSeekByString( "B", true, null, false ) ) );
+        assertEquals( asSet( nodeId ), asUniqueSet( reader.rangeSeekByString( null, false, "Bob", false ) ) );
+        reader.close();
+    }
+
+    @Test
+    public void indexReaderShouldSupportRangeSeekByPrefix() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList( add( nodeId, "Anna" ), add( nodeId2, "Bob" ), add( nodeId3, "Bobby" ),
+                add( nodeId4, "bob" ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // WHEN/THEN
+        assertEquals( asSet( nodeId2, nodeId3 ), asUniqueSet( reader.rangeSeekByPrefix( "Bob" ) ) );
+        assertEquals( asSet( nodeId3 ), asUniqueSet( reader.rangeSeekByPrefix( "Bobb" ) ) );
+        assertEquals( asSet( nodeId, nodeId2, nodeId3, nodeId4 ), asUniqueSet( reader.rangeSeekByPrefix( "" ) ) );
+        reader.close();
+    }
+
     @Test
     public void indexReaderShouldHonorRepeatableReads() throws Exception
     {
@@ -194,7 +255,7 @@ public class LuceneIndexAccessorTest
         }
     }
 
-    private final long nodeId = 1, nodeId2 = 2;
+    private final long nodeId = 1, nodeId2 = 2, nodeId3 = 3, nodeId4 = 4;
     private final Object value = "value", value2 = 40;
     private DirectoryFactory.InMemoryDirectoryFactory dirFactory;
 
@@ -21,6 +21,7 @@ package org.neo4j.kernel.api.impl.index;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.After;
 import org.junit.Before;
@@ -33,8 +34,14 @@ import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
 import org.neo4j.graphdb.schema.IndexDefinition;
 import org.neo4j.graphdb.schema.Schema.IndexState;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
 import org.neo4j.test.TestGraphDatabaseFactory;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 import static org.neo4j.graphdb.DynamicLabel.label;
@@ -46,6 +53,8 @@ import static org.neo4j.graphdb.Neo4jMatchers.haveState;
 import static org.neo4j.graphdb.Neo4jMatchers.inTx;
 import static org.neo4j.graphdb.Neo4jMatchers.isEmpty;
 import static org.neo4j.helpers.collection.Iterables.count;
+import static org.neo4j.helpers.collection.IteratorUtil.asSet;
+import static org.neo4j.helpers.collection.IteratorUtil.asUniqueSet;
 import static org.neo4j.helpers.collection.IteratorUtil.loop;
 import static org.neo4j.helpers.collection.MapUtil.map;
 
@@ -143,6 +152,47 @@ public class SchemaIndexAcceptanceTest
         assertThat( getIndexes( db, label ), isEmpty() );
     }
 
+    @Test
+    public void shouldApplyExclusiveBoundsToLongsThatRoundToTheSameDoubleInTheIndex() throws Exception
+    {
+        // GIVEN longs around 2^53, where the neighbouring longs of 2^53 round to the same double as 2^53 itself
+        long bound = 1L << 53;
+        createIndex( db, label, propertyKey );
+        Node below, at, above;
+        try ( Transaction tx = db.beginTx() )
+        {
+            below = createNode( label, propertyKey, bound - 1 );
+            at = createNode( label, propertyKey, bound );
+            above = createNode( label, propertyKey, bound + 1 );
+            tx.success();
+        }
+
+        // WHEN/THEN
+        assertEquals( asSet( above.getId() ), rangeSeekByNumber( bound, false, null, false ) );
+        assertEquals( asSet( at.getId(), above.getId() ), rangeSeekByNumber( bound, true, null, false ) );
+        assertEquals( asSet( below.getId(), at.getId() ), rangeSeekByNumber( null, false, bound + 1, false ) );
+        assertEquals( asSet( below.getId() ), rangeSeekByNumber( bound - 1, true, bound, false ) );
+    }
+
+    @Test
+    public void shouldOrderStringsInRangeSeeksLikeStringCompareTo() throws Exception
+    {
+        // GIVEN a supplementary character, which compares below U+FFFD in UTF-16 but above it by code point
+        String supplementary = new String( Character.toChars( 0x1F600 ) );
+        createIndex( db, label, propertyKey );
+        Node low, high;
+        try ( Transaction tx = db.beginTx() )
+        {
+            low = createNode( label, propertyKey, supplementary );
+            high = createNode( label, propertyKey, "\uFFFD" );
+            tx.success();
+        }
+
+        // WHEN/THEN
+        assertEquals( asSet( low.getId() ), rangeSeekByString( null, false, "\uFFFD", false ) );
+        assertEquals( asSet( high.getId() ), rangeSeekByString( supplementary, false, null, false ) );
+    }
+
     private EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
     private GraphDatabaseService db;
     private final Label label = label( "PERSON" );
@@ -190,6 +240,46 @@ public class SchemaIndexAcceptanceTest
         return node;
     }
 
+    private Set<Long> rangeSeekByNumber( Number lower, boolean includeLower, Number upper, boolean includeUpper )
+            throws Exception
+    {
+        try ( Transaction tx = db.beginTx();
+              Statement statement = statement() )
+        {
+            ReadOperations read = statement.readOperations();
+            Set<Long> result = asUniqueSet( read.nodesGetFromIndexRangeSeekByNumber( index( read ),
+                    lower, includeLower, upper, includeUpper ) );
+            tx.success();
+            return result;
+        }
+    }
+
+    private Set<Long> rangeSeekByString( String lower, boolean includeLower, String upper, boolean includeUpper )
+            throws Exception
+    {
+        try ( Transaction tx = db.beginTx();
+              Statement statement = statement() )
+        {
+            ReadOperations read = statement.readOperations();
+            Set<Long> result = asUniqueSet( read.nodesGetFromIndexRangeSeekByString( index( read ),
+                    lower, includeLower, upper, includeUpper ) );
+            tx.success();
+            return result;
+        }
+    }
+
+    private Statement statement()
+    {
+        return ((GraphDatabaseAPI) db).getDependencyResolver()
+                .resolveDependency( ThreadToStatementContextBridge.class ).get();
+    }
+
+    private IndexDescriptor index( ReadOperations read ) throws Exception
+    {
+        return read.indexesGetForLabelAndPropertyKey( read.labelGetForName( label.name() ),
+                read.propertyKeyGetForName( propertyKey ) );
+    }
+
     private void dropIndex( IndexDefinition indexDefinition )
     {
         Transaction tx = db.beginTx();
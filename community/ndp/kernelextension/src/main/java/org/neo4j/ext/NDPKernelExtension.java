@@ -32,9 +32,12 @@ import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.lifecycle.Lifecycle;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.Log;
 import org.neo4j.ndp.runtime.Sessions;
 import org.neo4j.ndp.runtime.internal.StandardSessions;
+import org.neo4j.ndp.runtime.internal.concurrent.ThreadedSessions;
+import org.neo4j.ndp.transport.socket.InFlightRequestLimit;
 import org.neo4j.ndp.transport.socket.NettyServer;
 import org.neo4j.ndp.transport.socket.SocketProtocol;
 import org.neo4j.ndp.transport.socket.SocketProtocolV1;
@@ -45,6 +48,8 @@ import static java.util.Arrays.asList;
 import static org.neo4j.collection.primitive.Primitive.longObjectMap;
 import static org.neo4j.helpers.Settings.BOOLEAN;
 import static org.neo4j.helpers.Settings.HOSTNAME_PORT;
+import static org.neo4j.helpers.Settings.INTEGER;
+import static org.neo4j.helpers.Settings.min;
 import static org.neo4j.helpers.Settings.setting;
 
 /**
@@ -66,6 +71,12 @@ public class NDPKernelExtension extends KernelExtensionFactory<NDPKernelExtensio
         @Description("Host and port for the Neo4j Data Protocol Websocket")
         public static final Setting<HostnamePort> ndp_ws_address =
                 setting( "dbms.ndp.ws.address", HOSTNAME_PORT, "localhost:7688" );
+
+        @Description("Number of worker threads that execute the requests of NDP sessions. Requests are never executed " +
+                     "on the network threads, and each session has its requests executed in order, by one worker at " +
+                     "a time.")
+        public static final Setting<Integer> ndp_workers = setting( "dbms.ndp.workers", INTEGER,
+                String.valueOf( Runtime.getRuntime().availableProcessors() * 2 ), min( 1 ) );
     }
 
     public interface Dependencies
@@ -75,8 +86,12 @@ public class NDPKernelExtension extends KernelExtensionFactory<NDPKernelExtensio
         Config config();
 
         GraphDatabaseService db();
+
+        Monitors monitors();
     }
 
+    private static final int REQUESTS_IN_FLIGHT_PER_WORKER = 64;
+
     public NDPKernelExtension()
     {
         super( "neo4j-data-protocol-server" );
@@ -97,7 +112,15 @@ public class NDPKernelExtension extends KernelExtensionFactory<NDPKernelExtensio
 
         if ( config.get( Settings.ndp_enabled ) )
         {
-            final Sessions sessions = life.add( new StandardSessions( api, log ) );
+            final int workers = config.get( Settings.ndp_workers );
+            final Sessions sessions = life.add( new ThreadedSessions(
+                    life.add( new StandardSessions( api, log ) ),
+                    workers,
+                    dependencies.monitors().newMonitor( ThreadedSessions.Monitor.class ),
+                    log ) );
+
+            // Connections stop reading new requests once the workers are this far behind, across all sessions
+            final InFlightRequestLimit requestLimit = new InFlightRequestLimit( workers * REQUESTS_IN_FLIGHT_PER_WORKER );
 
             PrimitiveLongObjectMap<Factory<SocketProtocol>> availableVersions = longObjectMap();
             availableVersions.put( SocketProtocolV1.VERSION, new Factory<SocketProtocol>()
@@ -105,7 +128,7 @@ public class NDPKernelExtension extends KernelExtensionFactory<NDPKernelExtensio
                 @Override
                 public SocketProtocol newInstance()
                 {
-                    return new SocketProtocolV1( log, sessions.newSession() );
+                    return new SocketProtocolV1( log, sessions.newSession(), requestLimit );
                 }
             } );
 
@@ -261,9 +261,9 @@ public class PackStream
             if ( value == null ) { packNull(); }
             else
             {
-                byte[] utf8 = value.getBytes( UTF_8 );
-                packTextHeader( utf8.length );
-                packRaw( utf8 );
+                // Encode straight into the output, rather than into a temporary byte array first
+                packTextHeader( utf8Length( value ) );
+                packUtf8( value );
             }
         }
 
@@ -277,6 +277,84 @@ public class PackStream
             }
         }
 
+        private void packUtf8( String value ) throws IOException
+        {
+            for ( int i = 0; i < value.length(); i++ )
+            {
+                char c = value.charAt( i );
+                if ( c < 0x80 )
+                {
+                    out.ensure( 1 )
+                            .put( (byte) c );
+                }
+                else if ( c < 0x800 )
+                {
+                    out.ensure( 2 )
+                            .put( (byte) (0xC0 | c >> 6) )
+                            .put( (byte) (0x80 | c & 0x3F) );
+                }
+                else if ( isSurrogatePair( value, i ) )
+                {
+                    int codePoint = Character.toCodePoint( c, value.charAt( ++i ) );
+                    out.ensure( 4 )
+                            .put( (byte) (0xF0 | codePoint >> 18) )
+                            .put( (byte) (0x80 | codePoint >> 12 & 0x3F) )
+                            .put( (byte) (0x80 | codePoint >> 6 & 0x3F) )
+                            .put( (byte) (0x80 | codePoint & 0x3F) );
+                }
+                else if ( Character.isSurrogate( c ) )
+                {
+                    // Same replacement as String#getBytes uses for malformed input
+                    out.ensure( 1 )
+                            .put( (byte) '?' );
+                }
+                else
+                {
+                    out.ensure( 3 )
+                            .put( (byte) (0xE0 | c >> 12) )
+                            .put( (byte) (0x80 | c >> 6 & 0x3F) )
+                            .put( (byte) (0x80 | c & 0x3F) );
+                }
+            }
+        }
+
+        private static int utf8Length( String value )
+        {
+            int length = 0;
+            for ( int i = 0; i < value.length(); i++ )
+            {
+                char c = value.charAt( i );
+                if ( c < 0x80 )
+                {
+                    length += 1;
+                }
+                else if ( c < 0x800 )
+                {
+                    length += 2;
+                }
+                else if ( isSurrogatePair( value, i ) )
+                {
+                    length += 4;
+                    i++;
+                }
+                else if ( Character.isSurrogate( c ) )
+                {
+                    length += 1;
+                }
+                else
+                {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+
+        private static boolean isSurrogatePair( String value, int index )
+        {
+            return Character.isHighSurrogate( value.charAt( index ) ) && index + 1 < value.length() &&
+                   Character.isLowSurrogate( value.charAt( index + 1 ) );
+        }
+
         private void packBytesHeader( int size ) throws IOException
         {
             if ( size <= Byte.MAX_VALUE )
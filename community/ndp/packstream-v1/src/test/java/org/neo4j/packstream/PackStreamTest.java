@@ -325,6 +325,23 @@ public class PackStreamTest
         }
     }
 
+    @Test
+    public void testCanPackAndUnpackStringsWithMultiByteCharacters() throws Throwable
+    {
+        // Given a buffer small enough for characters to straddle buffer boundaries
+        Machine machine = new Machine( 16 );
+        String string = "Gr\u00FC\u00DFe, \u4E16\u754C! \uD83D\uDE00 and a lone \uD83D surrogate";
+
+        // When
+        machine.packer().pack( string );
+        machine.packer().flush();
+
+        // Then the encoding is the same as the one Java does
+        byte[] utf8 = string.getBytes( "UTF-8" );
+        assertThat( newUnpacker( machine.output() ).unpackUtf8(), equalTo( utf8 ) );
+        assertThat( newUnpacker( machine.output() ).unpackString(), equalTo( new String( utf8, "UTF-8" ) ) );
+    }
+
     @Test
     public void testCanPackAndUnpackBytes() throws Throwable
     {
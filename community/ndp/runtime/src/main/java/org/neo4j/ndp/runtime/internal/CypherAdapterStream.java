@@ -19,8 +19,6 @@
  */
 package org.neo4j.ndp.runtime.internal;
 
-import java.util.Map;
-
 import org.neo4j.graphdb.Result;
 import org.neo4j.stream.Record;
 import org.neo4j.stream.RecordStream;
@@ -51,12 +49,18 @@ public class CypherAdapterStream implements RecordStream
     }
 
     @Override
-    public void visitAll( Visitor visitor ) throws Exception
+    public void visitAll( final Visitor visitor ) throws Exception
     {
-        while ( delegate.hasNext() )
+        // Visiting the result, rather than iterating over it, saves creating a map for every row
+        delegate.accept( new Result.ResultVisitor<Exception>()
         {
-            visitor.visit( currentRecord.reset( delegate.next() ) );
-        }
+            @Override
+            public boolean visit( Result.ResultRow row ) throws Exception
+            {
+                visitor.visit( currentRecord.reset( row ) );
+                return true;
+            }
+        } );
     }
 
     private static class CypherAdapterRecord implements Record
@@ -76,7 +80,7 @@ public class CypherAdapterStream implements RecordStream
             return fields;
         }
 
-        public CypherAdapterRecord reset( Map<String,Object> cypherRecord )
+        public CypherAdapterRecord reset( Result.ResultRow cypherRecord )
         {
             for ( int i = 0; i < fields.length; i++ )
             {
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.ndp.runtime.internal.concurrent;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.ndp.runtime.Session;
+import org.neo4j.ndp.runtime.StatementMetadata;
+import org.neo4j.stream.RecordStream;
+
+/**
+ * A {@link Session} that queues up the operations invoked on it, and has them executed against the underlying
+ * session by the workers of a {@link ThreadedSessions}. The operations are executed one at a time, in calling order.
+ */
+class SessionWorker implements Session, Runnable
+{
+    private final Session session;
+    private final ThreadedSessions sessions;
+    private final Queue<Job> jobs = new ConcurrentLinkedQueue<>();
+    // The number of queued jobs that have not completed yet. Whoever moves this from 0 to 1 schedules the worker.
+    private final AtomicInteger pendingJobs = new AtomicInteger();
+
+    SessionWorker( Session session, ThreadedSessions sessions )
+    {
+        this.session = session;
+        this.sessions = sessions;
+    }
+
+    @Override
+    public String key()
+    {
+        return session.key();
+    }
+
+    @Override
+    public <A> void run( final String statement, final Map<String,Object> params, final A attachment,
+            final Callback<StatementMetadata,A> callback )
+    {
+        queue( new Job()
+        {
+            @Override
+            void perform()
+            {
+                session.run( statement, params, attachment, callback );
+            }
+        } );
+    }
+
+    @Override
+    public <A> void pullAll( final A attachment, final Callback<RecordStream,A> callback )
+    {
+        queue( new Job()
+        {
+            @Override
+            void perform()
+            {
+                session.pullAll( attachment, callback );
+            }
+        } );
+    }
+
+    @Override
+    public <A> void discardAll( final A attachment, final Callback<Void,A> callback )
+    {
+        queue( new Job()
+        {
+            @Override
+            void perform()
+            {
+                session.discardAll( attachment, callback );
+            }
+        } );
+    }
+
+    @Override
+    public <A> void acknowledgeFailure( final A attachment, final Callback<Void,A> callback )
+    {
+        queue( new Job()
+        {
+            @Override
+            void perform()
+            {
+                session.acknowledgeFailure( attachment, callback );
+            }
+        } );
+    }
+
+    @Override
+    public void close()
+    {
+        queue( new Job()
+        {
+            @Override
+            void perform()
+            {
+                session.close();
+            }
+        } );
+    }
+
+    private void queue( Job job )
+    {
+        jobs.add( job );
+        sessions.jobQueued();
+        if ( pendingJobs.getAndIncrement() == 0 )
+        {
+            sessions.schedule( this );
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        for ( int i = 0; i < ThreadedSessions.MAX_JOBS_PER_TURN; i++ )
+        {
+            Job job = jobs.poll();
+            sessions.jobStarted( job.queuedAt );
+            try
+            {
+                job.perform();
+            }
+            catch ( Throwable e )
+            {
+                sessions.log().error( String.format( "Session %s: Unexpected error while processing message. " +
+                                                     "Session will be terminated: %s", key(), e.getMessage() ), e );
+                terminate();
+            }
+            if ( pendingJobs.decrementAndGet() == 0 )
+            {
+                // The next job to be queued will schedule us again.
+                return;
+            }
+        }
+        // There is more to do for this session, but let the other sessions have a go first.
+        sessions.schedule( this );
+    }
+
+    private void terminate()
+    {
+        try
+        {
+            session.close();
+        }
+        catch ( Throwable e )
+        {
+            sessions.log().error( String.format( "Session %s: Secondary error while terminating session: %s",
+                    key(), e.getMessage() ), e );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SessionWorker[" + session + ", pendingJobs=" + pendingJobs.get() + "]";
+    }
+
+    private static abstract class Job
+    {
+        final long queuedAt = System.nanoTime();
+
+        abstract void perform();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.ndp.runtime.internal.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.helpers.NamedThreadFactory;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.ndp.runtime.Session;
+import org.neo4j.ndp.runtime.Sessions;
+
+/**
+ * Runs the sessions of another {@link Sessions} on a fixed pool of worker threads, so that the threads that call into
+ * the sessions, typically network I/O threads, never block on statement execution.
+ * <p/>
+ * Each session gets its own queue of jobs, and at most one worker at a time runs the jobs of a given session, so the
+ * operations of a session are still executed in calling order. A worker runs a limited number of jobs of a session
+ * before it gives the other sessions a turn.
+ * <p/>
+ * Since the jobs only queue up and never block the caller, it is up to the caller to stop sending more work when the
+ * workers fall behind, see {@link #queuedJobs()}. The socket transport does so by counting the requests in flight,
+ * both per connection and across all connections, and pausing reads past either bound.
+ */
+public class ThreadedSessions extends LifecycleAdapter implements Sessions
+{
+    /**
+     * Receives the queue depth and wait time of the session jobs, for metrics.
+     */
+    public interface Monitor
+    {
+        /** A job was queued for a session, and there are now {@code queuedJobs} jobs waiting for a worker. */
+        void jobQueued( int queuedJobs );
+
+        /** A worker started running a job that waited {@code waitTimeNanos} in the queue. */
+        void jobStarted( long waitTimeNanos );
+    }
+
+    public static final Monitor NO_MONITOR = new Monitor()
+    {
+        @Override
+        public void jobQueued( int queuedJobs )
+        {
+        }
+
+        @Override
+        public void jobStarted( long waitTimeNanos )
+        {
+        }
+    };
+
+    static final int MAX_JOBS_PER_TURN = 16;
+
+    private final Sessions delegate;
+    private final int workers;
+    private final Monitor monitor;
+    private final Log log;
+    private final AtomicInteger queuedJobs = new AtomicInteger();
+    private ExecutorService executor;
+
+    public ThreadedSessions( Sessions delegate, int workers, Monitor monitor, Log log )
+    {
+        if ( workers < 1 )
+        {
+            throw new IllegalArgumentException( "Illegal number of workers: " + workers );
+        }
+        this.delegate = delegate;
+        this.workers = workers;
+        this.monitor = monitor;
+        this.log = log;
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        // The queue only ever holds one entry per session that has work to do, so it does not need a bound.
+        executor = new ThreadPoolExecutor( workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory( "ndp-worker" ) );
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        executor.shutdown();
+        if ( !executor.awaitTermination( 30, TimeUnit.SECONDS ) )
+        {
+            log.warn( "Timed out waiting for the NDP session workers to complete their jobs." );
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public Session newSession()
+    {
+        return new SessionWorker( delegate.newSession(), this );
+    }
+
+    /**
+     * @return the number of session jobs that are waiting for a worker, across all sessions.
+     */
+    public int queuedJobs()
+    {
+        return queuedJobs.get();
+    }
+
+    void schedule( SessionWorker worker )
+    {
+        executor.execute( worker );
+    }
+
+    void jobQueued()
+    {
+        monitor.jobQueued( queuedJobs.incrementAndGet() );
+    }
+
+    void jobStarted( long queuedAtNanos )
+    {
+        queuedJobs.decrementAndGet();
+        monitor.jobStarted( System.nanoTime() - queuedAtNanos );
+    }
+
+    Log log()
+    {
+        return log;
+    }
+}
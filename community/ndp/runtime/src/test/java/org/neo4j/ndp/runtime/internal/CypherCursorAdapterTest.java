@@ -20,14 +20,22 @@
 package org.neo4j.ndp.runtime.internal;
 
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.util.Collections;
+import java.util.Map;
 
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Result;
 import org.neo4j.helpers.collection.MapUtil;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.neo4j.runtime.internal.runner.StreamMatchers.eqRecord;
@@ -36,14 +44,12 @@ import static org.neo4j.runtime.internal.runner.StreamMatchers.equalsStream;
 public class CypherCursorAdapterTest
 {
     @Test
-    public void nextShouldNotEqualNotNext()
+    public void nextShouldNotEqualNotNext() throws Exception
     {
         // Given
         Result result = mock( Result.class );
         when( result.columns() ).thenReturn( Collections.singletonList( "name" ) );
-        when( result.hasNext() ).thenReturn( true, true, false );
-        //noinspection unchecked
-        when( result.next() ).thenReturn( MapUtil.map( "name", "bob" ), MapUtil.map( "name", "Steve Brook" ), null );
+        givenRows( result, MapUtil.map( "name", "bob" ), MapUtil.map( "name", "Steve Brook" ) );
 
         // When
         CypherAdapterStream cursor = new CypherAdapterStream( result );
@@ -54,4 +60,77 @@ public class CypherCursorAdapterTest
                 eqRecord( equalTo( "bob" ) ),
                 eqRecord( equalTo( "Steve Brook" ) ) ) );
     }
+
+    @SafeVarargs
+    private static void givenRows( Result result, final Map<String,Object>... rows ) throws Exception
+    {
+        doAnswer( new Answer<Void>()
+        {
+            @Override
+            public Void answer( InvocationOnMock invocation ) throws Throwable
+            {
+                Result.ResultVisitor<?> visitor = (Result.ResultVisitor<?>) invocation.getArguments()[0];
+                for ( Map<String,Object> row : rows )
+                {
+                    if ( !visitor.visit( new MapRow( row ) ) )
+                    {
+                        break;
+                    }
+                }
+                return null;
+            }
+        } ).when( result ).accept( any( Result.ResultVisitor.class ) );
+    }
+
+    private static class MapRow implements Result.ResultRow
+    {
+        private final Map<String,Object> row;
+
+        MapRow( Map<String,Object> row )
+        {
+            this.row = row;
+        }
+
+        @Override
+        public Object get( String key )
+        {
+            return row.get( key );
+        }
+
+        @Override
+        public Node getNode( String key )
+        {
+            return (Node) get( key );
+        }
+
+        @Override
+        public Relationship getRelationship( String key )
+        {
+            return (Relationship) get( key );
+        }
+
+        @Override
+        public String getString( String key )
+        {
+            return (String) get( key );
+        }
+
+        @Override
+        public Number getNumber( String key )
+        {
+            return (Number) get( key );
+        }
+
+        @Override
+        public Boolean getBoolean( String key )
+        {
+            return (Boolean) get( key );
+        }
+
+        @Override
+        public Path getPath( String key )
+        {
+            return (Path) get( key );
+        }
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.ndp.runtime.internal.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.logging.NullLog;
+import org.neo4j.ndp.runtime.Session;
+import org.neo4j.ndp.runtime.Sessions;
+import org.neo4j.ndp.runtime.StatementMetadata;
+import org.neo4j.stream.RecordStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.ndp.runtime.Session.Callbacks.noop;
+
+public class ThreadedSessionsTest
+{
+    private ThreadedSessions sessions;
+
+    @After
+    public void shutdown() throws Throwable
+    {
+        if ( sessions != null )
+        {
+            sessions.stop();
+        }
+    }
+
+    @Test
+    public void shouldExecuteJobsOfSessionInOrderOffTheCallingThread() throws Throwable
+    {
+        // Given
+        RecordingSession actual = new RecordingSession( 1000 );
+        sessions = start( actual, 4 );
+        Session session = sessions.newSession();
+
+        // When
+        for ( int i = 0; i < 1000; i++ )
+        {
+            session.run( "statement " + i, null, null, noop() );
+        }
+
+        // Then
+        assertTrue( actual.done.await( 10, TimeUnit.SECONDS ) );
+        for ( int i = 0; i < 1000; i++ )
+        {
+            assertEquals( "statement " + i, actual.statements.get( i ) );
+        }
+        assertFalse( actual.threads.contains( Thread.currentThread() ) );
+        assertEquals( 0, sessions.queuedJobs() );
+    }
+
+    @Test
+    public void shouldNotRunJobsOfOneSessionConcurrently() throws Throwable
+    {
+        // Given
+        final AtomicInteger concurrentJobs = new AtomicInteger();
+        final AtomicInteger maxConcurrentJobs = new AtomicInteger();
+        RecordingSession actual = new RecordingSession( 100 )
+        {
+            @Override
+            public <A> void run( String statement, Map<String,Object> params, A attachment,
+                    Callback<StatementMetadata,A> callback )
+            {
+                int current = concurrentJobs.incrementAndGet();
+                maxConcurrentJobs.set( Math.max( maxConcurrentJobs.get(), current ) );
+                Thread.yield();
+                concurrentJobs.decrementAndGet();
+                done.countDown();
+            }
+        };
+        sessions = start( actual, 8 );
+        Session session = sessions.newSession();
+
+        // When
+        for ( int i = 0; i < 100; i++ )
+        {
+            session.run( "statement", null, null, noop() );
+        }
+
+        // Then
+        assertTrue( actual.done.await( 10, TimeUnit.SECONDS ) );
+        assertEquals( 1, maxConcurrentJobs.get() );
+    }
+
+    @Test
+    public void shouldCloseSessionWhenJobFails() throws Throwable
+    {
+        // Given
+        RecordingSession actual = new RecordingSession( 1 )
+        {
+            @Override
+            public <A> void pullAll( A attachment, Callback<RecordStream,A> callback )
+            {
+                throw new IllegalStateException( "Boom" );
+            }
+        };
+        sessions = start( actual, 1 );
+        Session session = sessions.newSession();
+
+        // When
+        session.pullAll( null, Session.Callbacks.<RecordStream,Object>noop() );
+
+        // Then
+        assertTrue( actual.closed.await( 10, TimeUnit.SECONDS ) );
+    }
+
+    private static ThreadedSessions start( final Session session, int workers ) throws Throwable
+    {
+        ThreadedSessions sessions = new ThreadedSessions( new Sessions()
+        {
+            @Override
+            public Session newSession()
+            {
+                return session;
+            }
+        }, workers, ThreadedSessions.NO_MONITOR, NullLog.getInstance() );
+        sessions.start();
+        return sessions;
+    }
+
+    private static class RecordingSession implements Session
+    {
+        final List<String> statements = Collections.synchronizedList( new ArrayList<String>() );
+        final Set<Thread> threads = Collections.newSetFromMap( new ConcurrentHashMap<Thread,Boolean>() );
+        final CountDownLatch done;
+        final CountDownLatch closed = new CountDownLatch( 1 );
+
+        RecordingSession( int expectedStatements )
+        {
+            this.done = new CountDownLatch( expectedStatements );
+        }
+
+        @Override
+        public String key()
+        {
+            return "recording";
+        }
+
+        @Override
+        public <A> void run( String statement, Map<String,Object> params, A attachment,
+                Callback<StatementMetadata,A> callback )
+        {
+            threads.add( Thread.currentThread() );
+            statements.add( statement );
+            done.countDown();
+        }
+
+        @Override
+        public <A> void pullAll( A attachment, Callback<RecordStream,A> callback )
+        {
+        }
+
+        @Override
+        public <A> void discardAll( A attachment, Callback<Void,A> callback )
+        {
+        }
+
+        @Override
+        public <A> void acknowledgeFailure( A attachment, Callback<Void,A> callback )
+        {
+        }
+
+        @Override
+        public void close()
+        {
+            closed.countDown();
+        }
+    }
+}
@@ -20,16 +20,30 @@
 package org.neo4j.ndp.transport.socket;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.io.IOException;
 
 import org.neo4j.packstream.PackOutput;
 
+/**
+ * Writes chunked messages to a Netty channel. Buffers that fill up are only queued on the channel, nothing is sent to
+ * the network until {@link #flush()} is called. That way, the responses to a whole pipeline of requests go out in a
+ * single gathering write, rather than in one write per buffer.
+ * <p/>
+ * Queued buffers are flushed early once there are {@link #MAX_QUEUED_BYTES} of them, so a long stream of responses
+ * does not pile up in memory. If the client does not read the responses as fast as we produce them, the channel
+ * becomes unwritable, and the thread producing the responses waits for it to become writable again. That way a slow
+ * client slows down its session, rather than having the server buffer its responses without bound. The I/O thread
+ * never waits, since it is the one that drains the channel.
+ */
 public class ChunkedOutput implements PackOutput
 {
     public static final int CHUNK_HEADER_SIZE = 2;
     public static final int MESSAGE_BOUNDARY = 0;
+    static final int MAX_QUEUED_BYTES = 64 * 1024;
+    private static final long WRITABILITY_CHECK_INTERVAL_MILLIS = 100;
 
     private final int bufferSize;
     private final int maxChunkSize;
@@ -41,33 +55,32 @@ public class ChunkedOutput implements PackOutput
     /** Are currently in the middle of writing a chunk? */
     private boolean chunkOpen = false;
 
+    /** Have buffers been written to the channel since it was last flushed? */
+    private boolean buffersQueued = false;
+
+    /** How many bytes have been written to the channel since it was last flushed */
+    private int queuedBytes;
+
+    private final Object writability = new Object();
+
     private Runnable onMessageComplete = new Runnable()
     {
         @Override
         public void run()
         {
-            try
-            {
-                closeChunkIfOpen();
-
-                // Ensure there's space to write the message boundary
-                if ( buffer.writableBytes() < CHUNK_HEADER_SIZE )
-                {
-                    flush();
-                }
-
-                // Write message boundary
-                buffer.writeShort( MESSAGE_BOUNDARY );
+            closeChunkIfOpen();
 
-                // Mark us as not currently in a chunk
-                chunkOpen = false;
-            }
-            catch ( IOException e )
+            // Ensure there's space to write the message boundary
+            if ( buffer.writableBytes() < CHUNK_HEADER_SIZE )
             {
-                // TODO: Don't use runnable here then, use something that can throw this IOException
-                throw new RuntimeException( e );
+                queueBuffer();
             }
 
+            // Write message boundary
+            buffer.writeShort( MESSAGE_BOUNDARY );
+
+            // Mark us as not currently in a chunk
+            chunkOpen = false;
         }
     };
 
@@ -92,7 +105,7 @@ public class ChunkedOutput implements PackOutput
         }
         else if ( buffer.writableBytes() < size )
         {
-            flush();
+            queueBuffer();
         }
 
         if ( !chunkOpen )
@@ -113,10 +126,80 @@ public class ChunkedOutput implements PackOutput
             closeChunkIfOpen();
             channel.writeAndFlush( buffer, channel.voidPromise() );
             newBuffer();
+            buffersQueued = false;
+            queuedBytes = 0;
+        }
+        else if ( buffersQueued )
+        {
+            channel.flush();
+            buffersQueued = false;
+            queuedBytes = 0;
         }
         return this;
     }
 
+    /**
+     * Hand the current buffer over to the channel, without sending it to the network yet, unless enough has been
+     * queued already, or the client is not keeping up.
+     */
+    private void queueBuffer()
+    {
+        if ( buffer.readableBytes() > 0 )
+        {
+            closeChunkIfOpen();
+            queuedBytes += buffer.readableBytes();
+            channel.write( buffer, channel.voidPromise() );
+            newBuffer();
+            buffersQueued = true;
+
+            if ( queuedBytes >= MAX_QUEUED_BYTES || !channel.channel().isWritable() )
+            {
+                channel.flush();
+                buffersQueued = false;
+                queuedBytes = 0;
+                awaitWritable();
+            }
+        }
+    }
+
+    private void awaitWritable()
+    {
+        Channel target = channel.channel();
+        if ( target.isWritable() || channel.executor().inEventLoop() )
+        {
+            return;
+        }
+
+        synchronized ( writability )
+        {
+            // Wake up now and then anyway, so that we notice if the channel is closed under our feet
+            while ( !target.isWritable() && target.isActive() )
+            {
+                try
+                {
+                    writability.wait( WRITABILITY_CHECK_INTERVAL_MILLIS );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the I/O thread when the writability of the target channel changes, to wake up a producer waiting for
+     * the client to catch up.
+     */
+    public void writabilityChanged()
+    {
+        synchronized ( writability )
+        {
+            writability.notifyAll();
+        }
+    }
+
     @Override
     public PackOutput put( byte value )
     {
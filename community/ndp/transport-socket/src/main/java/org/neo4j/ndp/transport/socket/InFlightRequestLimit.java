@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.ndp.transport.socket;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of requests in flight across all the connections that share it. The connections count their
+ * requests here, and while the total is above the limit they stop reading from their sockets. They resume once enough
+ * requests have completed, so a server with all of its session workers busy pushes back on every client, rather than
+ * queueing up work without bound one connection at a time.
+ */
+public class InFlightRequestLimit
+{
+    public static final InFlightRequestLimit UNLIMITED = new InFlightRequestLimit( Integer.MAX_VALUE );
+
+    private final int maxRequests;
+    private final int resumeAt;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    public InFlightRequestLimit( int maxRequests )
+    {
+        if ( maxRequests < 1 )
+        {
+            throw new IllegalArgumentException( "Illegal request limit: " + maxRequests );
+        }
+        this.maxRequests = maxRequests;
+        this.resumeAt = maxRequests / 4;
+    }
+
+    public void requestStarted()
+    {
+        requests.incrementAndGet();
+    }
+
+    public void requestDone()
+    {
+        if ( requests.decrementAndGet() <= resumeAt && !waiting.isEmpty() )
+        {
+            notifyWaiting();
+        }
+    }
+
+    /**
+     * @return true if there are more requests in flight than the limit allows.
+     */
+    public boolean isExceeded()
+    {
+        return requests.get() > maxRequests;
+    }
+
+    /**
+     * Have the given callback run once the number of requests in flight has dropped well below the limit. The callback
+     * runs on whichever thread completes the request that gets it there, so it must not block.
+     */
+    public void whenBelowLimit( Runnable callback )
+    {
+        waiting.add( callback );
+        // The requests may all have completed while we were adding the callback
+        if ( requests.get() <= resumeAt )
+        {
+            notifyWaiting();
+        }
+    }
+
+    public int requestsInFlight()
+    {
+        return requests.get();
+    }
+
+    private void notifyWaiting()
+    {
+        Runnable callback;
+        while ( (callback = waiting.poll()) != null )
+        {
+            callback.run();
+        }
+    }
+}
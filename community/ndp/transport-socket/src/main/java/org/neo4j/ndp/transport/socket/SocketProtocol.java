@@ -31,5 +31,10 @@ public interface SocketProtocol
 {
     void handle( ChannelHandlerContext ctx, ByteBuf data );
 
+    /**
+     * The channel has become writable or unwritable, see {@link io.netty.channel.Channel#isWritable()}.
+     */
+    void writabilityChanged();
+
     int version();
 }
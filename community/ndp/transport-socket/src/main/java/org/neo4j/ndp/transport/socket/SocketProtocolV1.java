@@ -43,6 +43,15 @@ public class SocketProtocolV1 implements SocketProtocol
 {
     public static final int VERSION = 1;
 
+    /**
+     * When the session has this many requests waiting to be processed, for instance because all workers are busy, we
+     * stop reading from the socket, and let the client feel the back-pressure through TCP flow control. Reading is
+     * resumed when the session has caught up to {@link #RESUME_READING_AT}. Reading is also paused while all
+     * connections together have more requests in flight than their shared {@link InFlightRequestLimit} allows.
+     */
+    static final int MAX_REQUESTS_IN_FLIGHT = 256;
+    static final int RESUME_READING_AT = 64;
+
     private final ChunkedInput input;
     private final ChunkedOutput output;
 
@@ -53,6 +62,10 @@ public class SocketProtocolV1 implements SocketProtocol
     private final Session session;
     private final Log log;
     private final AtomicInteger inFlight = new AtomicInteger( 0 );
+    private final InFlightRequestLimit requestLimit;
+    private volatile boolean readingPaused;
+    private boolean waitingForRequestLimit;
+    private ChannelHandlerContext channelContext;
 
     enum State
     {
@@ -65,9 +78,15 @@ public class SocketProtocolV1 implements SocketProtocol
     private int chunkSize = 0;
 
     public SocketProtocolV1( final Log log, Session session )
+    {
+        this( log, session, InFlightRequestLimit.UNLIMITED );
+    }
+
+    public SocketProtocolV1( final Log log, Session session, InFlightRequestLimit requestLimit )
     {
         this.log = log;
         this.session = session;
+        this.requestLimit = requestLimit;
         this.output = new ChunkedOutput();
         this.input = new ChunkedInput();
         this.packer = new PackStreamMessageFormatV1.Writer( output, output.messageBoundaryHook() );
@@ -91,6 +110,7 @@ public class SocketProtocolV1 implements SocketProtocol
     @Override
     public void handle( ChannelHandlerContext channelContext, ByteBuf data )
     {
+        this.channelContext = channelContext;
         onBatchOfMessagesStarted();
         try
         {
@@ -150,9 +170,19 @@ public class SocketProtocolV1 implements SocketProtocol
         {
             data.release();
             onBatchOfMessagesDone();
+            if ( inFlight.get() > MAX_REQUESTS_IN_FLIGHT || requestLimit.isExceeded() )
+            {
+                updateBackPressure();
+            }
         }
     }
 
+    @Override
+    public void writabilityChanged()
+    {
+        output.writabilityChanged();
+    }
+
     private void handleHeader( ChannelHandlerContext channelContext )
     {
         if(chunkSize == 0)
@@ -250,11 +280,14 @@ public class SocketProtocolV1 implements SocketProtocol
     private void onMessageStarted()
     {
         inFlight.incrementAndGet();
+        requestLimit.requestStarted();
     }
 
     private void onMessagDone()
     {
-        if ( inFlight.decrementAndGet() == 0 )
+        requestLimit.requestDone();
+        int remaining = inFlight.decrementAndGet();
+        if ( remaining == 0 )
         {
             try
             {
@@ -265,5 +298,64 @@ public class SocketProtocolV1 implements SocketProtocol
                 throw new RuntimeException( e );
             }
         }
+        if ( readingPaused && remaining <= RESUME_READING_AT )
+        {
+            updateBackPressure();
+        }
+    }
+
+    /*
+     * Requests are completed by whichever thread runs the session, while new requests are read by the I/O thread, so
+     * pausing and resuming reads is decided under a lock, based on the in-flight count at that moment. The I/O thread
+     * reads the count before pausing and the session thread decrements the count before checking the pause flag, so
+     * the request that brings the count down low enough is guaranteed to see the pause and resume reading.
+     *
+     * A connection paused by the shared request limit may have nothing in flight itself, so it asks the limit to
+     * call it back instead. That is done outside of the lock, since the callbacks of other connections may run
+     * right away on this thread.
+     */
+    private void updateBackPressure()
+    {
+        if ( pauseOrResumeReading() )
+        {
+            requestLimit.whenBelowLimit( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    synchronized ( SocketProtocolV1.this )
+                    {
+                        waitingForRequestLimit = false;
+                    }
+                    updateBackPressure();
+                }
+            } );
+        }
+    }
+
+    /**
+     * @return true if reading is paused by the shared request limit, and we need to be told when it is lifted.
+     */
+    private synchronized boolean pauseOrResumeReading()
+    {
+        int requests = inFlight.get();
+        boolean limitExceeded = requestLimit.isExceeded();
+        if ( !readingPaused && (requests > MAX_REQUESTS_IN_FLIGHT || limitExceeded) )
+        {
+            readingPaused = true;
+            channelContext.channel().config().setAutoRead( false );
+        }
+        else if ( readingPaused && requests <= RESUME_READING_AT && !limitExceeded )
+        {
+            readingPaused = false;
+            channelContext.channel().config().setAutoRead( true );
+        }
+
+        if ( readingPaused && limitExceeded && !waitingForRequestLimit )
+        {
+            waitingForRequestLimit = true;
+            return true;
+        }
+        return false;
     }
 }
@@ -68,6 +68,16 @@ public class SocketTransportHandler extends ChannelInboundHandlerAdapter
         }
     }
 
+    @Override
+    public void channelWritabilityChanged( ChannelHandlerContext ctx ) throws Exception
+    {
+        if ( protocol != null )
+        {
+            protocol.writabilityChanged();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
     // TODO: Handle channelInactive (eg. close our session if we've opened one)
 
     private void chooseProtocolVersion( ChannelHandlerContext ctx, ByteBuf buffer ) throws Exception
@@ -21,26 +21,37 @@ package org.neo4j.ndp.transport.socket;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.EventExecutor;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.kernel.impl.util.HexPrinter;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ChunkedOutputTest
 {
-    private final ByteBuffer writtenData = ByteBuffer.allocate( 1024 );
+    private final ByteBuffer writtenData = ByteBuffer.allocate( 2 * ChunkedOutput.MAX_QUEUED_BYTES );
+    private final ChannelHandlerContext ch = mock( ChannelHandlerContext.class );
+    private final Channel channel = mock( Channel.class );
+    private final EventExecutor eventLoop = mock( EventExecutor.class );
+    private final AtomicBoolean writable = new AtomicBoolean( true );
     private final ChunkedOutput out = new ChunkedOutput( 16 );
 
     @Test
@@ -74,12 +85,114 @@ public class ChunkedOutputTest
                          "00 00 00 02 00 08 00 00    00 00 00 00 00 03 00 00" ) );
     }
 
+    @Test
+    public void shouldFlushChannelOnceForManyMessages() throws Throwable
+    {
+        // When
+        for ( int i = 0; i < 10; i++ )
+        {
+            out.ensure( 8 ).putLong( i );
+            out.messageBoundaryHook().run();
+        }
+
+        // Then nothing has been sent to the network yet, even though several buffers have filled up
+        verify( ch, atLeastOnce() ).write( any(), any( ChannelPromise.class ) );
+        verify( ch, never() ).writeAndFlush( any(), any( ChannelPromise.class ) );
+        verify( ch, never() ).flush();
+
+        // And when
+        out.flush();
+
+        // Then everything goes out in one flush
+        verify( ch, times( 1 ) ).writeAndFlush( any(), any( ChannelPromise.class ) );
+        assertThat( writtenData.limit(), equalTo( 10 * 12 ) );
+    }
+
+    @Test
+    public void shouldFlushOnceEnoughBytesAreQueued() throws Throwable
+    {
+        // When
+        int messages = ChunkedOutput.MAX_QUEUED_BYTES / 12 + 2;
+        for ( int i = 0; i < messages; i++ )
+        {
+            out.ensure( 8 ).putLong( i );
+            out.messageBoundaryHook().run();
+        }
+
+        // Then the queued buffers have been sent, even though we never flushed explicitly
+        verify( ch, times( 1 ) ).flush();
+        assertThat( writtenData.limit(), equalTo( (messages - 1) * 12 ) );
+    }
+
+    @Test
+    public void shouldWaitForChannelToBecomeWritableBeforeProducingMore() throws Throwable
+    {
+        // Given
+        writable.set( false );
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread producer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    for ( int i = 0; i < 2; i++ )
+                    {
+                        out.ensure( 8 ).putLong( i );
+                        out.messageBoundaryHook().run();
+                    }
+                    done.set( true );
+                }
+                catch ( Exception e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        };
+
+        // When
+        producer.start();
+        while ( producer.getState() != Thread.State.TIMED_WAITING )
+        {
+            Thread.sleep( 1 );
+        }
+
+        // Then the queued buffer has been sent, and the producer waits for the client to catch up
+        verify( ch, times( 1 ) ).flush();
+        assertThat( done.get(), equalTo( false ) );
+
+        // And when
+        writable.set( true );
+        out.writabilityChanged();
+        producer.join( 10_000 );
+
+        // Then
+        assertThat( done.get(), equalTo( true ) );
+    }
+
+    @Test
+    public void shouldNeverWaitOnTheEventLoop() throws Throwable
+    {
+        // Given
+        writable.set( false );
+        when( eventLoop.inEventLoop() ).thenReturn( true );
+
+        // When
+        for ( int i = 0; i < 2; i++ )
+        {
+            out.ensure( 8 ).putLong( i );
+            out.messageBoundaryHook().run();
+        }
+
+        // Then we got here, and the queued buffer has been sent
+        verify( ch, times( 1 ) ).flush();
+    }
+
     @Before
     public void setup()
     {
-        ChannelHandlerContext ch = mock( ChannelHandlerContext.class );
-        when( ch.alloc() ).thenReturn( UnpooledByteBufAllocator.DEFAULT );
-        when( ch.writeAndFlush( any(), any(ChannelPromise.class) ) ).thenAnswer( new Answer<Object>()
+        Answer<Object> recordWrittenData = new Answer<Object>()
         {
             @Override
             public Object answer( InvocationOnMock invocation ) throws Throwable
@@ -89,7 +202,21 @@ public class ChunkedOutputTest
                 byteBuf.readBytes( writtenData );
                 return null;
             }
+        };
+        when( channel.isWritable() ).thenAnswer( new Answer<Boolean>()
+        {
+            @Override
+            public Boolean answer( InvocationOnMock invocation ) throws Throwable
+            {
+                return writable.get();
+            }
         } );
+        when( channel.isActive() ).thenReturn( true );
+        when( ch.channel() ).thenReturn( channel );
+        when( ch.executor() ).thenReturn( eventLoop );
+        when( ch.alloc() ).thenReturn( UnpooledByteBufAllocator.DEFAULT );
+        when( ch.write( any(), any( ChannelPromise.class ) ) ).thenAnswer( recordWrittenData );
+        when( ch.writeAndFlush( any(), any( ChannelPromise.class ) ) ).thenAnswer( recordWrittenData );
 
         out.setTargetChannel( ch );
     }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.ndp.transport.socket;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InFlightRequestLimitTest
+{
+    private final InFlightRequestLimit limit = new InFlightRequestLimit( 8 );
+    private final AtomicInteger callbacks = new AtomicInteger();
+    private final Runnable callback = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            callbacks.incrementAndGet();
+        }
+    };
+
+    @Test
+    public void shouldBeExceededOnlyPastTheLimit() throws Throwable
+    {
+        // When
+        started( 8 );
+
+        // Then
+        assertThat( limit.isExceeded(), equalTo( false ) );
+
+        // When
+        started( 1 );
+
+        // Then
+        assertThat( limit.isExceeded(), equalTo( true ) );
+    }
+
+    @Test
+    public void shouldRunCallbacksOnceRequestsDropWellBelowTheLimit() throws Throwable
+    {
+        // Given
+        started( 9 );
+        limit.whenBelowLimit( callback );
+
+        // When
+        done( 6 );
+
+        // Then
+        assertThat( limit.isExceeded(), equalTo( false ) );
+        assertThat( callbacks.get(), equalTo( 0 ) );
+
+        // When
+        done( 1 );
+
+        // Then
+        assertThat( limit.requestsInFlight(), equalTo( 2 ) );
+        assertThat( callbacks.get(), equalTo( 1 ) );
+
+        // And callbacks run only once
+        done( 2 );
+        assertThat( callbacks.get(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void shouldRunCallbackRightAwayIfRequestsAreAlreadyFew() throws Throwable
+    {
+        // Given
+        started( 1 );
+
+        // When
+        limit.whenBelowLimit( callback );
+
+        // Then
+        assertThat( callbacks.get(), equalTo( 1 ) );
+    }
+
+    private void started( int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            limit.requestStarted();
+        }
+    }
+
+    private void done( int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            limit.requestDone();
+        }
+    }
+}
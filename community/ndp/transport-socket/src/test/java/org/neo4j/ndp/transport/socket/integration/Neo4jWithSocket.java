@@ -34,6 +34,7 @@ import org.neo4j.logging.Log;
 import org.neo4j.ndp.runtime.Session;
 import org.neo4j.ndp.runtime.Sessions;
 import org.neo4j.ndp.runtime.internal.StandardSessions;
+import org.neo4j.ndp.runtime.internal.concurrent.ThreadedSessions;
 import org.neo4j.ndp.transport.socket.NettyServer;
 import org.neo4j.ndp.transport.socket.SocketProtocol;
 import org.neo4j.ndp.transport.socket.SocketProtocolV1;
@@ -68,7 +69,8 @@ public class Neo4jWithSocket implements TestRule
                 final Log log = api.getDependencyResolver().resolveDependency( LogService.class )
                         .getInternalLog( Session.class );
 
-                final Sessions sessions = life.add( new StandardSessions( api, log ) );
+                final Sessions sessions = life.add( new ThreadedSessions(
+                        life.add( new StandardSessions( api, log ) ), 4, ThreadedSessions.NO_MONITOR, log ) );
 
                 PrimitiveLongObjectMap<Factory<SocketProtocol>> availableVersions = longObjectMap();
                 availableVersions.put( SocketProtocolV1.VERSION, new Factory<SocketProtocol>()
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.ndp.transport.socket.integration;
+
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.ndp.transport.socket.client.Connection;
+import org.neo4j.ndp.transport.socket.client.SocketConnection;
+
+import static java.lang.System.nanoTime;
+import static org.neo4j.ndp.messaging.v1.message.Messages.pullAll;
+import static org.neo4j.ndp.messaging.v1.message.Messages.run;
+import static org.neo4j.ndp.transport.socket.integration.TransportTestUtil.acceptedVersions;
+import static org.neo4j.ndp.transport.socket.integration.TransportTestUtil.chunk;
+import static org.neo4j.ndp.transport.socket.integration.TransportTestUtil.recvChunkHeader;
+
+/**
+ * Measures how many small statements a single connection gets through, when the client waits for the responses to
+ * each statement before sending the next, compared to when it sends all statements up front and reads the responses
+ * as they come.
+ * <p>
+ * Run with {@code -DMode=<mode>}, and optionally {@code -Diterations} and {@code -Dstatements}.
+ */
+public class PipeliningBenchmark
+{
+    // Each statement is a RUN and a PULL_ALL, which get a SUCCESS, and a RECORD followed by a SUCCESS, in return.
+    private static final int RESPONSES_PER_STATEMENT = 3;
+
+    public static void main( String... args ) throws Throwable
+    {
+        final Mode mode = Mode.valueOf( System.getProperty( "Mode", Mode.PIPELINED.name() ) );
+        final int iterations = Integer.getInteger( "iterations", 5 );
+        final int statements = Integer.getInteger( "statements", 10_000 );
+        final Neo4jWithSocket server = new Neo4jWithSocket();
+        server.apply( new Statement()
+        {
+            @Override
+            public void evaluate() throws Throwable
+            {
+                System.out.printf( "=== %s - %d statements ===%n", mode, statements );
+                for ( int i = 0; i < iterations; i++ )
+                {
+                    execute( server, mode, statements );
+                }
+            }
+        }, Description.EMPTY ).evaluate();
+    }
+
+    enum Mode
+    {
+        ROUND_TRIP
+                {
+                    @Override
+                    void send( Connection client, byte[] statement, int statements ) throws Exception
+                    {
+                        for ( int i = 0; i < statements; i++ )
+                        {
+                            client.send( statement );
+                            receiveResponses( client, 1 );
+                        }
+                    }
+                },
+        PIPELINED
+                {
+                    @Override
+                    void send( final Connection client, byte[] statement, final int statements ) throws Exception
+                    {
+                        ByteArrayOutputStream pipeline = new ByteArrayOutputStream( statement.length * statements );
+                        for ( int i = 0; i < statements; i++ )
+                        {
+                            pipeline.write( statement );
+                        }
+                        final byte[] allStatements = pipeline.toByteArray();
+
+                        // Send from another thread, so that neither side blocks on a full socket buffer
+                        final AtomicReference<Throwable> sendFailure = new AtomicReference<>();
+                        Thread sender = new Thread( "pipelining-sender" )
+                        {
+                            @Override
+                            public void run()
+                            {
+                                try
+                                {
+                                    client.send( allStatements );
+                                }
+                                catch ( Throwable e )
+                                {
+                                    sendFailure.set( e );
+                                }
+                            }
+                        };
+                        sender.start();
+                        receiveResponses( client, statements );
+                        sender.join();
+                        if ( sendFailure.get() != null )
+                        {
+                            throw new RuntimeException( sendFailure.get() );
+                        }
+                    }
+                };
+
+        abstract void send( Connection client, byte[] statement, int statements ) throws Exception;
+    }
+
+    static void execute( Neo4jWithSocket server, Mode mode, int statements ) throws Exception
+    {
+        byte[] statement = chunk( run( "RETURN 1" ), pullAll() );
+        try ( Connection client = new SocketConnection() )
+        {
+            client.connect( server.address() ).send( acceptedVersions( 1, 0, 0, 0 ) );
+            client.recv( 4 );
+
+            long time = nanoTime();
+            mode.send( client, statement, statements );
+            time = nanoTime() - time;
+            System.out.printf( "time=%.3fms; throughput=%.0fstatements/s%n",
+                    time / 1_000_000.0, statements / (time / 1_000_000_000.0) );
+        }
+    }
+
+    private static void receiveResponses( Connection client, int statements ) throws Exception
+    {
+        int responses = 0;
+        while ( responses < statements * RESPONSES_PER_STATEMENT )
+        {
+            int size = recvChunkHeader( client );
+            if ( size > 0 )
+            {
+                client.recv( size );
+            }
+            else
+            {
+                responses++;
+            }
+        }
+    }
+}
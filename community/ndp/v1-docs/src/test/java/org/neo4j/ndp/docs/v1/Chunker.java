@@ -21,6 +21,7 @@ package org.neo4j.ndp.docs.v1;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import org.mockito.invocation.InvocationOnMock;
@@ -44,8 +45,11 @@ public class Chunker
         final ByteBuffer outputBuffer = ByteBuffer.allocate( 512 );
 
         ChannelHandlerContext ch = mock( ChannelHandlerContext.class );
+        Channel channel = mock( Channel.class );
+        when( channel.isWritable() ).thenReturn( true );
+        when( ch.channel() ).thenReturn( channel );
         when( ch.alloc() ).thenReturn( UnpooledByteBufAllocator.DEFAULT );
-        when( ch.writeAndFlush( any(), any( ChannelPromise.class ) ) ).then( new Answer<Object>()
+        Answer<Object> recordWrittenData = new Answer<Object>()
         {
             @Override
             public Object answer( InvocationOnMock inv ) throws Throwable
@@ -55,7 +59,9 @@ public class Chunker
                 buf.readBytes( outputBuffer );
                 return null;
             }
-        } );
+        };
+        when( ch.write( any(), any( ChannelPromise.class ) ) ).then( recordWrittenData );
+        when( ch.writeAndFlush( any(), any( ChannelPromise.class ) ) ).then( recordWrittenData );
         out.setTargetChannel( ch );
 
         for ( byte[] message : messages )
@@ -20,6 +20,8 @@
 package org.neo4j.perftest.enterprise.ccheck;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.neo4j.consistency.ConsistencyCheckSettings;
@@ -49,12 +51,16 @@ import org.neo4j.perftest.enterprise.util.Configuration;
 import org.neo4j.perftest.enterprise.util.Parameters;
 import org.neo4j.perftest.enterprise.util.Setting;
 
+import static java.util.Arrays.asList;
+
 import static org.neo4j.perftest.enterprise.util.Configuration.SYSTEM_PROPERTIES;
 import static org.neo4j.perftest.enterprise.util.Configuration.settingsOf;
 import static org.neo4j.perftest.enterprise.util.DirectlyCorrelatedParameter.param;
 import static org.neo4j.perftest.enterprise.util.DirectlyCorrelatedParameter.passOn;
 import static org.neo4j.perftest.enterprise.util.Setting.booleanSetting;
 import static org.neo4j.perftest.enterprise.util.Setting.enumSetting;
+import static org.neo4j.perftest.enterprise.util.Setting.integerSetting;
+import static org.neo4j.perftest.enterprise.util.Setting.listSetting;
 import static org.neo4j.perftest.enterprise.util.Setting.stringSetting;
 
 public class ConsistencyPerformanceCheck
@@ -64,6 +70,7 @@ public class ConsistencyPerformanceCheck
     static final Setting<CheckerVersion> checker_version = enumSetting( "checker_version", CheckerVersion.NEW );
     static final Setting<TaskExecutionOrder> execution_order =
             enumSetting( "execution_order", TaskExecutionOrder.SINGLE_THREADED );
+    static final Setting<List<Long>> threads = listSetting( integerSetting( "threads", 1 ), asList( 1L ) );
     static final Setting<Boolean> wait_before_check = booleanSetting( "wait_before_check", false );
     static final Setting<String> pagecache_memory =
             stringSetting( "dbms.pagecache.memory", "2G" );
@@ -81,6 +88,11 @@ public class ConsistencyPerformanceCheck
      * -node_count 10000000
      * -relationships FOO:2,BAR:1
      * -node_properties INTEGER:2,STRING:1,BYTE_ARRAY:1
+     * -threads 1,2,4,8
+     *
+     * The check is run once for each of the given thread counts, and the speedup of each run compared to the
+     * first is reported at the end. The report file of each run gets the thread count in its name when more
+     * than one thread count is given.
      */
     public static void main( String... args ) throws Exception
     {
@@ -117,19 +129,45 @@ public class ConsistencyPerformanceCheck
             System.in.read();
         }
 
-        Config tuningConfiguration = buildTuningConfiguration( configuration );
+        List<Long> threadCounts = configuration.get( threads );
+        List<Long> times = new ArrayList<>( threadCounts.size() );
+        for ( long threadCount : threadCounts )
+        {
+            times.add( check( configuration, storeDir, progress, threadCount, threadCounts.size() > 1 ) );
+        }
+
+        System.out.println( "Threads    Time (ms)    Speedup" );
+        for ( int i = 0; i < threadCounts.size(); i++ )
+        {
+            System.out.printf( "%7d %12.3f %10.2f%n", threadCounts.get( i ), TimeLogger.nanosToMillis( times.get( i ) ),
+                    times.get( 0 ) / (double) times.get( i ) );
+        }
+    }
+
+    private static long check( Configuration configuration, File storeDir, ProgressMonitorFactory progress,
+            long threadCount, boolean reportPerThreadCount ) throws Exception
+    {
+        Config tuningConfiguration = buildTuningConfiguration( configuration, threadCount );
         fileSystem = new DefaultFileSystemAbstraction();
         ConfiguringPageCacheFactory pageCacheFactory = new ConfiguringPageCacheFactory(
                 fileSystem, tuningConfiguration, PageCacheTracer.NULL );
         pageCache = pageCacheFactory.getOrCreatePageCache();
         DirectStoreAccess directStoreAccess = createScannableStores( storeDir, tuningConfiguration );
 
-        JsonReportWriter reportWriter = new JsonReportWriter( configuration, tuningConfiguration );
+        File reportFile = new File( configuration.get( report_file ) );
+        if ( reportPerThreadCount )
+        {
+            reportFile = new File( reportFile.getParentFile(),
+                    reportFile.getName().replaceFirst( "(\\.json)?$", "-threads-" + threadCount + "$1" ) );
+        }
+        JsonReportWriter reportWriter = new JsonReportWriter( configuration, tuningConfiguration, reportFile );
         TimingProgress progressMonitor = new TimingProgress( new TimeLogger( reportWriter ), progress );
 
         try
         {
+            long time = System.nanoTime();
             configuration.get( checker_version ).run( progressMonitor, directStoreAccess, tuningConfiguration );
+            return System.nanoTime() - time;
         }
         finally
         {
@@ -157,12 +195,14 @@ public class ConsistencyPerformanceCheck
                 new LuceneLabelScanStoreBuilder( storeDir, neoStore, fileSystem, NullLogProvider.getInstance() ).build(), indexes );
     }
 
-    private static Config buildTuningConfiguration( Configuration configuration )
+    private static Config buildTuningConfiguration( Configuration configuration, long threadCount )
     {
         Map<String, String> passedOnConfiguration = passOn( configuration,
                 param( GraphDatabaseSettings.pagecache_memory, pagecache_memory ),
                 param( GraphDatabaseSettings.mapped_memory_page_size, mapped_memory_page_size ),
                 param( ConsistencyCheckSettings.consistency_check_execution_order, execution_order ) );
+        passedOnConfiguration.put( ConsistencyCheckSettings.consistency_check_threads.name(),
+                String.valueOf( threadCount ) );
 
         return new Config( passedOnConfiguration, GraphDatabaseSettings.class );
     }
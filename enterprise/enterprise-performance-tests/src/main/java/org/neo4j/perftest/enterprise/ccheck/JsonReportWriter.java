@@ -46,10 +46,15 @@ class JsonReportWriter implements TimingProgress.Visitor
     private final Config tuningConfiguration;
 
     JsonReportWriter( Configuration configuration, Config tuningConfiguration )
+    {
+        this( configuration, tuningConfiguration, new File( configuration.get( ConsistencyPerformanceCheck.report_file ) ) );
+    }
+
+    JsonReportWriter( Configuration configuration, Config tuningConfiguration, File target )
     {
         this.configuration = configuration;
         this.tuningConfiguration = tuningConfiguration;
-        target = new File( configuration.get( ConsistencyPerformanceCheck.report_file ) );
+        this.target = target;
     }
 
     @Override
@@ -681,7 +681,10 @@ public class ForsetiClient implements Locks.Client
     {
         clearWaitList();
         lock.copyHolderWaitListsInto( waitList );
-        if(lock.anyHolderIsWaitingFor( myId ) && lock.holderWaitListSize() >= waitListSize())
+
+        // A client holding no locks can't be blocking anyone, and so can't be part of a deadlock. Holders may still
+        // have us in their wait lists though, if they haven't updated them since we released our locks.
+        if( holdsLocks() && lock.anyHolderIsWaitingFor( myId ) && lock.holderWaitListSize() >= waitListSize() )
         {
             waitList.clear();
             throw new DeadlockDetectedException( this + " can't acquire " + lock + " on " + type + "("+resourceId+"), because holders of that lock " +
@@ -689,6 +692,18 @@ public class ForsetiClient implements Locks.Client
         }
     }
 
+    private boolean holdsLocks()
+    {
+        for ( int i = 0; i < sharedLockCounts.length; i++ )
+        {
+            if ( !sharedLockCounts[i].isEmpty() || !exclusiveLockCounts[i].isEmpty() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public String describeWaitList()
     {
         StringBuilder sb = new StringBuilder( format( "%nClient[%d] waits for [", id() ) );
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha.lock.forseti;
+
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.kernel.impl.locking.AcquireLockTimeoutException;
+import org.neo4j.kernel.impl.util.concurrent.WaitStrategy;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+
+import static org.neo4j.kernel.impl.locking.ResourceTypes.NODE;
+
+public class ForsetiClientTest
+{
+    @Test
+    public void shouldNotDetectDeadlockWhenWaitingWithoutHoldingAnyLocks() throws Exception
+    {
+        // Given client A holding lock 1 and client B holding lock 2
+        final ForsetiClient clientA = newClient( 0 );
+        final ForsetiClient clientB = newClient( 1 );
+        clientA.acquireExclusive( NODE, 1 );
+        clientB.acquireExclusive( NODE, 2 );
+
+        // And given that, while B is waiting for lock 1 and has A in its wait list, A releases its locks and goes
+        // for lock 2. B only lets go of lock 2 once A has waited for it.
+        waitStrategy = new WaitStrategy<AcquireLockTimeoutException>()
+        {
+            @Override
+            public void apply( long iteration )
+            {
+                waits++;
+                if ( waits == 2 )
+                {
+                    clientA.releaseAll();
+                    clientA.acquireExclusive( NODE, 2 );
+                }
+                else if ( waits == 4 )
+                {
+                    clientB.releaseExclusive( NODE, 2 );
+                }
+            }
+        };
+
+        // When
+        clientB.acquireExclusive( NODE, 1 );
+
+        // Then A got lock 2 rather than being told about a deadlock that B's outdated wait list suggested
+        assertThat( waits, equalTo( 4 ) );
+        ForsetiClient clientC = newClient( 2 );
+        assertFalse( clientC.tryExclusiveLock( NODE, 1 ) );
+        assertFalse( clientC.tryExclusiveLock( NODE, 2 ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private final ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps = new ConcurrentMap[]{
+            new ConcurrentHashMap<Long,ForsetiLockManager.Lock>()};
+    private WaitStrategy<AcquireLockTimeoutException> waitStrategy;
+    private int waits;
+
+    @SuppressWarnings( "unchecked" )
+    private ForsetiClient newClient( int id )
+    {
+        WaitStrategy<AcquireLockTimeoutException> delegatingStrategy = new WaitStrategy<AcquireLockTimeoutException>()
+        {
+            @Override
+            public void apply( long iteration ) throws AcquireLockTimeoutException
+            {
+                waitStrategy.apply( iteration );
+            }
+        };
+        return new ForsetiClient( id, lockMaps, new WaitStrategy[]{delegatingStrategy}, null );
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha.lock.forseti;
+
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.kernel.impl.locking.community.CommunityLockManger;
+
+import static java.lang.System.nanoTime;
+
+import static org.neo4j.kernel.impl.locking.ResourceTypes.NODE;
+
+/**
+ * Measures acquire/release throughput of the {@link Locks} implementations, for an increasing number of threads.
+ * Run with for example {@code -DBenchmark=CONTENDED -DImplementation=FORSETI}, leaving out either of them to run
+ * all of them.
+ */
+public class LocksMicroBenchmark
+{
+    public static void main( String... args ) throws InterruptedException
+    {
+        int minThreads = Integer.getInteger( "minThreads", 1 );
+        int maxThreads = Integer.getInteger( "maxThreads", Runtime.getRuntime().availableProcessors() * 2 );
+        int operations = Integer.getInteger( "operations", 1_000_000 );
+        for ( Benchmark benchmark : select( Benchmark.class ) )
+        {
+            for ( Implementation impl : select( Implementation.class ) )
+            {
+                for ( int threads = minThreads; threads <= maxThreads; threads *= 2 )
+                {
+                    execute( benchmark, impl, threads, operations );
+                }
+            }
+        }
+    }
+
+    enum Benchmark
+    {
+        /** Each thread locks resources of its own, exclusively. */
+        UNCONTENDED
+                {
+                    @Override
+                    void operation( Locks.Client client, int thread, ThreadLocalRandom random )
+                    {
+                        long resourceId = thread;
+                        client.acquireExclusive( NODE, resourceId );
+                        client.releaseExclusive( NODE, resourceId );
+                    }
+                },
+        /** All threads lock the same few resources, mostly shared but every tenth lock exclusively. */
+        CONTENDED
+                {
+                    @Override
+                    void operation( Locks.Client client, int thread, ThreadLocalRandom random )
+                    {
+                        long resourceId = random.nextInt( 10 );
+                        if ( random.nextInt( 10 ) == 0 )
+                        {
+                            client.acquireExclusive( NODE, resourceId );
+                            client.releaseExclusive( NODE, resourceId );
+                        }
+                        else
+                        {
+                            client.acquireShared( NODE, resourceId );
+                            client.releaseShared( NODE, resourceId );
+                        }
+                    }
+                };
+
+        abstract void operation( Locks.Client client, int thread, ThreadLocalRandom random );
+    }
+
+    enum Implementation
+    {
+        COMMUNITY
+                {
+                    @Override
+                    Locks create()
+                    {
+                        return new CommunityLockManger();
+                    }
+                },
+        FORSETI
+                {
+                    @Override
+                    Locks create()
+                    {
+                        return new ForsetiLockManager( ResourceTypes.values() );
+                    }
+                };
+
+        abstract Locks create();
+    }
+
+    private static void execute( final Benchmark benchmark, Implementation impl, int threadCount,
+            final int operations ) throws InterruptedException
+    {
+        final Locks locks = impl.create();
+        final CountDownLatch start = new CountDownLatch( 1 );
+        Thread[] threads = new Thread[threadCount];
+        for ( int i = 0; i < threadCount; i++ )
+        {
+            final int thread = i;
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    try ( Locks.Client client = locks.newClient() )
+                    {
+                        start.await();
+                        for ( int operation = 0; operation < operations; operation++ )
+                        {
+                            benchmark.operation( client, thread, random );
+                        }
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        throw new RuntimeException( e );
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        long startTime = nanoTime();
+        start.countDown();
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+        double seconds = (nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf( "%s / %s - %d threads: %.0f acquire+release/s%n",
+                benchmark, impl, threadCount, threadCount * (double) operations / seconds );
+    }
+
+    private static <E extends Enum<E>> Iterable<E> select( Class<E> type )
+    {
+        String name = System.getProperty( type.getSimpleName() );
+        return name == null ? EnumSet.allOf( type ) : EnumSet.of( Enum.valueOf( type, name ) );
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.query;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.function.Consumer;
+import org.neo4j.logging.AbstractLog;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.Logger;
+
+/**
+ * A {@link Log} which hands messages over to a background writer through a bounded ring buffer, so that threads
+ * logging messages never wait for the file being written. The writer is this {@link Runnable}, which writes to the
+ * target log until {@link #stop() stopped}.
+ * <p>
+ * When the writer can't keep up and the ring buffer is full, messages are dropped rather than having the logging
+ * threads wait for room. How many were dropped is logged as soon as the writer has caught up.
+ */
+public class AsyncQueryLog extends AbstractLog implements Runnable
+{
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos( 10 );
+
+    private final Log target;
+    private final int mask;
+    private final Message[] messages;
+    // The position each slot expects to be written at next, plus one once it has been written there
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean writerStarted = new AtomicBoolean();
+    private final CountDownLatch stopped = new CountDownLatch( 1 );
+    private long head;
+    private volatile boolean stopping;
+
+    private final Logger debugLogger = new EnqueuingLogger( Level.DEBUG );
+    private final Logger infoLogger = new EnqueuingLogger( Level.INFO );
+    private final Logger warnLogger = new EnqueuingLogger( Level.WARN );
+    private final Logger errorLogger = new EnqueuingLogger( Level.ERROR );
+
+    /**
+     * @param target the log the background writer writes messages to.
+     * @param capacity the number of messages that can be waiting for the writer, rounded up to a power of two.
+     */
+    public AsyncQueryLog( Log target, int capacity )
+    {
+        this.target = target;
+        int size = Integer.highestOneBit( Math.max( 2, capacity ) - 1 ) << 1;
+        this.mask = size - 1;
+        this.messages = new Message[size];
+        this.sequences = new AtomicLongArray( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            sequences.set( i, i );
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled()
+    {
+        return target.isDebugEnabled();
+    }
+
+    @Override
+    public Logger debugLogger()
+    {
+        return debugLogger;
+    }
+
+    @Override
+    public Logger infoLogger()
+    {
+        return infoLogger;
+    }
+
+    @Override
+    public Logger warnLogger()
+    {
+        return warnLogger;
+    }
+
+    @Override
+    public Logger errorLogger()
+    {
+        return errorLogger;
+    }
+
+    @Override
+    public void bulk( Consumer<Log> consumer )
+    {
+        consumer.accept( this );
+    }
+
+    /**
+     * Writes messages to the target log as they come in, until {@link #stop() stopped}. Returns right away if
+     * stopped before it got to run, in which case {@link #stop()} has written the messages itself.
+     */
+    @Override
+    public void run()
+    {
+        if ( !writerStarted.compareAndSet( false, true ) )
+        {
+            return;
+        }
+        try
+        {
+            while ( true )
+            {
+                boolean stop = stopping;
+                if ( !writeAvailable() )
+                {
+                    if ( stop )
+                    {
+                        break;
+                    }
+                    LockSupport.parkNanos( this, IDLE_PARK_NANOS );
+                }
+            }
+        }
+        finally
+        {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Has the writer write the messages logged so far and then return, and waits for it to finish. If the writer
+     * never started, the messages are written by the calling thread instead, since there is no writer to wait for.
+     */
+    public void stop() throws InterruptedException
+    {
+        stopping = true;
+        if ( writerStarted.compareAndSet( false, true ) )
+        {
+            while ( writeAvailable() )
+            {
+                // Until everything logged so far is written
+            }
+            stopped.countDown();
+        }
+        stopped.await( 10, TimeUnit.SECONDS );
+    }
+
+    private boolean writeAvailable()
+    {
+        if ( !available() )
+        {
+            return false;
+        }
+        target.bulk( new Consumer<Log>()
+        {
+            @Override
+            public void accept( Log log )
+            {
+                Message message;
+                while ( (message = poll()) != null )
+                {
+                    message.writeTo( log );
+                }
+                long droppedMessages = dropped.getAndSet( 0 );
+                if ( droppedMessages > 0 )
+                {
+                    log.warn( "%d query log messages were dropped, since they were logged faster than they " +
+                              "could be written", droppedMessages );
+                }
+            }
+        } );
+        return true;
+    }
+
+    private boolean offer( Message message )
+    {
+        long position = tail.get();
+        while ( true )
+        {
+            int index = (int) position & mask;
+            long sequence = sequences.get( index );
+            if ( sequence == position )
+            {
+                if ( tail.compareAndSet( position, position + 1 ) )
+                {
+                    messages[index] = message;
+                    sequences.lazySet( index, position + 1 );
+                    return true;
+                }
+            }
+            else if ( sequence < position )
+            {
+                // The slot still holds a message from one lap ago, i.e. the ring buffer is full
+                dropped.incrementAndGet();
+                return false;
+            }
+            position = tail.get();
+        }
+    }
+
+    private boolean available()
+    {
+        return sequences.get( (int) head & mask ) == head + 1 || dropped.get() > 0;
+    }
+
+    private Message poll()
+    {
+        int index = (int) head & mask;
+        if ( sequences.get( index ) != head + 1 )
+        {
+            return null;
+        }
+        Message message = messages[index];
+        messages[index] = null;
+        sequences.lazySet( index, head + messages.length );
+        head++;
+        return message;
+    }
+
+    private enum Level
+    {
+        DEBUG
+        {
+            @Override
+            Logger logger( Log log )
+            {
+                return log.debugLogger();
+            }
+        },
+        INFO
+        {
+            @Override
+            Logger logger( Log log )
+            {
+                return log.infoLogger();
+            }
+        },
+        WARN
+        {
+            @Override
+            Logger logger( Log log )
+            {
+                return log.warnLogger();
+            }
+        },
+        ERROR
+        {
+            @Override
+            Logger logger( Log log )
+            {
+                return log.errorLogger();
+            }
+        };
+
+        abstract Logger logger( Log log );
+    }
+
+    private static class Message
+    {
+        private final Level level;
+        private final String message;
+        private final Object[] arguments;
+        private final Throwable throwable;
+
+        Message( Level level, String message, Object[] arguments, Throwable throwable )
+        {
+            this.level = level;
+            this.message = message;
+            this.arguments = arguments;
+            this.throwable = throwable;
+        }
+
+        void writeTo( Log log )
+        {
+            Logger logger = level.logger( log );
+            if ( throwable != null )
+            {
+                logger.log( message, throwable );
+            }
+            else if ( arguments != null )
+            {
+                logger.log( message, arguments );
+            }
+            else
+            {
+                logger.log( message );
+            }
+        }
+    }
+
+    private class EnqueuingLogger implements Logger
+    {
+        private final Level level;
+
+        EnqueuingLogger( Level level )
+        {
+            this.level = level;
+        }
+
+        @Override
+        public void log( String message )
+        {
+            offer( new Message( level, message, null, null ) );
+        }
+
+        @Override
+        public void log( String message, Throwable throwable )
+        {
+            offer( new Message( level, message, null, throwable ) );
+        }
+
+        @Override
+        public void log( String format, Object... arguments )
+        {
+            offer( new Message( level, format, arguments, null ) );
+        }
+
+        @Override
+        public void bulk( Consumer<Logger> consumer )
+        {
+            consumer.accept( this );
+        }
+    }
+}
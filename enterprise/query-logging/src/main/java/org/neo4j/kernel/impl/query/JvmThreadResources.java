@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.query;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * {@link ThreadResources} measured by the {@link ThreadMXBean} of the JVM and the {@link PageCacheTracer}.
+ * Allocations are measured if the JVM provides {@code com.sun.management.ThreadMXBean}, which is looked up
+ * reflectively to not depend on it. Only counters that the JVM keeps per thread anyway are read, so sampling
+ * neither needs a safepoint nor makes other threads pay for it.
+ */
+class JvmThreadResources implements ThreadResources
+{
+    private static final String SUN_THREAD_BEAN = "com.sun.management.ThreadMXBean";
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MethodHandle threadAllocatedBytes = threadAllocatedBytes( threads );
+    private final boolean cpuTime = threads.isCurrentThreadCpuTimeSupported();
+    private final PageCacheTracer pageCacheTracer;
+
+    JvmThreadResources( PageCacheTracer pageCacheTracer )
+    {
+        this.pageCacheTracer = pageCacheTracer;
+    }
+
+    @Override
+    public long allocatedBytes()
+    {
+        if ( threadAllocatedBytes == null )
+        {
+            return UNKNOWN;
+        }
+        try
+        {
+            return (long) threadAllocatedBytes.invokeExact( Thread.currentThread().getId() );
+        }
+        catch ( Throwable e )
+        {
+            return UNKNOWN;
+        }
+    }
+
+    @Override
+    public long cpuTimeMillis()
+    {
+        // -1 if CPU time measurement has been disabled
+        long nanos = cpuTime ? threads.getCurrentThreadCpuTime() : -1;
+        return nanos == -1 ? UNKNOWN : TimeUnit.NANOSECONDS.toMillis( nanos );
+    }
+
+    @Override
+    public long pageHits()
+    {
+        long hits = pageCacheTracer.countHitsOfCurrentThread();
+        return hits == -1 ? UNKNOWN : hits;
+    }
+
+    @Override
+    public long pageFaults()
+    {
+        long faults = pageCacheTracer.countFaultsOfCurrentThread();
+        return faults == -1 ? UNKNOWN : faults;
+    }
+
+    private static MethodHandle threadAllocatedBytes( ThreadMXBean threads )
+    {
+        try
+        {
+            Class<?> beanClass = Class.forName( SUN_THREAD_BEAN );
+            if ( !beanClass.isInstance( threads ) ||
+                 !(boolean) beanClass.getMethod( "isThreadAllocatedMemorySupported" ).invoke( threads ) )
+            {
+                return null;
+            }
+            beanClass.getMethod( "setThreadAllocatedMemoryEnabled", boolean.class ).invoke( threads, true );
+            return MethodHandles.publicLookup()
+                    .findVirtual( beanClass, "getThreadAllocatedBytes", MethodType.methodType( long.class, long.class ) )
+                    .bindTo( threads );
+        }
+        catch ( Exception e )
+        {
+            return null;
+        }
+    }
+}
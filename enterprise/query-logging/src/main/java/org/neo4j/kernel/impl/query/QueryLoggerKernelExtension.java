@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.query;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.OutputStream;
 
@@ -26,13 +27,16 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.helpers.Clock;
 import org.neo4j.helpers.Service;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.logging.FormattedLog;
 import org.neo4j.kernel.impl.query.QuerySession.MetadataKey;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.Log;
+import org.neo4j.logging.RotatingFileOutputStreamSupplier;
 import org.neo4j.kernel.monitoring.Monitors;
 
 import static org.neo4j.io.file.Files.createOrOpenAsOuputStream;
@@ -40,6 +44,11 @@ import static org.neo4j.io.file.Files.createOrOpenAsOuputStream;
 @Service.Implementation(KernelExtensionFactory.class)
 public class QueryLoggerKernelExtension extends KernelExtensionFactory<QueryLoggerKernelExtension.Dependencies>
 {
+    /**
+     * The number of log entries that can be waiting to be written, before entries are dropped.
+     */
+    static final int LOG_BUFFER_SIZE = 8192;
+
     public interface Dependencies
     {
         FileSystemAbstraction filesystem();
@@ -47,6 +56,10 @@ public class QueryLoggerKernelExtension extends KernelExtensionFactory<QueryLogg
         Config config();
 
         Monitors monitoring();
+
+        JobScheduler jobScheduler();
+
+        PageCacheTracer pageCacheTracer();
     }
 
     public QueryLoggerKernelExtension()
@@ -66,27 +79,59 @@ public class QueryLoggerKernelExtension extends KernelExtensionFactory<QueryLogg
         }
 
         return new LifecycleAdapter() {
-            OutputStream logOutputStream;
+            Closeable logOutput;
+            AsyncQueryLog asyncLog;
 
             @Override
             public void init() throws Throwable
             {
                 final FileSystemAbstraction filesystem = deps.filesystem();
-                logOutputStream = createOrOpenAsOuputStream( filesystem, queryLogFile, true );
                 Long thresholdMillis = deps.config().get( GraphDatabaseSettings.log_queries_threshold );
+                long rotationThreshold = deps.config().get( GraphDatabaseSettings.log_queries_rotation_threshold );
+                int maxArchives = deps.config().get( GraphDatabaseSettings.log_queries_max_archives );
+
+                FormattedLog log;
+                if ( rotationThreshold == 0 )
+                {
+                    OutputStream logOutputStream = createOrOpenAsOuputStream( filesystem, queryLogFile, true );
+                    log = FormattedLog.withUTCTimeZone().toOutputStream( logOutputStream );
+                    logOutput = logOutputStream;
+                }
+                else
+                {
+                    RotatingFileOutputStreamSupplier rotatingSupplier = new RotatingFileOutputStreamSupplier(
+                            filesystem, queryLogFile, rotationThreshold, 0, maxArchives,
+                            deps.jobScheduler().executor( JobScheduler.Group.queryLogging ) );
+                    log = FormattedLog.withUTCTimeZone().toOutputStream( rotatingSupplier );
+                    logOutput = rotatingSupplier;
+                }
+                asyncLog = new AsyncQueryLog( log, LOG_BUFFER_SIZE );
 
                 QueryLogger logger = new QueryLogger(
                         Clock.SYSTEM_CLOCK,
-                        FormattedLog.withUTCTimeZone().toOutputStream( logOutputStream ),
-                        thresholdMillis
+                        asyncLog,
+                        thresholdMillis,
+                        new JvmThreadResources( deps.pageCacheTracer() )
                 );
                 deps.monitoring().addMonitorListener( logger );
             }
 
+            @Override
+            public void start() throws Throwable
+            {
+                deps.jobScheduler().schedule( JobScheduler.Group.queryLogging, asyncLog );
+            }
+
+            @Override
+            public void stop() throws Throwable
+            {
+                asyncLog.stop();
+            }
+
             @Override
             public void shutdown() throws Throwable
             {
-                logOutputStream.close();
+                logOutput.close();
             }
         };
     }
@@ -95,16 +140,29 @@ public class QueryLoggerKernelExtension extends KernelExtensionFactory<QueryLogg
     {
         private static final MetadataKey<Long> START_TIME = new MetadataKey<>( Long.class, "start time" );
         private static final MetadataKey<String> QUERY_STRING = new MetadataKey<>( String.class, "query string" );
+        private static final MetadataKey<ResourcesAtStart> RESOURCES_AT_START =
+                new MetadataKey<>( ResourcesAtStart.class, "resources at start" );
 
         private final Clock clock;
         private final Log log;
         private final long thresholdMillis;
+        private final ThreadResources resources;
 
         public QueryLogger( Clock clock, Log log, long thresholdMillis )
+        {
+            this( clock, log, thresholdMillis, ThreadResources.NONE );
+        }
+
+        /**
+         * @param resources for logging what resources each query used, in addition to how long it took. Not
+         * logged for {@link ThreadResources#NONE}.
+         */
+        public QueryLogger( Clock clock, Log log, long thresholdMillis, ThreadResources resources )
         {
             this.clock = clock;
             this.log = log;
             this.thresholdMillis = thresholdMillis;
+            this.resources = resources;
         }
 
         @Override
@@ -113,6 +171,10 @@ public class QueryLoggerKernelExtension extends KernelExtensionFactory<QueryLogg
             long startTime = clock.currentTimeMillis();
             Object oldTime = session.put( START_TIME, startTime );
             Object oldQuery = session.put( QUERY_STRING, query );
+            if ( resources != ThreadResources.NONE )
+            {
+                session.put( RESOURCES_AT_START, new ResourcesAtStart( resources ) );
+            }
             if ( oldTime != null || oldQuery != null )
             {
                 log.error( "Concurrent queries for session %s: \"%s\" @ %s and \"%s\" @ %s",
@@ -125,11 +187,12 @@ public class QueryLoggerKernelExtension extends KernelExtensionFactory<QueryLogg
         {
             String query = session.remove( QUERY_STRING );
             Long startTime = session.remove( START_TIME );
+            ResourcesAtStart resourcesAtStart = session.remove( RESOURCES_AT_START );
             if ( startTime != null )
             {
                 long time = clock.currentTimeMillis() - startTime;
-                log.error( String.format( "%d ms: %s - %s", time, session.toString(),
-                        query == null ? "<unknown query>" : query ), failure );
+                log.error( String.format( "%d ms: %s - %s%s", time, session.toString(),
+                        query == null ? "<unknown query>" : query, resourceUsage( resourcesAtStart ) ), failure );
             }
         }
 
@@ -138,15 +201,63 @@ public class QueryLoggerKernelExtension extends KernelExtensionFactory<QueryLogg
         {
             String query = session.remove( QUERY_STRING );
             Long startTime = session.remove( START_TIME );
+            ResourcesAtStart resourcesAtStart = session.remove( RESOURCES_AT_START );
             if ( startTime != null )
             {
                 long time = clock.currentTimeMillis() - startTime;
                 if ( time >= thresholdMillis )
                 {
-                    log.info( "%d ms: %s - %s", time, session.toString(),
-                            query == null ? "<unknown query>" : query );
+                    if ( resourcesAtStart == null )
+                    {
+                        log.info( "%d ms: %s - %s", time, session.toString(),
+                                query == null ? "<unknown query>" : query );
+                    }
+                    else
+                    {
+                        log.info( "%d ms: %s - %s%s", time, session.toString(),
+                                query == null ? "<unknown query>" : query, resourceUsage( resourcesAtStart ) );
+                    }
                 }
             }
         }
+
+        private String resourceUsage( ResourcesAtStart atStart )
+        {
+            if ( atStart == null )
+            {
+                return "";
+            }
+            // What the thread used is only what the query used if the query ended on the thread it started on
+            boolean sameThread = atStart.threadId == Thread.currentThread().getId();
+            return String.format( " - {allocated: %s bytes, cpu: %s ms, page hits: %s, page faults: %s}",
+                    used( sameThread, atStart.allocatedBytes, resources.allocatedBytes() ),
+                    used( sameThread, atStart.cpuTimeMillis, resources.cpuTimeMillis() ),
+                    used( sameThread, atStart.pageHits, resources.pageHits() ),
+                    used( sameThread, atStart.pageFaults, resources.pageFaults() ) );
+        }
+
+        private static String used( boolean sameThread, long atStart, long atEnd )
+        {
+            return !sameThread || atStart == ThreadResources.UNKNOWN || atEnd == ThreadResources.UNKNOWN
+                   ? "?" : String.valueOf( atEnd - atStart );
+        }
+
+        private static class ResourcesAtStart
+        {
+            private final long threadId;
+            private final long allocatedBytes;
+            private final long cpuTimeMillis;
+            private final long pageHits;
+            private final long pageFaults;
+
+            ResourcesAtStart( ThreadResources resources )
+            {
+                this.threadId = Thread.currentThread().getId();
+                this.allocatedBytes = resources.allocatedBytes();
+                this.cpuTimeMillis = resources.cpuTimeMillis();
+                this.pageHits = resources.pageHits();
+                this.pageFaults = resources.pageFaults();
+            }
+        }
     }
 }
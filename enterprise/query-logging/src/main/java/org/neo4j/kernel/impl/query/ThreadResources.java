@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.query;
+
+/**
+ * Samples how much of some resources the current thread has used so far. The difference between a sample taken
+ * when a query starts and one taken when it ends is what the query used, given that it ran on that thread
+ * throughout.
+ */
+public interface ThreadResources
+{
+    /**
+     * Returned for resources which can't be measured in this JVM.
+     */
+    long UNKNOWN = -1;
+
+    /**
+     * @return the number of bytes of heap the current thread has allocated so far, or {@link #UNKNOWN}.
+     */
+    long allocatedBytes();
+
+    /**
+     * @return the number of milliseconds of CPU time the current thread has used so far, or {@link #UNKNOWN}.
+     */
+    long cpuTimeMillis();
+
+    /**
+     * @return the number of page cache hits the current thread has had so far, or {@link #UNKNOWN}.
+     */
+    long pageHits();
+
+    /**
+     * @return the number of page faults the current thread has caused so far, or {@link #UNKNOWN}.
+     */
+    long pageFaults();
+
+    ThreadResources NONE = new ThreadResources()
+    {
+        @Override
+        public long allocatedBytes()
+        {
+            return UNKNOWN;
+        }
+
+        @Override
+        public long cpuTimeMillis()
+        {
+            return UNKNOWN;
+        }
+
+        @Override
+        public long pageHits()
+        {
+            return UNKNOWN;
+        }
+
+        @Override
+        public long pageFaults()
+        {
+            return UNKNOWN;
+        }
+    };
+}
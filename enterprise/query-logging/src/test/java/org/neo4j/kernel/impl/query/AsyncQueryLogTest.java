@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.query;
+
+import org.junit.Test;
+
+import org.neo4j.logging.AssertableLogProvider;
+
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.neo4j.logging.AssertableLogProvider.inLog;
+
+public class AsyncQueryLogTest
+{
+    private final AssertableLogProvider logProvider = new AssertableLogProvider();
+
+    @Test
+    public void shouldWriteMessagesLoggedBeforeStopped() throws Exception
+    {
+        // given
+        AsyncQueryLog log = new AsyncQueryLog( logProvider.getLog( getClass() ), 16 );
+        Thread writer = new Thread( log );
+        writer.start();
+        RuntimeException failure = new RuntimeException();
+
+        // when
+        log.info( "%d ms: %s", 11L, "first" );
+        log.warn( "second" );
+        log.error( "third", failure );
+        log.stop();
+        writer.join();
+
+        // then
+        logProvider.assertExactly(
+                inLog( getClass() ).info( "%d ms: %s", 11L, "first" ),
+                inLog( getClass() ).warn( "second" ),
+                inLog( getClass() ).error( is( "third" ), sameInstance( failure ) )
+        );
+    }
+
+    @Test( timeout = 5000 )
+    public void shouldWriteMessagesWhenStoppedWithoutWriterEverStarting() throws Exception
+    {
+        // given
+        AsyncQueryLog log = new AsyncQueryLog( logProvider.getLog( getClass() ), 16 );
+        log.info( "first" );
+
+        // when
+        log.stop();
+        Thread writer = new Thread( log );
+        writer.start();
+        writer.join();
+
+        // then
+        logProvider.assertExactly( inLog( getClass() ).info( "first" ) );
+    }
+
+    @Test
+    public void shouldDropMessagesWhenFullAndLogHowManyWereDropped() throws Exception
+    {
+        // given
+        AsyncQueryLog log = new AsyncQueryLog( logProvider.getLog( getClass() ), 2 );
+
+        // when
+        for ( int i = 0; i < 5; i++ )
+        {
+            log.info( "message %d", i );
+        }
+        Thread writer = new Thread( log );
+        writer.start();
+        log.stop();
+        writer.join();
+
+        // then
+        logProvider.assertExactly(
+                inLog( getClass() ).info( "message %d", 0 ),
+                inLog( getClass() ).info( "message %d", 1 ),
+                inLog( getClass() ).warn( "%d query log messages were dropped, since they were logged faster than " +
+                                          "they could be written", 3L )
+        );
+    }
+}
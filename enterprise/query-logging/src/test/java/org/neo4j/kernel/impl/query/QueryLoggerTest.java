@@ -130,6 +130,94 @@ public class QueryLoggerTest
         );
     }
 
+    @Test
+    public void shouldLogResourcesUsedByQuery() throws Exception
+    {
+        // given
+        final AssertableLogProvider logProvider = new AssertableLogProvider();
+        QuerySession session = session( SESSION_1_NAME );
+        FakeClock clock = new FakeClock();
+        FakeThreadResources resources = new FakeThreadResources();
+        QueryLogger queryLogger = new QueryLogger( clock, logProvider.getLog( getClass() ), 10/*ms*/, resources );
+
+        // when
+        resources.allocatedBytes = 100;
+        resources.cpuTimeMillis = 2;
+        resources.pageHits = 1000;
+        resources.pageFaults = 40;
+        queryLogger.startQueryExecution( session, QUERY_1 );
+        clock.forward( 11, TimeUnit.MILLISECONDS );
+        resources.allocatedBytes = 1124;
+        resources.cpuTimeMillis = 7;
+        resources.pageHits = 1020;
+        resources.pageFaults = 43;
+        queryLogger.endSuccess( session );
+
+        // then
+        logProvider.assertExactly(
+                inLog( getClass() ).info( "%d ms: %s - %s%s", 11L, SESSION_1_NAME, QUERY_1,
+                        " - {allocated: 1024 bytes, cpu: 5 ms, page hits: 20, page faults: 3}" )
+        );
+    }
+
+    @Test
+    public void shouldLogUnknownResourcesAsSuch() throws Exception
+    {
+        // given
+        final AssertableLogProvider logProvider = new AssertableLogProvider();
+        QuerySession session = session( SESSION_1_NAME );
+        FakeClock clock = new FakeClock();
+        FakeThreadResources resources = new FakeThreadResources();
+        resources.allocatedBytes = ThreadResources.UNKNOWN;
+        resources.pageHits = ThreadResources.UNKNOWN;
+        resources.pageFaults = ThreadResources.UNKNOWN;
+        QueryLogger queryLogger = new QueryLogger( clock, logProvider.getLog( getClass() ), 10/*ms*/, resources );
+        RuntimeException failure = new RuntimeException();
+
+        // when
+        queryLogger.startQueryExecution( session, QUERY_1 );
+        clock.forward( 1, TimeUnit.MILLISECONDS );
+        queryLogger.endFailure( session, failure );
+
+        // then
+        logProvider.assertExactly(
+                inLog( getClass() ).error( is( "1 ms: {session one} - MATCH (n) RETURN n - {allocated: ? bytes, " +
+                                               "cpu: 0 ms, page hits: ?, page faults: ?}" ), sameInstance( failure ) )
+        );
+    }
+
+    private static class FakeThreadResources implements ThreadResources
+    {
+        long allocatedBytes;
+        long cpuTimeMillis;
+        long pageHits;
+        long pageFaults;
+
+        @Override
+        public long allocatedBytes()
+        {
+            return allocatedBytes;
+        }
+
+        @Override
+        public long cpuTimeMillis()
+        {
+            return cpuTimeMillis;
+        }
+
+        @Override
+        public long pageHits()
+        {
+            return pageHits;
+        }
+
+        @Override
+        public long pageFaults()
+        {
+            return pageFaults;
+        }
+    }
+
     private static QuerySession session( final String data )
     {
         return new QuerySession()